@@ -1,5 +1,13 @@
 package com.officeduel.cli;
 
+import com.officeduel.engine.bot.Bots;
+import com.officeduel.engine.bot.GreedyPolicy;
+import com.officeduel.engine.bot.IsmctsPolicy;
+import com.officeduel.engine.bot.LinearEvaluator;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.PolicyTable;
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.bot.TablePolicy;
 import com.officeduel.engine.cards.CardDefinitionSet;
 import com.officeduel.engine.loader.CardDefinitionLoader;
 import com.officeduel.engine.core.DeterministicRng;
@@ -10,9 +18,35 @@ import com.officeduel.engine.model.GameState;
 import com.officeduel.engine.model.PlayerState;
 import com.officeduel.engine.telemetry.StdoutTelemetry;
 import com.officeduel.engine.telemetry.Telemetry;
+import com.officeduel.engine.replay.Replay;
 import com.officeduel.engine.replay.ReplaySerializer;
+import com.officeduel.engine.sim.CardBalanceOptimizer;
+import com.officeduel.engine.sim.CardBalanceStats;
+import com.officeduel.engine.sim.CardSetComparison;
+import com.officeduel.engine.sim.ColumnarResultReader;
+import com.officeduel.engine.sim.CounterfactualReplay;
+import com.officeduel.engine.sim.EvaluatorTrainer;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.ParameterSweep;
+import com.officeduel.engine.sim.SeedHunter;
+import com.officeduel.engine.sim.SeedRange;
+import com.officeduel.engine.sim.SelfPlayTrainer;
+import com.officeduel.engine.sim.ShardCoordinator;
+import com.officeduel.engine.sim.ShardWorker;
+import com.officeduel.engine.sim.SimulationCheckpoint;
+import com.officeduel.engine.sim.SimulationResultCache;
+import com.officeduel.engine.sim.SimulationRunner;
+import com.officeduel.engine.sim.SynergyMatrix;
+import com.officeduel.engine.sim.Tournament;
 
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class Main {
     public static void main(String[] args) {
@@ -22,6 +56,79 @@ public class Main {
             CardDefinitionSet defs = CardDefinitionLoader.load(cardsPath);
             System.out.println("Loaded cards: " + defs.cards().size());
 
+            if (args.length > 0 && args[0].equals("balance")) {
+                runBalance(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("synergy")) {
+                runSynergy(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("tournament")) {
+                runTournament(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("columns")) {
+                runColumns(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("cached-balance")) {
+                runCachedBalance(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("hunt")) {
+                runHunt(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("ismcts-bench")) {
+                runIsmctsBench(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("train-eval")) {
+                runTrainEval(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("train-table")) {
+                runTrainTable(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("archive")) {
+                runArchive(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("counterfactual")) {
+                runCounterfactual(args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("ab")) {
+                runAb(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("optimize")) {
+                runOptimize(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("sweep")) {
+                runSweep(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("coordinator")) {
+                runCoordinator(defs, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("worker")) {
+                int threads = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+                int shards = ShardWorker.run(new MatchSimulator(defs), args[1], Integer.parseInt(args[2]), threads);
+                System.out.println("Worker finished " + shards + " shards");
+                return;
+            }
+            if (args.length > 0 && args[0].equals("scan")) {
+                try (ColumnarResultReader reader = new ColumnarResultReader(Path.of(args.length > 1 ? args[1] : "sim-columns"))) {
+                    System.out.print(reader.summary());
+                }
+                return;
+            }
+
             long seed = args.length > 0 ? Long.parseLong(args[0]) : 123456789L;
             DeterministicRng rng = new DeterministicRng(seed);
             GameState gs = new GameState(rng);
@@ -71,7 +178,7 @@ public class Main {
                 System.out.println("Match ended in " + turns + " turns. LP A=" + gs.getPlayerA().getLifePoints() + ", B=" + gs.getPlayerB().getLifePoints());
                 if (args.length > 2) {
                     java.nio.file.Path out = java.nio.file.Path.of(args[2]);
-                    var replay = ReplaySerializer.fromGameState(gs);
+                    var replay = ReplaySerializer.fromGameState(gs, defs.cards().size());
                     ReplaySerializer.writeTo(out, replay);
                     System.out.println("Wrote replay to " + out);
                 }
@@ -81,6 +188,340 @@ public class Main {
             System.exit(1);
         }
     }
-}
 
+    // balance <seed> <matches> [threads] [checkpoint.json]
+    private static void runBalance(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        long matches = args.length > 2 ? Long.parseLong(args[2]) : 10_000L;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        MatchSimulator sim = new MatchSimulator(defs);
+        SeedRange seeds = new SeedRange(seed, matches);
+        SimulationCheckpoint<CardBalanceStats> checkpoint = args.length > 4
+                ? SimulationCheckpoint.forBalance(Path.of(args[4]),
+                        SimulationCheckpoint.configHash(sim, seeds, SimulationRunner.DEFAULT_CHUNK, "random,random"),
+                        Duration.ofSeconds(30), sim.index())
+                : null;
+        long t0 = System.nanoTime();
+        CardBalanceStats stats = SimulationRunner.runBalance(sim, seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, threads, checkpoint);
+        System.out.print(stats.report());
+        System.out.printf("%d matches in %.1fs on %d threads%n", stats.games(), (System.nanoTime() - t0) / 1e9, threads);
+    }
+
+    // cached-balance <seed> <matches> [threads] [cacheDir] [maxMB]; reuses earlier runs of the same card file
+    private static void runCachedBalance(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        long matches = args.length > 2 ? Long.parseLong(args[2]) : 10_000L;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        Path dir = Path.of(args.length > 4 ? args[4] : "sim-cache");
+        long maxBytes = (args.length > 5 ? Long.parseLong(args[5]) : 256L) << 20;
+        MatchSimulator sim = new MatchSimulator(defs);
+        SimulationResultCache cache = new SimulationResultCache(dir, maxBytes);
+        long t0 = System.nanoTime();
+        SimulationResultCache.Result r = cache.balance(sim, SimulationResultCache.key(sim, "default", "random,random"),
+                new SeedRange(seed, matches), RandomPolicy.FACTORY, RandomPolicy.FACTORY, threads);
+        System.out.print(r.stats().report());
+        System.out.printf("%d matches (%d cached, %d played) in %.1fs, cache %d KiB%n", r.stats().games(), r.cachedGames(),
+                r.computedGames(), (System.nanoTime() - t0) / 1e9, cache.sizeOnDisk() >> 10);
+    }
+
+    // synergy <seed> <gamesPerArm> [archive.json] [threads]
+    private static void runSynergy(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        Path archive = Path.of(args.length > 3 ? args[3] : "synergy-arms.json");
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        SynergyMatrix matrix = new SynergyMatrix(new MatchSimulator(defs), seed, games);
+        matrix.loadArms(archive);
+        long t0 = System.nanoTime();
+        int computed = matrix.compute(threads);
+        matrix.saveArms(archive);
+        System.out.print(matrix.report(15));
+        System.out.printf("%d arms simulated in %.1fs, archive %s%n", computed, (System.nanoTime() - t0) / 1e9, archive);
+    }
+
+    // tournament <seed> <gamesPerPairing> <rounds> <bot,bot,...> [swiss] [threads]
+    private static void runTournament(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        String[] bots = (args.length > 4 ? args[4] : String.join(",", Bots.NAMES)).split(",");
+        Tournament.Format format = args.length > 5 && args[5].equals("swiss") ? Tournament.Format.SWISS : Tournament.Format.ROUND_ROBIN;
+        int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+        MatchSimulator sim = new MatchSimulator(defs);
+        List<Tournament.Entrant> entrants = new ArrayList<>();
+        for (String b : bots) entrants.add(new Tournament.Entrant(b, Bots.load(b, sim.index())));
+        long t0 = System.nanoTime();
+        var standings = new Tournament(sim, entrants, seed, games).run(format, rounds, threads);
+        System.out.print(Tournament.table(standings));
+        System.out.printf("%s, %d rounds in %.1fs%n", format, rounds, (System.nanoTime() - t0) / 1e9);
+    }
+
+    // columns <seed> <matches> [dir] [threads]
+    private static void runColumns(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        long matches = args.length > 2 ? Long.parseLong(args[2]) : 10_000L;
+        Path dir = Path.of(args.length > 3 ? args[3] : "sim-columns");
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long t0 = System.nanoTime();
+        long rows = SimulationRunner.writeColumns(new MatchSimulator(defs), new SeedRange(seed, matches),
+                RandomPolicy.FACTORY, RandomPolicy.FACTORY, dir, threads);
+        System.out.printf("%d rows written to %s in %.1fs on %d threads%n", rows, dir, (System.nanoTime() - t0) / 1e9, threads);
+    }
 
+    // coordinator <seed> <matches> <spawnWorkers> [shardSize] [port] [bindAddress]
+    private static void runCoordinator(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        long matches = args.length > 2 ? Long.parseLong(args[2]) : 100_000L;
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int shardSize = args.length > 4 ? Integer.parseInt(args[4]) : 8 * SimulationRunner.DEFAULT_CHUNK;
+        int port = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+        InetAddress bind = args.length > 6 ? InetAddress.getByName(args[6]) : InetAddress.getLoopbackAddress();
+        long t0 = System.nanoTime();
+        try (ShardCoordinator coordinator = new ShardCoordinator(new MatchSimulator(defs), new SeedRange(seed, matches),
+                shardSize, "random", "random", bind, port)) {
+            coordinator.start();
+            System.out.println("Coordinator listening on " + bind.getHostAddress() + ":" + coordinator.port());
+            coordinator.spawnWorkers(workers, 1, Path.of("").toAbsolutePath());
+            CardBalanceStats stats = coordinator.await();
+            System.out.print(stats.report());
+            System.out.printf("%d matches in %.1fs on %d spawned workers%n", stats.games(), (System.nanoTime() - t0) / 1e9, workers);
+        }
+    }
+
+    // sweep <seed> <winPoints,...> <handSizes,...> <copiesPerCard,...> <amountScales,...> [threads]
+    private static void runSweep(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        int[] winPoints = parseInts(args.length > 2 ? args[2] : "4,5,6");
+        int[] hands = parseInts(args.length > 3 ? args[3] : "4");
+        int[] copies = parseInts(args.length > 4 ? args[4] : "3");
+        double[] scales = Arrays.stream((args.length > 5 ? args[5] : "1.0").split(",")).mapToDouble(Double::parseDouble).toArray();
+        int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+        ParameterSweep.Settings settings = ParameterSweep.Settings.DEFAULT;
+        long t0 = System.nanoTime();
+        var results = new ParameterSweep(defs, seed, ParameterSweep.grid(winPoints, hands, copies, scales), settings).run(threads);
+        System.out.print(ParameterSweep.table(results, settings));
+        System.out.printf("sweep took %.1fs on %d threads%n", (System.nanoTime() - t0) / 1e9, threads);
+    }
+
+    private static int[] parseInts(String csv) {
+        return Arrays.stream(csv.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    // hunt <seed> <matches> [findings.jsonl] [botA] [botB] [threads]
+    private static void runHunt(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        long matches = args.length > 2 ? Long.parseLong(args[2]) : 100_000L;
+        Path out = Path.of(args.length > 3 ? args[3] : "findings.jsonl");
+        MatchSimulator sim = new MatchSimulator(defs);
+        var policyA = Bots.load(args.length > 4 ? args[4] : "random", sim.index());
+        var policyB = Bots.load(args.length > 5 ? args[5] : "random", sim.index());
+        int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+        long t0 = System.nanoTime();
+        SeedHunter.Hunt hunt = new SeedHunter(sim, policyA, policyB, SeedHunter.Settings.DEFAULT)
+                .run(new SeedRange(seed, matches), threads);
+        System.out.print(hunt.report());
+        // One reproducing replay per line, readable by the counterfactual command
+        try (Writer w = Files.newBufferedWriter(out)) {
+            for (SeedHunter.Finding f : hunt.findings()) ReplaySerializer.appendTo(w, f.repro());
+        }
+        System.out.printf("Hunt took %.1fs on %d threads, %d reproducing logs in %s%n",
+                (System.nanoTime() - t0) / 1e9, threads, hunt.findings().size(), out);
+    }
+
+    // ismcts-bench <seed> <games> [millis per decision] [max threads]; search at 1, 2, 4, ... threads vs a single-threaded bot, seats alternating
+    private static void runIsmctsBench(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+        long millis = args.length > 3 ? Long.parseLong(args[3]) : 150L;
+        int maxThreads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        MatchSimulator sim = new MatchSimulator(defs);
+        IsmctsPolicy.Settings single = new IsmctsPolicy.Settings(Integer.MAX_VALUE, millis, 0.7, 40);
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < maxThreads; t *= 2) threadCounts.add(t);
+        threadCounts.add(maxThreads);
+        System.out.printf("%d games per row at %dms per decision, threads %s vs 1 (%d cores)%n",
+                games, millis, threadCounts, Runtime.getRuntime().availableProcessors());
+        // Warm the JIT so the first row is not measured cold
+        sim.play(seed - 1, new IsmctsPolicy(sim.index(), single, 0), new IsmctsPolicy(sim.index(), single, 1), null);
+        for (int threads : threadCounts) {
+            for (IsmctsPolicy.Parallelism mode : IsmctsPolicy.Parallelism.values()) {
+                // One thread searches the same way in either mode
+                if (threads == 1 && mode != IsmctsPolicy.Parallelism.ROOT) continue;
+                IsmctsPolicy.Settings parallel = single.withThreads(threads, mode);
+                int wins = 0;
+                int draws = 0;
+                CountingPolicy[] totals = { new CountingPolicy(null), new CountingPolicy(null) };
+                for (int k = 0; k < games; k++) {
+                    long s = seed + k;
+                    int seat = k % 2; // seat of the parallel bot
+                    CountingPolicy[] p = new CountingPolicy[2];
+                    p[seat] = new CountingPolicy(new IsmctsPolicy(sim.index(), parallel, DeterministicRng.substream(s, seat)));
+                    p[1 - seat] = new CountingPolicy(new IsmctsPolicy(sim.index(), single, DeterministicRng.substream(s, 1 - seat)));
+                    var outcome = sim.play(s, p[0], p[1], null);
+                    if (outcome.winner() == seat) wins++;
+                    else if (outcome.isDraw()) draws++;
+                    totals[0].add(p[seat]);
+                    totals[1].add(p[1 - seat]);
+                }
+                System.out.printf("%3d threads %-4s  %,10.0f it/s  single %,10.0f it/s  speedup %.2fx  wins %d, draws %d, losses %d (%.1f%%)%n",
+                        threads, threads == 1 ? "" : mode, totals[0].rate(), totals[1].rate(), totals[0].rate() / totals[1].rate(),
+                        wins, draws, games - wins - draws, 100.0 * (wins + 0.5 * draws) / games);
+            }
+        }
+    }
+
+    /** Counts the search iterations and time a bot spends deciding. */
+    private static final class CountingPolicy implements Policy {
+        private final IsmctsPolicy inner;
+        long iterations;
+        long nanos;
+
+        CountingPolicy(IsmctsPolicy inner) {
+            this.inner = inner;
+        }
+
+        @Override
+        public Offer chooseOffer(GameState state, int seat) {
+            long t0 = System.nanoTime();
+            Offer o = inner.chooseOffer(state, seat);
+            record(t0);
+            return o;
+        }
+
+        @Override
+        public boolean chooseFaceUp(GameState state, int seat) {
+            long t0 = System.nanoTime();
+            boolean up = inner.chooseFaceUp(state, seat);
+            record(t0);
+            return up;
+        }
+
+        private void record(long t0) {
+            nanos += System.nanoTime() - t0;
+            iterations += inner.lastIterations();
+        }
+
+        void add(CountingPolicy o) {
+            iterations += o.iterations;
+            nanos += o.nanos;
+        }
+
+        double rate() {
+            return nanos == 0 ? 0 : iterations * 1e9 / nanos;
+        }
+    }
+
+    // train-eval <seed> <matches> [weights.json] [bot] [threads]; holds out a quarter as many seeds after the training block
+    private static void runTrainEval(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        long matches = args.length > 2 ? Long.parseLong(args[2]) : 4_000L;
+        Path out = Path.of(args.length > 3 ? args[3] : "evaluator.json");
+        String bot = args.length > 4 ? args[4] : "greedy";
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        MatchSimulator sim = new MatchSimulator(defs);
+        Policy.Factory policy = Bots.load(bot, sim.index());
+        long t0 = System.nanoTime();
+        EvaluatorTrainer.Report report = new EvaluatorTrainer(sim, EvaluatorTrainer.Settings.DEFAULT, threads)
+                .train(new SeedRange(seed, matches), new SeedRange(seed + matches, Math.max(1, matches / 4)), policy, policy);
+        report.evaluator().write(out, report.positions(), report.holdoutLogLoss());
+        System.out.printf("%d positions from %s self-play: log loss %.4f train, %.4f holdout (dot counter %.4f), holdout accuracy %.1f%%%n",
+                report.positions(), bot, report.trainLogLoss(), report.holdoutLogLoss(), report.baselineLogLoss(),
+                100 * report.holdoutAccuracy());
+        System.out.printf("Wrote %s (format %d) in %.1fs on %d threads%n", out, LinearEvaluator.FORMAT, (System.nanoTime() - t0) / 1e9, threads);
+    }
+
+    // train-table <seed> <rounds> <gamesPerRound> [table.bin] [threads]; then scores the table against greedy on fresh seeds
+    private static void runTrainTable(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        SelfPlayTrainer.Settings d = SelfPlayTrainer.Settings.DEFAULT;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : d.rounds();
+        long perRound = args.length > 3 ? Long.parseLong(args[3]) : d.gamesPerRound();
+        Path out = Path.of(args.length > 4 ? args[4] : "policy-table.bin");
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        MatchSimulator sim = new MatchSimulator(defs);
+        SelfPlayTrainer.Settings settings = new SelfPlayTrainer.Settings(rounds, perRound, d.epsilon(), d.maxCount(), d.tableEntries(), d.minVisits());
+        long t0 = System.nanoTime();
+        SelfPlayTrainer trainer = new SelfPlayTrainer(sim, settings, threads);
+        SelfPlayTrainer.Report report = trainer.train(seed);
+        long states = trainer.export(out);
+        System.out.printf("%d self-play games, %d decisions, %d state-action values (%d not stored); wrote %d states to %s in %.1fs on %d threads%n",
+                report.games(), report.decisions(), report.pairs(), report.dropped(), states, out, (System.nanoTime() - t0) / 1e9, threads);
+
+        PolicyTable table = PolicyTable.open(out, sim.index());
+        int games = 2000;
+        int wins = 0, draws = 0;
+        long hits = 0, misses = 0;
+        for (int k = 0; k < games; k++) {
+            long s = seed + rounds * perRound + k;
+            int seat = k % 2; // seat of the table bot
+            TablePolicy bot = new TablePolicy(sim.index(), table, new GreedyPolicy(sim.index()));
+            Policy greedy = new GreedyPolicy(sim.index());
+            var outcome = seat == 0 ? sim.play(s, bot, greedy, null) : sim.play(s, greedy, bot, null);
+            if (outcome.winner() == seat) wins++;
+            else if (outcome.isDraw()) draws++;
+            hits += bot.hits();
+            misses += bot.misses();
+        }
+        System.out.printf("Table over greedy vs greedy: wins %d, draws %d, losses %d (%.1f%%); %.1f%% of decisions from the table%n",
+                wins, draws, games - wins - draws, 100.0 * (wins + 0.5 * draws) / games, 100.0 * hits / Math.max(1, hits + misses));
+    }
+
+    // archive <seed> <matches> <out.jsonl> [botA] [botB] [threads]
+    private static void runArchive(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        long matches = args.length > 2 ? Long.parseLong(args[2]) : 10_000L;
+        Path out = Path.of(args.length > 3 ? args[3] : "matches.jsonl");
+        MatchSimulator sim = new MatchSimulator(defs);
+        var policyA = Bots.load(args.length > 4 ? args[4] : "random", sim.index());
+        var policyB = Bots.load(args.length > 5 ? args[5] : "random", sim.index());
+        int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+        try (Writer w = Files.newBufferedWriter(out)) {
+            long n = CounterfactualReplay.archive(sim, new SeedRange(seed, matches), policyA, policyB, w, threads);
+            System.out.println("Archived " + n + " matches to " + out);
+        }
+    }
+
+    // counterfactual <archive.jsonl> <revisedCards.txt> [threads]; diverged matches are finished by random bots
+    private static void runCounterfactual(String[] args) throws Exception {
+        List<Replay> archive = ReplaySerializer.readArchive(Path.of(args[1]));
+        CardDefinitionSet revised = CardDefinitionLoader.load(Path.of(args[2]));
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long t0 = System.nanoTime();
+        CounterfactualReplay.Summary summary = new CounterfactualReplay(new MatchSimulator(revised), RandomPolicy.FACTORY)
+                .run(archive, threads);
+        System.out.print(summary.report());
+        System.out.printf("Counterfactual took %.1fs on %d threads%n", (System.nanoTime() - t0) / 1e9, threads);
+    }
+
+    // ab <revisedCards.txt> <seed> <matches> [threads]; compares against the default card file
+    private static void runAb(CardDefinitionSet defs, String[] args) throws Exception {
+        CardDefinitionSet revised = CardDefinitionLoader.load(Path.of(args[1]));
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 123456789L;
+        long matches = args.length > 3 ? Long.parseLong(args[3]) : 20_000L;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long t0 = System.nanoTime();
+        CardSetComparison.Result result = new CardSetComparison(new MatchSimulator(defs), new MatchSimulator(revised))
+                .run(new SeedRange(seed, matches), RandomPolicy.FACTORY, RandomPolicy.FACTORY, threads);
+        System.out.print(CardSetComparison.report(result));
+        System.out.printf("A/B took %.1fs on %d threads%n", (System.nanoTime() - t0) / 1e9, threads);
+    }
+
+    // optimize <seed> <generations> <gamesPerEval> [out.json] [parity=1,flat=0,length=0,turns=18] [threads]
+    private static void runOptimize(CardDefinitionSet defs, String[] args) throws Exception {
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 123456789L;
+        int generations = args.length > 2 ? Integer.parseInt(args[2]) : CardBalanceOptimizer.Settings.DEFAULT.generations();
+        int games = args.length > 3 ? Integer.parseInt(args[3]) : CardBalanceOptimizer.Settings.DEFAULT.gamesPerEval();
+        Path out = Path.of(args.length > 4 ? args[4] : "optimized-cards.json");
+        CardBalanceOptimizer.Objective objective = args.length > 5 ? CardBalanceOptimizer.Objective.parse(args[5]) : CardBalanceOptimizer.Objective.PARITY;
+        int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+        CardBalanceOptimizer.Settings d = CardBalanceOptimizer.Settings.DEFAULT;
+        CardBalanceOptimizer optimizer = new CardBalanceOptimizer(defs, CardBalanceOptimizer.allFields(), objective,
+                new CardBalanceOptimizer.Settings(d.population(), d.elites(), generations, games), seed, RandomPolicy.FACTORY);
+        System.out.println(optimizer.genes().size() + " tunable numbers, objective " + objective);
+        long t0 = System.nanoTime();
+        CardBalanceOptimizer.Candidate best = optimizer.run(threads, System.out::println);
+        CardDefinitionLoader.write(out, optimizer.apply(best.genome()));
+        System.out.print(optimizer.describeChanges(best.genome()));
+        System.out.printf("best loss %.6f written to %s in %.1fs%n", best.loss(), out, (System.nanoTime() - t0) / 1e9);
+    }
+}
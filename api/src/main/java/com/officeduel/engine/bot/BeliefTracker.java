@@ -0,0 +1,196 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.model.TurnCommand;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * What one seat believes about the cards it cannot see: how many copies of each card are in the opponent's hand
+ * and deck together, and per card a weight for being in hand rather than deck.
+ *
+ * <p>The counts come from public information only. Cards only move between zones, so every copy dealt to either
+ * deck ({@link GameState#getInitialDeckA} plus the standard copies of each card) is in a zone the seat can see,
+ * in its own hand or deck, revealed in the opponent's hand, or unseen. The weights model the opponent's
+ * offers: a card is less likely to be held when weaker ones are offered instead ({@link Settings#rationality},
+ * for an opponent that plays its best cards). Each command the opponent plays is folded in once and then diluted
+ * by the cards it draws to refill, so catching up costs time in the number of new commands times the number of
+ * cards.
+ *
+ * <p>{@link #sample} deals the unseen copies into a copy of the position, a cheap honest replacement for
+ * {@link IsmctsPolicy#determinize}. Call {@link #observe} with the real position before sampling from it; samples
+ * may then be drawn from several threads.
+ */
+public final class BeliefTracker {
+    /**
+     * {@code rationality} is how sharply the opponent is assumed to offer its most valuable cards, per point of
+     * {@link GreedyPolicy#cardValue}; 0 assumes nothing and samples hands uniformly.
+     */
+    public record Settings(double rationality) {
+        public static final Settings DEFAULT = new Settings(0.5);
+    }
+
+    private final CardIndex index;
+    private final int seat;
+    private final Settings settings;
+    private final int[] unseen;
+    private final double[] weight;
+    private final Cards[] cards;
+    private IsmctsPolicy.HiddenHand hidden;
+    private int commandsSeen;
+
+    public BeliefTracker(CardIndex index, int seat, Settings settings) {
+        this.index = index;
+        this.seat = seat;
+        this.settings = settings;
+        this.unseen = new int[index.size()];
+        this.weight = new double[index.size()];
+        Arrays.fill(weight, 1.0);
+        this.cards = new Cards[index.size()];
+        for (int i = 0; i < cards.length; i++) cards[i] = new Cards(index.cardAt(i).id());
+    }
+
+    /** {@code current} when it tracks {@code seat}, else a new tracker; either way brought up to date with {@code real}. */
+    static BeliefTracker observe(BeliefTracker current, CardIndex index, GameState real, int seat) {
+        BeliefTracker t = current != null && current.seat == seat ? current : new BeliefTracker(index, seat, Settings.DEFAULT);
+        t.observe(real);
+        return t;
+    }
+
+    public int seat() { return seat; }
+
+    /** Copies of the card with ordinal {@code card} the seat has not located, as of the last {@link #observe}. */
+    public int unseen(int card) { return unseen[card]; }
+
+    /** Relative weight of an unseen copy of card {@code card} being in the opponent's hand rather than its deck. */
+    public double handWeight(int card) { return weight[card]; }
+
+    /** Brings the belief up to date with {@code real}, which must be the same match as earlier calls. */
+    public void observe(GameState real) {
+        List<TurnCommand> log = real.getCommandLog();
+        if (log.size() < commandsSeen) {
+            Arrays.fill(weight, 1.0);
+            commandsSeen = 0;
+        }
+        PlayerState opp = seat == 0 ? real.getPlayerB() : real.getPlayerA();
+        List<List<String>> tableaus = real.getOfferTableaus();
+        for (; commandsSeen < log.size(); commandsSeen++) {
+            TurnCommand c = log.get(commandsSeen);
+            if (c.seat() == seat) continue;
+            List<String> tableau = commandsSeen < tableaus.size() ? tableaus.get(commandsSeen)
+                    : opp.getTableau().stream().map(Cards::cardId).toList();
+            offered(tableau, opp.getMaxHandSize(), c.faceUpId(), c.faceDownId());
+        }
+        count(real);
+    }
+
+    /**
+     * The opponent showed {@code up} and {@code down} and kept the rest of its hand: under a Boltzmann model of an
+     * opponent offering its best cards, a card worth v more than the better of the two was held with relative
+     * likelihood exp(-rationality * v). The two cards it then draws are fresh, so the evidence on each held slot
+     * is diluted by the share of the hand those draws replace. Values are tiered on {@code tableau}, the
+     * opponent's tableau when it offered, since effects may have moved its cards since.
+     */
+    private void offered(List<String> tableau, int maxHandSize, String up, String down) {
+        double offered = Math.max(GreedyPolicy.cardValue(index, tableau, up), GreedyPolicy.cardValue(index, tableau, down));
+        int hand = Math.max(2, maxHandSize);
+        double kept = (hand - 2) / (double) hand;
+        for (int i = 0; i < weight.length; i++) {
+            double v = GreedyPolicy.cardValue(index, tableau, index.cardAt(i).id()) - offered;
+            double likelihood = v > 0 ? Math.exp(-settings.rationality() * v) : 1.0;
+            weight[i] = 1.0 + (weight[i] * likelihood - 1.0) * kept;
+        }
+    }
+
+    private void count(GameState real) {
+        PlayerState self = seat == 0 ? real.getPlayerA() : real.getPlayerB();
+        PlayerState opp = seat == 0 ? real.getPlayerB() : real.getPlayerA();
+        List<String> dealtA = real.getInitialDeckA() == null ? List.of() : real.getInitialDeckA();
+        List<String> dealtB = real.getInitialDeckB() == null ? List.of() : real.getInitialDeckB();
+        int total = 0;
+        for (PlayerState p : List.of(real.getPlayerA(), real.getPlayerB())) {
+            total += p.getHand().size() + p.getDeck().size() + p.getTableau().size() + p.getDiscard().size();
+        }
+        int copies = (total - dealtA.size() - dealtB.size()) / (2 * index.size());
+        Arrays.fill(unseen, 2 * copies);
+        for (String id : dealtA) locate(id);
+        for (String id : dealtB) locate(id);
+        for (PlayerState p : List.of(real.getPlayerA(), real.getPlayerB())) {
+            for (Cards c : p.getTableau()) seen(c);
+            for (Cards c : p.getDiscard()) seen(c);
+        }
+        for (Cards c : self.getHand()) seen(c);
+        for (Cards c : self.getDeck()) seen(c);
+        hidden = IsmctsPolicy.hiddenHand(real, seat);
+        List<Integer> slots = hidden.slots();
+        for (int i = 0, h = 0; i < opp.getHand().size(); i++) {
+            if (h < slots.size() && slots.get(h) == i) h++;
+            else seen(opp.getHand().get(i));
+        }
+        // An offered card discarded before it resolves is still played, so the engine can add a card; sizes are
+        // public, so the count is brought back in line with the most plentiful cards
+        int missing = slots.size() + opp.getDeck().size();
+        for (int n : unseen) missing -= n;
+        for (; missing != 0; missing -= Integer.signum(missing)) {
+            int most = 0;
+            for (int i = 1; i < unseen.length; i++) if (unseen[i] > unseen[most]) most = i;
+            unseen[most] += Integer.signum(missing);
+        }
+    }
+
+    private void locate(String id) {
+        int i = index.ordinalOf(id);
+        if (i >= 0) unseen[i]++;
+    }
+
+    private void seen(Cards c) {
+        int i = index.ordinalOf(c.cardId());
+        if (i >= 0 && unseen[i] > 0) unseen[i]--;
+    }
+
+    /**
+     * A copy of {@code real}, the position last observed, with the seat's own deck shuffled and the unseen copies
+     * dealt: into the opponent's hidden hand slots by weight, the rest into its deck in random order. A pending
+     * face-down card is the one dealt to its slot. Future engine randomness gets a fresh stream per sample.
+     */
+    public GameState sample(GameState real, SplittableRandom rnd) {
+        GameState g = real.copy(new DeterministicRng(rnd.nextLong()));
+        PlayerState self = seat == 0 ? g.getPlayerA() : g.getPlayerB();
+        PlayerState opp = seat == 0 ? g.getPlayerB() : g.getPlayerA();
+
+        List<Cards> ownDeck = new ArrayList<>(self.getDeck());
+        IsmctsPolicy.shuffle(ownDeck, rnd);
+        self.getDeck().clear();
+        self.getDeck().addAll(ownDeck);
+
+        List<Cards> hand = opp.getHand();
+        int[] left = unseen.clone();
+        double sum = 0;
+        for (int k = 0; k < left.length; k++) sum += left[k] * weight[k];
+        for (int slot : hidden.slots()) {
+            double x = rnd.nextDouble() * sum;
+            int k = 0;
+            while (k < left.length - 1 && (x -= left[k] * weight[k]) >= 0) k++;
+            while (left[k] == 0) k--;
+            left[k]--;
+            sum -= weight[k];
+            hand.set(slot, cards[k]);
+        }
+        List<Cards> deck = new ArrayList<>(opp.getDeck().size());
+        for (int k = 0; k < left.length; k++) {
+            for (int n = 0; n < left[k]; n++) deck.add(cards[k]);
+        }
+        IsmctsPolicy.shuffle(deck, rnd);
+        opp.getDeck().clear();
+        opp.getDeck().addAll(deck);
+        if (hidden.faceDownSlot() >= 0) g.setFaceDownCardId(hand.get(hidden.faceDownSlot()).cardId());
+        return g;
+    }
+}
@@ -0,0 +1,256 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Mixed-strategy equilibria of the bluff at the heart of a turn. The active player offers two of its cards, one
+ * face up; the other seat sees the face-up card only and takes it or the hidden one; each side then resolves its card
+ * at the tier its own tableau gives it. The offerer knows which card is hidden, the picker does not, so a pick is
+ * made for every offer showing the same card at once: an information set per face-up card.
+ *
+ * <p>{@link #solve(List, Leaves, int, double)} runs CFR+ (regret matching with floored regrets and linearly weighted
+ * averages) on that zero-sum game for any leaf values, until the averages are within a tolerance of an equilibrium.
+ * {@link #solve(GameState)} solves the game of a position with each side's card worth its
+ * {@link GreedyPolicy#cardValue} dot swing for that side, and caches the result. The leaves then depend only on the
+ * offerer's hand and the tier each card has on either tableau, so that is the key: built from the offerer's side
+ * like {@link Canonical}, it is the same for a position and its mirror, and for every position that differs only in
+ * what the bluff cannot touch. Repeated subgames are then served from the cache without solving.
+ */
+public final class BluffSolver {
+    /**
+     * At most {@code iterations} of CFR+ per solve, stopping early once the {@link #exploitability} of the averages is
+     * below {@code tolerance} dots; the number of solved subgames to keep.
+     */
+    public record Settings(int iterations, double tolerance, int cacheEntries) {
+        public static final Settings DEFAULT = new Settings(1_000, 1e-3, 1 << 16);
+    }
+
+    /** Value to the offerer of offering {@code offer} when the picker takes the face-up card or not. */
+    @FunctionalInterface
+    public interface Leaves {
+        double value(Policy.Offer offer, boolean faceUp);
+    }
+
+    /**
+     * The offerer's mixed strategy over {@code offers}, the picker's chance of taking each face-up card, and the
+     * offerer's expected value under both.
+     */
+    public record Equilibrium(List<Policy.Offer> offers, double[] offerProbabilities, Map<String, Double> faceUp,
+                              double value) {
+        /** Chance the picker takes {@code faceUpId} when shown it; a half for a card the offerer never shows. */
+        public double faceUpProbability(String faceUpId) {
+            return faceUp.getOrDefault(faceUpId, 0.5);
+        }
+
+        public Policy.Offer sampleOffer(SplittableRandom rnd) {
+            double x = rnd.nextDouble();
+            for (int i = 0; i < offers.size() - 1; i++) {
+                if ((x -= offerProbabilities[i]) < 0) return offers.get(i);
+            }
+            return offers.get(offers.size() - 1);
+        }
+    }
+
+    /** Keeps these keys apart from other tables hashed from similar text. */
+    private static final long SALT = 0x426c756666L;
+    /** Iterations between exploitability checks. */
+    private static final int CHECK = 50;
+
+    private final CardIndex index;
+    private final Settings settings;
+    private final Map<Long, Equilibrium> cache;
+    private long probes;
+    private long hits;
+
+    public BluffSolver(CardIndex index, Settings settings) {
+        this.index = index;
+        this.settings = settings;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Equilibrium> eldest) {
+                return size() > settings.cacheEntries();
+            }
+        };
+    }
+
+    public synchronized long probes() { return probes; }
+    public synchronized long hits() { return hits; }
+
+    /**
+     * The bluff of {@code g} for the active player, over every offer its hand allows; the hand must hold a card.
+     * Safe from any thread.
+     */
+    public Equilibrium solve(GameState g) {
+        PlayerState offerer = g.getActivePlayer();
+        PlayerState picker = g.getInactivePlayer();
+        long key = key(offerer, picker);
+        synchronized (this) {
+            probes++;
+            Equilibrium e = cache.get(key);
+            if (e != null) {
+                hits++;
+                return e;
+            }
+        }
+        List<Policy.Offer> offers = PolicyTable.offers(offerer.getHand());
+        Equilibrium e = solve(offers, (o, up) -> {
+            String taken = up ? o.faceUpId() : o.faceDownId();
+            String kept = up ? o.faceDownId() : o.faceUpId();
+            return GreedyPolicy.cardValue(index, offerer, kept) - GreedyPolicy.cardValue(index, picker, taken);
+        }, settings.iterations(), settings.tolerance());
+        synchronized (this) {
+            cache.put(key, e);
+        }
+        return e;
+    }
+
+    /** Offerer's hand, sorted, with each card's tier for the offerer and for the picker. */
+    private long key(PlayerState offerer, PlayerState picker) {
+        int[] hand = new int[offerer.getHand().size()];
+        for (int i = 0; i < hand.length; i++) hand[i] = index.ordinalOf(offerer.getHand().get(i).cardId());
+        Arrays.sort(hand);
+        StringBuilder sb = new StringBuilder(48);
+        for (int c : hand) {
+            sb.append(c);
+            if (c >= 0) sb.append(':').append(PolicyTable.tier(index, offerer, c)).append(':').append(PolicyTable.tier(index, picker, c));
+            sb.append(' ');
+        }
+        return EvaluationCache.hash(SALT, sb);
+    }
+
+    /**
+     * Equilibrium of the bluff over {@code offers} with values from {@code leaves}: CFR+ until its averages are
+     * exploitable by less than {@code tolerance}, or for {@code iterations} at most.
+     */
+    public static Equilibrium solve(List<Policy.Offer> offers, Leaves leaves, int iterations, double tolerance) {
+        int n = offers.size();
+        List<String> shown = new ArrayList<>();
+        int[] set = new int[n];
+        double[][] v = new double[n][2];
+        for (int o = 0; o < n; o++) {
+            String up = offers.get(o).faceUpId();
+            int s = shown.indexOf(up);
+            if (s < 0) {
+                s = shown.size();
+                shown.add(up);
+            }
+            set[o] = s;
+            v[o][0] = leaves.value(offers.get(o), false);
+            v[o][1] = leaves.value(offers.get(o), true);
+        }
+        int sets = shown.size();
+        double[] regretO = new double[n];
+        double[] averageO = new double[n];
+        double[] sigmaO = new double[n];
+        double[][] regretP = new double[sets][2];
+        double[][] averageP = new double[sets][2];
+        double[][] sigmaP = new double[sets][2];
+        double[][] cf = new double[sets][2];
+        double[] u = new double[n];
+        for (int t = 1; t <= iterations; t++) {
+            // Alternating updates: the offerer against the picker's strategy, then the picker against the new offer
+            match(regretO, sigmaO);
+            match(regretP, sigmaP);
+            double ev = 0;
+            for (int o = 0; o < n; o++) {
+                double[] p = sigmaP[set[o]];
+                u[o] = p[0] * v[o][0] + p[1] * v[o][1];
+                ev += sigmaO[o] * u[o];
+                averageO[o] += t * sigmaO[o];
+            }
+            for (int o = 0; o < n; o++) regretO[o] = Math.max(0, regretO[o] + u[o] - ev);
+            match(regretO, sigmaO);
+
+            for (double[] row : cf) Arrays.fill(row, 0.0);
+            for (int o = 0; o < n; o++) {
+                cf[set[o]][0] -= sigmaO[o] * v[o][0];
+                cf[set[o]][1] -= sigmaO[o] * v[o][1];
+            }
+            for (int s = 0; s < sets; s++) {
+                double evS = sigmaP[s][0] * cf[s][0] + sigmaP[s][1] * cf[s][1];
+                for (int a = 0; a < 2; a++) {
+                    averageP[s][a] += t * sigmaP[s][a];
+                    regretP[s][a] = Math.max(0, regretP[s][a] + cf[s][a] - evS);
+                }
+            }
+            if (t % CHECK == 0 && gap(averageO, averageP, set, v, cf) < tolerance) break;
+        }
+        normalize(averageO);
+        Map<String, Double> faceUp = new LinkedHashMap<>();
+        for (int s = 0; s < sets; s++) {
+            normalize(averageP[s]);
+            faceUp.put(shown.get(s), averageP[s][1]);
+        }
+        double value = 0;
+        for (int o = 0; o < n; o++) {
+            double[] p = averageP[set[o]];
+            value += averageO[o] * (p[0] * v[o][0] + p[1] * v[o][1]);
+        }
+        return new Equilibrium(List.copyOf(offers), averageO, faceUp, value);
+    }
+
+    /** {@link #exploitability} of the unnormalized averages, using {@code cf} as scratch. */
+    private static double gap(double[] averageO, double[][] averageP, int[] set, double[][] v, double[][] cf) {
+        double total = 0;
+        for (double a : averageO) total += a;
+        double bestOffer = Double.NEGATIVE_INFINITY;
+        for (double[] row : cf) Arrays.fill(row, 0.0);
+        for (int o = 0; o < averageO.length; o++) {
+            double[] p = averageP[set[o]];
+            double up = p[1] / (p[0] + p[1]);
+            bestOffer = Math.max(bestOffer, (1 - up) * v[o][0] + up * v[o][1]);
+            cf[set[o]][0] += averageO[o] / total * v[o][0];
+            cf[set[o]][1] += averageO[o] / total * v[o][1];
+        }
+        double bestPick = 0;
+        for (double[] row : cf) bestPick += Math.min(row[0], row[1]);
+        return bestOffer - bestPick;
+    }
+
+    /**
+     * How much either side could gain by deviating from {@code e} against the other, summed: zero at an exact
+     * equilibrium.
+     */
+    public static double exploitability(Equilibrium e, Leaves leaves) {
+        double bestOffer = Double.NEGATIVE_INFINITY;
+        Map<String, double[]> picker = new LinkedHashMap<>();
+        for (int o = 0; o < e.offers().size(); o++) {
+            Policy.Offer offer = e.offers().get(o);
+            double p = e.faceUpProbability(offer.faceUpId());
+            double down = leaves.value(offer, false), up = leaves.value(offer, true);
+            bestOffer = Math.max(bestOffer, (1 - p) * down + p * up);
+            double[] cf = picker.computeIfAbsent(offer.faceUpId(), k -> new double[2]);
+            cf[0] += e.offerProbabilities()[o] * down;
+            cf[1] += e.offerProbabilities()[o] * up;
+        }
+        double bestPick = 0;
+        for (double[] cf : picker.values()) bestPick += Math.min(cf[0], cf[1]);
+        return bestOffer - bestPick;
+    }
+
+    /** Regret matching: the strategy proportional to positive regret, uniform when there is none. */
+    private static void match(double[] regret, double[] sigma) {
+        double sum = 0;
+        for (double r : regret) sum += r;
+        for (int i = 0; i < regret.length; i++) sigma[i] = sum > 0 ? regret[i] / sum : 1.0 / regret.length;
+    }
+
+    private static void match(double[][] regret, double[][] sigma) {
+        for (int s = 0; s < regret.length; s++) match(regret[s], sigma[s]);
+    }
+
+    private static void normalize(double[] x) {
+        double sum = 0;
+        for (double d : x) sum += d;
+        for (int i = 0; i < x.length; i++) x[i] = sum > 0 ? x[i] / sum : 1.0 / x.length;
+    }
+}
@@ -0,0 +1,44 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.engine.CardIndex;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/** Name registry for the bots the simulation tools can seat, e.g. {@code tournament ... random,greedy}. */
+public final class Bots {
+    public static final List<String> NAMES = List.of("random", "greedy", "ismcts", "expectimax", "equilibrium");
+
+    private Bots() {}
+
+    public static Policy.Factory byName(String name, CardIndex index) {
+        return byName(name, index, null);
+    }
+
+    /** As {@link #byName(String, CardIndex)}, with {@code evaluator}, when non-null, scoring the leaves of {@code expectimax}. */
+    public static Policy.Factory byName(String name, CardIndex index, LinearEvaluator evaluator) {
+        if (evaluator != null && !name.equals("expectimax")) {
+            throw new IllegalArgumentException("Bot '" + name + "' does not take an evaluator; only expectimax does");
+        }
+        return switch (name) {
+            case "random" -> RandomPolicy.FACTORY;
+            case "greedy" -> GreedyPolicy.factory(index);
+            case "ismcts" -> EndgamePolicy.wrap(IsmctsPolicy.factory(index, IsmctsPolicy.Settings.DEFAULT), index, EndgameSolver.Settings.DEFAULT);
+            case "expectimax" -> EndgamePolicy.wrap(ExpectimaxPolicy.factory(index, ExpectimaxPolicy.Settings.DEFAULT, evaluator), index, EndgameSolver.Settings.DEFAULT);
+            case "equilibrium" -> EquilibriumPolicy.factory(index, BluffSolver.Settings.DEFAULT, EquilibriumPolicy.Settings.DEFAULT);
+            default -> throw new IllegalArgumentException("Unknown bot '" + name + "', expected one of " + NAMES);
+        };
+    }
+
+    /**
+     * A bot name, or {@code name:file} for the bot with the {@link LinearEvaluator} that {@code train-eval} wrote to
+     * {@code file}, e.g. {@code expectimax:evaluator.json}. Reads files, so it is for the command line; names that
+     * arrive over the network go through {@link #byName(String, CardIndex)}.
+     */
+    public static Policy.Factory load(String spec, CardIndex index) throws IOException {
+        int colon = spec.indexOf(':');
+        if (colon < 0) return byName(spec, index);
+        return byName(spec.substring(0, colon), index, LinearEvaluator.read(Path.of(spec.substring(colon + 1)), index));
+    }
+}
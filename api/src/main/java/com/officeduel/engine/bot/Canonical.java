@@ -0,0 +1,93 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.model.StatusType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seat-normalized positions. The rules treat both seats alike, so a position and its {@link GameState#mirror
+ * mirror} are the same position seen from the other chair. The canonical form has the active player as seat A
+ * ("self") with the dot counter counted towards it; a position is {@link #flipped} when that took a mirror.
+ *
+ * <p>Moves need no transform: offers and picks name cards and are made by whoever is to move. What changes with
+ * the orientation is seat indices ({@link #seat}) and anything scored for seat A ({@link #score},
+ * {@link #entry}), which is how caches, books and learned evaluations keyed on canonical positions share one entry
+ * between a position and its mirror.
+ */
+public final class Canonical {
+    private Canonical() {}
+
+    /** Whether the canonical form of {@code g} is its mirror, i.e. seat B is to move. */
+    public static boolean flipped(GameState g) {
+        return g.getActivePlayerIndex() == 1;
+    }
+
+    /** A copy of {@code g} in canonical orientation, driven by {@code rng}. */
+    public static GameState state(GameState g, DeterministicRng rng) {
+        return flipped(g) ? g.mirror(rng) : g.copy(rng);
+    }
+
+    /** The seat {@code seat} of {@code g} plays in the canonical form, and back; the map is its own inverse. */
+    public static int seat(GameState g, int seat) {
+        return flipped(g) ? 1 - seat : seat;
+    }
+
+    /** A score in [0, 1] for seat A of one orientation, as seen from seat A of the other. */
+    public static double score(double scoreForA, boolean flipped) {
+        return flipped ? 1 - scoreForA : scoreForA;
+    }
+
+    /** {@code e}, stored for seat A of one orientation, for seat A of the other: bounds and win / loss swap. */
+    public static EvaluationCache.Entry entry(EvaluationCache.Entry e, boolean flipped) {
+        if (!flipped) return e;
+        double win = e.exact() ? 1 - e.win() - e.draw() : Double.NaN;
+        return new EvaluationCache.Entry(1 - e.upper(), 1 - e.lower(), win, e.draw(), e.move(), e.depth());
+    }
+
+    /** {@link EvaluationCache#hash} of the canonical {@link #key}. */
+    public static long hash(long salt, GameState g) {
+        return EvaluationCache.hash(salt, key(g));
+    }
+
+    /**
+     * Everything the rules read from a position between turns, with the player to move first and the counter
+     * towards it, so a position and its mirror give the same key. Hands are sorted since the engine only picks from
+     * them uniformly at random; tableau and deck order matter (copying the last card, drawing). Discards and
+     * revealed cards are never read back.
+     */
+    public static String key(GameState g) {
+        PlayerState self = g.getActivePlayer();
+        PlayerState other = g.getInactivePlayer();
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(g.getPhase().ordinal()).append(',').append(flipped(g) ? -g.getSharedDotCounter() : g.getSharedDotCounter())
+                .append(',').append(g.getWinPointsToReach()).append(',').append(g.getFaceUpCardId()).append(',')
+                .append(g.getFaceDownCardId());
+        for (PlayerState p : List.of(self, other)) {
+            sb.append('|').append(p.getLifePoints()).append(',').append(p.getMaxHandSize()).append(',')
+                    .append(p.isSkipNextTurn()).append(',').append(p.getBlockNextDrawCount()).append(',')
+                    .append(p.getExtraFaceDownPlays()).append('H');
+            List<String> hand = new ArrayList<>();
+            for (Cards c : p.getHand()) hand.add(c.cardId());
+            hand.sort(null);
+            for (String id : hand) sb.append(id).append(' ');
+            sb.append('T');
+            for (Cards c : p.getTableau()) sb.append(c.cardId()).append(' ');
+            sb.append('D');
+            for (Cards c : p.getDeck()) sb.append(c.cardId()).append(' ');
+            sb.append('S');
+            var statuses = p.getBuffs().getStatuses();
+            Map<StatusType, Integer> durations = statuses.getActiveStatuses();
+            for (StatusType t : StatusType.values()) {
+                if (statuses.has(t)) sb.append(t.ordinal()).append(':').append(durations.get(t)).append(':').append(statuses.amount(t)).append(' ');
+            }
+            sb.append('L').append(g.getLastActionsAppliedFor(p));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.model.GameState;
+
+import java.util.Optional;
+
+/**
+ * Plays the {@link EndgameSolver}'s proven move whenever the position is an endgame it can solve, and leaves every
+ * other decision to {@code search}. The solver instance, and with it its cache, lives as long as the policy.
+ */
+public final class EndgamePolicy implements Policy {
+    private final Policy search;
+    private final EndgameSolver solver;
+    private int solved;
+
+    public EndgamePolicy(Policy search, EndgameSolver solver) {
+        this.search = search;
+        this.solver = solver;
+    }
+
+    public static Factory wrap(Factory search, CardIndex index, EndgameSolver.Settings settings) {
+        return (seed, seat) -> new EndgamePolicy(search.create(seed, seat), new EndgameSolver(index, settings));
+    }
+
+    /** Decisions taken from the solver so far. */
+    public int solvedDecisions() { return solved; }
+
+    @Override
+    public Offer chooseOffer(GameState state, int seat) {
+        Optional<EndgameSolver.Solution> s = solver.solve(state, seat);
+        if (s.isEmpty()) return search.chooseOffer(state, seat);
+        solved++;
+        return s.get().offer();
+    }
+
+    @Override
+    public boolean chooseFaceUp(GameState state, int seat) {
+        Optional<EndgameSolver.Solution> s = solver.solve(state, seat);
+        if (s.isEmpty()) return search.chooseFaceUp(state, seat);
+        solved++;
+        return s.get().faceUp();
+    }
+}
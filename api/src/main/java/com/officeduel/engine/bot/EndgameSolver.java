@@ -0,0 +1,466 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Solver for positions near the end of a match: few cards left to play, or the dot counter close to a win.
+ *
+ * <p>Every arrangement of the cards the deciding seat cannot see (its own deck order, and which of the opponent's
+ * cards are in hand and in what deck order) is enumerated, as long as there are at most
+ * {@link Settings#maxCompletions} of them, each equally likely. Each arrangement is then solved as a game: the
+ * offer is a max or min node, and every random choice the engine makes while resolving a turn is enumerated
+ * through a {@link DeterministicRng#scripted scripted} generator, so chance nodes carry their exact probabilities.
+ * The picker cannot see the face-down card, so a pick is not a plain min or max over both cards: an offer's value
+ * lies between the picker seeing both cards and the picker committing to one pick for every offer that shows the
+ * same face-up card, and stays an interval unless the two agree. An offer at the root is worth whatever either
+ * pick gives. With more arrangements than {@link Settings#maxCompletions}, which is the usual case while decks are
+ * still full, only lines that end within the turn being decided are solved: no effect lets a hidden card's
+ * identity move the dot counter, except the face-down card of a pending offer, so a single arrangement settles
+ * those lines once each card that offer could hide is tried.
+ *
+ * <p>Within an arrangement, later turns are played knowing it, so with more than one arrangement a value past the
+ * turn being decided is a perfect-information estimate, not the probability against a player who cannot see the
+ * cards. A pick is only proven when it gets the same result in every arrangement.
+ *
+ * <p>Values are the probability of winning plus half the probability of a draw (both decks and hands empty).
+ * Search is by increasing turn horizon; a position past the horizon is only known to lie in [0, 1], so values
+ * are intervals. A move is returned once its value is exact and no other move's upper bound beats it, which finds
+ * forced wins and losses early and solves exhausted decks outright unless a bluff there matters. Searched
+ * positions go into an {@link EvaluationCache} under the {@link Canonical} hash of their rules-relevant contents,
+ * with the best offer tried first and the other offers skipped once one is a certain win for the mover. The cache is
+ * the solver's own, of {@link Settings#cacheEntries}, unless one is passed in, such as the
+ * {@link EvaluationCache#shared shared} one so that solvers in concurrent matches reuse each other's results. Not
+ * thread-safe; a shared cache is.
+ */
+public final class EndgameSolver {
+    /**
+     * A position is an endgame when at most {@code maxCards} cards are left in both hands and decks, or the dot
+     * counter is within {@code nearWinMargin} of either side's win; it is solved when its hidden cards have at most
+     * {@code maxCompletions} arrangements and a proof is found within {@code maxTurns} turns and {@code maxNodes}
+     * nodes.
+     */
+    public record Settings(int maxCards, int nearWinMargin, int maxCompletions, int maxTurns, long maxNodes, int cacheEntries) {
+        public static final Settings DEFAULT = new Settings(8, 1, 64, 12, 10_000, 100_000);
+    }
+
+    /**
+     * A proven move for the deciding seat: {@code offer} when it is offering, else {@code faceUp} for the pick.
+     * Probabilities are the seat's, averaged over the arrangements of what it cannot see; see the class comment for
+     * when they are estimates.
+     */
+    public record Solution(Policy.Offer offer, boolean faceUp, double winProbability, double drawProbability) {}
+
+    /** Score bounds for seat A; {@code win} and {@code draw} are A's probabilities once the bounds meet, else NaN. */
+    private record Value(double lo, double hi, double win, double draw) {
+        static final Value UNKNOWN = new Value(0, 1, Double.NaN, Double.NaN);
+
+        boolean exact() { return lo == hi; }
+    }
+
+    private record Outcome(double p, GameState state) {}
+
+    private static final class Abort extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Abort() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final CardIndex index;
+    private final Settings settings;
+    private final EvaluationCache cache;
+    /** Keeps positions of different card catalogs apart in a shared cache. */
+    private final long salt;
+    private long nodes;
+
+    public EndgameSolver(CardIndex index, Settings settings) {
+        this(index, settings, new EvaluationCache(new EvaluationCache.Settings(settings.cacheEntries(), 1, 4)));
+    }
+
+    public EndgameSolver(CardIndex index, Settings settings, EvaluationCache cache) {
+        this.index = index;
+        this.settings = settings;
+        this.cache = cache;
+        StringBuilder catalog = new StringBuilder();
+        for (int i = 0; i < index.size(); i++) catalog.append(index.cardAt(i)).append('\n');
+        this.salt = EvaluationCache.hash(0, catalog);
+    }
+
+    /** Nodes the last {@link #solve} visited. */
+    public long lastNodes() { return nodes; }
+
+    public boolean isEndgame(GameState state) {
+        int cards = 0;
+        for (PlayerState p : List.of(state.getPlayerA(), state.getPlayerB())) cards += p.getHand().size() + p.getDeck().size();
+        return cards <= settings.maxCards()
+                || Math.abs(state.getSharedDotCounter()) >= state.getWinPointsToReach() - settings.nearWinMargin();
+    }
+
+    /**
+     * The proven best decision for {@code seat} in {@code real}: its offer when it is to offer, or its pick when
+     * an offer to it is pending. Empty when the position is not an endgame or no proof fits the budgets.
+     */
+    public Optional<Solution> solve(GameState real, int seat) {
+        nodes = 0;
+        if (real.winnerIndexOrMinusOne() != -1 || !isEndgame(real)) return Optional.empty();
+        boolean picking = real.getPhase() == GameState.Phase.OPPONENT_PICK;
+        if (picking ? real.getActivePlayerIndex() == seat : real.getActivePlayerIndex() != seat) return Optional.empty();
+        List<GameState> worlds = completions(real, seat);
+        int maxTurns = settings.maxTurns();
+        if (worlds == null) {
+            // Hidden cards only ever move between zones; what a turn does to the dot counter depends on public
+            // state, the engine's random choices and a pending face-down card alone. So any one arrangement, with
+            // each card that could be face down, settles every line that ends within the turn being decided, and
+            // proofs are limited to that turn.
+            GameState world = IsmctsPolicy.determinize(real, seat, new SplittableRandom(0));
+            worlds = picking ? faceDownCases(world) : List.of(world);
+            maxTurns = 1;
+        }
+
+        PlayerState self = seat == 0 ? real.getPlayerA() : real.getPlayerB();
+        List<Policy.Offer> offers = picking ? List.of() : offers(self.getHand());
+        int moves = picking ? 2 : offers.size();
+        if (moves == 0) return Optional.empty();
+        try {
+            for (int turns = 1; turns <= maxTurns; turns++) {
+                Value[] values = new Value[moves];
+                for (int m = 0; m < moves; m++) {
+                    double lo = picking ? 1 : 0, hi = 0, win = 0, draw = 0;
+                    boolean agree = true;
+                    for (GameState w : worlds) {
+                        Value v = picking ? resolve(w, m == 0, turns) : either(picks(w, offers.get(m), turns));
+                        // A pick is made once for every arrangement, so it is only as good as the worst of them
+                        agree &= v.exact() && (w == worlds.get(0) || Math.abs(v.lo() - lo) < 1e-9);
+                        lo = picking ? Math.min(lo, v.lo()) : lo + v.lo();
+                        hi = picking ? Math.max(hi, v.hi()) : hi + v.hi();
+                        win += v.win();
+                        draw += v.draw();
+                    }
+                    int n = worlds.size();
+                    Value v = picking ? new Value(lo, agree ? lo : hi, win / n, draw / n) : new Value(lo / n, hi / n, win / n, draw / n);
+                    values[m] = forSeat(v, seat);
+                }
+                int best = 0;
+                for (int m = 1; m < moves; m++) if (values[m].lo() > values[best].lo()) best = m;
+                boolean proven = values[best].exact();
+                for (int m = 0; m < moves && proven; m++) if (m != best && values[m].hi() > values[best].lo()) proven = false;
+                if (proven) {
+                    Value v = values[best];
+                    return Optional.of(new Solution(picking ? null : offers.get(best), picking && best == 0, v.win(), v.draw()));
+                }
+            }
+        } catch (Abort budget) {
+            return Optional.empty();
+        }
+        return Optional.empty();
+    }
+
+    private static Value forSeat(Value a, int seat) {
+        if (seat == 0) return a;
+        double lose = 1 - a.win() - a.draw();
+        return new Value(1 - a.hi(), 1 - a.lo(), lose, a.draw());
+    }
+
+    /** The active seat's turn with {@code turns} turns left to search. */
+    private Value turn(GameState g, int turns) {
+        if (++nodes > settings.maxNodes()) throw new Abort();
+        int winner = g.winnerIndexOrMinusOne();
+        if (winner != -1) return new Value(1 - winner, 1 - winner, 1 - winner, 0);
+        if (exhausted(g)) return new Value(0.5, 0.5, 0, 1);
+        if (turns == 0) return Value.UNKNOWN;
+        // Entries are kept for the player to move, so a position and its mirror share one
+        boolean flipped = Canonical.flipped(g);
+        long key = Canonical.hash(salt, g);
+        EvaluationCache.Entry hit = cache.get(key);
+        if (hit != null) hit = Canonical.entry(hit, flipped);
+        if (hit != null && hit.depth() >= turns) return new Value(hit.lower(), hit.upper(), hit.win(), hit.draw());
+
+        PlayerState active = g.getActivePlayer();
+        Value result = null;
+        int bestMove = -1;
+        if (active.isSkipNextTurn() || active.getHand().isEmpty()) {
+            result = chance(g, TurnEngine::playTurnAuto, turns);
+        } else {
+            boolean max = g.getActivePlayerIndex() == 0;
+            List<Policy.Offer> offers = offers(active.getHand());
+            if (hit != null) {
+                for (int i = 1; i < offers.size(); i++) {
+                    if (encode(offers.get(i)) == hit.move()) {
+                        offers.add(0, offers.remove(i));
+                        break;
+                    }
+                }
+            }
+            // The offerer's guaranteed bound has the picker see both cards; its other bound has the picker commit,
+            // for each face-up card, to one pick for every offer showing it, and the offerer choose knowing that
+            Value seen = null;
+            Map<String, double[]> blind = new HashMap<>();
+            List<Value> exact = new ArrayList<>();
+            for (Policy.Offer o : offers) {
+                Value[] p = picks(g, o, turns);
+                Value v = max ? worse(p[0], p[1]) : better(p[0], p[1]);
+                if (seen == null || (max ? v.lo() > seen.lo() : v.hi() < seen.hi())) bestMove = encode(o);
+                seen = seen == null ? v : max ? better(seen, v) : worse(seen, v);
+                double[] b = blind.computeIfAbsent(o.faceUpId(), id -> new double[] { max ? 0 : 1, max ? 0 : 1 });
+                for (int i = 0; i < 2; i++) {
+                    b[i] = max ? Math.max(b[i], p[i].hi()) : Math.min(b[i], p[i].lo());
+                    if (p[i].exact()) exact.add(p[i]);
+                }
+                // Nothing beats a certain win for the mover
+                if (max ? seen.lo() == 1 : seen.hi() == 0) break;
+            }
+            double other = max ? 0 : 1;
+            for (double[] b : blind.values()) {
+                other = max ? Math.max(other, Math.min(b[0], b[1])) : Math.min(other, Math.max(b[0], b[1]));
+            }
+            result = bounds(max ? seen.lo() : other, max ? other : seen.hi(), exact);
+        }
+        cache.put(key, Canonical.entry(new EvaluationCache.Entry(result.lo(), result.hi(), result.win(), result.draw(),
+                bestMove, result.exact() ? Integer.MAX_VALUE : turns), flipped));
+        return result;
+    }
+
+    private int encode(Policy.Offer o) {
+        return index.ordinalOf(o.faceUpId()) * index.size() + index.ordinalOf(o.faceDownId());
+    }
+
+    /** {@code o} made by the active seat, then taken face down ([0]) or face up ([1]). */
+    private Value[] picks(GameState g, Policy.Offer o, int turns) {
+        GameState.Phase phase = g.getPhase();
+        String up = g.getFaceUpCardId();
+        String down = g.getFaceDownCardId();
+        g.setFaceUpCardId(o.faceUpId());
+        g.setFaceDownCardId(o.faceDownId());
+        g.setPhase(GameState.Phase.OPPONENT_PICK);
+        try {
+            return new Value[] { resolve(g, false, turns), resolve(g, true, turns) };
+        } finally {
+            g.setFaceUpCardId(up);
+            g.setFaceDownCardId(down);
+            g.setPhase(phase);
+        }
+    }
+
+    private Value resolve(GameState g, boolean faceUp, int turns) {
+        String up = g.getFaceUpCardId();
+        String down = g.getFaceDownCardId();
+        return chance(g, e -> e.playTurnWithChoice(faceUp ? up : down, faceUp ? down : up), turns);
+    }
+
+    /** Expectation over every outcome of the engine's random choices in {@code play}. */
+    private Value chance(GameState g, Consumer<TurnEngine> play, int turns) {
+        List<Outcome> outcomes = new ArrayList<>();
+        outcomes(g, play, new int[0], 1.0, outcomes);
+        double lo = 0, hi = 0, win = 0, draw = 0;
+        for (Outcome o : outcomes) {
+            Value v = turn(o.state(), turns - 1);
+            lo += o.p() * v.lo();
+            hi += o.p() * v.hi();
+            win += o.p() * v.win();
+            draw += o.p() * v.draw();
+        }
+        return new Value(lo, hi, win, draw);
+    }
+
+    /**
+     * Plays {@code play} on a copy of {@code g} with the engine's random choices taken from {@code prefix}; at the
+     * first choice past it, replays once per possible value, each with its share of {@code p}.
+     */
+    private void outcomes(GameState g, Consumer<TurnEngine> play, int[] prefix, double p, List<Outcome> out) {
+        // Each replay counts as a node, so a turn with many random choices cannot run past the budget
+        if (++nodes > settings.maxNodes()) throw new Abort();
+        int[] branch = new int[1];
+        int[] at = new int[1];
+        GameState c = g.copy(DeterministicRng.scripted(bound -> {
+            int i = at[0]++;
+            if (i < prefix.length) return prefix[i];
+            if (i == prefix.length) branch[0] = bound;
+            return 0;
+        }));
+        TurnEngine engine = new TurnEngine(c, index);
+        engine.setVerbose(false);
+        play.accept(engine);
+        if (branch[0] == 0) {
+            out.add(new Outcome(p, c));
+            return;
+        }
+        int[] next = Arrays.copyOf(prefix, prefix.length + 1);
+        for (int v = 0; v < branch[0]; v++) {
+            next[prefix.length] = v;
+            outcomes(g, play, next.clone(), p / branch[0], out);
+        }
+    }
+
+    /** The max of two values for seat A; when the result is exact, so is the child that attains it. */
+    private static Value better(Value a, Value b) {
+        Value top = b.lo() > a.lo() ? b : a;
+        double hi = Math.max(a.hi(), b.hi());
+        return top.lo() == hi ? top : new Value(top.lo(), hi, Double.NaN, Double.NaN);
+    }
+
+    private static Value worse(Value a, Value b) {
+        Value bottom = b.hi() < a.hi() ? b : a;
+        double lo = Math.min(a.lo(), b.lo());
+        return bottom.hi() == lo ? bottom : new Value(lo, bottom.hi(), Double.NaN, Double.NaN);
+    }
+
+    /** Whatever either pick gives: exact only when both picks give the same exact value. */
+    private static Value either(Value[] p) {
+        if (p[0].exact() && p[1].exact() && Math.abs(p[0].lo() - p[1].lo()) < 1e-9) {
+            return new Value(p[0].lo(), p[0].lo(), (p[0].win() + p[1].win()) / 2, (p[0].draw() + p[1].draw()) / 2);
+        }
+        return new Value(Math.min(p[0].lo(), p[1].lo()), Math.max(p[0].hi(), p[1].hi()), Double.NaN, Double.NaN);
+    }
+
+    /**
+     * {@code [lo, hi]}; when the bounds meet, some child that was searched has that exact value (the picker could
+     * hold the offerer to it) and lends its probabilities.
+     */
+    private static Value bounds(double lo, double hi, List<Value> exact) {
+        if (lo == hi) {
+            for (Value v : exact) if (v.lo() == lo) return v;
+        }
+        return new Value(lo, Math.max(lo, hi), Double.NaN, Double.NaN);
+    }
+
+    /**
+     * One copy of {@code g}, in which the active seat has an offer pending, per card it could have put face down:
+     * any card of its hand, except the face-up one, or of its deck. The card is swapped into the face-down slot.
+     */
+    private static List<GameState> faceDownCases(GameState g) {
+        PlayerState offerer = g.getActivePlayer();
+        List<Cards> hand = offerer.getHand();
+        int up = -1, down = -1;
+        for (int i = 0; i < hand.size(); i++) {
+            String id = hand.get(i).cardId();
+            if (up < 0 && id.equals(g.getFaceUpCardId())) up = i;
+            else if (down < 0 && id.equals(g.getFaceDownCardId())) down = i;
+        }
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < hand.size(); i++) if (i != up) ids.add(hand.get(i).cardId());
+        for (Cards c : offerer.getDeck()) ids.add(c.cardId());
+        List<GameState> out = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            GameState c = g.copy(new DeterministicRng(0));
+            List<Cards> h = c.getActivePlayer().getHand();
+            List<Cards> deck = new ArrayList<>(c.getActivePlayer().getDeck());
+            int k = ids.indexOf(id);
+            if (k < hand.size() - 1) {
+                int slot = k < up ? k : k + 1;
+                Cards moved = h.get(slot);
+                h.set(slot, h.get(down));
+                h.set(down, moved);
+            } else {
+                int slot = k - (hand.size() - 1);
+                Cards moved = deck.get(slot);
+                deck.set(slot, h.get(down));
+                h.set(down, moved);
+                c.getActivePlayer().getDeck().clear();
+                c.getActivePlayer().getDeck().addAll(deck);
+            }
+            c.setFaceDownCardId(id);
+            out.add(c);
+        }
+        return out;
+    }
+
+    /** Nothing left to play for either seat, so the dot counter can no longer move. */
+    private static boolean exhausted(GameState g) {
+        return g.getPlayerA().getHand().isEmpty() && g.getPlayerA().getDeck().isEmpty()
+                && g.getPlayerB().getHand().isEmpty() && g.getPlayerB().getDeck().isEmpty();
+    }
+
+    private static List<Policy.Offer> offers(List<Cards> hand) {
+        List<Policy.Offer> out = new ArrayList<>();
+        for (String up : IsmctsPolicy.offerUps(hand)) {
+            for (String down : IsmctsPolicy.offerDowns(hand, up)) out.add(new Policy.Offer(up, down));
+        }
+        return out;
+    }
+
+    /**
+     * Every arrangement of what {@code seat} cannot see, as copies of {@code real}, or null when there are more than
+     * {@link Settings#maxCompletions}. Arrangements are distinct id sequences, which are equally likely.
+     */
+    private List<GameState> completions(GameState real, int seat) {
+        PlayerState self = seat == 0 ? real.getPlayerA() : real.getPlayerB();
+        PlayerState opp = seat == 0 ? real.getPlayerB() : real.getPlayerA();
+        IsmctsPolicy.HiddenHand hidden = IsmctsPolicy.hiddenHand(real, seat);
+        List<String> ownDeck = new ArrayList<>();
+        for (Cards c : self.getDeck()) ownDeck.add(c.cardId());
+        List<String> pool = new ArrayList<>();
+        for (int i : hidden.slots()) pool.add(opp.getHand().get(i).cardId());
+        for (Cards c : opp.getDeck()) pool.add(c.cardId());
+        if (arrangements(ownDeck) * arrangements(pool) > settings.maxCompletions()) return null;
+
+        List<GameState> out = new ArrayList<>();
+        for (List<String> deck : permutations(ownDeck)) {
+            for (List<String> rest : permutations(pool)) {
+                GameState g = real.copy(new DeterministicRng(0));
+                PlayerState s = seat == 0 ? g.getPlayerA() : g.getPlayerB();
+                PlayerState o = seat == 0 ? g.getPlayerB() : g.getPlayerA();
+                s.getDeck().clear();
+                for (String id : deck) s.getDeck().add(new Cards(id));
+                int k = 0;
+                for (int slot : hidden.slots()) o.getHand().set(slot, new Cards(rest.get(k++)));
+                o.getDeck().clear();
+                for (; k < rest.size(); k++) o.getDeck().add(new Cards(rest.get(k)));
+                if (hidden.faceDownSlot() >= 0) g.setFaceDownCardId(o.getHand().get(hidden.faceDownSlot()).cardId());
+                out.add(g);
+            }
+        }
+        return out;
+    }
+
+    /** Number of distinct orders of {@code ids}: n! over the factorials of the copy counts. */
+    private static double arrangements(List<String> ids) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (String id : ids) counts.merge(id, 1, Integer::sum);
+        double n = 1;
+        int placed = 0;
+        for (int c : counts.values()) {
+            for (int i = 1; i <= c; i++) n = n * ++placed / i;
+        }
+        return n;
+    }
+
+    private static List<List<String>> permutations(List<String> ids) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (String id : ids) counts.merge(id, 1, Integer::sum);
+        List<List<String>> out = new ArrayList<>();
+        permute(counts, new ArrayList<>(), ids.size(), out);
+        return out;
+    }
+
+    private static void permute(Map<String, Integer> counts, List<String> prefix, int n, List<List<String>> out) {
+        if (prefix.size() == n) {
+            out.add(new ArrayList<>(prefix));
+            return;
+        }
+        for (Map.Entry<String, Integer> e : counts.entrySet()) {
+            if (e.getValue() == 0) continue;
+            e.setValue(e.getValue() - 1);
+            prefix.add(e.getKey());
+            permute(counts, prefix, n, out);
+            prefix.remove(prefix.size() - 1);
+            e.setValue(e.getValue() + 1);
+        }
+    }
+}
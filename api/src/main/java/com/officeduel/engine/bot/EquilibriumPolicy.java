@@ -0,0 +1,54 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.model.GameState;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plays the bluff by its {@link BluffSolver} equilibrium, so no fixed counter-strategy gains on it there. Offers are
+ * drawn from the offerer's equilibrium mix for the real hand. A pick cannot see that hand, so it is drawn with the
+ * face-up chance averaged over the equilibria of {@link Settings#worlds} hands sampled from the seat's
+ * {@link BeliefTracker}; with the cache warm that is a handful of lookups per decision.
+ */
+public final class EquilibriumPolicy implements Policy {
+    /** Hands sampled from the belief for each pick. */
+    public record Settings(int worlds) {
+        public static final Settings DEFAULT = new Settings(8);
+    }
+
+    private final CardIndex index;
+    private final BluffSolver solver;
+    private final Settings settings;
+    private final SplittableRandom rnd;
+    private BeliefTracker beliefs;
+
+    public EquilibriumPolicy(CardIndex index, BluffSolver solver, Settings settings, long seed) {
+        this.index = index;
+        this.solver = solver;
+        this.settings = settings;
+        this.rnd = new SplittableRandom(seed);
+    }
+
+    /** Seats sharing one solver, and so one cache, across matches. */
+    public static Factory factory(CardIndex index, BluffSolver.Settings solver, Settings settings) {
+        BluffSolver shared = new BluffSolver(index, solver);
+        return (seed, seat) -> new EquilibriumPolicy(index, shared, settings, DeterministicRng.substream(seed, seat));
+    }
+
+    @Override
+    public Offer chooseOffer(GameState state, int seat) {
+        return solver.solve(state).sampleOffer(rnd);
+    }
+
+    @Override
+    public boolean chooseFaceUp(GameState state, int seat) {
+        beliefs = BeliefTracker.observe(beliefs, index, state, seat);
+        double p = 0;
+        for (int w = 0; w < settings.worlds(); w++) {
+            p += solver.solve(beliefs.sample(state, rnd)).faceUpProbability(state.getFaceUpCardId());
+        }
+        return rnd.nextDouble() < p / settings.worlds();
+    }
+}
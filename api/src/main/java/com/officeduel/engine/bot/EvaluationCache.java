@@ -0,0 +1,164 @@
+package com.officeduel.engine.bot;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded transposition table for search results, safe to share between bots in concurrent matches. Positions
+ * are keyed by a 64-bit hash of their canonical contents ({@link #hash}); an entry holds score bounds, the win and
+ * draw probabilities behind an exact score, the best move and the depth it was searched to.
+ *
+ * <p>The table is split into {@link Settings#stripes} stripes, each guarded by its own lock and holding buckets
+ * of {@link Settings#ways} entries. A store into a full bucket replaces, in order of preference, the entry of the
+ * same position (unless that was searched deeper), then the entry last touched the most generations ago, then the
+ * shallowest one. A stripe starts a new generation each time it has taken as many stores as it has entries, so deep
+ * results that stop being probed age out instead of pinning the table. Lookups and stores cost one lock and one
+ * bucket scan.
+ *
+ * <p>With one stripe and a single thread the table is deterministic. A shared table is not: what a search finds
+ * in it depends on what other searches stored first, so searches that must replay alike should not share one.
+ */
+public final class EvaluationCache {
+    /** {@code entries} is rounded up to whole buckets per stripe; {@code stripes} must be a power of two. */
+    public record Settings(int entries, int stripes, int ways) {
+        public static final Settings DEFAULT = new Settings(1 << 18, 64, 4);
+    }
+
+    /**
+     * Score bounds for seat A; {@code win} and {@code draw} are A's probabilities once the bounds meet, else NaN.
+     * {@code move} is the caller's encoding of the best move (-1 for none) and {@code depth} how far the position
+     * was searched, {@link Integer#MAX_VALUE} for a solved one.
+     */
+    public record Entry(double lower, double upper, double win, double draw, int move, int depth) {
+        public boolean exact() { return lower == upper; }
+    }
+
+    private static final class Stripe {
+        final long[] keys;
+        final boolean[] used;
+        final double[] lower;
+        final double[] upper;
+        final double[] win;
+        final double[] draw;
+        final int[] move;
+        final int[] depth;
+        final int[] generation;
+        long stores;
+        int current;
+
+        Stripe(int size) {
+            keys = new long[size];
+            used = new boolean[size];
+            lower = new double[size];
+            upper = new double[size];
+            win = new double[size];
+            draw = new double[size];
+            move = new int[size];
+            depth = new int[size];
+            generation = new int[size];
+        }
+    }
+
+    private static final class Holder {
+        static final EvaluationCache SHARED = new EvaluationCache(Settings.DEFAULT);
+    }
+
+    private final Stripe[] stripes;
+    private final int ways;
+    private final int buckets;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    public EvaluationCache(Settings settings) {
+        if (Integer.bitCount(settings.stripes()) != 1 || settings.ways() < 1) {
+            throw new IllegalArgumentException("Bad cache settings " + settings);
+        }
+        this.ways = settings.ways();
+        int perStripe = Math.max(1, (settings.entries() + settings.stripes() - 1) / settings.stripes());
+        this.buckets = Math.max(1, (perStripe + ways - 1) / ways);
+        this.stripes = new Stripe[settings.stripes()];
+        for (int s = 0; s < stripes.length; s++) stripes[s] = new Stripe(buckets * ways);
+    }
+
+    /** The process-wide table, created on first use with {@link Settings#DEFAULT}. */
+    public static EvaluationCache shared() {
+        return Holder.SHARED;
+    }
+
+    public int capacity() { return stripes.length * buckets * ways; }
+    public long probes() { return probes.sum(); }
+    public long hits() { return hits.sum(); }
+
+    public Entry get(long key) {
+        probes.increment();
+        Stripe s = stripes[(int) key & (stripes.length - 1)];
+        int base = bucket(key) * ways;
+        synchronized (s) {
+            for (int i = base; i < base + ways; i++) {
+                if (s.used[i] && s.keys[i] == key) {
+                    hits.increment();
+                    s.generation[i] = s.current;
+                    return new Entry(s.lower[i], s.upper[i], s.win[i], s.draw[i], s.move[i], s.depth[i]);
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Stores {@code e} for {@code key}, unless the position is already held from at least as deep a search. */
+    public void put(long key, Entry e) {
+        Stripe s = stripes[(int) key & (stripes.length - 1)];
+        int base = bucket(key) * ways;
+        synchronized (s) {
+            int size = s.keys.length;
+            if (++s.stores % size == 0) s.current++;
+            int victim = -1;
+            for (int i = base; i < base + ways; i++) {
+                if (s.used[i] && s.keys[i] == key) {
+                    if (s.depth[i] > e.depth()) {
+                        s.generation[i] = s.current;
+                        return;
+                    }
+                    victim = i;
+                    break;
+                }
+                if (victim < 0 || worseSlot(s, i, victim)) victim = i;
+            }
+            s.keys[victim] = key;
+            s.used[victim] = true;
+            s.lower[victim] = e.lower();
+            s.upper[victim] = e.upper();
+            s.win[victim] = e.win();
+            s.draw[victim] = e.draw();
+            s.move[victim] = e.move();
+            s.depth[victim] = e.depth();
+            s.generation[victim] = s.current;
+        }
+    }
+
+    /** Whether slot {@code i} should be replaced before slot {@code j}: empty, then older, then shallower. */
+    private static boolean worseSlot(Stripe s, int i, int j) {
+        if (s.used[i] != s.used[j]) return !s.used[i];
+        if (s.generation[i] != s.generation[j]) return s.current - s.generation[i] > s.current - s.generation[j];
+        return s.depth[i] < s.depth[j];
+    }
+
+    private int bucket(long key) {
+        // The low bits pick the stripe, so the bucket comes from the high ones
+        return (int) Long.remainderUnsigned(key >>> 16, buckets);
+    }
+
+    /** 64-bit FNV-1a of {@code text} with a final avalanche, seeded by {@code salt}. */
+    public static long hash(long salt, CharSequence text) {
+        long h = 0xcbf29ce484222325L ^ salt;
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
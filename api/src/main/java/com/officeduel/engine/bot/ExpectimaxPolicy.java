@@ -0,0 +1,411 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Depth-limited expectimax with star1/star2 pruning, searched turn by turn with iterative deepening.
+ *
+ * <p>A turn is a decision for the offering seat (max for this bot, min for the opponent), then the pick, then a
+ * chance node for everything random in the resolution: draws, random discards and steals, and so on. The engine
+ * draws those from the deck order and the match RNG, so the chance node is {@link Settings#chanceSamples} equally
+ * likely samples with both decks reshuffled and a fresh RNG. The bot's own picks are decisions; the opponent's pick
+ * is a chance node as well, since it cannot see the face-down card: it takes the face-up card with a logistic
+ * probability of how that card compares to an average one ({@link GreedyPolicy#cardValue}).
+ *
+ * <p>The opponent's hidden hand is handled at the root: each root move is scored as the mean over
+ * {@link Settings#worlds} determinizations sampled from the bot's {@link BeliefTracker}, which is one more chance
+ * node.
+ * Values are for this bot, in [0, 1]: 1 is a win, 0 a loss, and unfinished positions score the dot counter or,
+ * given a {@link LinearEvaluator}, its win probability.
+ * Those bounds are what lets star1 cut chance nodes once the children seen so far decide the window, and star2
+ * first probes each child's leading move for a cheap bound before searching any child in full.
+ *
+ * <p>With {@code millis <= 0} the search runs to {@link Settings#maxDepth} turns and is reproducible; otherwise
+ * deepening stops at the deadline and the move of the last finished depth is played. Depth 1 always finishes.
+ */
+public final class ExpectimaxPolicy implements Policy {
+    /**
+     * {@code maxDepth} in turns, {@code millis} of wall clock for deepening ({@code <= 0}: depth only),
+     * {@code worlds} determinizations at the root, {@code chanceSamples} outcomes per turn resolution, and how
+     * sharply the opponent's modelled pick follows card value.
+     */
+    public record Settings(int maxDepth, long millis, int worlds, int chanceSamples, double pickSharpness) {
+        public static final Settings DEFAULT = new Settings(2, 0, 4, 2, 1.0);
+    }
+
+    private static final double LOSS = 0.0;
+    private static final double WIN = 1.0;
+    /** Nodes between deadline checks. */
+    private static final int CLOCK_MASK = 255;
+
+    private final CardIndex index;
+    private final Settings settings;
+    private final LinearEvaluator evaluator;
+    private final SplittableRandom rnd;
+    private BeliefTracker beliefs;
+    private int seat;
+    private long deadline;
+    private long nodes;
+    private int lastDepth;
+
+    public ExpectimaxPolicy(CardIndex index, Settings settings, long seed) {
+        this(index, settings, null, seed);
+    }
+
+    /** Scores unfinished leaves with {@code evaluator} instead of the dot counter when it is non-null. */
+    public ExpectimaxPolicy(CardIndex index, Settings settings, LinearEvaluator evaluator, long seed) {
+        this.index = index;
+        this.settings = settings;
+        this.evaluator = evaluator;
+        this.rnd = new SplittableRandom(seed);
+    }
+
+    public static Factory factory(CardIndex index, Settings settings) {
+        return factory(index, settings, null);
+    }
+
+    public static Factory factory(CardIndex index, Settings settings, LinearEvaluator evaluator) {
+        return (seed, seat) -> new ExpectimaxPolicy(index, settings, evaluator, DeterministicRng.substream(seed, seat));
+    }
+
+    /** Deepest search the last decision finished, in turns. */
+    public int lastDepth() { return lastDepth; }
+
+    /** Nodes the last decision visited. */
+    public long lastNodes() { return nodes; }
+
+    @Override
+    public Offer chooseOffer(GameState state, int seat) {
+        List<Cards> hand = (seat == 0 ? state.getPlayerA() : state.getPlayerB()).getHand();
+        List<Offer> moves = offers(state, hand);
+        return moves.get(search(state, seat, moves.size(), (world, key, move, depth, alpha, beta) -> {
+            Offer o = moves.get(move);
+            world.setFaceUpCardId(o.faceUpId());
+            world.setFaceDownCardId(o.faceDownId());
+            world.setPhase(GameState.Phase.OPPONENT_PICK);
+            return pick(world, DeterministicRng.substream(key, move), depth, alpha, beta);
+        }));
+    }
+
+    @Override
+    public boolean chooseFaceUp(GameState state, int seat) {
+        // Move 0 takes the face-up card
+        return search(state, seat, 2, (world, key, move, depth, alpha, beta) -> resolve(world, key, move == 0, depth, alpha, beta)) == 0;
+    }
+
+    /** The value of playing root move {@code move} in one determinization, searched {@code depth} turns deep. */
+    private interface RootMove {
+        double value(GameState world, long key, int move, int depth, double alpha, double beta);
+    }
+
+    /** A chance node's child: {@code probe} bounds it by its leading move only, NaN when that is not cheaper. */
+    private interface Child {
+        double search(double alpha, double beta);
+
+        default double probe(double alpha, double beta) { return Double.NaN; }
+
+        /** Whether a probe bounds the value from below (a max node) rather than from above. */
+        default boolean maximizing() { return true; }
+    }
+
+    private static final class Timeout extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Timeout() {
+            super(null, null, false, false);
+        }
+    }
+
+    private int search(GameState real, int seat, int moveCount, RootMove rootMove) {
+        this.seat = seat;
+        this.nodes = 0;
+        long stop = settings.millis() > 0 ? System.nanoTime() + settings.millis() * 1_000_000L : Long.MAX_VALUE;
+        beliefs = BeliefTracker.observe(beliefs, index, real, seat);
+        List<GameState> worlds = new ArrayList<>();
+        long[] keys = new long[settings.worlds()];
+        for (int w = 0; w < keys.length; w++) {
+            worlds.add(beliefs.sample(real, rnd));
+            keys[w] = rnd.nextLong();
+        }
+        double[] uniform = uniform(worlds.size());
+
+        int[] order = new int[moveCount];
+        for (int i = 0; i < moveCount; i++) order[i] = i;
+        int best = 0;
+        lastDepth = 0;
+        for (int depth = 1; depth <= settings.maxDepth(); depth++) {
+            int d = depth;
+            deadline = depth == 1 ? Long.MAX_VALUE : stop;
+            double[] values = new double[moveCount];
+            int depthBest = -1;
+            double alpha = LOSS;
+            try {
+                for (int k = 0; k < moveCount; k++) {
+                    int move = order[k];
+                    Child[] children = new Child[worlds.size()];
+                    for (int w = 0; w < children.length; w++) {
+                        GameState world = worlds.get(w);
+                        long key = keys[w];
+                        children[w] = (a, b) -> rootMove.value(world, key, move, d, a, b);
+                    }
+                    // The first move gets a full window so that it has an exact value
+                    double v = chance(uniform, children, k == 0 ? LOSS : alpha, WIN);
+                    values[move] = v;
+                    if (depthBest < 0 || v > alpha) {
+                        alpha = v;
+                        depthBest = move;
+                    }
+                    if (alpha >= WIN) break;
+                }
+            } catch (Timeout t) {
+                break;
+            }
+            best = depthBest;
+            lastDepth = depth;
+            // Next depth tries the best move first and the rest by their bounds
+            Integer[] boxed = new Integer[moveCount];
+            for (int i = 0; i < moveCount; i++) boxed[i] = order[i];
+            int first = depthBest;
+            Arrays.sort(boxed, (x, y) -> x == first ? -1 : y == first ? 1 : Double.compare(values[y], values[x]));
+            for (int i = 0; i < moveCount; i++) order[i] = boxed[i];
+            if (System.nanoTime() >= stop) break;
+        }
+        return best;
+    }
+
+    /** The active seat's turn: its offer is a decision, a turn without one only has the chance node. */
+    private double turn(GameState g, long key, int depth, double alpha, double beta) {
+        tick();
+        if (g.winnerIndexOrMinusOne() != -1 || depth == 0) return evaluate(g);
+        PlayerState active = g.getActivePlayer();
+        if (active.isSkipNextTurn() || active.getHand().isEmpty()) return resolve(g, key, null, depth, alpha, beta);
+        boolean max = g.getActivePlayerIndex() == seat;
+        List<Offer> offers = offers(g, active.getHand());
+        double best = max ? LOSS : WIN;
+        for (Offer o : offers) {
+            double v = offer(g, key, o, depth, alpha, beta);
+            if (max ? v > best : v < best) best = v;
+            if (max) alpha = Math.max(alpha, v);
+            else beta = Math.min(beta, v);
+            if (alpha >= beta) break;
+        }
+        return best;
+    }
+
+    /** Star2's probe of a turn: the value of the leading offer only, a bound on the turn's value. */
+    private double probeTurn(GameState g, long key, int depth, double alpha, double beta) {
+        tick();
+        PlayerState active = g.getActivePlayer();
+        return offer(g, key, offers(g, active.getHand()).get(0), depth, alpha, beta);
+    }
+
+    private double offer(GameState g, long key, Offer o, int depth, double alpha, double beta) {
+        GameState.Phase phase = g.getPhase();
+        String up = g.getFaceUpCardId();
+        String down = g.getFaceDownCardId();
+        g.setFaceUpCardId(o.faceUpId());
+        g.setFaceDownCardId(o.faceDownId());
+        g.setPhase(GameState.Phase.OPPONENT_PICK);
+        try {
+            return pick(g, DeterministicRng.substream(key, o.hashCode()), depth, alpha, beta);
+        } finally {
+            g.setFaceUpCardId(up);
+            g.setFaceDownCardId(down);
+            g.setPhase(phase);
+        }
+    }
+
+    /** The pick of a pending offer: this bot decides, the opponent is modelled as a chance node. */
+    private double pick(GameState g, long key, int depth, double alpha, double beta) {
+        tick();
+        int picker = 1 - g.getActivePlayerIndex();
+        if (picker == seat) {
+            double up = resolve(g, key, true, depth, alpha, beta);
+            if (up >= beta) return up;
+            return Math.max(up, resolve(g, key, false, depth, Math.max(alpha, up), beta));
+        }
+        PlayerState p = picker == 0 ? g.getPlayerA() : g.getPlayerB();
+        double edge = GreedyPolicy.cardValue(index, p, g.getFaceUpCardId()) - averageCardValue(p);
+        double faceUp = 1.0 / (1.0 + Math.exp(-settings.pickSharpness() * edge));
+        Child[] children = { (a, b) -> resolve(g, key, true, depth, a, b), (a, b) -> resolve(g, key, false, depth, a, b) };
+        // The likelier pick first, so that its value narrows the window for the other
+        if (faceUp >= 0.5) return chance(new double[] { faceUp, 1.0 - faceUp }, children, alpha, beta);
+        return chance(new double[] { 1.0 - faceUp, faceUp }, new Child[] { children[1], children[0] }, alpha, beta);
+    }
+
+    /**
+     * The chance node of a turn resolution: {@code faceUp} says which card of the pending offer is taken, null
+     * plays a turn without a choice. Samples are seeded from {@code key}, which names the path from the root, so
+     * a position draws the same outcomes at every depth and however much of the tree was cut.
+     */
+    private double resolve(GameState g, long key, Boolean faceUp, int depth, double alpha, double beta) {
+        tick();
+        int n = Math.max(1, settings.chanceSamples());
+        long node = DeterministicRng.substream(key, faceUp == null ? 2 : faceUp ? 1 : 0);
+        Child[] children = new Child[n];
+        for (int i = 0; i < n; i++) {
+            long sampleKey = DeterministicRng.substream(node, i);
+            GameState s = sample(g, sampleKey);
+            TurnEngine engine = new TurnEngine(s, index);
+            engine.setVerbose(false);
+            if (faceUp == null) {
+                engine.playTurnAuto();
+            } else {
+                String up = s.getFaceUpCardId();
+                String down = s.getFaceDownCardId();
+                engine.playTurnWithChoice(faceUp ? up : down, faceUp ? down : up);
+            }
+            children[i] = child(s, sampleKey, depth - 1);
+        }
+        return chance(uniform(n), children, alpha, beta);
+    }
+
+    private Child child(GameState s, long key, int depth) {
+        PlayerState active = s.getActivePlayer();
+        boolean decision = depth > 0 && s.winnerIndexOrMinusOne() == -1 && !active.isSkipNextTurn() && !active.getHand().isEmpty();
+        if (!decision) return (a, b) -> turn(s, key, depth, a, b);
+        boolean max = s.getActivePlayerIndex() == seat;
+        return new Child() {
+            @Override
+            public double search(double alpha, double beta) { return turn(s, key, depth, alpha, beta); }
+
+            @Override
+            public double probe(double alpha, double beta) { return probeTurn(s, key, depth, alpha, beta); }
+
+            @Override
+            public boolean maximizing() { return max; }
+        };
+    }
+
+    /**
+     * Expected value of {@code children} under {@code p} with star1 and star2 cuts: returns a value no better
+     * than {@code alpha} when the node cannot reach the window, no worse than {@code beta} when it surely
+     * exceeds it, and the exact expectation otherwise. Child values are known to lie in [LOSS, WIN].
+     */
+    private double chance(double[] p, Child[] children, double alpha, double beta) {
+        int n = children.length;
+        double[] lower = new double[n];
+        double[] upper = new double[n];
+        Arrays.fill(lower, LOSS);
+        Arrays.fill(upper, WIN);
+        double lowSum = sum(p, lower);
+        double highSum = sum(p, upper);
+
+        // Star2: a max child's leading move bounds it from below, which may already prove a fail high
+        // (a min child's from above, for a fail low)
+        if (n > 1) {
+            for (int i = 0; i < n; i++) {
+                double v;
+                if (children[i].maximizing()) {
+                    double need = (beta - (lowSum - p[i] * lower[i])) / p[i];
+                    v = children[i].probe(LOSS, Math.min(WIN, need));
+                    if (Double.isNaN(v)) continue;
+                    v = Math.max(v, LOSS);
+                    lowSum += p[i] * (v - lower[i]);
+                    lower[i] = v;
+                    if (lowSum >= beta) return lowSum;
+                } else {
+                    double need = (alpha - (highSum - p[i] * upper[i])) / p[i];
+                    v = children[i].probe(Math.max(LOSS, need), WIN);
+                    if (Double.isNaN(v)) continue;
+                    v = Math.min(v, WIN);
+                    highSum += p[i] * (v - upper[i]);
+                    upper[i] = v;
+                    if (highSum <= alpha) return highSum;
+                }
+            }
+        }
+
+        // Star1: search each child in the window in which it can still change the outcome
+        for (int i = 0; i < n; i++) {
+            double childAlpha = (alpha - (highSum - p[i] * upper[i])) / p[i];
+            double childBeta = (beta - (lowSum - p[i] * lower[i])) / p[i];
+            double a = Math.max(lower[i], childAlpha);
+            double b = Math.min(upper[i], childBeta);
+            if (a >= b) return lower[i] >= childBeta ? lowSum : highSum;
+            double v = children[i].search(a, b);
+            // Fail-soft: at or past an edge of the window the value is only a bound, which decides this node
+            if (v <= a && a > lower[i]) return highSum - p[i] * (upper[i] - v);
+            if (v >= b && b < upper[i]) return lowSum + p[i] * (v - lower[i]);
+            lowSum += p[i] * (v - lower[i]);
+            highSum -= p[i] * (upper[i] - v);
+            lower[i] = v;
+            upper[i] = v;
+        }
+        return lowSum;
+    }
+
+    private static double sum(double[] p, double[] v) {
+        double s = 0;
+        for (int i = 0; i < p.length; i++) s += p[i] * v[i];
+        return s;
+    }
+
+    private static double[] uniform(int n) {
+        double[] p = new double[n];
+        Arrays.fill(p, 1.0 / n);
+        return p;
+    }
+
+    /** One outcome of the turn's randomness: both draw piles in a fresh order and a fresh RNG stream. */
+    private static GameState sample(GameState g, long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        GameState s = g.copy(new DeterministicRng(r.nextLong()));
+        reshuffle(s.getPlayerA(), r);
+        reshuffle(s.getPlayerB(), r);
+        return s;
+    }
+
+    private static void reshuffle(PlayerState p, SplittableRandom r) {
+        List<Cards> deck = new ArrayList<>(p.getDeck());
+        IsmctsPolicy.shuffle(deck, r);
+        p.getDeck().clear();
+        p.getDeck().addAll(deck);
+    }
+
+    /**
+     * This bot's value of a position: the result when it is over, else the evaluator's win probability or, without
+     * one, the dot counter scaled into (0, 1).
+     */
+    private double evaluate(GameState g) {
+        if (evaluator != null) return evaluator.winProbability(g, seat);
+        int winner = g.winnerIndexOrMinusOne();
+        double a;
+        if (winner == 0) a = WIN;
+        else if (winner == 1) a = LOSS;
+        else a = Math.max(LOSS, Math.min(WIN, 0.5 + 0.5 * g.getSharedDotCounter() / (double) g.getWinPointsToReach()));
+        return seat == 0 ? a : 1.0 - a;
+    }
+
+    /** Mean {@link GreedyPolicy#cardValue} over the card set for the picker, the baseline of its modelled pick. */
+    private double averageCardValue(PlayerState p) {
+        double sum = 0;
+        for (int c = 0; c < index.size(); c++) sum += GreedyPolicy.cardValue(index, p, index.cardAt(c).id());
+        return sum / index.size();
+    }
+
+    /** Every offer from {@code hand}, the one {@link GreedyPolicy} would make first so that probes are informative. */
+    private List<Offer> offers(GameState g, List<Cards> hand) {
+        List<Offer> out = new ArrayList<>();
+        for (String up : IsmctsPolicy.offerUps(hand)) {
+            for (String down : IsmctsPolicy.offerDowns(hand, up)) out.add(new Offer(up, down));
+        }
+        int greedy = out.indexOf(new GreedyPolicy(index).chooseOffer(g, g.getActivePlayerIndex()));
+        if (greedy > 0) out.add(0, out.remove(greedy));
+        return out;
+    }
+
+    private void tick() {
+        if ((++nodes & CLOCK_MASK) == 0 && System.nanoTime() >= deadline) throw new Timeout();
+    }
+}
@@ -0,0 +1,88 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+
+import java.util.List;
+
+/**
+ * One-ply heuristic bot. A card is worth the immediate dot swing its current tier would give the player resolving
+ * it. The offer keeps the two most valuable hand cards and shows the weaker one, betting that the opponent takes
+ * what it can see. The pick takes the face-up card when it beats the average card for the picker.
+ */
+public final class GreedyPolicy implements Policy {
+    private final CardIndex index;
+
+    public GreedyPolicy(CardIndex index) {
+        this.index = index;
+    }
+
+    public static Factory factory(CardIndex index) {
+        return (seed, seat) -> new GreedyPolicy(index);
+    }
+
+    @Override
+    public Offer chooseOffer(GameState state, int seat) {
+        PlayerState self = seat == 0 ? state.getPlayerA() : state.getPlayerB();
+        List<Cards> hand = self.getHand();
+        int best = -1, second = -1;
+        double bestV = Double.NEGATIVE_INFINITY, secondV = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < hand.size(); i++) {
+            double v = cardValue(index, self, hand.get(i).cardId());
+            if (v > bestV) {
+                second = best; secondV = bestV;
+                best = i; bestV = v;
+            } else if (v > secondV) {
+                second = i; secondV = v;
+            }
+        }
+        if (second < 0) second = best;
+        return new Offer(hand.get(second).cardId(), hand.get(best).cardId());
+    }
+
+    @Override
+    public boolean chooseFaceUp(GameState state, int seat) {
+        PlayerState self = seat == 0 ? state.getPlayerA() : state.getPlayerB();
+        double sum = 0;
+        for (int c = 0; c < index.size(); c++) sum += cardValue(index, self, index.cardAt(c).id());
+        return cardValue(index, self, state.getFaceUpCardId()) >= sum / index.size();
+    }
+
+    /** Immediate dot swing, from the resolver's point of view, of playing {@code cardId} onto {@code self}'s tableau. */
+    public static double cardValue(CardIndex index, PlayerState self, String cardId) {
+        int copies = 1;
+        for (var c : self.getTableau()) if (c.cardId().equals(cardId)) copies++;
+        return tierValue(index, cardId, copies);
+    }
+
+    /** {@link #cardValue} against a tableau given by its card ids, such as one recorded earlier in the match. */
+    public static double cardValue(CardIndex index, List<String> tableau, String cardId) {
+        int copies = 1;
+        for (String id : tableau) if (id.equals(cardId)) copies++;
+        return tierValue(index, cardId, copies);
+    }
+
+    private static double tierValue(CardIndex index, String cardId, int copies) {
+        CardDefinitionSet.CardDef def = index.get(cardId);
+        if (def == null) return 0;
+        int tierIdx = Math.min(def.tiers().size(), copies) - 1;
+        double v = 0;
+        for (CardDefinitionSet.Action a : def.tiers().get(tierIdx).actions()) v += actionValue(a);
+        return v;
+    }
+
+    // Push and heal move the counter toward their target, damage moves it away
+    static double actionValue(CardDefinitionSet.Action a) {
+        int amount = a.amount() == null ? 0 : a.amount();
+        int sign = "self".equals(a.target()) ? 1 : "opponent".equals(a.target()) ? -1 : 0;
+        return switch (a.type()) {
+            case "push", "heal" -> sign * amount;
+            case "damage" -> -sign * amount;
+            case "fallback_push_if_no_trigger" -> amount;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,483 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Single-observer information-set MCTS. Every iteration samples a determinization of what the seat cannot see
+ * from its {@link BeliefTracker}, kept for the whole match, plays it down one shared tree with UCB over the moves
+ * legal in that sample (counting availability, not parent visits), expands one move, finishes with a random
+ * rollout and backs up win / draw / loss from each mover's point of view. The move played is the most visited one at the root.
+ *
+ * <p>An offer is two tree levels, face-up card then face-down card, and the pick statistics live on the
+ * face-up level: the picker only sees the face-up card, so it must not learn a different pick per hidden
+ * card. Rollouts stop after {@link Settings#horizon} turns and score the dot counter instead.
+ *
+ * <p>With {@link Settings#threads} above one the search runs in parallel, either with one tree per thread
+ * whose root visit counts are summed ({@link Parallelism#ROOT}; reproducible under an iteration budget), or
+ * with all threads in one tree ({@link Parallelism#TREE}). Node statistics are atomic counters, and a visit is
+ * counted as soon as an edge is selected with its reward added only at backup, so in-flight iterations look
+ * like losses (virtual loss) and steer other threads elsewhere.
+ */
+public final class IsmctsPolicy implements Policy {
+    public enum Parallelism { ROOT, TREE }
+
+    /**
+     * Search budget: stop after {@code iterations} in total or {@code millis} of wall clock, whichever comes
+     * first ({@code millis <= 0} means iterations only, which keeps single-threaded and root-parallel search
+     * reproducible).
+     */
+    public record Settings(int iterations, long millis, double exploration, int horizon, int threads, Parallelism parallelism) {
+        /** Seeded play for simulations; about 60 ms per decision on one core. */
+        public static final Settings DEFAULT = new Settings(1_000, 0, 0.7, 40);
+
+        public Settings(int iterations, long millis, double exploration, int horizon) {
+            this(iterations, millis, exploration, horizon, 1, Parallelism.ROOT);
+        }
+
+        public Settings withThreads(int threads, Parallelism parallelism) {
+            return new Settings(iterations, millis, exploration, horizon, threads, parallelism);
+        }
+    }
+
+    /** Wall-clock budgets and core counts of the backend bot's difficulty levels. */
+    public enum Difficulty {
+        EASY(new Settings(Integer.MAX_VALUE, 40, 1.2, 20)),
+        NORMAL(new Settings(Integer.MAX_VALUE, 150, 0.7, 40)),
+        HARD(new Settings(Integer.MAX_VALUE, 150, 0.7, 40, 4, Parallelism.TREE)),
+        EXPERT(new Settings(Integer.MAX_VALUE, 150, 0.7, 40, 8, Parallelism.TREE));
+
+        private final Settings settings;
+
+        Difficulty(Settings settings) {
+            this.settings = settings;
+        }
+
+        public Settings settings() { return settings; }
+    }
+
+    /**
+     * Helper threads for parallel searches, one per core and shared by every bot in the process, so concurrent
+     * matches queue for cores instead of each starting threads of their own. The deciding thread always runs one
+     * share itself; a helper that only starts after the deadline returns at once.
+     */
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()), r -> {
+        Thread t = new Thread(r, "ismcts");
+        t.setDaemon(true);
+        return t;
+    });
+    /** Rewards are summed in fixed point so that they can be added atomically. */
+    private static final double REWARD_ONE = 1 << 20;
+
+    private final CardIndex index;
+    private final Settings settings;
+    private final SplittableRandom rnd;
+    private BeliefTracker beliefs;
+    private int lastIterations;
+
+    public IsmctsPolicy(CardIndex index, Settings settings, long seed) {
+        this.index = index;
+        this.settings = settings;
+        this.rnd = new SplittableRandom(seed);
+    }
+
+    public static Factory factory(CardIndex index, Settings settings) {
+        return (seed, seat) -> new IsmctsPolicy(index, settings, DeterministicRng.substream(seed, seat));
+    }
+
+    /** Iterations the last decision ran, over all threads. */
+    public int lastIterations() { return lastIterations; }
+
+    @Override
+    public Offer chooseOffer(GameState state, int seat) {
+        List<Node> roots = search(state, seat);
+        List<Map<String, Edge>> ups = new ArrayList<>();
+        for (Node r : roots) ups.add(r.moves);
+        String up = mostVisited(ups);
+        List<Map<String, Edge>> downs = new ArrayList<>();
+        for (Node r : roots) {
+            Edge e = r.moves.get(up);
+            if (e != null) downs.add(e.child.moves);
+        }
+        String down = mostVisited(downs);
+        if (down == null) down = offerDowns(handOf(state, seat), up).get(0);
+        return new Offer(up, down);
+    }
+
+    @Override
+    public boolean chooseFaceUp(GameState state, int seat) {
+        long up = 0;
+        long down = 0;
+        for (Node r : search(state, seat)) {
+            up += visits(r.pick.get(1));
+            down += visits(r.pick.get(0));
+        }
+        return up >= down;
+    }
+
+    private static final class Edge {
+        final AtomicInteger visits = new AtomicInteger();
+        final AtomicInteger available = new AtomicInteger();
+        final AtomicLong reward = new AtomicLong();
+        final Node child = new Node();
+    }
+
+    /**
+     * A decision point. A turn node's {@code moves} are face-up cards; the face-up node's {@code moves} are
+     * face-down cards and its {@code pick} holds the picker's statistics; the face-down node continues in
+     * {@code after[picked face up ? 1 : 0]}. A turn without a choice continues in {@code after[0]}.
+     */
+    private static final class Node {
+        final Map<String, Edge> moves = new ConcurrentHashMap<>(8);
+        final AtomicReferenceArray<Edge> pick = new AtomicReferenceArray<>(2);
+        final AtomicReferenceArray<Node> after = new AtomicReferenceArray<>(2);
+    }
+
+    private List<Node> search(GameState real, int seat) {
+        long deadline = settings.millis() > 0 ? System.nanoTime() + settings.millis() * 1_000_000L : Long.MAX_VALUE;
+        beliefs = BeliefTracker.observe(beliefs, index, real, seat);
+        int threads = Math.max(1, settings.threads());
+        boolean shared = settings.parallelism() == Parallelism.TREE;
+        Node sharedRoot = new Node();
+        AtomicInteger budget = new AtomicInteger(settings.iterations());
+        List<Node> roots = new ArrayList<>();
+        List<Searcher> searchers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Node root = shared ? sharedRoot : new Node();
+            if (!shared || t == 0) roots.add(root);
+            // Root parallelism splits the budget up front so each tree's work does not depend on scheduling
+            int quota = shared ? Integer.MAX_VALUE : settings.iterations() / threads + (t < settings.iterations() % threads ? 1 : 0);
+            searchers.add(new Searcher(root, real, seat, rnd.split(), quota, budget, deadline));
+        }
+        List<Future<?>> helpers = new ArrayList<>();
+        for (int t = 1; t < threads; t++) helpers.add(WORKERS.submit(searchers.get(t)));
+        searchers.get(0).run();
+        for (Future<?> f : helpers) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        int n = 0;
+        for (Searcher s : searchers) n += s.iterations;
+        lastIterations = n;
+        return roots;
+    }
+
+    private record Step(Edge edge, int mover) {}
+
+    private final class Searcher implements Runnable {
+        final Node root;
+        final GameState real;
+        final int seat;
+        final SplittableRandom rnd;
+        final int quota;
+        final AtomicInteger budget;
+        final long deadline;
+        int iterations;
+
+        Searcher(Node root, GameState real, int seat, SplittableRandom rnd, int quota, AtomicInteger budget, long deadline) {
+            this.root = root;
+            this.real = real;
+            this.seat = seat;
+            this.rnd = rnd;
+            this.quota = quota;
+            this.budget = budget;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            // The clock is read every 16 iterations
+            while (iterations < quota && ((iterations & 15) != 0 || System.nanoTime() < deadline)
+                    && budget.getAndDecrement() > 0) {
+                iterate();
+                iterations++;
+            }
+        }
+
+        private void iterate() {
+            GameState g = beliefs.sample(real, rnd);
+            TurnEngine engine = new TurnEngine(g, index);
+            engine.setVerbose(false);
+            List<Step> path = new ArrayList<>();
+            Node node = root;
+            boolean inTree = true;
+            int turns = 0;
+            if (g.getPhase() == GameState.Phase.OPPONENT_PICK) {
+                // Deciding a pick at the root: the offer is already on the table
+                int choice = selectPick(node, 1 - g.getActivePlayerIndex(), path);
+                inTree = !isNew(path);
+                node = child(node.after, choice);
+                resolve(g, engine, choice == 1);
+                turns++;
+            }
+            while (g.winnerIndexOrMinusOne() == -1 && turns < settings.horizon()) {
+                turns++;
+                PlayerState active = g.getActivePlayer();
+                if (active.isSkipNextTurn() || active.getHand().isEmpty()) {
+                    engine.playTurnAuto();
+                    if (inTree) node = child(node.after, 0);
+                    continue;
+                }
+                int mover = g.getActivePlayerIndex();
+                List<Cards> hand = active.getHand();
+                if (!inTree) {
+                    Offer offer = randomOffer(hand);
+                    g.setFaceUpCardId(offer.faceUpId());
+                    g.setFaceDownCardId(offer.faceDownId());
+                    g.setPhase(GameState.Phase.OPPONENT_PICK);
+                    resolve(g, engine, rnd.nextBoolean());
+                    continue;
+                }
+                String up = select(node.moves, offerUps(hand), mover, path);
+                Node upNode = node.moves.get(up).child;
+                inTree = !isNew(path);
+                String down;
+                if (inTree) {
+                    down = select(upNode.moves, offerDowns(hand, up), mover, path);
+                    node = upNode.moves.get(down).child;
+                    inTree = !isNew(path);
+                } else {
+                    List<String> downs = offerDowns(hand, up);
+                    down = downs.get(rnd.nextInt(downs.size()));
+                }
+                g.setFaceUpCardId(up);
+                g.setFaceDownCardId(down);
+                g.setPhase(GameState.Phase.OPPONENT_PICK);
+                boolean faceUp;
+                if (inTree) {
+                    int choice = selectPick(upNode, 1 - mover, path);
+                    inTree = !isNew(path);
+                    faceUp = choice == 1;
+                    node = child(node.after, choice);
+                } else {
+                    faceUp = rnd.nextBoolean();
+                }
+                resolve(g, engine, faceUp);
+            }
+
+            int winner = g.winnerIndexOrMinusOne();
+            double rewardA = winner == 0 ? 1.0 : winner == 1 ? 0.0
+                    : 0.5 + 0.5 * g.getSharedDotCounter() / (double) g.getWinPointsToReach();
+            // Visits were counted during selection
+            for (Step s : path) s.edge.reward.addAndGet(Math.round((s.mover == 0 ? rewardA : 1.0 - rewardA) * REWARD_ONE));
+        }
+
+        /** UCB over the legal moves with availability counts; an untried legal move is taken first. */
+        private String select(Map<String, Edge> edges, List<String> legal, int mover, List<Step> path) {
+            String best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            List<String> untried = new ArrayList<>();
+            for (String m : legal) {
+                Edge e = edges.get(m);
+                if (e == null) {
+                    untried.add(m);
+                    continue;
+                }
+                double score = ucb(e, e.available.incrementAndGet());
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = m;
+                }
+            }
+            if (!untried.isEmpty()) {
+                best = untried.get(rnd.nextInt(untried.size()));
+                Edge fresh = new Edge();
+                Edge e = edges.putIfAbsent(best, fresh);
+                (e == null ? fresh : e).available.incrementAndGet();
+            }
+            Edge chosen = edges.get(best);
+            chosen.visits.incrementAndGet();
+            path.add(new Step(chosen, mover));
+            return best;
+        }
+
+        /** {@link #select} for the pick: 1 takes the face-up card, 0 the face-down one. */
+        private int selectPick(Node node, int picker, List<Step> path) {
+            Edge down = node.pick.get(0);
+            Edge up = node.pick.get(1);
+            int choice;
+            if (down == null && up == null) choice = rnd.nextBoolean() ? 1 : 0;
+            else if (down == null || up == null) choice = down == null ? 0 : 1;
+            else choice = ucb(up, up.available.incrementAndGet()) >= ucb(down, down.available.incrementAndGet()) ? 1 : 0;
+            Edge chosen = node.pick.get(choice);
+            if (chosen == null) {
+                node.pick.compareAndSet(choice, null, new Edge());
+                chosen = node.pick.get(choice);
+                chosen.available.incrementAndGet();
+                Edge other = node.pick.get(1 - choice);
+                if (other != null) other.available.incrementAndGet();
+            }
+            chosen.visits.incrementAndGet();
+            path.add(new Step(chosen, picker));
+            return choice;
+        }
+
+        private Offer randomOffer(List<Cards> hand) {
+            List<String> ups = offerUps(hand);
+            String up = ups.get(rnd.nextInt(ups.size()));
+            List<String> downs = offerDowns(hand, up);
+            return new Offer(up, downs.get(rnd.nextInt(downs.size())));
+        }
+    }
+
+    /** Whether the edge just selected had never been visited, i.e. the iteration leaves the tree here. */
+    private static boolean isNew(List<Step> path) {
+        return path.get(path.size() - 1).edge.visits.get() == 1;
+    }
+
+    private double ucb(Edge e, int available) {
+        int n = e.visits.get();
+        if (n == 0) return Double.POSITIVE_INFINITY;
+        return e.reward.get() / REWARD_ONE / n + settings.exploration() * Math.sqrt(Math.log(available) / n);
+    }
+
+    private static void resolve(GameState g, TurnEngine engine, boolean faceUp) {
+        String up = g.getFaceUpCardId();
+        String down = g.getFaceDownCardId();
+        engine.playTurnWithChoice(faceUp ? up : down, faceUp ? down : up);
+    }
+
+    private static Node child(AtomicReferenceArray<Node> slots, int i) {
+        Node n = slots.get(i);
+        if (n != null) return n;
+        slots.compareAndSet(i, null, new Node());
+        return slots.get(i);
+    }
+
+    private static int visits(Edge e) {
+        return e == null ? 0 : e.visits.get();
+    }
+
+    /** The move with the most visits summed over {@code trees}; ties go to the smaller id. */
+    private static String mostVisited(List<Map<String, Edge>> trees) {
+        Map<String, Long> total = new HashMap<>();
+        for (Map<String, Edge> edges : trees) {
+            for (Map.Entry<String, Edge> en : edges.entrySet()) total.merge(en.getKey(), (long) en.getValue().visits.get(), Long::sum);
+        }
+        String best = null;
+        long bestVisits = -1;
+        for (Map.Entry<String, Long> en : total.entrySet()) {
+            long v = en.getValue();
+            if (v > bestVisits || v == bestVisits && en.getKey().compareTo(best) < 0) {
+                bestVisits = v;
+                best = en.getKey();
+            }
+        }
+        return best;
+    }
+
+    /** Distinct card ids in the hand, in hand order. */
+    static List<String> offerUps(List<Cards> hand) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Cards c : hand) ids.add(c.cardId());
+        return new ArrayList<>(ids);
+    }
+
+    /** Face-down candidates once {@code up} is shown: another id, or the same one only when nothing else is held. */
+    static List<String> offerDowns(List<Cards> hand, String up) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Cards c : hand) if (!c.cardId().equals(up)) ids.add(c.cardId());
+        if (ids.isEmpty()) ids.add(up);
+        return new ArrayList<>(ids);
+    }
+
+    private static List<Cards> handOf(GameState state, int seat) {
+        return (seat == 0 ? state.getPlayerA() : state.getPlayerB()).getHand();
+    }
+
+    /**
+     * A copy of {@code real} with everything {@code seat} cannot see resampled: the order of its own deck, and
+     * which of the opponent's cards sit in hand versus deck. The opponent's hand plus deck is exactly its starting
+     * cards minus everything it has played, so only that split is unknown; cards revealed from the opponent's
+     * hand, and the face-up card of a pending offer, stay where they are. A pending face-down card is redrawn
+     * from the same pool. Future engine randomness gets a fresh stream per sample.
+     */
+    public static GameState determinize(GameState real, int seat, SplittableRandom rnd) {
+        GameState g = real.copy(new DeterministicRng(rnd.nextLong()));
+        PlayerState self = seat == 0 ? g.getPlayerA() : g.getPlayerB();
+        PlayerState opp = seat == 0 ? g.getPlayerB() : g.getPlayerA();
+
+        List<Cards> ownDeck = new ArrayList<>(self.getDeck());
+        shuffle(ownDeck, rnd);
+        self.getDeck().clear();
+        self.getDeck().addAll(ownDeck);
+
+        HiddenHand hidden = hiddenHand(g, seat);
+        List<Cards> hand = opp.getHand();
+        List<Cards> pool = new ArrayList<>();
+        for (int i : hidden.slots()) pool.add(hand.get(i));
+        pool.addAll(opp.getDeck());
+        shuffle(pool, rnd);
+        for (int k = 0; k < hidden.slots().size(); k++) hand.set(hidden.slots().get(k), pool.get(k));
+        opp.getDeck().clear();
+        opp.getDeck().addAll(pool.subList(hidden.slots().size(), pool.size()));
+        if (hidden.faceDownSlot() >= 0) g.setFaceDownCardId(hand.get(hidden.faceDownSlot()).cardId());
+        return g;
+    }
+
+    /** Positions in the opponent's hand that {@code seat} has not seen, and of the pending face-down card (-1 if none). */
+    record HiddenHand(List<Integer> slots, int faceDownSlot) {}
+
+    /**
+     * The opponent's hand positions {@code seat} cannot see: cards revealed from it, and the face-up card of an
+     * offer the opponent has pending, are known; the rest, including the pending face-down card, are not.
+     */
+    static HiddenHand hiddenHand(GameState g, int seat) {
+        PlayerState opp = seat == 0 ? g.getPlayerB() : g.getPlayerA();
+        Map<String, Integer> known = new HashMap<>();
+        for (String id : seat == 0 ? g.getRevealedCardsB() : g.getRevealedCardsA()) known.merge(id, 1, Integer::sum);
+        boolean pendingOffer = g.getPhase() == GameState.Phase.OPPONENT_PICK && g.getActivePlayer() == opp;
+        if (pendingOffer) known.merge(g.getFaceUpCardId(), 1, Integer::sum);
+
+        List<Cards> hand = opp.getHand();
+        List<Integer> hidden = new ArrayList<>();
+        int faceDownSlot = -1;
+        for (int i = 0; i < hand.size(); i++) {
+            String id = hand.get(i).cardId();
+            Integer k = known.get(id);
+            if (k != null && k > 0) {
+                known.put(id, k - 1);
+                continue;
+            }
+            if (pendingOffer && faceDownSlot < 0 && id.equals(g.getFaceDownCardId())) faceDownSlot = i;
+            hidden.add(i);
+        }
+        return new HiddenHand(hidden, faceDownSlot);
+    }
+
+    static void shuffle(List<Cards> cards, SplittableRandom rnd) {
+        for (int i = cards.size() - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            Cards t = cards.get(i);
+            cards.set(i, cards.get(j));
+            cards.set(j, t);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.officeduel.engine.bot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.model.StatusType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Logistic win-probability model over a fixed feature vector, a leaf evaluation for search bots that costs a
+ * feature pass and a dot product. Weights are fitted offline from self-play (see the simulation tools) and kept in
+ * a versioned JSON weight file.
+ *
+ * <p>Features are taken from the {@link Canonical} position, the player to move first, so one weight vector
+ * serves both seats: the bias, the dot counter and life points, per card its tier on each tableau and its copies in
+ * the mover's hand, per status whether each player has it, hand and deck sizes and pending skips. The opponent's
+ * hand is only counted; in a determinized world it is a guess anyway.
+ *
+ * <p>A weight file names its format, the card set it was trained on (a hash over the card definitions) and every
+ * feature; {@link #read} refuses a file whose format, card set or features differ from this build's.
+ */
+public final class LinearEvaluator {
+    /** Layout version of the weight file and the feature vector; bump it when either changes. */
+    public static final int FORMAT = 1;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final StatusType[] STATUSES = StatusType.values();
+
+    /** On-disk form. {@code positions} and {@code holdoutLogLoss} describe the training run. */
+    public record Weights(int format, String cardSet, List<String> features, double[] weights, long positions,
+                          double holdoutLogLoss) {}
+
+    private final CardIndex index;
+    private final double[] weights;
+
+    public LinearEvaluator(CardIndex index, double[] weights) {
+        if (weights.length != featureCount(index)) {
+            throw new IllegalArgumentException("Expected " + featureCount(index) + " weights, got " + weights.length);
+        }
+        this.index = index;
+        this.weights = weights.clone();
+    }
+
+    public static int featureCount(CardIndex index) {
+        return 4 + 3 * index.size() + 2 * STATUSES.length + 6;
+    }
+
+    /** Names of the features in vector order, as written to the weight file. */
+    public static List<String> featureNames(CardIndex index) {
+        List<String> names = new ArrayList<>(List.of("bias", "dots", "lp.self", "lp.other"));
+        for (String who : List.of("self", "other")) {
+            for (int c = 0; c < index.size(); c++) names.add("tableau." + who + "." + index.cardAt(c).id());
+        }
+        for (int c = 0; c < index.size(); c++) names.add("hand.self." + index.cardAt(c).id());
+        for (String who : List.of("self", "other")) {
+            for (StatusType t : STATUSES) names.add("status." + who + "." + t.name());
+        }
+        names.addAll(List.of("hand.size.self", "hand.size.other", "deck.self", "deck.other", "skip.self", "skip.other"));
+        return names;
+    }
+
+    /**
+     * Writes the {@link #featureCount} features of {@code g} into {@code out} from {@code offset} on, mostly scaled
+     * into [0, 1]: the counter by the win threshold, life by the card set's maximum, tableau copies by the card's tier
+     * count.
+     */
+    public static void features(CardIndex index, GameState g, double[] out, int offset) {
+        PlayerState self = g.getActivePlayer();
+        PlayerState other = g.getInactivePlayer();
+        int n = index.size();
+        int k = offset;
+        out[k++] = 1.0;
+        int dots = Canonical.flipped(g) ? -g.getSharedDotCounter() : g.getSharedDotCounter();
+        out[k++] = dots / (double) g.getWinPointsToReach();
+        double lp = Math.max(1, index.maxLp());
+        out[k++] = self.getLifePoints() / lp;
+        out[k++] = other.getLifePoints() / lp;
+        Arrays.fill(out, k, k + 3 * n, 0.0);
+        for (Cards c : self.getTableau()) tier(index, c, out, k);
+        k += n;
+        for (Cards c : other.getTableau()) tier(index, c, out, k);
+        k += n;
+        for (Cards c : self.getHand()) {
+            int i = index.ordinalOf(c.cardId());
+            if (i >= 0) out[k + i] += 1.0;
+        }
+        k += n;
+        for (PlayerState p : List.of(self, other)) {
+            var statuses = p.getBuffs().getStatuses();
+            for (StatusType t : STATUSES) out[k++] = statuses.has(t) ? 1.0 : 0.0;
+        }
+        out[k++] = self.getHand().size() / 10.0;
+        out[k++] = other.getHand().size() / 10.0;
+        out[k++] = self.getDeck().size() / 50.0;
+        out[k++] = other.getDeck().size() / 50.0;
+        out[k++] = self.isSkipNextTurn() ? 1.0 : 0.0;
+        out[k] = other.isSkipNextTurn() ? 1.0 : 0.0;
+    }
+
+    private static void tier(CardIndex index, Cards c, double[] out, int k) {
+        int i = index.ordinalOf(c.cardId());
+        if (i < 0) return;
+        double step = 1.0 / index.cardAt(i).tiers().size();
+        out[k + i] = Math.min(1.0, out[k + i] + step);
+    }
+
+    /** Probability, in [0, 1] with a draw as half, that the player to move in {@code g} wins. */
+    public double moverWinProbability(GameState g) {
+        int winner = g.winnerIndexOrMinusOne();
+        if (winner != -1) return winner == g.getActivePlayerIndex() ? 1.0 : 0.0;
+        double[] x = new double[weights.length];
+        features(index, g, x, 0);
+        double z = 0;
+        for (int i = 0; i < x.length; i++) z += weights[i] * x[i];
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    /** {@link #moverWinProbability} as seen by {@code seat}. */
+    public double winProbability(GameState g, int seat) {
+        double p = moverWinProbability(g);
+        return seat == g.getActivePlayerIndex() ? p : 1.0 - p;
+    }
+
+    public double[] weights() { return weights.clone(); }
+
+    /** Hex SHA-256 over the card definitions in index order, naming the card set a weight file belongs to. */
+    public static String cardSetHash(CardIndex index) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (int c = 0; c < index.size(); c++) md.update((index.cardAt(c) + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Writes the weight file, through a temporary sibling so readers never see half a file. */
+    public void write(Path path, long positions, double holdoutLogLoss) throws IOException {
+        Weights w = new Weights(FORMAT, cardSetHash(index), featureNames(index), weights, positions, holdoutLogLoss);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), w);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static LinearEvaluator read(Path path, CardIndex index) throws IOException {
+        Weights w = MAPPER.readValue(path.toFile(), Weights.class);
+        if (w.format() != FORMAT) {
+            throw new IllegalStateException("Weight file " + path + " has format " + w.format() + ", expected " + FORMAT);
+        }
+        if (!cardSetHash(index).equals(w.cardSet()) || !featureNames(index).equals(w.features())) {
+            throw new IllegalStateException("Weight file " + path + " was trained on a different card set; retrain it");
+        }
+        return new LinearEvaluator(index, w.weights());
+    }
+}
@@ -0,0 +1,22 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.model.GameState;
+
+/**
+ * Decision maker for one seat. The engine asks the active seat for an {@link Offer} (which two hand cards to
+ * show, and which of them face up) and then asks the other seat which of the two it takes.
+ * Implementations may keep per-match state, so a fresh instance is created for every match via {@link Factory}.
+ */
+public interface Policy {
+    Offer chooseOffer(GameState state, int seat);
+
+    /** Called in OPPONENT_PICK for the inactive seat; {@code true} takes the face-up card. */
+    boolean chooseFaceUp(GameState state, int seat);
+
+    record Offer(String faceUpId, String faceDownId) {}
+
+    @FunctionalInterface
+    interface Factory {
+        Policy create(long matchSeed, int seat);
+    }
+}
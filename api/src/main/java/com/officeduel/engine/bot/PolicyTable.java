@@ -0,0 +1,197 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.model.StatusType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Read-only table of learned decisions, memory-mapped from a file, one lookup per decision.
+ *
+ * <p>Decisions are keyed by an abstract state: for an offer, the dot counter band towards the offering seat, the
+ * statuses of both players and the hand as a multiset of cards with the tier each would resolve at on either
+ * tableau; for a pick, the band towards the picker, the statuses and the face-up card with its two tiers. The key
+ * is a 64-bit hash of that ({@link #offerKey}, {@link #pickKey}) whose top bit, {@link #PICK}, tells the kind of
+ * decision apart; an action is an offer as {@code up * cards + down} in card ordinals, or a pick as 1 for face up
+ * and 0 for face down.
+ *
+ * <p>File layout, little-endian:
+ *
+ * <pre>
+ *   0   int   magic 'ODPT'
+ *   4   int   format
+ *   8   int   cards in the card set
+ *   12  int   slots, a power of two
+ *   16  long  first 64 bits of {@link LinearEvaluator#cardSetHash}
+ *   24  long  entries
+ *   32  slots x long: key's high 32 bits, then action + 1 (0 = empty slot)
+ * </pre>
+ *
+ * A key lives in the aligned bucket of {@link #WAYS} slots its low bits pick, so a lookup reads one cache line. A
+ * lookup can return an action for a different state of the same kind that shares the bucket and high bits;
+ * callers check that it is legal. The kind bit is part of the stored high bits, so a pick never reads an offer's
+ * action or the other way round.
+ */
+public final class PolicyTable {
+    public static final int FORMAT = 2;
+    public static final int MISSING = -1;
+    /** Set in every {@link #pickKey} and clear in every {@link #offerKey}. */
+    public static final long PICK = Long.MIN_VALUE;
+
+    private static final int MAGIC = 0x5450444f; // "ODPT"
+    private static final int HEADER = 32;
+    private static final int WAYS = 4;
+    private static final StatusType[] STATUSES = StatusType.values();
+
+    private final ByteBuffer slots;
+    private final int mask;
+    private final long entries;
+
+    private PolicyTable(ByteBuffer slots, int count, long entries) {
+        this.slots = slots;
+        this.mask = count - 1;
+        this.entries = entries;
+    }
+
+    /** Maps {@code path}, refusing a table written for another format or card set. */
+    public static PolicyTable open(Path path, CardIndex index) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            if (ch.size() < HEADER || buf.getInt(0) != MAGIC || buf.getInt(4) != FORMAT) {
+                throw new IllegalStateException("Policy table " + path + " is not format " + FORMAT);
+            }
+            int count = buf.getInt(12);
+            if (buf.getInt(8) != index.size() || buf.getLong(16) != cardSetBits(index)
+                    || Integer.bitCount(count) != 1 || ch.size() != HEADER + 8L * count) {
+                throw new IllegalStateException("Policy table " + path + " was trained on a different card set; retrain it");
+            }
+            return new PolicyTable(buf.slice(HEADER, 8 * count).order(ByteOrder.LITTLE_ENDIAN), count, buf.getLong(24));
+        }
+    }
+
+    /**
+     * Writes {@code keys[i] -> actions[i]} for the first {@code n} entries into a table at {@code path}, through a
+     * temporary sibling. Entries whose bucket is full are dropped, so list the most valuable first. Returns how many
+     * were kept.
+     */
+    public static long write(Path path, CardIndex index, long[] keys, int[] actions, int n) throws IOException {
+        int count = Integer.highestOneBit(Math.max(WAYS, 2 * n - 1)) << 1;
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + 8 * count).order(ByteOrder.LITTLE_ENDIAN);
+        long kept = 0;
+        for (int i = 0; i < n; i++) {
+            int base = HEADER + 8 * ((int) keys[i] & (count - 1) & -WAYS);
+            for (int w = 0; w < WAYS; w++) {
+                if (buf.getLong(base + 8 * w) == 0) {
+                    buf.putLong(base + 8 * w, (keys[i] & 0xffffffff00000000L) | (actions[i] + 1L));
+                    kept++;
+                    break;
+                }
+            }
+        }
+        buf.putInt(0, MAGIC).putInt(4, FORMAT).putInt(8, index.size()).putInt(12, count)
+                .putLong(16, cardSetBits(index)).putLong(24, kept);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tmp, buf.array());
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return kept;
+    }
+
+    public long entries() { return entries; }
+
+    /** The action stored for {@code key}, or {@link #MISSING}. Safe from any thread. */
+    public int lookup(long key) {
+        int base = 8 * ((int) key & mask & -WAYS);
+        long tag = key & 0xffffffff00000000L;
+        for (int w = 0; w < WAYS; w++) {
+            long slot = slots.getLong(base + 8 * w);
+            if (slot == 0) return MISSING;
+            if ((slot & 0xffffffff00000000L) == tag) return (int) slot - 1;
+        }
+        return MISSING;
+    }
+
+    /** Abstract state of {@code seat} choosing an offer in {@code g}. */
+    public static long offerKey(CardIndex index, GameState g, int seat) {
+        PlayerState self = seat == 0 ? g.getPlayerA() : g.getPlayerB();
+        PlayerState other = seat == 0 ? g.getPlayerB() : g.getPlayerA();
+        StringBuilder sb = new StringBuilder(64).append('O');
+        common(sb, g, seat, self, other);
+        int[] hand = new int[self.getHand().size()];
+        for (int i = 0; i < hand.length; i++) hand[i] = index.ordinalOf(self.getHand().get(i).cardId());
+        Arrays.sort(hand);
+        for (int c : hand) card(sb, index, c, self, other);
+        return EvaluationCache.hash(FORMAT, sb) & ~PICK;
+    }
+
+    /** Abstract state of {@code seat} picking between the face-up card of {@code g} and the hidden one. */
+    public static long pickKey(CardIndex index, GameState g, int seat) {
+        PlayerState self = seat == 0 ? g.getPlayerA() : g.getPlayerB();
+        PlayerState other = seat == 0 ? g.getPlayerB() : g.getPlayerA();
+        StringBuilder sb = new StringBuilder(32).append('P');
+        common(sb, g, seat, self, other);
+        card(sb, index, index.ordinalOf(g.getFaceUpCardId()), self, other);
+        return EvaluationCache.hash(FORMAT, sb) | PICK;
+    }
+
+    /** Band of the counter towards {@code seat}, -2 to 2, then both players' statuses as bit masks. */
+    private static void common(StringBuilder sb, GameState g, int seat, PlayerState self, PlayerState other) {
+        int dots = seat == 0 ? g.getSharedDotCounter() : -g.getSharedDotCounter();
+        int band = Integer.signum(dots) * Math.min(2, (Math.abs(dots) + 1) / 2);
+        sb.append(band).append('|').append(statusMask(self)).append('|').append(statusMask(other)).append('|');
+    }
+
+    private static int statusMask(PlayerState p) {
+        int mask = 0;
+        var statuses = p.getBuffs().getStatuses();
+        for (StatusType t : STATUSES) if (statuses.has(t)) mask |= 1 << t.ordinal();
+        return mask;
+    }
+
+    private static void card(StringBuilder sb, CardIndex index, int ordinal, PlayerState self, PlayerState other) {
+        sb.append(ordinal);
+        if (ordinal >= 0) sb.append(':').append(tier(index, self, ordinal)).append(':').append(tier(index, other, ordinal));
+        sb.append(' ');
+    }
+
+    /** Tier, from 1, card {@code ordinal} resolves at when played onto {@code p}'s tableau. */
+    static int tier(CardIndex index, PlayerState p, int ordinal) {
+        String id = index.cardAt(ordinal).id();
+        int copies = 1;
+        for (Cards c : p.getTableau()) if (c.cardId().equals(id)) copies++;
+        return Math.min(index.cardAt(ordinal).tiers().size(), copies);
+    }
+
+    /** Every legal offer from {@code hand}, in the order search bots enumerate them. */
+    public static List<Policy.Offer> offers(List<Cards> hand) {
+        List<Policy.Offer> out = new ArrayList<>();
+        for (String up : IsmctsPolicy.offerUps(hand)) {
+            for (String down : IsmctsPolicy.offerDowns(hand, up)) out.add(new Policy.Offer(up, down));
+        }
+        return out;
+    }
+
+    /** {@code o} as an action. */
+    public static int encode(CardIndex index, Policy.Offer o) {
+        return index.ordinalOf(o.faceUpId()) * index.size() + index.ordinalOf(o.faceDownId());
+    }
+
+    private static long cardSetBits(CardIndex index) {
+        return HexFormat.fromHexDigitsToLong(LinearEvaluator.cardSetHash(index), 0, 16);
+    }
+}
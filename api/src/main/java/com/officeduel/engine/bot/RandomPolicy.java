@@ -0,0 +1,38 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+
+/**
+ * Uniformly random play, equivalent to {@code TurnEngine.playTurnAuto} but drawing from its own stream so the
+ * engine's RNG sequence does not depend on which bot is seated.
+ */
+public final class RandomPolicy implements Policy {
+    public static final Factory FACTORY = (seed, seat) -> new RandomPolicy(new DeterministicRng(DeterministicRng.substream(seed, seat)));
+
+    private final DeterministicRng rng;
+
+    public RandomPolicy(DeterministicRng rng) {
+        this.rng = rng;
+    }
+
+    @Override
+    public Offer chooseOffer(GameState state, int seat) {
+        PlayerState self = seat == 0 ? state.getPlayerA() : state.getPlayerB();
+        int h = self.getHand().size();
+        int up = rng.nextInt(h);
+        if (h == 1) {
+            String only = self.getHand().get(0).cardId();
+            return new Offer(only, only);
+        }
+        int down = rng.nextInt(h - 1);
+        if (down >= up) down++;
+        return new Offer(self.getHand().get(up).cardId(), self.getHand().get(down).cardId());
+    }
+
+    @Override
+    public boolean chooseFaceUp(GameState state, int seat) {
+        return rng.nextBoolean();
+    }
+}
@@ -0,0 +1,63 @@
+package com.officeduel.engine.bot;
+
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+
+import java.util.List;
+
+/**
+ * Plays the decisions of a {@link PolicyTable}: one key and one lookup per decision. A state the table does not
+ * hold, or an offer that is not legal in the actual hand (a colliding entry), is left to the fallback policy.
+ */
+public final class TablePolicy implements Policy {
+    private final CardIndex index;
+    private final PolicyTable table;
+    private final Policy fallback;
+    private long hits;
+    private long misses;
+
+    public TablePolicy(CardIndex index, PolicyTable table, Policy fallback) {
+        this.index = index;
+        this.table = table;
+        this.fallback = fallback;
+    }
+
+    /** The table over a fresh {@code fallback} per match. */
+    public static Factory factory(CardIndex index, PolicyTable table, Factory fallback) {
+        return (seed, seat) -> new TablePolicy(index, table, fallback.create(seed, seat));
+    }
+
+    /** Decisions taken from the table so far. */
+    public long hits() { return hits; }
+
+    /** Decisions left to the fallback so far. */
+    public long misses() { return misses; }
+
+    @Override
+    public Offer chooseOffer(GameState state, int seat) {
+        int action = table.lookup(PolicyTable.offerKey(index, state, seat));
+        if (action != PolicyTable.MISSING) {
+            List<Cards> hand = (seat == 0 ? state.getPlayerA() : state.getPlayerB()).getHand();
+            for (Offer o : PolicyTable.offers(hand)) {
+                if (PolicyTable.encode(index, o) == action) {
+                    hits++;
+                    return o;
+                }
+            }
+        }
+        misses++;
+        return fallback.chooseOffer(state, seat);
+    }
+
+    @Override
+    public boolean chooseFaceUp(GameState state, int seat) {
+        int action = table.lookup(PolicyTable.pickKey(index, state, seat));
+        if (action == 0 || action == 1) {
+            hits++;
+            return action == 1;
+        }
+        misses++;
+        return fallback.chooseFaceUp(state, seat);
+    }
+}
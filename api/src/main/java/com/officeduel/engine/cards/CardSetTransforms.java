@@ -0,0 +1,56 @@
+package com.officeduel.engine.cards;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/** Pure rewrites of a {@link CardDefinitionSet} for balance experiments; the input is never modified. */
+public final class CardSetTransforms {
+    private CardSetTransforms() {}
+
+    /** Addresses one action by its position: card in file order, tier (0-based) and action within the tier. */
+    @FunctionalInterface
+    public interface ActionMapper {
+        CardDefinitionSet.Action apply(int card, int tier, int action, CardDefinitionSet.Action a);
+    }
+
+    /** Rebuilds the set with {@code fn(card, action)} applied to every action of every tier. */
+    public static CardDefinitionSet mapActions(CardDefinitionSet defs,
+                                               BiFunction<CardDefinitionSet.CardDef, CardDefinitionSet.Action, CardDefinitionSet.Action> fn) {
+        return mapActions(defs, (c, t, i, a) -> fn.apply(defs.cards().get(c), a));
+    }
+
+    public static CardDefinitionSet mapActions(CardDefinitionSet defs, ActionMapper fn) {
+        List<CardDefinitionSet.CardDef> cards = new ArrayList<>(defs.cards().size());
+        for (int ci = 0; ci < defs.cards().size(); ci++) {
+            CardDefinitionSet.CardDef c = defs.cards().get(ci);
+            List<CardDefinitionSet.Tier> tiers = new ArrayList<>(c.tiers().size());
+            for (int ti = 0; ti < c.tiers().size(); ti++) {
+                List<CardDefinitionSet.Action> src = c.tiers().get(ti).actions();
+                List<CardDefinitionSet.Action> actions = new ArrayList<>(src.size());
+                for (int ai = 0; ai < src.size(); ai++) actions.add(fn.apply(ci, ti, ai, src.get(ai)));
+                tiers.add(new CardDefinitionSet.Tier(actions));
+            }
+            cards.add(new CardDefinitionSet.CardDef(c.id(), c.name(), c.tags(), tiers));
+        }
+        return new CardDefinitionSet(defs.schemaVersion(), defs.rulesAssumptions(), cards);
+    }
+
+    /**
+     * Multiplies every positive {@code amount} by {@code factor}, rounding to the nearest integer but never below 1,
+     * so a scaled-down card keeps doing something.
+     */
+    public static CardDefinitionSet scaleAmounts(CardDefinitionSet defs, double factor) {
+        if (factor == 1.0) return defs;
+        return mapActions(defs, (card, a) -> a.amount() == null || a.amount() <= 0 ? a
+                : withNumbers(a, (int) Math.max(1, Math.round(a.amount() * factor)), a.count(), a.duration_turns(), a.delta()));
+    }
+
+    /** Copy of {@code a} with its numeric knobs replaced. */
+    public static CardDefinitionSet.Action withNumbers(CardDefinitionSet.Action a, Integer amount, Integer count,
+                                                       Integer durationTurns, Integer delta) {
+        return new CardDefinitionSet.Action(a.type(), a.target(), amount, count, durationTurns, a.status(), a.still_draws(),
+                delta, a.times(), a.condition(), a.source(), a.selection(), a.on_empty(), a.fallback_amount(), a.note(),
+                a.opponent_side());
+    }
+}
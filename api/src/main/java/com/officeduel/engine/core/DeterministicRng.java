@@ -3,12 +3,32 @@ package com.officeduel.engine.core;
 import java.util.SplittableRandom;
 
 public final class DeterministicRng {
+    /** Answers the engine's random choices instead of the stream, for searches that enumerate every outcome. */
+    @FunctionalInterface
+    public interface Oracle {
+        /** A value in [0, bound); every value is equally likely under the real stream. */
+        int choose(int bound);
+    }
+
     private final long seed;
     private final SplittableRandom random;
+    private final Oracle oracle;
 
     public DeterministicRng(long seed) {
         this.seed = seed;
         this.random = new SplittableRandom(seed);
+        this.oracle = null;
+    }
+
+    private DeterministicRng(Oracle oracle) {
+        this.seed = 0;
+        this.random = null;
+        this.oracle = oracle;
+    }
+
+    /** A generator whose integer and boolean draws all come from {@code oracle}; doubles are not supported. */
+    public static DeterministicRng scripted(Oracle oracle) {
+        return new DeterministicRng(oracle);
     }
 
     public long seed() {
@@ -16,16 +36,41 @@ public final class DeterministicRng {
     }
 
     public int nextInt(int boundExclusive) {
+        if (oracle != null) return oracle.choose(boundExclusive);
         return random.nextInt(boundExclusive);
     }
 
     public int nextInt(int originInclusive, int boundExclusive) {
+        if (oracle != null) return originInclusive + oracle.choose(boundExclusive - originInclusive);
         return random.nextInt(originInclusive, boundExclusive);
     }
 
     public boolean nextBoolean() {
+        if (oracle != null) return oracle.choose(2) == 1;
         return random.nextBoolean();
     }
+
+    public double nextDouble() {
+        if (oracle != null) throw new UnsupportedOperationException("Scripted generators only draw integers");
+        return random.nextDouble();
+    }
+
+    public double nextGaussian() {
+        if (oracle != null) throw new UnsupportedOperationException("Scripted generators only draw integers");
+        return random.nextGaussian();
+    }
+
+    /**
+     * Derives the seed of an independent stream from a match seed, so that e.g. each seat's bot can draw its own
+     * random numbers without shifting the engine's sequence. Plain {@code seed + stream} is not safe here:
+     * SplittableRandom streams for nearby seeds overlap.
+     */
+    public static long substream(long seed, long stream) {
+        long z = seed + (stream + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 }
 
 
@@ -8,12 +8,17 @@ import java.util.Map;
 
 public final class CardIndex {
     private final Map<String, CardDefinitionSet.CardDef> byId = new HashMap<>();
+    // Dense 0..size-1 numbering in definition-file order, used to key primitive arrays
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<CardDefinitionSet.CardDef> inOrder;
     private final int maxLp;
 
     public CardIndex(CardDefinitionSet defs) {
         for (CardDefinitionSet.CardDef c : defs.cards()) {
             byId.put(c.id(), c);
+            ordinals.putIfAbsent(c.id(), ordinals.size());
         }
+        this.inOrder = ordinals.keySet().stream().sorted((x, y) -> ordinals.get(x) - ordinals.get(y)).map(byId::get).toList();
         // LP system no longer used in push-based game
         this.maxLp = 0;
     }
@@ -21,6 +26,9 @@ public final class CardIndex {
     public CardDefinitionSet.CardDef get(String id) { return byId.get(id); }
     public int maxLp() { return maxLp; }
     public List<CardDefinitionSet.CardDef> getAllCards() { return List.copyOf(byId.values()); }
-}
-
 
+    public int size() { return inOrder.size(); }
+    public CardDefinitionSet.CardDef cardAt(int ordinal) { return inOrder.get(ordinal); }
+    /** Returns the card's position in definition order, or -1 for an unknown id. */
+    public int ordinalOf(String id) { return ordinals.getOrDefault(id, -1); }
+}
@@ -14,6 +14,7 @@ public final class EffectResolver {
     private final CardIndex index;
     private String playerAName = "Jugador A";
     private String playerBName = "Jugador B";
+    private boolean verbose = true;
 
     public EffectResolver(GameState state, CardIndex index) {
         this.state = state;
@@ -25,6 +26,8 @@ public final class EffectResolver {
         this.playerBName = playerBName != null ? playerBName : "Jugador B";
     }
 
+    public void setVerbose(boolean verbose) { this.verbose = verbose; }
+
     public void applyActions(List<Action> actions, MatchPlayer source, MatchPlayer opponent) {
         for (Action action : actions) {
             if ("both".equals(action.target())) {
@@ -86,21 +89,25 @@ public final class EffectResolver {
         if (affectedPlayer.state().getBuffs().getStatuses().has(StatusType.SHIELD_NEXT_PUSH_AGAINST_YOU)) {
             affectedPlayer.state().getBuffs().getStatuses().remove(StatusType.SHIELD_NEXT_PUSH_AGAINST_YOU);
             // Add effect feedback for push shield activation
-            String playerName = affectedPlayer.state() == state.getPlayerA() ? playerAName : playerBName;
-            String effectDescription = String.format("Escudo Anti-Push de %s bloquea empuje de %d", playerName, amount);
-            System.out.println("DEBUG addEffectFeedback: Adding push shield activation for " + playerName + ": " + effectDescription);
-            state.addEffectFeedback(playerName, "Escudo Push Activado", effectDescription);
+            if (state.isEffectFeedbackEnabled()) {
+                String playerName = affectedPlayer.state() == state.getPlayerA() ? playerAName : playerBName;
+                String effectDescription = String.format("Escudo Anti-Push de %s bloquea empuje de %d", playerName, amount);
+                if (verbose) System.out.println("DEBUG addEffectFeedback: Adding push shield activation for " + playerName + ": " + effectDescription);
+                state.addEffectFeedback(playerName, "Escudo Push Activado", effectDescription);
+            }
             return;
         }
         
         if (affectedPlayer.state().getBuffs().getStatuses().has(StatusType.REFLECT_NEXT_PUSH)) {
             affectedPlayer.state().getBuffs().getStatuses().remove(StatusType.REFLECT_NEXT_PUSH);
             // Add effect feedback for push reflect activation
-            String playerName = affectedPlayer.state() == state.getPlayerA() ? playerAName : playerBName;
-            String sourcePlayerName = source.state() == state.getPlayerA() ? playerAName : playerBName;
-            String effectDescription = String.format("Reflejo Push de %s devuelve empuje de %d a %s", playerName, amount, sourcePlayerName);
-            System.out.println("DEBUG addEffectFeedback: Adding push reflect activation for " + playerName + ": " + effectDescription);
-            state.addEffectFeedback(playerName, "Reflejo Push Activado", effectDescription);
+            if (state.isEffectFeedbackEnabled()) {
+                String playerName = affectedPlayer.state() == state.getPlayerA() ? playerAName : playerBName;
+                String sourcePlayerName = source.state() == state.getPlayerA() ? playerAName : playerBName;
+                String effectDescription = String.format("Reflejo Push de %s devuelve empuje de %d a %s", playerName, amount, sourcePlayerName);
+                if (verbose) System.out.println("DEBUG addEffectFeedback: Adding push reflect activation for " + playerName + ": " + effectDescription);
+                state.addEffectFeedback(playerName, "Reflejo Push Activado", effectDescription);
+            }
             // Apply the push to the source instead
             source = affectedPlayer;
             affectedPlayer = targetOf(target, source, 
@@ -120,19 +127,21 @@ public final class EffectResolver {
             " affects " + (affectedPlayer.state() == state.getPlayerA() ? "Player A" : "Player B") + " -> adjusted: " + adjustedAmount);
         
         // Add effect feedback with clear description
-        String playerName = affectedPlayer.state() == state.getPlayerA() ? playerAName : playerBName;
-        String targetPlayerName = targetOf(target, source, 
-            source.state() == state.getPlayerA() ? new MatchPlayer(state.getPlayerB()) : new MatchPlayer(state.getPlayerA())).state() == state.getPlayerA() ? playerAName : playerBName;
+        if (state.isEffectFeedbackEnabled()) {
+            String playerName = affectedPlayer.state() == state.getPlayerA() ? playerAName : playerBName;
+            String targetPlayerName = targetOf(target, source, 
+                source.state() == state.getPlayerA() ? new MatchPlayer(state.getPlayerB()) : new MatchPlayer(state.getPlayerA())).state() == state.getPlayerA() ? playerAName : playerBName;
         
-        String effectDescription;
-        if (amount > 0) {
-            effectDescription = String.format("Empuja +%d hacia %s", amount, targetPlayerName);
-        } else {
-            effectDescription = String.format("Empuja %d hacia %s", amount, targetPlayerName);
-        }
+            String effectDescription;
+            if (amount > 0) {
+                effectDescription = String.format("Empuja +%d hacia %s", amount, targetPlayerName);
+            } else {
+                effectDescription = String.format("Empuja %d hacia %s", amount, targetPlayerName);
+            }
         
-        System.out.println("DEBUG addEffectFeedback: Adding push effect for " + playerName + ": " + effectDescription);
-        state.addEffectFeedback(playerName, "Efecto Push", effectDescription);
+            if (verbose) System.out.println("DEBUG addEffectFeedback: Adding push effect for " + playerName + ": " + effectDescription);
+            state.addEffectFeedback(playerName, "Efecto Push", effectDescription);
+        }
     }
 
     private void applyDamage(MatchPlayer target, int amount) {
@@ -144,11 +153,13 @@ public final class EffectResolver {
             target.state().getBuffs().getStatuses().remove(StatusType.REFLECT_ALL_DAMAGE);
             
             // Add effect feedback for reflect activation
-            String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
-            String otherPlayerName = other.state() == state.getPlayerA() ? playerAName : playerBName;
-            String effectDescription = String.format("Reflejo Total de %s devuelve %d de daño a %s", playerName, amount, otherPlayerName);
-            System.out.println("DEBUG addEffectFeedback: Adding reflect activation for " + playerName + ": " + effectDescription);
-            state.addEffectFeedback(playerName, "Reflejo Activado", effectDescription);
+            if (state.isEffectFeedbackEnabled()) {
+                String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
+                String otherPlayerName = other.state() == state.getPlayerA() ? playerAName : playerBName;
+                String effectDescription = String.format("Reflejo Total de %s devuelve %d de daño a %s", playerName, amount, otherPlayerName);
+                if (verbose) System.out.println("DEBUG addEffectFeedback: Adding reflect activation for " + playerName + ": " + effectDescription);
+                state.addEffectFeedback(playerName, "Reflejo Activado", effectDescription);
+            }
             
             applyDamage(other, amount);
             return;
@@ -158,10 +169,12 @@ public final class EffectResolver {
             state.getHistory().add("Shield absorbed damage");
             
             // Add effect feedback for shield activation
-            String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
-            String effectDescription = String.format("Escudo de %s absorbe %d de daño", playerName, amount);
-            System.out.println("DEBUG addEffectFeedback: Adding shield activation for " + playerName + ": " + effectDescription);
-            state.addEffectFeedback(playerName, "Escudo Activado", effectDescription);
+            if (state.isEffectFeedbackEnabled()) {
+                String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
+                String effectDescription = String.format("Escudo de %s absorbe %d de daño", playerName, amount);
+                if (verbose) System.out.println("DEBUG addEffectFeedback: Adding shield activation for " + playerName + ": " + effectDescription);
+                state.addEffectFeedback(playerName, "Escudo Activado", effectDescription);
+            }
             return;
         }
         // thorns reflects fixed damage once
@@ -178,10 +191,12 @@ public final class EffectResolver {
             state.getHistory().add("Thorns reflected:" + thorns);
             
             // Add effect feedback for thorns activation
-            String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
-            String effectDescription = String.format("Espinas de %s reflejan %d de daño", playerName, thorns);
-            System.out.println("DEBUG addEffectFeedback: Adding thorns activation for " + playerName + ": " + effectDescription);
-            state.addEffectFeedback(playerName, "Espinas Activadas", effectDescription);
+            if (state.isEffectFeedbackEnabled()) {
+                String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
+                String effectDescription = String.format("Espinas de %s reflejan %d de daño", playerName, thorns);
+                if (verbose) System.out.println("DEBUG addEffectFeedback: Adding thorns activation for " + playerName + ": " + effectDescription);
+                state.addEffectFeedback(playerName, "Espinas Activadas", effectDescription);
+            }
         }
         // Apply damage to dot counter: damage to target = dots move away from target
         boolean toA = target.state() == state.getPlayerA();
@@ -193,10 +208,12 @@ public final class EffectResolver {
         state.getHistory().add("Damage:" + amount + " (dots: " + state.getSharedDotCounter() + ")");
         
         // Add effect feedback with clear description
-        String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
-        String effectDescription = String.format("Daña %d puntos a %s", amount, playerName);
-        System.out.println("DEBUG addEffectFeedback: Adding damage effect for " + playerName + ": " + effectDescription);
-        state.addEffectFeedback(playerName, "Efecto Daño", effectDescription);
+        if (state.isEffectFeedbackEnabled()) {
+            String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
+            String effectDescription = String.format("Daña %d puntos a %s", amount, playerName);
+            if (verbose) System.out.println("DEBUG addEffectFeedback: Adding damage effect for " + playerName + ": " + effectDescription);
+            state.addEffectFeedback(playerName, "Efecto Daño", effectDescription);
+        }
     }
 
     private void applyHeal(MatchPlayer target, int amount) {
@@ -210,10 +227,12 @@ public final class EffectResolver {
         state.getHistory().add("Heal:" + amount + " (dots: " + state.getSharedDotCounter() + ")");
         
         // Add effect feedback with clear description
-        String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
-        String effectDescription = String.format("Cura %d puntos a %s", amount, playerName);
-        System.out.println("DEBUG addEffectFeedback: Adding heal effect for " + playerName + ": " + effectDescription);
-        state.addEffectFeedback(playerName, "Efecto Cura", effectDescription);
+        if (state.isEffectFeedbackEnabled()) {
+            String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
+            String effectDescription = String.format("Cura %d puntos a %s", amount, playerName);
+            if (verbose) System.out.println("DEBUG addEffectFeedback: Adding heal effect for " + playerName + ": " + effectDescription);
+            state.addEffectFeedback(playerName, "Efecto Cura", effectDescription);
+        }
     }
 
     private void applyDraw(MatchPlayer target, int count) {
@@ -262,15 +281,17 @@ public final class EffectResolver {
         target.state().getBuffs().getStatuses().apply(type, amount, duration);
         
         // Add effect feedback for status being applied
-        String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
-        String statusName = getStatusDisplayName(type);
-        String effectDescription = String.format("Aplica %s a %s por %d turno%s", statusName, playerName, duration, duration == 1 ? "" : "s");
-        if (amount > 0) {
-            effectDescription += String.format(" (fuerza: %d)", amount);
-        }
+        if (state.isEffectFeedbackEnabled()) {
+            String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
+            String statusName = getStatusDisplayName(type);
+            String effectDescription = String.format("Aplica %s a %s por %d turno%s", statusName, playerName, duration, duration == 1 ? "" : "s");
+            if (amount > 0) {
+                effectDescription += String.format(" (fuerza: %d)", amount);
+            }
         
-        System.out.println("DEBUG addEffectFeedback: Adding status effect for " + playerName + ": " + effectDescription);
-        state.addEffectFeedback(playerName, "Efecto Status", effectDescription);
+            if (verbose) System.out.println("DEBUG addEffectFeedback: Adding status effect for " + playerName + ": " + effectDescription);
+            state.addEffectFeedback(playerName, "Efecto Status", effectDescription);
+        }
     }
     
     private String getStatusDisplayName(StatusType type) {
@@ -307,10 +328,10 @@ public final class EffectResolver {
         }
         
         // Add effect feedback with clear description
-        if (n > 0) {
+        if (n > 0 && state.isEffectFeedbackEnabled()) {
             String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
             String effectDescription = String.format("Revela %d carta%s de %s", n, n == 1 ? "" : "s", playerName);
-            System.out.println("DEBUG addEffectFeedback: Adding reveal effect for " + playerName + ": " + effectDescription);
+            if (verbose) System.out.println("DEBUG addEffectFeedback: Adding reveal effect for " + playerName + ": " + effectDescription);
             state.addEffectFeedback(playerName, "Efecto Revelar", effectDescription);
         }
     }
@@ -325,11 +346,11 @@ public final class EffectResolver {
         }
         
         // Add effect feedback with clear description
-        if (stolenCount > 0) {
+        if (stolenCount > 0 && state.isEffectFeedbackEnabled()) {
             String thiefName = thief.state() == state.getPlayerA() ? playerAName : playerBName;
             String victimName = victim.state() == state.getPlayerA() ? playerAName : playerBName;
             String effectDescription = String.format("Roba %d carta%s de %s", stolenCount, stolenCount == 1 ? "" : "s", victimName);
-            System.out.println("DEBUG addEffectFeedback: Adding steal effect for " + thiefName + ": " + effectDescription);
+            if (verbose) System.out.println("DEBUG addEffectFeedback: Adding steal effect for " + thiefName + ": " + effectDescription);
             state.addEffectFeedback(thiefName, "Efecto Robar", effectDescription);
         }
     }
@@ -343,10 +364,10 @@ public final class EffectResolver {
         }
         
         // Add effect feedback with clear description
-        if (destroyedCount > 0) {
+        if (destroyedCount > 0 && state.isEffectFeedbackEnabled()) {
             String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
             String effectDescription = String.format("Destruye %d carta%s del tableau de %s", destroyedCount, destroyedCount == 1 ? "" : "s", playerName);
-            System.out.println("DEBUG addEffectFeedback: Adding destroy effect for " + playerName + ": " + effectDescription);
+            if (verbose) System.out.println("DEBUG addEffectFeedback: Adding destroy effect for " + playerName + ": " + effectDescription);
             state.addEffectFeedback(playerName, "Efecto Destruir", effectDescription);
         }
     }
@@ -357,7 +378,7 @@ public final class EffectResolver {
         int newSize = target.state().getMaxHandSize();
         
         // Add effect feedback with clear description
-        if (delta != 0) {
+        if (delta != 0 && state.isEffectFeedbackEnabled()) {
             String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
             String effectDescription;
             if (delta > 0) {
@@ -365,7 +386,7 @@ public final class EffectResolver {
             } else {
                 effectDescription = String.format("Reduce tamaño de mano de %s a %d", playerName, newSize);
             }
-            System.out.println("DEBUG addEffectFeedback: Adding hand size effect for " + playerName + ": " + effectDescription);
+            if (verbose) System.out.println("DEBUG addEffectFeedback: Adding hand size effect for " + playerName + ": " + effectDescription);
             state.addEffectFeedback(playerName, "Efecto Tamaño Mano", effectDescription);
         }
     }
@@ -374,10 +395,12 @@ public final class EffectResolver {
         target.state().addExtraFaceDownPlays(count);
         
         // Add effect feedback with clear description
-        String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
-        String effectDescription = String.format("Otorga %d jugada%s extra face-down a %s", count, count == 1 ? "" : "s", playerName);
-        System.out.println("DEBUG addEffectFeedback: Adding extra face-down play effect for " + playerName + ": " + effectDescription);
-        state.addEffectFeedback(playerName, "Efecto Jugada Extra", effectDescription);
+        if (state.isEffectFeedbackEnabled()) {
+            String playerName = target.state() == state.getPlayerA() ? playerAName : playerBName;
+            String effectDescription = String.format("Otorga %d jugada%s extra face-down a %s", count, count == 1 ? "" : "s", playerName);
+            if (verbose) System.out.println("DEBUG addEffectFeedback: Adding extra face-down play effect for " + playerName + ": " + effectDescription);
+            state.addEffectFeedback(playerName, "Efecto Jugada Extra", effectDescription);
+        }
     }
 
     private void checkWinCondition(MatchPlayer self, Action a) {
@@ -397,10 +420,12 @@ public final class EffectResolver {
         var actions = state.getLastActionsAppliedFor(self.state());
         if (actions == null || actions.isEmpty()) {
             // Add feedback for no effects to copy
-            String playerName = self.state() == state.getPlayerA() ? playerAName : playerBName;
-            String effectDescription = "No hay efectos para copiar";
-            System.out.println("DEBUG addEffectFeedback: Adding copy effect for " + playerName + ": " + effectDescription);
-            state.addEffectFeedback(playerName, "Efecto Copia", effectDescription);
+            if (state.isEffectFeedbackEnabled()) {
+                String playerName = self.state() == state.getPlayerA() ? playerAName : playerBName;
+                String effectDescription = "No hay efectos para copiar";
+                if (verbose) System.out.println("DEBUG addEffectFeedback: Adding copy effect for " + playerName + ": " + effectDescription);
+                state.addEffectFeedback(playerName, "Efecto Copia", effectDescription);
+            }
             return;
         }
         
@@ -411,45 +436,50 @@ public final class EffectResolver {
         
         if (filteredActions.isEmpty()) {
             // Add feedback for no valid effects to copy
-            String playerName = self.state() == state.getPlayerA() ? playerAName : playerBName;
-            String effectDescription = "No hay efectos válidos para copiar";
-            System.out.println("DEBUG addEffectFeedback: Adding copy effect for " + playerName + ": " + effectDescription);
-            state.addEffectFeedback(playerName, "Efecto Copia", effectDescription);
+            if (state.isEffectFeedbackEnabled()) {
+                String playerName = self.state() == state.getPlayerA() ? playerAName : playerBName;
+                String effectDescription = "No hay efectos válidos para copiar";
+                if (verbose) System.out.println("DEBUG addEffectFeedback: Adding copy effect for " + playerName + ": " + effectDescription);
+                state.addEffectFeedback(playerName, "Efecto Copia", effectDescription);
+            }
             return;
         }
         
         // Create description of what effects are being copied
-        String playerName = self.state() == state.getPlayerA() ? playerAName : playerBName;
-        StringBuilder effectDescription = new StringBuilder();
-        effectDescription.append("Copia ");
+        if (state.isEffectFeedbackEnabled()) {
+            String playerName = self.state() == state.getPlayerA() ? playerAName : playerBName;
+            StringBuilder effectDescription = new StringBuilder();
+            effectDescription.append("Copia ");
         
-        // Group similar effects for cleaner description
-        var effectCounts = filteredActions.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                action -> getEffectDisplayName(action.type()),
-                java.util.stream.Collectors.counting()
-            ));
+            // Group similar effects for cleaner description
+            var effectCounts = filteredActions.stream()
+                .collect(java.util.stream.Collectors.groupingBy(
+                    action -> getEffectDisplayName(action.type()),
+                    java.util.stream.Collectors.counting()
+                ));
         
-        boolean first = true;
-        for (var entry : effectCounts.entrySet()) {
-            if (!first) effectDescription.append(", ");
-            first = false;
+            boolean first = true;
+            for (var entry : effectCounts.entrySet()) {
+                if (!first) effectDescription.append(", ");
+                first = false;
             
-            String effectName = entry.getKey();
-            long count = entry.getValue();
-            effectDescription.append(effectName);
-            if (count > 1) {
-                effectDescription.append(" (x").append(count).append(")");
+                String effectName = entry.getKey();
+                long count = entry.getValue();
+                effectDescription.append(effectName);
+                if (count > 1) {
+                    effectDescription.append(" (x").append(count).append(")");
+                }
             }
-        }
         
-        effectDescription.append(" del último turno");
-        if (times > 1) {
-            effectDescription.append(" ").append(times).append(" veces");
-        }
+            effectDescription.append(" del último turno");
+            if (times > 1) {
+                effectDescription.append(" ").append(times).append(" veces");
+            }
         
-        System.out.println("DEBUG addEffectFeedback: Adding copy effect for " + playerName + ": " + effectDescription);
-        state.addEffectFeedback(playerName, "Efecto Copia", effectDescription.toString());
+            if (verbose) System.out.println("DEBUG addEffectFeedback: Adding copy effect for " + playerName + ": " + effectDescription);
+            state.addEffectFeedback(playerName, "Efecto Copia", effectDescription.toString());
+        
+        }
         
         for (int i = 0; i < times; i++) {
             applyActions(filteredActions, self, opp);
@@ -4,6 +4,7 @@ import com.officeduel.engine.cards.CardDefinitionSet;
 import com.officeduel.engine.model.GameState;
 import com.officeduel.engine.model.MatchPlayer;
 import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.model.TurnCommand;
 import com.officeduel.engine.telemetry.Telemetry;
 
 import java.util.List;
@@ -19,6 +20,9 @@ public final class TurnEngine {
     private final Telemetry telemetry;
     private String playerAName = "Jugador A";
     private String playerBName = "Jugador B";
+    private boolean verbose = true;
+    private int copiesPerCard = 3;
+    private List<String> standardCards;
 
     public TurnEngine(GameState state, CardIndex index) {
         this.state = state;
@@ -41,12 +45,35 @@ public final class TurnEngine {
         this.effects.setPlayerNames(this.playerAName, this.playerBName);
     }
 
+    /**
+     * Enables or disables the DEBUG trace written to stdout. Simulations turn it off: printing dominates
+     * the cost of a turn once thousands of matches are played back to back.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+        this.effects.setVerbose(verbose);
+    }
+
+    /** Copies of every card added to each deck by {@code startMatch}; balance sweeps vary it. */
+    public void setCopiesPerCard(int copiesPerCard) {
+        this.copiesPerCard = copiesPerCard;
+    }
+
+    /**
+     * Cards whose copies {@code startMatch} adds to each deck, in this order; every card of the index by default.
+     * Fixing it keeps the decks of a seed the same when cards are added to the index.
+     */
+    public void setStandardCards(List<String> cardIds) {
+        this.standardCards = List.copyOf(cardIds);
+    }
+
     public void startMatch() {
         // Initialize LP
         state.getPlayerA().setLifePoints(index.maxLp());
         state.getPlayerB().setLifePoints(index.maxLp());
         
         // Initialize decks with all available cards
+        state.recordInitialDecks();
         initializeDecks();
         
         drawUpTo(state.getPlayerA());
@@ -148,18 +175,18 @@ public final class TurnEngine {
         
         // Clear recently added cards from previous turn at the start of new turn
         // Keep effects recent for persistent log view
-        System.out.println("DEBUG playTurnWithChoice: Clearing recently added cards (keeping effects for log)");
+        if (verbose) System.out.println("DEBUG playTurnWithChoice: Clearing recently added cards (keeping effects for log)");
         state.clearRecentlyAddedCardsA();
         state.clearRecentlyAddedCardsB();
         
         MatchPlayer active = new MatchPlayer(state.getActivePlayer());
         MatchPlayer opponent = new MatchPlayer(state.getInactivePlayer());
 
-        System.out.println("DEBUG playTurnWithChoice:");
-        System.out.println("  Picked card: " + pickedCardId);
-        System.out.println("  Remaining card: " + remainingCardId);
-        System.out.println("  Active player tableau before: " + active.state().getTableau().stream().map(c -> c.cardId()).toList());
-        System.out.println("  Opponent tableau before: " + opponent.state().getTableau().stream().map(c -> c.cardId()).toList());
+        if (verbose) System.out.println("DEBUG playTurnWithChoice:");
+        if (verbose) System.out.println("  Picked card: " + pickedCardId);
+        if (verbose) System.out.println("  Remaining card: " + remainingCardId);
+        if (verbose) System.out.println("  Active player tableau before: " + active.state().getTableau().stream().map(c -> c.cardId()).toList());
+        if (verbose) System.out.println("  Opponent tableau before: " + opponent.state().getTableau().stream().map(c -> c.cardId()).toList());
 
         if (active.state().isSkipNextTurn()) {
             active.state().setSkipNextTurn(false);
@@ -167,45 +194,49 @@ public final class TurnEngine {
             return;
         }
 
+        state.getCommandLog().add(new TurnCommand(state.getActivePlayerIndex(), state.getFaceUpCardId(),
+                state.getFaceDownCardId(), pickedCardId.equals(state.getFaceUpCardId())));
+        state.getOfferTableaus().add(active.state().getTableau().stream().map(Cards::cardId).toList());
+
         // Resolve effects: remaining card first (active player gets priority), then picked card (opponent)
-        System.out.println("  Resolving remaining card effects...");
+        if (verbose) System.out.println("  Resolving remaining card effects...");
         resolveRecruit(remainingCardId, active, opponent, active); // active plays remaining card first
         
         // Check for winner after active player's effects (but before opponent's effects)
-        System.out.println("  Checking for winner after active player's effects...");
+        if (verbose) System.out.println("  Checking for winner after active player's effects...");
         checkWinnerMidTurn();
         
-        System.out.println("  Resolving picked card effects...");
+        if (verbose) System.out.println("  Resolving picked card effects...");
         resolveRecruit(pickedCardId, opponent, active, opponent); // opponent plays picked card second
         
         // Final check for winner after both players have resolved their effects
-        System.out.println("  Final winner check after both players' effects...");
+        if (verbose) System.out.println("  Final winner check after both players' effects...");
         checkWinnerMidTurn();
 
         // Move cards to tableau: active gets remaining card, opponent gets picked card
-        System.out.println("  Adding cards to tableau...");
+        if (verbose) System.out.println("  Adding cards to tableau...");
         active.state().getTableau().add(new com.officeduel.engine.model.Cards(remainingCardId));
         opponent.state().getTableau().add(new com.officeduel.engine.model.Cards(pickedCardId));
         
         // Track recently added cards
         // Active player gets remaining card, Opponent gets picked card
-        System.out.println("DEBUG: Tracking recently added cards - remaining: " + remainingCardId + " (to active), picked: " + pickedCardId + " (to opponent)");
+        if (verbose) System.out.println("DEBUG: Tracking recently added cards - remaining: " + remainingCardId + " (to active), picked: " + pickedCardId + " (to opponent)");
         if (active.state() == state.getPlayerA()) {
             // Active is A, Opponent is B
             state.addRecentlyAddedCardA(remainingCardId);  // A gets remaining
             state.addRecentlyAddedCardB(pickedCardId);     // B gets picked
-            System.out.println("DEBUG: Added to A (active): " + remainingCardId + ", Added to B (opponent): " + pickedCardId);
+            if (verbose) System.out.println("DEBUG: Added to A (active): " + remainingCardId + ", Added to B (opponent): " + pickedCardId);
         } else {
             // Active is B, Opponent is A  
             state.addRecentlyAddedCardB(remainingCardId);  // B gets remaining
             state.addRecentlyAddedCardA(pickedCardId);     // A gets picked
-            System.out.println("DEBUG: Added to B (active): " + remainingCardId + ", Added to A (opponent): " + pickedCardId);
+            if (verbose) System.out.println("DEBUG: Added to B (active): " + remainingCardId + ", Added to A (opponent): " + pickedCardId);
         }
-        System.out.println("DEBUG: Recently added cards A: " + state.getRecentlyAddedCardsA());
-        System.out.println("DEBUG: Recently added cards B: " + state.getRecentlyAddedCardsB());
+        if (verbose) System.out.println("DEBUG: Recently added cards A: " + state.getRecentlyAddedCardsA());
+        if (verbose) System.out.println("DEBUG: Recently added cards B: " + state.getRecentlyAddedCardsB());
         
-        System.out.println("  Active player tableau after: " + active.state().getTableau().stream().map(c -> c.cardId()).toList());
-        System.out.println("  Opponent tableau after: " + opponent.state().getTableau().stream().map(c -> c.cardId()).toList());
+        if (verbose) System.out.println("  Active player tableau after: " + active.state().getTableau().stream().map(c -> c.cardId()).toList());
+        if (verbose) System.out.println("  Opponent tableau after: " + opponent.state().getTableau().stream().map(c -> c.cardId()).toList());
 
         // Remove from hand
         removeFirstById(active.state(), state.getFaceUpCardId());
@@ -220,9 +251,9 @@ public final class TurnEngine {
         state.setFaceDownCardId(null);
 
         // End step (this will swap active player)
-        System.out.println("DEBUG playTurnWithChoice: About to call endStep()");
+        if (verbose) System.out.println("DEBUG playTurnWithChoice: About to call endStep()");
         endStep();
-        System.out.println("DEBUG playTurnWithChoice: endStep() completed");
+        if (verbose) System.out.println("DEBUG playTurnWithChoice: endStep() completed");
     }
 
     private void resolveRecruit(String cardId, MatchPlayer recipient, MatchPlayer other, MatchPlayer player) {
@@ -230,30 +261,32 @@ public final class TurnEngine {
         
         // Debug logging
         int existingCopies = (int) recipient.state().getTableau().stream().filter(c -> c.cardId().equals(cardId)).count();
-        System.out.println("DEBUG resolveRecruit:");
-        System.out.println("  Card ID: " + cardId);
-        System.out.println("  Card Name: " + def.name());
-        System.out.println("  Recipient: " + (recipient.state() == state.getPlayerA() ? "Player A" : "Player B"));
-        System.out.println("  Existing copies in tableau: " + existingCopies);
-        System.out.println("  Tableau contents: " + recipient.state().getTableau().stream().map(c -> c.cardId()).toList());
+        if (verbose) System.out.println("DEBUG resolveRecruit:");
+        if (verbose) System.out.println("  Card ID: " + cardId);
+        if (verbose) System.out.println("  Card Name: " + def.name());
+        if (verbose) System.out.println("  Recipient: " + (recipient.state() == state.getPlayerA() ? "Player A" : "Player B"));
+        if (verbose) System.out.println("  Existing copies in tableau: " + existingCopies);
+        if (verbose) System.out.println("  Tableau contents: " + recipient.state().getTableau().stream().map(c -> c.cardId()).toList());
         
         // Count existing copies in tableau + 1 for the card being played
         int copies = existingCopies + 1;
         int tierIdx = Math.min(def.tiers().size(), Math.max(1, copies)) - 1;
         List<CardDefinitionSet.Action> actions = def.tiers().get(tierIdx).actions();
         
-        System.out.println("  Calculated copies: " + copies);
-        System.out.println("  Tier index: " + tierIdx);
-        System.out.println("  Actions count: " + actions.size());
+        if (verbose) System.out.println("  Calculated copies: " + copies);
+        if (verbose) System.out.println("  Tier index: " + tierIdx);
+        if (verbose) System.out.println("  Actions count: " + actions.size());
         
         // Generate effect description before applying
-        String effectDescription = generateEffectDescription(def.name(), actions, recipient, other);
+        String effectDescription = state.isEffectFeedbackEnabled() ? generateEffectDescription(def.name(), actions, recipient, other) : null;
         
         effects.applyActions(actions, player, other);
         
         // Add effect feedback after applying
-        String playerName = recipient.state() == state.getPlayerA() ? playerAName : playerBName;
-        state.addEffectFeedback(playerName, def.name(), effectDescription);
+        if (effectDescription != null) {
+            String playerName = recipient.state() == state.getPlayerA() ? playerAName : playerBName;
+            state.addEffectFeedback(playerName, def.name(), effectDescription);
+        }
         
         // After applying the card effects, immediately check if the match has been decided
         checkWinnerMidTurn();
@@ -262,16 +295,14 @@ public final class TurnEngine {
 
     private void initializeDecks() {
         // Get all available card IDs
-        List<String> allCardIds = index.getAllCards().stream()
+        List<String> allCardIds = standardCards != null ? standardCards : index.getAllCards().stream()
             .map(card -> card.id())
             .toList();
             
-        System.out.println("DEBUG initializeDecks: Found " + allCardIds.size() + " card types: " + allCardIds);
+        if (verbose) System.out.println("DEBUG initializeDecks: Found " + allCardIds.size() + " card types: " + allCardIds);
         
         // Create a deck with multiple copies of each card for each player
-        // Each player gets 3 copies of each card to ensure variety
-        int copiesPerCard = 3;
-        
+        // Each player gets copiesPerCard (3 by default) copies of each card to ensure variety
         // Initialize Player A deck
         for (String cardId : allCardIds) {
             for (int i = 0; i < copiesPerCard; i++) {
@@ -290,8 +321,8 @@ public final class TurnEngine {
         shuffleDeck(state.getPlayerA().getDeck());
         shuffleDeck(state.getPlayerB().getDeck());
         
-        System.out.println("DEBUG initializeDecks: Player A deck size: " + state.getPlayerA().getDeck().size());
-        System.out.println("DEBUG initializeDecks: Player B deck size: " + state.getPlayerB().getDeck().size());
+        if (verbose) System.out.println("DEBUG initializeDecks: Player A deck size: " + state.getPlayerA().getDeck().size());
+        if (verbose) System.out.println("DEBUG initializeDecks: Player B deck size: " + state.getPlayerB().getDeck().size());
     }
     
     private void shuffleDeck(java.util.Deque<Cards> deck) {
@@ -326,7 +357,7 @@ public final class TurnEngine {
             .distinct()
             .count();
             
-        System.out.println("DEBUG ensureMinimumDistinctCards: Starting with " + distinctCount + " distinct cards, deck size: " + ps.getDeck().size());
+        if (verbose) System.out.println("DEBUG ensureMinimumDistinctCards: Starting with " + distinctCount + " distinct cards, deck size: " + ps.getDeck().size());
         
         // If we already have 2+ distinct cards, we're done
         if (distinctCount >= 2) {
@@ -337,6 +368,7 @@ public final class TurnEngine {
         Set<String> triedCards = new HashSet<>();
         int initialDeckSize = ps.getDeck().size();
         int attempts = 0;
+        int drawn = 0;
         int maxAttempts = initialDeckSize * 2; // Safety limit
         
         while (distinctCount < 2 && !ps.getDeck().isEmpty() && attempts < maxAttempts) {
@@ -354,35 +386,37 @@ public final class TurnEngine {
             if (!isDuplicate) {
                 // Only add if it's not a duplicate
                 ps.getHand().add(newCard);
+                drawn++;
                 distinctCount++;
-                System.out.println("DEBUG ensureMinimumDistinctCards: Drew distinct card " + newCardId + ", distinct count now: " + distinctCount);
+                if (verbose) System.out.println("DEBUG ensureMinimumDistinctCards: Drew distinct card " + newCardId + ", distinct count now: " + distinctCount);
                 triedCards.clear(); // Reset tried cards when we find a new distinct card
             } else {
                 // If it's a duplicate, put it back and track it
                 ps.getDeck().push(newCard);
                 triedCards.add(newCardId);
-                System.out.println("DEBUG ensureMinimumDistinctCards: Skipped duplicate card " + newCardId + ", tried cards: " + triedCards.size());
+                if (verbose) System.out.println("DEBUG ensureMinimumDistinctCards: Skipped duplicate card " + newCardId + ", tried cards: " + triedCards.size());
                 
                 // If we've tried all unique card types in deck, break to prevent infinite loop
                 if (triedCards.size() >= 5) { // Reasonable limit - if we've tried 5 different cards and all are dupes, stop
-                    System.out.println("DEBUG ensureMinimumDistinctCards: Tried too many different cards, all are duplicates, stopping");
+                    if (verbose) System.out.println("DEBUG ensureMinimumDistinctCards: Tried too many different cards, all are duplicates, stopping");
                     break;
                 }
             }
         }
         
+        if (attempts > drawn) emitDrawRetries(ps, "distinct", attempts, drawn);
         if (attempts >= maxAttempts) {
-            System.out.println("DEBUG ensureMinimumDistinctCards: Hit maximum attempts limit, stopping to prevent infinite loop");
+            if (verbose) System.out.println("DEBUG ensureMinimumDistinctCards: Hit maximum attempts limit, stopping to prevent infinite loop");
         }
         
         if (distinctCount < 2) {
-            System.out.println("DEBUG ensureMinimumDistinctCards: WARNING - Could not ensure 2 distinct cards. Deck may be empty or have only duplicates. Distinct count: " + distinctCount);
+            if (verbose) System.out.println("DEBUG ensureMinimumDistinctCards: WARNING - Could not ensure 2 distinct cards. Deck may be empty or have only duplicates. Distinct count: " + distinctCount);
             // Force draw more cards even if duplicates to reach minimum hand size
             while (ps.getHand().size() < 2 && !ps.getDeck().isEmpty()) {
                 if (ps.consumeBlockDrawIfAny()) continue;
                 Cards newCard = ps.getDeck().pop();
                 ps.getHand().add(newCard);
-                System.out.println("DEBUG ensureMinimumDistinctCards: Force drew card " + newCard.cardId() + " to reach minimum hand size");
+                if (verbose) System.out.println("DEBUG ensureMinimumDistinctCards: Force drew card " + newCard.cardId() + " to reach minimum hand size");
             }
         }
     }
@@ -401,6 +435,7 @@ public final class TurnEngine {
         // Draw cards up to target size, avoiding duplicates in this turn
         Set<String> cardsDrawnThisTurn = new HashSet<>();
         int attempts = 0;
+        int drawn = 0;
         int maxAttempts = 100; // Prevent infinite loop
         
         while (ps.getHand().size() < targetHandSize && !ps.getDeck().isEmpty() && attempts < maxAttempts) {
@@ -416,45 +451,51 @@ public final class TurnEngine {
             if (!cardsDrawnThisTurn.contains(newCardId)) {
                 ps.getHand().add(newCard);
                 cardsDrawnThisTurn.add(newCardId);
+                drawn++;
             } else {
                 // If it's a duplicate from this turn, put it back
                 ps.getDeck().push(newCard);
             }
             attempts++;
         }
+        if (attempts > drawn) emitDrawRetries(ps, "fill", attempts, drawn);
+    }
+
+    private void emitDrawRetries(PlayerState ps, String step, int attempts, int drawn) {
+        if (telemetry != null) telemetry.emit(new Telemetry.DrawRetries(ps == state.getPlayerA() ? 0 : 1, step, attempts, drawn));
     }
 
     private void endStep() {
-        System.out.println("DEBUG endStep: Starting endStep(), current activePlayerIndex = " + state.getActivePlayerIndex());
+        if (verbose) System.out.println("DEBUG endStep: Starting endStep(), current activePlayerIndex = " + state.getActivePlayerIndex());
         // Check dot system win conditions first
         int winner = state.winnerIndexOrMinusOne();
         if (winner != -1) {
             // Someone won by dots (5 or -5)
-            System.out.println("DEBUG endStep: Winner found, exiting early");
+            if (verbose) System.out.println("DEBUG endStep: Winner found, exiting early");
             if (telemetry != null) telemetry.emit(new Telemetry.MatchEnd(winner, state.getPlayerA().getLifePoints(), state.getPlayerB().getLifePoints()));
             return;
         }
         
         // LP system is deprecated - only use dot system for win conditions
-        System.out.println("DEBUG endStep: LP checks removed, using only dot system");
+        if (verbose) System.out.println("DEBUG endStep: LP checks removed, using only dot system");
         
         // Tick statuses
         state.getPlayerA().getBuffs().getStatuses().tickEndOfTurn();
         state.getPlayerB().getBuffs().getStatuses().tickEndOfTurn();
         
         // Keep recent effects and recently added cards until next turn so frontend can see them
-        System.out.println("DEBUG endStep: Keeping recent effects and recently added cards for frontend");
+        if (verbose) System.out.println("DEBUG endStep: Keeping recent effects and recently added cards for frontend");
         
         // Next turn
         int previousActivePlayer = state.getActivePlayerIndex();
         state.swapActive();
         int newActivePlayer = state.getActivePlayerIndex();
-        System.out.println("DEBUG endStep: Turn swapped from Player " + (previousActivePlayer == 0 ? "A" : "B") + " to Player " + (newActivePlayer == 0 ? "A" : "B"));
+        if (verbose) System.out.println("DEBUG endStep: Turn swapped from Player " + (previousActivePlayer == 0 ? "A" : "B") + " to Player " + (newActivePlayer == 0 ? "A" : "B"));
         
         // Ensure new active player has at least 2 distinct cards to play
         PlayerState newActivePlayerState = newActivePlayer == 0 ? state.getPlayerA() : state.getPlayerB();
         ensureMinimumDistinctCards(newActivePlayerState);
-        System.out.println("DEBUG endStep: Ensured new active player has minimum distinct cards");
+        if (verbose) System.out.println("DEBUG endStep: Ensured new active player has minimum distinct cards");
     }
 
     private void removeFirstById(PlayerState ps, String cardId) {
@@ -546,7 +587,7 @@ public final class TurnEngine {
         }
 
         // LP system is deprecated - only use dot system for win conditions
-        System.out.println("DEBUG checkWinnerMidTurn: LP checks removed, using only dot system");
+        if (verbose) System.out.println("DEBUG checkWinnerMidTurn: LP checks removed, using only dot system");
     }
 }
 
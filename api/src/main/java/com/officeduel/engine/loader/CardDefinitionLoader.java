@@ -1,5 +1,6 @@
 package com.officeduel.engine.loader;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.officeduel.engine.cards.CardDefinitionSet;
@@ -10,7 +11,8 @@ import java.nio.file.Path;
 
 public final class CardDefinitionLoader {
     private static final ObjectMapper MAPPER = new ObjectMapper()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
     private CardDefinitionLoader() {}
 
@@ -25,6 +27,11 @@ public final class CardDefinitionLoader {
         }
         return set;
     }
+
+    /** Writes {@code set} in the same JSON layout {@link #load} reads, omitting unset action fields. */
+    public static void write(Path path, CardDefinitionSet set) throws IOException {
+        Files.writeString(path, MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(set));
+    }
 }
 
 
@@ -17,6 +17,12 @@ public final class GameState {
     private int activePlayerIndex = 0; // 0 -> A, 1 -> B
     private Phase phase = Phase.PLAY_TWO_CARDS;
     private final List<String> history = new ArrayList<>();
+    // Decisions in play order plus the decks as dealt, enough to re-simulate the match under other cards
+    private final List<TurnCommand> commandLog = new ArrayList<>();
+    // Offerer's tableau card ids as each logged command was played; tiers read them, and effects move them later
+    private final List<List<String>> offerTableaus = new ArrayList<>();
+    private List<String> initialDeckA = List.of();
+    private List<String> initialDeckB = List.of();
     private String faceUpCardId;
     private String faceDownCardId;
     private List<com.officeduel.engine.cards.CardDefinitionSet.Action> lastActionsAppliedPlayerA = new ArrayList<>();
@@ -25,7 +31,8 @@ public final class GameState {
     private int sharedDotCounter = 0; // Shared counter: 0 = neutral, winPointsToReach = A wins, -winPointsToReach = B wins
     private int winPointsToReach = 5; // Configurable win condition
     
-    // Effect feedback tracking
+    // Effect feedback tracking; off for simulations and search copies, where nobody reads it
+    private boolean effectFeedbackEnabled = true;
     private final List<EffectFeedback> recentEffects = new CopyOnWriteArrayList<>();
     private int previousLpA = 0;
     private int previousLpB = 0;
@@ -40,9 +47,13 @@ public final class GameState {
     private final List<String> revealedCardsB = new ArrayList<>();
 
     public GameState(DeterministicRng rng) {
+        this(rng, new PlayerState(0), new PlayerState(0)); // LP not used in push system, but keeping for compatibility
+    }
+
+    private GameState(DeterministicRng rng, PlayerState playerA, PlayerState playerB) {
         this.rng = rng;
-        this.playerA = new PlayerState(0); // LP not used in push system, but keeping for compatibility
-        this.playerB = new PlayerState(0);
+        this.playerA = playerA;
+        this.playerB = playerB;
         this.sharedDotCounter = 0; // Start at neutral
         this.winPointsToReach = 5; // Default win condition
         this.previousLpA = 0;
@@ -50,6 +61,55 @@ public final class GameState {
         this.previousDotCounter = 0;
     }
 
+    /**
+     * Copy of the game position driven by {@code rng}, for bots that play ahead. Everything the rules read is
+     * copied (zones, statuses, phase, pending offer, dot counter, last applied actions, revealed cards); history
+     * and command log start empty and effect feedback is switched off.
+     */
+    public GameState copy(DeterministicRng rng) {
+        GameState c = new GameState(rng, playerA.copy(), playerB.copy());
+        c.activePlayerIndex = activePlayerIndex;
+        c.phase = phase;
+        c.initialDeckA = initialDeckA;
+        c.initialDeckB = initialDeckB;
+        c.faceUpCardId = faceUpCardId;
+        c.faceDownCardId = faceDownCardId;
+        c.lastActionsAppliedPlayerA = new ArrayList<>(lastActionsAppliedPlayerA);
+        c.lastActionsAppliedPlayerB = new ArrayList<>(lastActionsAppliedPlayerB);
+        c.sharedDotCounter = sharedDotCounter;
+        c.winPointsToReach = winPointsToReach;
+        c.previousDotCounter = sharedDotCounter;
+        c.revealedCardsA.addAll(revealedCardsA);
+        c.revealedCardsB.addAll(revealedCardsB);
+        c.effectFeedbackEnabled = false;
+        return c;
+    }
+
+    /**
+     * Like {@link #copy}, but with the seats swapped: player B's zones, statuses, revealed cards and last actions
+     * become player A's and the other way round, the other seat is active and the dot counter is negated. The
+     * rules treat both seats alike, so the mirror plays out as the original with seat indices and the counter
+     * flipped.
+     */
+    public GameState mirror(DeterministicRng rng) {
+        GameState c = new GameState(rng, playerB.copy(), playerA.copy());
+        c.activePlayerIndex = 1 - activePlayerIndex;
+        c.phase = phase;
+        c.initialDeckA = initialDeckB;
+        c.initialDeckB = initialDeckA;
+        c.faceUpCardId = faceUpCardId;
+        c.faceDownCardId = faceDownCardId;
+        c.lastActionsAppliedPlayerA = new ArrayList<>(lastActionsAppliedPlayerB);
+        c.lastActionsAppliedPlayerB = new ArrayList<>(lastActionsAppliedPlayerA);
+        c.sharedDotCounter = -sharedDotCounter;
+        c.winPointsToReach = winPointsToReach;
+        c.previousDotCounter = -sharedDotCounter;
+        c.revealedCardsA.addAll(revealedCardsB);
+        c.revealedCardsB.addAll(revealedCardsA);
+        c.effectFeedbackEnabled = false;
+        return c;
+    }
+
     public DeterministicRng getRng() { return rng; }
     public PlayerState getPlayerA() { return playerA; }
     public PlayerState getPlayerB() { return playerB; }
@@ -60,6 +120,17 @@ public final class GameState {
     public Phase getPhase() { return phase; }
     public void setPhase(Phase p) { this.phase = p; }
     public List<String> getHistory() { return history; }
+    public List<TurnCommand> getCommandLog() { return commandLog; }
+    /** Per entry of {@link #getCommandLog}, the offering seat's tableau card ids at the time it offered. */
+    public List<List<String>> getOfferTableaus() { return offerTableaus; }
+    public List<String> getInitialDeckA() { return initialDeckA; }
+    public List<String> getInitialDeckB() { return initialDeckB; }
+
+    /** Snapshots both decks as dealt; called by the engine before it adds and shuffles the standard copies. */
+    public void recordInitialDecks() {
+        this.initialDeckA = playerA.getDeck().stream().map(Cards::cardId).toList();
+        this.initialDeckB = playerB.getDeck().stream().map(Cards::cardId).toList();
+    }
 
     public String getFaceUpCardId() { return faceUpCardId; }
     public String getFaceDownCardId() { return faceDownCardId; }
@@ -97,6 +168,9 @@ public final class GameState {
     }
     
     // Effect feedback methods
+    public boolean isEffectFeedbackEnabled() { return effectFeedbackEnabled; }
+    /** The player-facing effect descriptions are only built while enabled; the rules never read them. */
+    public void setEffectFeedbackEnabled(boolean enabled) { this.effectFeedbackEnabled = enabled; }
     public List<EffectFeedback> getRecentEffects() { return new ArrayList<>(recentEffects); }
     public void clearRecentEffects() { recentEffects.clear(); }
     
@@ -21,6 +21,21 @@ public final class PlayerState {
         this.lifePoints = lifePoints;
     }
 
+    /** Independent copy of every zone, counter and status, for search and what-if play. */
+    public PlayerState copy() {
+        PlayerState c = new PlayerState(lifePoints);
+        c.deck.addAll(deck);
+        c.hand.addAll(hand);
+        c.tableau.addAll(tableau);
+        c.discard.addAll(discard);
+        c.maxHandSize = maxHandSize;
+        c.skipNextTurn = skipNextTurn;
+        c.blockNextDrawCount = blockNextDrawCount;
+        c.buffs.getStatuses().copyFrom(buffs.getStatuses());
+        c.extraFaceDownPlays = extraFaceDownPlays;
+        return c;
+    }
+
     public int getLifePoints() { return lifePoints; }
     public void setLifePoints(int lp) { this.lifePoints = lp; }
 
@@ -8,6 +8,11 @@ public final class Statuses {
     private final Map<StatusType, Integer> durations = new EnumMap<>(StatusType.class);
     private final Map<StatusType, Integer> amounts = new EnumMap<>(StatusType.class);
 
+    void copyFrom(Statuses other) {
+        durations.putAll(other.durations);
+        amounts.putAll(other.amounts);
+    }
+
     public void apply(StatusType type, int amount, int durationTurns) {
         if (amount != 0) {
             amounts.put(type, amount);
@@ -0,0 +1,7 @@
+package com.officeduel.engine.model;
+
+/**
+ * One resolved turn as the players decided it: the active seat offered {@code faceUpId} and {@code faceDownId},
+ * and the other seat took the face-up card when {@code pickedFaceUp} is true.
+ */
+public record TurnCommand(int seat, String faceUpId, String faceDownId, boolean pickedFaceUp) {}
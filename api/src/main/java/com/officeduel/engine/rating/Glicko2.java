@@ -1,33 +1,128 @@
 package com.officeduel.engine.rating;
 
+import java.util.List;
+
+/**
+ * Glicko-2 as specified in Glickman's "Example of the Glicko-2 system": all games of a rating period are rated
+ * together against the opponents' pre-period ratings, volatility is solved with the Illinois variant of
+ * regula falsi, and a player without games in a period only has their RD inflated by their volatility.
+ * RD stays within [{@link #MIN_RD}, {@link #DEFAULT_RD}].
+ */
 public final class Glicko2 {
     // Default parameters per Product&GamePlan: r=1500, RD=350, vol=0.06
     public static final double DEFAULT_RATING = 1500.0;
     public static final double DEFAULT_RD = 350.0;
     public static final double DEFAULT_VOLATILITY = 0.06;
+    public static final double MIN_RD = 50.0;
+    /** System constant constraining volatility change; Glickman suggests 0.3 to 1.2. */
+    public static final double DEFAULT_TAU = 0.5;
 
     // Conversions
-    private static final double SCALE = 173.7178; // q = ln(10)/400 implicit
+    static final double SCALE = 173.7178; // q = ln(10)/400 implicit
+    static final double EPSILON = 1e-6;
+    private static final double PI2 = Math.PI * Math.PI;
 
     public record Rating(double r, double rd, double vol) {}
 
-    private static double g(double phi) { return 1.0 / Math.sqrt(1.0 + 3.0 * (0.0057565) * phi * phi); }
-    private static double E(double mu, double mu_j, double phi_j) { return 1.0 / (1.0 + Math.exp(-g(phi_j) * (mu - mu_j))); }
+    /** One game of a rating period: the opponent's rating at the start of the period and the score (1, 1/2, 0). */
+    public record Game(Rating opponent, double score) {}
+
+    private Glicko2() {}
+
+    static double g(double phi) { return 1.0 / Math.sqrt(1.0 + 3.0 * phi * phi / PI2); }
+    static double E(double mu, double mu_j, double g_j) { return 1.0 / (1.0 + Math.exp(-g_j * (mu - mu_j))); }
 
-    // One-opponent update
+    /** A rating period with a single game. */
     public static Rating update(Rating player, Rating opponent, double score) {
+        return rate(player, List.of(new Game(opponent, score)));
+    }
+
+    public static Rating rate(Rating player, List<Game> games) {
+        return rate(player, games, DEFAULT_TAU);
+    }
+
+    /** The player's rating after a period with {@code games}; an empty list only inflates RD. */
+    public static Rating rate(Rating player, List<Game> games, double tau) {
+        if (games.isEmpty()) return decay(player, 1);
         double mu = (player.r - DEFAULT_RATING) / SCALE;
-        double phi = player.rd / SCALE;
-        double mu_j = (opponent.r - DEFAULT_RATING) / SCALE;
-        double phi_j = opponent.rd / SCALE;
-        double v = 1.0 / (g(phi_j) * g(phi_j) * E(mu, mu_j, phi_j) * (1 - E(mu, mu_j, phi_j)));
-        double delta = v * g(phi_j) * (score - E(mu, mu_j, phi_j));
-        double phiStar = Math.sqrt(phi * phi + player.vol * player.vol);
-        double phiPrime = 1.0 / Math.sqrt(1.0 / (phiStar * phiStar) + 1.0 / v);
-        double muPrime = mu + phiPrime * phiPrime * g(phi_j) * (score - E(mu, mu_j, phi_j));
-        double rPrime = muPrime * SCALE + DEFAULT_RATING;
-        double rdPrime = phiPrime * SCALE;
-        return new Rating(rPrime, Math.max(50.0, rdPrime), player.vol); // apply RD floor 50
+        double vInv = 0;
+        double sum = 0;
+        for (Game game : games) {
+            double mu_j = (game.opponent.r - DEFAULT_RATING) / SCALE;
+            double g_j = g(game.opponent.rd / SCALE);
+            double e = E(mu, mu_j, g_j);
+            vInv += g_j * g_j * e * (1 - e);
+            sum += g_j * (game.score - e);
+        }
+        return finish(player.r, player.rd, player.vol, vInv, sum, tau);
+    }
+
+    /**
+     * The rating after {@code periods} periods without games. Rating and volatility do not move while idle, so
+     * phi^2 just grows by sigma^2 per period and the result is closed form instead of a loop.
+     */
+    public static Rating decay(Rating player, int periods) {
+        return new Rating(player.r, decayedRd(player.rd, player.vol, periods), player.vol);
+    }
+
+    static double decayedRd(double rd, double vol, int periods) {
+        if (periods <= 0) return rd;
+        double phi = rd / SCALE;
+        return clampRd(Math.sqrt(phi * phi + periods * vol * vol) * SCALE);
+    }
+
+    /** Steps 5 to 8 from the period's {@code vInv} (1/v) and {@code sum} (the sum of g(phi_j) * (s_j - E_j)). */
+    private static Rating finish(double r, double rd, double vol, double vInv, double sum, double tau) {
+        double phi = rd / SCALE;
+        double v = 1.0 / vInv;
+        double delta = v * sum;
+        double volPrime = solveVolatility(phi, vol, v, delta, tau);
+        double phiStar2 = phi * phi + volPrime * volPrime;
+        double phiPrime2 = 1.0 / (1.0 / phiStar2 + vInv);
+        double muPrime = (r - DEFAULT_RATING) / SCALE + phiPrime2 * sum;
+        return new Rating(muPrime * SCALE + DEFAULT_RATING, clampRd(Math.sqrt(phiPrime2) * SCALE), volPrime);
+    }
+
+    /** Step 5: the new volatility, root of f(x) = 0 for x = ln(sigma'^2) by the Illinois algorithm. */
+    static double solveVolatility(double phi, double vol, double v, double delta, double tau) {
+        double a = Math.log(vol * vol);
+        double phi2 = phi * phi;
+        double delta2 = delta * delta;
+        double tau2 = tau * tau;
+        double A = a;
+        double B;
+        if (delta2 > phi2 + v) {
+            B = Math.log(delta2 - phi2 - v);
+        } else {
+            int k = 1;
+            while (f(a - k * tau, a, phi2, v, delta2, tau2) < 0) k++;
+            B = a - k * tau;
+        }
+        double fA = f(A, a, phi2, v, delta2, tau2);
+        double fB = f(B, a, phi2, v, delta2, tau2);
+        while (Math.abs(B - A) > EPSILON) {
+            double C = A + (A - B) * fA / (fB - fA);
+            double fC = f(C, a, phi2, v, delta2, tau2);
+            if (fC * fB <= 0) {
+                A = B;
+                fA = fB;
+            } else {
+                fA /= 2;
+            }
+            B = C;
+            fB = fC;
+        }
+        return Math.exp(A / 2);
+    }
+
+    private static double f(double x, double a, double phi2, double v, double delta2, double tau2) {
+        double ex = Math.exp(x);
+        double d = phi2 + v + ex;
+        return ex * (delta2 - phi2 - v - ex) / (2 * d * d) - (x - a) / tau2;
+    }
+
+    static double clampRd(double rd) {
+        return Math.max(MIN_RD, Math.min(DEFAULT_RD, rd));
     }
 }
 
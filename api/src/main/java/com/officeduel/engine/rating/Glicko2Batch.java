@@ -0,0 +1,209 @@
+package com.officeduel.engine.rating;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * {@link Glicko2} for a whole population at once: ratings live in three parallel {@code double[]} arrays
+ * indexed by player, and a rating period is given as primitive game arrays. Games are bucketed per player with a
+ * counting sort (both sides of each game), the opponents' mu and g(phi) are computed once per player, and the
+ * players are then rated in parallel blocks against those pre-period values. Results are identical to calling
+ * {@link Glicko2#rate} per player, regardless of thread count.
+ *
+ * <p>RD inflation is lazy: each player's stored RD is the one from the last period they played in, and the
+ * idle periods since then are applied in closed form ({@link Glicko2#decay}) whenever the rating is read or the
+ * player plays again. A period therefore costs time in the number of games and players in it, not in the size
+ * of the population, and reads give the same RD as an eager sweep would (up to rounding). Not thread-safe.
+ */
+public final class Glicko2Batch {
+    private static final int MIN_BLOCK = 4_096;
+
+    private final double[] r;
+    private final double[] rd;
+    private final double[] vol;
+    private final int[] lastPeriod;
+    private final double tau;
+    private int period;
+    /** Position of each player among the current period's participants; -1 outside {@link #ratePeriod}. */
+    private final int[] slot;
+
+    /** {@code players} unrated players at the default rating, RD and volatility. */
+    public Glicko2Batch(int players) {
+        this(filled(players, Glicko2.DEFAULT_RATING), filled(players, Glicko2.DEFAULT_RD),
+                filled(players, Glicko2.DEFAULT_VOLATILITY), Glicko2.DEFAULT_TAU);
+    }
+
+    /** Wraps existing arrays whose ratings are all current, as if every player had just played. */
+    public Glicko2Batch(double[] r, double[] rd, double[] vol, double tau) {
+        this(r, rd, vol, new int[r.length], 0, tau);
+    }
+
+    /**
+     * Wraps existing arrays, which {@link #ratePeriod} updates in place: {@code rd[i]} is player i's RD at the
+     * end of period {@code lastPeriod[i]}, and {@code period} periods have been completed so far.
+     */
+    public Glicko2Batch(double[] r, double[] rd, double[] vol, int[] lastPeriod, int period, double tau) {
+        if (r.length != rd.length || r.length != vol.length || r.length != lastPeriod.length) {
+            throw new IllegalArgumentException("Rating arrays differ in length");
+        }
+        this.r = r;
+        this.rd = rd;
+        this.vol = vol;
+        this.lastPeriod = lastPeriod;
+        this.period = period;
+        this.tau = tau;
+        this.slot = new int[r.length];
+        Arrays.fill(slot, -1);
+    }
+
+    private static double[] filled(int n, double value) {
+        double[] a = new double[n];
+        Arrays.fill(a, value);
+        return a;
+    }
+
+    public int players() { return r.length; }
+    /** Number of completed rating periods. */
+    public int period() { return period; }
+    /** The last period the player had games in, or the period their stored rating dates from. */
+    public int lastActivePeriod(int player) { return lastPeriod[player]; }
+    public double rating(int player) { return r[player]; }
+    public double volatility(int player) { return vol[player]; }
+
+    /** RD as of now, including inflation for the periods since the player last played. */
+    public double rd(int player) {
+        return Glicko2.decayedRd(rd[player], vol[player], period - lastPeriod[player]);
+    }
+
+    public Glicko2.Rating get(int player) {
+        return new Glicko2.Rating(r[player], rd(player), vol[player]);
+    }
+
+    /**
+     * Rates one period of {@code games} games: game k is {@code playerA[k]} against {@code playerB[k]}, with A
+     * scoring {@code scoreA[k]} (1, 1/2 or 0) and B the complement. Players without games are not touched.
+     */
+    public void ratePeriod(int[] playerA, int[] playerB, double[] scoreA, int games, int threads) throws Exception {
+        int n = r.length;
+        for (int k = 0; k < games; k++) {
+            int a = playerA[k];
+            int b = playerB[k];
+            if (a == b || a < 0 || b < 0 || a >= n || b >= n) throw new IllegalArgumentException("Bad pairing at game " + k);
+        }
+        // Participants in order of first appearance, then their games bucketed by a counting sort
+        int[] active = new int[Math.min(n, 2 * games)];
+        int m = 0;
+        for (int k = 0; k < games; k++) {
+            if (slot[playerA[k]] < 0) { slot[playerA[k]] = m; active[m++] = playerA[k]; }
+            if (slot[playerB[k]] < 0) { slot[playerB[k]] = m; active[m++] = playerB[k]; }
+        }
+        try {
+            int[] start = new int[m + 1];
+            for (int k = 0; k < games; k++) {
+                start[slot[playerA[k]] + 1]++;
+                start[slot[playerB[k]] + 1]++;
+            }
+            for (int i = 0; i < m; i++) start[i + 1] += start[i];
+            int[] opponent = new int[2 * games];
+            double[] score = new double[2 * games];
+            int[] fill = new int[m];
+            for (int k = 0; k < games; k++) {
+                int a = slot[playerA[k]];
+                int b = slot[playerB[k]];
+                int ia = start[a] + fill[a]++;
+                int ib = start[b] + fill[b]++;
+                opponent[ia] = b;
+                score[ia] = scoreA[k];
+                opponent[ib] = a;
+                score[ib] = 1.0 - scoreA[k];
+            }
+
+            int count = m;
+            double[] mu = new double[count];
+            double[] phi = new double[count];
+            double[] g = new double[count];
+            double[] rNew = new double[count];
+            double[] rdNew = new double[count];
+            double[] volNew = new double[count];
+            int blocks = Math.max(1, Math.min(threads * 4, (count + MIN_BLOCK - 1) / MIN_BLOCK));
+            run(count, blocks, threads, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    int p = active[i];
+                    mu[i] = (r[p] - Glicko2.DEFAULT_RATING) / Glicko2.SCALE;
+                    phi[i] = rd(p) / Glicko2.SCALE;
+                    g[i] = Glicko2.g(phi[i]);
+                }
+            });
+            run(count, blocks, threads, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    double vInv = 0;
+                    double sum = 0;
+                    for (int e = start[i]; e < start[i + 1]; e++) {
+                        int j = opponent[e];
+                        double ex = Glicko2.E(mu[i], mu[j], g[j]);
+                        vInv += g[j] * g[j] * ex * (1 - ex);
+                        sum += g[j] * (score[e] - ex);
+                    }
+                    int p = active[i];
+                    double v = 1.0 / vInv;
+                    double volPrime = Glicko2.solveVolatility(phi[i], vol[p], v, v * sum, tau);
+                    double phiStar2 = phi[i] * phi[i] + volPrime * volPrime;
+                    double phiPrime2 = 1.0 / (1.0 / phiStar2 + vInv);
+                    rNew[i] = ((r[p] - Glicko2.DEFAULT_RATING) / Glicko2.SCALE + phiPrime2 * sum) * Glicko2.SCALE + Glicko2.DEFAULT_RATING;
+                    rdNew[i] = Glicko2.clampRd(Math.sqrt(phiPrime2) * Glicko2.SCALE);
+                    volNew[i] = volPrime;
+                }
+            });
+            period++;
+            for (int i = 0; i < count; i++) {
+                int p = active[i];
+                r[p] = rNew[i];
+                rd[p] = rdNew[i];
+                vol[p] = volNew[i];
+                lastPeriod[p] = period;
+            }
+        } finally {
+            for (int i = 0; i < m; i++) slot[active[i]] = -1;
+        }
+    }
+
+    /** Ends a period without games; every player's RD grows on the next read. */
+    public void idlePeriod() {
+        period++;
+    }
+
+    private interface Block {
+        void run(int from, int to);
+    }
+
+    private static void run(int n, int blocks, int threads, Block body) throws Exception {
+        if (threads <= 1 || blocks == 1) {
+            body.run(0, n);
+            return;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, blocks));
+        try {
+            List<Future<?>> parts = new ArrayList<>(blocks);
+            for (int k = 0; k < blocks; k++) {
+                int from = (int) ((long) n * k / blocks);
+                int to = (int) ((long) n * (k + 1) / blocks);
+                parts.add(pool.submit(() -> body.run(from, to)));
+            }
+            for (Future<?> f : parts) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Exception ex) throw ex;
+                    throw e;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
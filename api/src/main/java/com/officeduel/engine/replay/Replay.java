@@ -1,14 +1,33 @@
 package com.officeduel.engine.replay;
 
+import com.officeduel.engine.model.TurnCommand;
+
 import java.util.List;
 
+/**
+ * A finished match. {@code deckA}/{@code deckB}, {@code history} and the life points describe the end state;
+ * {@code initialDeckA}/{@code initialDeckB}, {@code cardPoolSize} (number of cards the decks were drawn from)
+ * and {@code commands} are what is needed to play the match again, under the same or a revised card set.
+ */
 public record Replay(
         long seed,
         List<String> deckA,
         List<String> deckB,
         List<String> history,
         int finalLpA,
-        int finalLpB
-) {}
+        int finalLpB,
+        int cardPoolSize,
+        List<String> initialDeckA,
+        List<String> initialDeckB,
+        int winPointsToReach,
+        int winner,
+        List<TurnCommand> commands
+) {
+    /** Same match with only the first {@code n} commands, e.g. the shortest log that reaches a given turn. */
+    public Replay truncated(int n) {
+        return new Replay(seed, deckA, deckB, history, finalLpA, finalLpB, cardPoolSize, initialDeckA, initialDeckB,
+                winPointsToReach, winner, List.copyOf(commands.subList(0, Math.min(n, commands.size()))));
+    }
+}
 
 
@@ -1,18 +1,28 @@
 package com.officeduel.engine.replay;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.officeduel.engine.model.GameState;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public final class ReplaySerializer {
-    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
     public static Replay fromGameState(GameState gs) {
+        return fromGameState(gs, 0);
+    }
+
+    /** {@code cardPoolSize} is the size of the card set the random decks were drawn from, 0 if unknown. */
+    public static Replay fromGameState(GameState gs, int cardPoolSize) {
         List<String> deckA = gs.getPlayerA().getDeck().stream().map(c -> c.cardId()).collect(Collectors.toList());
         List<String> deckB = gs.getPlayerB().getDeck().stream().map(c -> c.cardId()).collect(Collectors.toList());
         return new Replay(
@@ -21,7 +31,13 @@ public final class ReplaySerializer {
                 deckB,
                 List.copyOf(gs.getHistory()),
                 gs.getPlayerA().getLifePoints(),
-                gs.getPlayerB().getLifePoints()
+                gs.getPlayerB().getLifePoints(),
+                cardPoolSize,
+                gs.getInitialDeckA(),
+                gs.getInitialDeckB(),
+                gs.getWinPointsToReach(),
+                gs.winnerIndexOrMinusOne(),
+                List.copyOf(gs.getCommandLog())
         );
     }
 
@@ -29,6 +45,23 @@ public final class ReplaySerializer {
         String json = MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(replay);
         Files.writeString(path, json);
     }
+
+    /** Appends {@code replay} as one line of a JSONL archive. */
+    public static void appendTo(Writer archive, Replay replay) throws IOException {
+        archive.write(MAPPER.writeValueAsString(replay));
+        archive.write('\n');
+    }
+
+    public static List<Replay> readArchive(Path path) throws IOException {
+        List<Replay> out = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) out.add(MAPPER.readValue(line, Replay.class));
+            }
+        }
+        return out;
+    }
 }
 
 
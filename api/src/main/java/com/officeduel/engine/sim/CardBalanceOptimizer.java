@@ -0,0 +1,239 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.cards.CardSetTransforms;
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.CardIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Searches the numeric knobs of the card set ({@code amount}, {@code count}, {@code duration_turns},
+ * {@code delta}) for the values that minimise a balance {@link Objective}.
+ *
+ * <p>The search is a (mu + lambda) evolution strategy over integer genomes: each generation, offspring are
+ * mutated copies of the elites, and elites plus offspring are scored together on a fresh block of seeds, so
+ * every comparison within a generation uses common random numbers and a lucky elite cannot coast on an old
+ * score. The mutation step adapts with the 1/5 success rule. Candidates of a generation are simulated in
+ * parallel, one per worker.
+ */
+public final class CardBalanceOptimizer {
+    public enum Field { AMOUNT, COUNT, DURATION_TURNS, DELTA }
+
+    /** One tunable number: action {@code action} of tier {@code tier} (0-based) of card {@code card}. */
+    public record Gene(int card, int tier, int action, Field field, int base, int min, int max) {}
+
+    /**
+     * Weighted sum of squared deviations: first-seat score from 1/2, the coefficient of variation of card play
+     * rates, and the relative deviation of the average game length from {@code targetTurns}.
+     */
+    public record Objective(double parityWeight, double flatnessWeight, double lengthWeight, double targetTurns) {
+        public static final Objective PARITY = new Objective(1, 0, 0, 0);
+
+        public double loss(CardBalanceStats s) {
+            double loss = 0;
+            if (parityWeight != 0) {
+                double score = (s.firstSeatWins() + 0.5 * s.draws()) / (double) s.games();
+                loss += parityWeight * (score - 0.5) * (score - 0.5);
+            }
+            if (flatnessWeight != 0) {
+                int n = s.cards();
+                double mean = 0, sq = 0;
+                for (int c = 0; c < n; c++) mean += s.playRate(c);
+                mean /= n;
+                for (int c = 0; c < n; c++) sq += (s.playRate(c) - mean) * (s.playRate(c) - mean);
+                loss += mean > 0 ? flatnessWeight * (sq / n) / (mean * mean) : 0;
+            }
+            if (lengthWeight != 0 && targetTurns > 0) {
+                double rel = ((double) s.totalTurns() / s.games() - targetTurns) / targetTurns;
+                loss += lengthWeight * rel * rel;
+            }
+            return loss;
+        }
+
+        /** Parses {@code parity=1,flat=0.5,length=0.2,turns=18}; omitted weights are 0. */
+        public static Objective parse(String spec) {
+            Map<String, Double> kv = new HashMap<>();
+            for (String part : spec.split(",")) {
+                String[] p = part.split("=");
+                if (p.length != 2) throw new IllegalArgumentException("Bad objective term '" + part + "'");
+                kv.put(p[0].trim(), Double.parseDouble(p[1].trim()));
+            }
+            return new Objective(kv.getOrDefault("parity", 0.0), kv.getOrDefault("flat", 0.0),
+                    kv.getOrDefault("length", 0.0), kv.getOrDefault("turns", 0.0));
+        }
+    }
+
+    public record Settings(int population, int elites, int generations, int gamesPerEval) {
+        public static final Settings DEFAULT = new Settings(16, 4, 20, 2_000);
+    }
+
+    public record Candidate(int[] genome, double loss) {}
+
+    private final CardDefinitionSet defs;
+    private final List<Gene> genes;
+    private final Objective objective;
+    private final Settings settings;
+    private final long seed;
+    private final Policy.Factory policy;
+
+    public CardBalanceOptimizer(CardDefinitionSet defs, Set<Field> fields, Objective objective, Settings settings,
+                                long seed, Policy.Factory policy) {
+        if (settings.elites() < 1 || settings.elites() >= settings.population()) {
+            throw new IllegalArgumentException("Need 1 <= elites < population");
+        }
+        this.defs = defs;
+        this.genes = collectGenes(defs, fields);
+        this.objective = objective;
+        this.settings = settings;
+        this.seed = seed;
+        this.policy = policy;
+    }
+
+    public static Set<Field> allFields() { return EnumSet.allOf(Field.class); }
+
+    private static List<Gene> collectGenes(CardDefinitionSet defs, Set<Field> fields) {
+        List<Gene> out = new ArrayList<>();
+        CardSetTransforms.mapActions(defs, (c, t, i, a) -> {
+            for (Field f : fields) {
+                Integer v = valueOf(a, f);
+                if (v == null) continue;
+                int span = Math.max(2, Math.abs(v));
+                int min = f == Field.DELTA ? v - 2 : Math.min(v, 1);
+                out.add(new Gene(c, t, i, f, v, min, f == Field.DELTA ? v + 2 : v + span));
+            }
+            return a;
+        });
+        return out;
+    }
+
+    private static Integer valueOf(CardDefinitionSet.Action a, Field f) {
+        return switch (f) {
+            case AMOUNT -> a.amount();
+            case COUNT -> a.count();
+            case DURATION_TURNS -> a.duration_turns();
+            case DELTA -> a.delta();
+        };
+    }
+
+    public List<Gene> genes() { return genes; }
+
+    public int[] baseGenome() {
+        int[] g = new int[genes.size()];
+        for (int i = 0; i < g.length; i++) g[i] = genes.get(i).base();
+        return g;
+    }
+
+    /** The card set with {@code genome} written into its genes. */
+    public CardDefinitionSet apply(int[] genome) {
+        Map<List<Integer>, int[]> byAction = new HashMap<>();
+        for (int i = 0; i < genes.size(); i++) {
+            Gene g = genes.get(i);
+            byAction.computeIfAbsent(List.of(g.card(), g.tier(), g.action()), k -> new int[] { -1, -1, -1, -1 })[g.field().ordinal()] = i;
+        }
+        return CardSetTransforms.mapActions(defs, (c, t, i, a) -> {
+            int[] slots = byAction.get(List.of(c, t, i));
+            if (slots == null) return a;
+            return CardSetTransforms.withNumbers(a,
+                    slots[0] < 0 ? a.amount() : Integer.valueOf(genome[slots[0]]),
+                    slots[1] < 0 ? a.count() : Integer.valueOf(genome[slots[1]]),
+                    slots[2] < 0 ? a.duration_turns() : Integer.valueOf(genome[slots[2]]),
+                    slots[3] < 0 ? a.delta() : Integer.valueOf(genome[slots[3]]));
+        });
+    }
+
+    double evaluate(int[] genome, SeedRange seeds) throws Exception {
+        CardDefinitionSet candidate = apply(genome);
+        MatchSimulator sim = new MatchSimulator(candidate, new CardIndex(candidate), MatchSimulator.DEFAULT_MAX_TURNS, MatchSetup.NONE);
+        return objective.loss(SimulationRunner.runBalance(sim, seeds, policy, policy, 1));
+    }
+
+    /** Runs every generation and returns the top elite of the last one, scored on the last seed block. */
+    public Candidate run(int threads, Consumer<String> progress) throws Exception {
+        DeterministicRng rng = new DeterministicRng(seed);
+        List<int[]> elites = new ArrayList<>();
+        elites.add(baseGenome());
+        double sigma = 1.0;
+        Candidate best = null;
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            for (int gen = 0; gen < settings.generations(); gen++) {
+                List<int[]> pop = new ArrayList<>(elites);
+                int parents = elites.size();
+                while (pop.size() < settings.population()) pop.add(mutate(elites.get(rng.nextInt(parents)), sigma, rng));
+                SeedRange block = new SeedRange(seed + (long) gen * settings.gamesPerEval(), settings.gamesPerEval());
+
+                List<Future<Double>> losses = new ArrayList<>();
+                for (int[] g : pop) losses.add(pool.submit(() -> evaluate(g, block)));
+                List<Candidate> scored = new ArrayList<>();
+                for (int k = 0; k < pop.size(); k++) scored.add(new Candidate(pop.get(k), SimulationRunner.unwrap(losses.get(k))));
+
+                double bestParent = Double.POSITIVE_INFINITY;
+                for (int k = 0; k < parents; k++) bestParent = Math.min(bestParent, scored.get(k).loss());
+                int successes = 0;
+                for (int k = parents; k < scored.size(); k++) if (scored.get(k).loss() < bestParent) successes++;
+                double rate = (double) successes / (scored.size() - parents);
+                sigma = Math.max(0.3, Math.min(4.0, sigma * (rate > 0.2 ? 1.22 : 0.82)));
+
+                scored.sort(Comparator.comparingDouble(Candidate::loss));
+                elites = new ArrayList<>();
+                for (Candidate c : scored) {
+                    if (elites.size() == settings.elites()) break;
+                    if (elites.stream().noneMatch(e -> Arrays.equals(e, c.genome()))) elites.add(c.genome());
+                }
+                best = scored.get(0);
+                if (progress != null) {
+                    progress.accept(String.format(Locale.ROOT, "gen %3d best loss %.6f sigma %.2f successes %d/%d",
+                            gen, best.loss(), sigma, successes, scored.size() - parents));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return best;
+    }
+
+    private int[] mutate(int[] parent, double sigma, DeterministicRng rng) {
+        int[] child = parent.clone();
+        double p = Math.min(1.0, 2.0 / Math.max(1, child.length));
+        boolean changed = false;
+        while (!changed) {
+            for (int i = 0; i < child.length; i++) {
+                if (rng.nextDouble() >= p) continue;
+                Gene g = genes.get(i);
+                int step = (int) Math.round(rng.nextGaussian() * sigma);
+                if (step == 0) step = rng.nextBoolean() ? 1 : -1;
+                int v = Math.max(g.min(), Math.min(g.max(), child[i] + step));
+                changed |= v != child[i];
+                child[i] = v;
+            }
+            if (child.length == 0) break;
+        }
+        return child;
+    }
+
+    /** One line per gene that moved away from the original card file. */
+    public String describeChanges(int[] genome) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < genes.size(); i++) {
+            Gene g = genes.get(i);
+            if (genome[i] == g.base()) continue;
+            sb.append(String.format(Locale.ROOT, "%s tier %d action %d %s: %d -> %d%n", defs.cards().get(g.card()).id(),
+                    g.tier() + 1, g.action(), g.field().name().toLowerCase(Locale.ROOT), g.base(), genome[i]));
+        }
+        return sb.length() == 0 ? "no changes\n" : sb.toString();
+    }
+}
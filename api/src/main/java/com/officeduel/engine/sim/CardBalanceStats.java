@@ -0,0 +1,228 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.telemetry.Telemetry;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Per-card and per-tier balance counters accumulated while matches are simulated. Everything is a flat
+ * {@code long[]} indexed by card ordinal (see {@link CardIndex#ordinalOf}), so memory is O(cards) no matter how
+ * many matches are folded in, and two instances combine with {@link #merge}. One instance observes one match
+ * at a time; run one per thread and merge at the end.
+ *
+ * <p>"Picked" means the opponent took the card in OPPONENT_PICK, "left" means the active player kept it. Win
+ * rates are from the point of view of the player who received and resolved the card. Dot swing is the change of
+ * the shared counter during one resolution, signed so that positive favours the recipient.
+ */
+public final class CardBalanceStats implements MatchObserver {
+    private final CardIndex index;
+    private final int cards;
+    private final int maxTier;
+
+    private long games;
+    private long firstSeatWins;
+    private long secondSeatWins;
+    private long draws;
+    private long totalTurns;
+
+    private final long[] plays;
+    private final long[] seatGamesPlayed;
+    private final long[] seatGamesWon;
+    private final long[] picked;
+    private final long[] pickedWins;
+    private final long[] left;
+    private final long[] leftWins;
+    private final long[] dotSwing;
+    private final long[] tierHits; // [card * maxTier + tier - 1]
+
+    // Scratch for the match in progress, [seat * cards + card]
+    private final int[] matchPicked;
+    private final int[] matchLeft;
+    private GameState current;
+    private int lastDot;
+
+    public CardBalanceStats(CardIndex index) {
+        this.index = index;
+        this.cards = index.size();
+        int tiers = 1;
+        for (int c = 0; c < cards; c++) tiers = Math.max(tiers, index.cardAt(c).tiers().size());
+        this.maxTier = tiers;
+        this.plays = new long[cards];
+        this.seatGamesPlayed = new long[cards];
+        this.seatGamesWon = new long[cards];
+        this.picked = new long[cards];
+        this.pickedWins = new long[cards];
+        this.left = new long[cards];
+        this.leftWins = new long[cards];
+        this.dotSwing = new long[cards];
+        this.tierHits = new long[cards * maxTier];
+        this.matchPicked = new int[2 * cards];
+        this.matchLeft = new int[2 * cards];
+    }
+
+    @Override
+    public void onMatchStart(GameState state) {
+        this.current = state;
+        this.lastDot = state.getSharedDotCounter();
+    }
+
+    @Override
+    public void emit(Telemetry.Event event) {
+        if (!(event instanceof Telemetry.CardPlayed p) || current == null) return;
+        int c = index.ordinalOf(p.cardId());
+        if (c < 0) return;
+        int dot = current.getSharedDotCounter();
+        int swing = dot - lastDot;
+        lastDot = dot;
+        plays[c]++;
+        dotSwing[c] += p.playerIndex() == 0 ? swing : -swing;
+        tierHits[c * maxTier + Math.min(maxTier, Math.max(1, p.tier())) - 1]++;
+        // The active seat resolves the card it kept; the other seat resolves the one it picked
+        if (p.playerIndex() == current.getActivePlayerIndex()) {
+            matchLeft[p.playerIndex() * cards + c]++;
+        } else {
+            matchPicked[p.playerIndex() * cards + c]++;
+        }
+    }
+
+    @Override
+    public void onMatchEnd(GameState state, MatchOutcome outcome) {
+        games++;
+        totalTurns += outcome.turns();
+        if (outcome.winner() == 0) firstSeatWins++;
+        else if (outcome.winner() == 1) secondSeatWins++;
+        else draws++;
+        for (int seat = 0; seat < 2; seat++) {
+            boolean won = outcome.winner() == seat;
+            int base = seat * cards;
+            for (int c = 0; c < cards; c++) {
+                int pk = matchPicked[base + c];
+                int lf = matchLeft[base + c];
+                if (pk + lf == 0) continue;
+                seatGamesPlayed[c]++;
+                picked[c] += pk;
+                left[c] += lf;
+                if (won) {
+                    seatGamesWon[c]++;
+                    pickedWins[c] += pk;
+                    leftWins[c] += lf;
+                }
+            }
+        }
+        Arrays.fill(matchPicked, 0);
+        Arrays.fill(matchLeft, 0);
+        current = null;
+    }
+
+    public void merge(CardBalanceStats other) {
+        if (other.cards != cards || other.maxTier != maxTier) {
+            throw new IllegalArgumentException("Cannot merge stats of different card sets");
+        }
+        games += other.games;
+        firstSeatWins += other.firstSeatWins;
+        secondSeatWins += other.secondSeatWins;
+        draws += other.draws;
+        totalTurns += other.totalTurns;
+        add(plays, other.plays);
+        add(seatGamesPlayed, other.seatGamesPlayed);
+        add(seatGamesWon, other.seatGamesWon);
+        add(picked, other.picked);
+        add(pickedWins, other.pickedWins);
+        add(left, other.left);
+        add(leftWins, other.leftWins);
+        add(dotSwing, other.dotSwing);
+        add(tierHits, other.tierHits);
+    }
+
+    private static void add(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i++) into[i] += from[i];
+    }
+
+    private long[][] perCard() {
+        return new long[][] { plays, seatGamesPlayed, seatGamesWon, picked, pickedWins, left, leftWins, dotSwing, tierHits };
+    }
+
+    /** Every counter flattened into one array, for checkpoints; {@link #mergeCounters} reads it back. */
+    public long[] toCounters() {
+        long[] out = new long[5 + 8 * cards + tierHits.length];
+        out[0] = games;
+        out[1] = firstSeatWins;
+        out[2] = secondSeatWins;
+        out[3] = draws;
+        out[4] = totalTurns;
+        int pos = 5;
+        for (long[] a : perCard()) {
+            System.arraycopy(a, 0, out, pos, a.length);
+            pos += a.length;
+        }
+        return out;
+    }
+
+    public void mergeCounters(long[] counters) {
+        if (counters.length != 5 + 8 * cards + tierHits.length) {
+            throw new IllegalArgumentException("Counters were produced for a different card set");
+        }
+        games += counters[0];
+        firstSeatWins += counters[1];
+        secondSeatWins += counters[2];
+        draws += counters[3];
+        totalTurns += counters[4];
+        int pos = 5;
+        for (long[] a : perCard()) {
+            for (int i = 0; i < a.length; i++) a[i] += counters[pos + i];
+            pos += a.length;
+        }
+    }
+
+    public long games() { return games; }
+    public long firstSeatWins() { return firstSeatWins; }
+    public long secondSeatWins() { return secondSeatWins; }
+    public long draws() { return draws; }
+    public long totalTurns() { return totalTurns; }
+    public int maxTier() { return maxTier; }
+    public int cards() { return cards; }
+
+    public long plays(int card) { return plays[card]; }
+    public long seatGamesPlayed(int card) { return seatGamesPlayed[card]; }
+    public long seatGamesWon(int card) { return seatGamesWon[card]; }
+    public long picked(int card) { return picked[card]; }
+    public long pickedWins(int card) { return pickedWins[card]; }
+    public long left(int card) { return left[card]; }
+    public long leftWins(int card) { return leftWins[card]; }
+    public long dotSwing(int card) { return dotSwing[card]; }
+    public long tierHits(int card, int tier) { return tierHits[card * maxTier + tier - 1]; }
+
+    /** Resolutions of the card per simulated match. */
+    public double playRate(int card) { return ratio(plays[card], games); }
+    public double winRateWhenPlayed(int card) { return ratio(seatGamesWon[card], seatGamesPlayed[card]); }
+    public double winRateWhenPicked(int card) { return ratio(pickedWins[card], picked[card]); }
+    public double winRateWhenLeft(int card) { return ratio(leftWins[card], left[card]); }
+    public double averageDotSwing(int card) { return ratio(dotSwing[card], plays[card]); }
+    public double firstSeatWinRate() { return ratio(firstSeatWins, games - draws); }
+
+    private static double ratio(long num, long den) { return den == 0 ? Double.NaN : (double) num / den; }
+
+    /** Fixed-width text table, one row per card in definition order. */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "games=%d firstSeatWin=%.4f draws=%d avgTurns=%.2f%n",
+                games, firstSeatWinRate(), draws, ratio(totalTurns, games)));
+        sb.append(String.format(Locale.ROOT, "%-5s %-24s %7s %6s %6s %6s %7s  %s%n",
+                "id", "name", "play/g", "winP", "pickW", "leftW", "swing", "tier%"));
+        for (int c = 0; c < cards; c++) {
+            var def = index.cardAt(c);
+            StringBuilder tiers = new StringBuilder();
+            for (int t = 1; t <= def.tiers().size(); t++) {
+                if (t > 1) tiers.append('/');
+                tiers.append(String.format(Locale.ROOT, "%.1f", 100.0 * ratio(tierHits(c, t), plays[c])));
+            }
+            sb.append(String.format(Locale.ROOT, "%-5s %-24.24s %7.3f %6.3f %6.3f %6.3f %+7.3f  %s%n",
+                    def.id(), def.name(), playRate(c), winRateWhenPlayed(c), winRateWhenPicked(c),
+                    winRateWhenLeft(c), averageDotSwing(c), tiers));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,205 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.telemetry.Telemetry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A/B comparison of two revisions of the card set using common random numbers: every seed is played once under
+ * each revision, with identical deck seeding, engine RNG and policy substreams, so games only diverge once a
+ * changed card actually matters. Statistics are taken on the per-seed differences, which cancels most of the
+ * deal-to-deal noise.
+ *
+ * <p>Reported metrics are the first seat's score and, per card, the win rate of seats that resolved the card.
+ * The latter is a ratio, so its paired interval uses the delta method on per-seed linearised residuals. Only
+ * integer moments are accumulated, which keeps chunk merging exact and the result independent of thread count.
+ * The unpaired half-width (same games, treated as independent runs) is shown alongside for comparison.
+ *
+ * <p>Both revisions must list the same card ids in the same order; otherwise the deck seeding differs and the
+ * pairing is lost.
+ */
+public final class CardSetComparison {
+    private static final double Z = 1.96;
+
+    public record Diff(String label, double before, double after, double halfWidth, double unpairedHalfWidth) {
+        public double delta() { return after - before; }
+        /** Games an independent-samples design would need for the same precision, relative to this one. */
+        public double efficiency() {
+            return halfWidth > 0 ? (unpairedHalfWidth * unpairedHalfWidth) / (halfWidth * halfWidth) : Double.NaN;
+        }
+    }
+
+    public record Result(long games, Diff firstSeat, List<Diff> cards, List<String> changedCards) {}
+
+    private final MatchSimulator before;
+    private final MatchSimulator after;
+    private final int cards;
+
+    public CardSetComparison(MatchSimulator before, MatchSimulator after) {
+        if (before.index().size() != after.index().size()) {
+            throw new IllegalArgumentException("Card sets differ in size; paired seeds would deal different decks");
+        }
+        for (int c = 0; c < before.index().size(); c++) {
+            if (!before.index().cardAt(c).id().equals(after.index().cardAt(c).id())) {
+                throw new IllegalArgumentException("Card order differs at position " + c);
+            }
+        }
+        this.before = before;
+        this.after = after;
+        this.cards = before.index().size();
+    }
+
+    public Result run(SeedRange seeds, Policy.Factory policyA, Policy.Factory policyB, int threads) throws Exception {
+        Moments m = SimulationRunner.reduce(seeds, SimulationRunner.DEFAULT_CHUNK, threads, Moments::new,
+                (chunk, into) -> {
+                    SeatCards obsBefore = new SeatCards();
+                    SeatCards obsAfter = new SeatCards();
+                    for (long s = chunk.start(); s < chunk.end(); s++) {
+                        MatchOutcome ob = before.play(s, policyA, policyB, obsBefore);
+                        MatchOutcome oa = after.play(s, policyA, policyB, obsAfter);
+                        into.add(ob, oa, obsBefore, obsAfter);
+                    }
+                },
+                Moments::merge);
+        List<String> changed = new ArrayList<>();
+        for (int c = 0; c < cards; c++) {
+            if (!before.index().cardAt(c).equals(after.index().cardAt(c))) changed.add(before.index().cardAt(c).id());
+        }
+        List<Diff> perCard = new ArrayList<>();
+        for (int c = 0; c < cards; c++) perCard.add(m.cardDiff(before.index().cardAt(c).id(), c));
+        return new Result(m.games, m.firstSeatDiff(), perCard, changed);
+    }
+
+    /** Which seats resolved which cards in the match just played. */
+    private final class SeatCards implements MatchObserver {
+        final boolean[] played = new boolean[2 * cards];
+
+        @Override
+        public void onMatchStart(GameState state) {
+            Arrays.fill(played, false);
+        }
+
+        @Override
+        public void emit(Telemetry.Event event) {
+            if (event instanceof Telemetry.CardPlayed p) {
+                int c = before.index().ordinalOf(p.cardId());
+                if (c >= 0) played[p.playerIndex() * cards + c] = true;
+            }
+        }
+    }
+
+    /**
+     * Integer moments of the per-seed vectors. First seat: scores in half points (0, 1, 2) before and after.
+     * Per card: v = (X before, Y before, X after, Y after) where X counts seats that resolved the card and Y those
+     * of them that won; all first moments and the ten distinct second moments are kept.
+     */
+    private final class Moments {
+        long games;
+        final long[] seat = new long[5]; // sb, sa, sb^2, sa^2, sb*sa
+        final long[] first = new long[4 * cards];
+        final long[] second = new long[10 * cards];
+
+        void add(MatchOutcome ob, MatchOutcome oa, SeatCards cb, SeatCards ca) {
+            games++;
+            int sb = ob.isDraw() ? 1 : ob.winner() == 0 ? 2 : 0;
+            int sa = oa.isDraw() ? 1 : oa.winner() == 0 ? 2 : 0;
+            seat[0] += sb;
+            seat[1] += sa;
+            seat[2] += sb * sb;
+            seat[3] += sa * sa;
+            seat[4] += sb * sa;
+            int[] v = new int[4];
+            for (int c = 0; c < cards; c++) {
+                v[0] = v[1] = v[2] = v[3] = 0;
+                for (int s = 0; s < 2; s++) {
+                    if (cb.played[s * cards + c]) {
+                        v[0]++;
+                        if (ob.winner() == s) v[1]++;
+                    }
+                    if (ca.played[s * cards + c]) {
+                        v[2]++;
+                        if (oa.winner() == s) v[3]++;
+                    }
+                }
+                int k = 0;
+                for (int i = 0; i < 4; i++) {
+                    first[4 * c + i] += v[i];
+                    for (int j = i; j < 4; j++) second[10 * c + k++] += (long) v[i] * v[j];
+                }
+            }
+        }
+
+        void merge(Moments o) {
+            games += o.games;
+            for (int i = 0; i < seat.length; i++) seat[i] += o.seat[i];
+            for (int i = 0; i < first.length; i++) first[i] += o.first[i];
+            for (int i = 0; i < second.length; i++) second[i] += o.second[i];
+        }
+
+        private double cov(double sumI, double sumJ, double sumIJ) {
+            return games > 1 ? (sumIJ - sumI * sumJ / games) / (games - 1) : 0;
+        }
+
+        Diff firstSeatDiff() {
+            double n = games;
+            double vb = cov(seat[0], seat[0], seat[2]) / 4;
+            double va = cov(seat[1], seat[1], seat[3]) / 4;
+            double cba = cov(seat[0], seat[1], seat[4]) / 4;
+            double paired = Math.max(0, vb + va - 2 * cba);
+            return new Diff("first seat score", seat[0] / (2 * n), seat[1] / (2 * n),
+                    Z * Math.sqrt(paired / n), Z * Math.sqrt((vb + va) / n));
+        }
+
+        Diff cardDiff(String id, int c) {
+            double n = games;
+            double[] mean = new double[4];
+            for (int i = 0; i < 4; i++) mean[i] = first[4 * c + i] / n;
+            double rb = mean[0] > 0 ? mean[1] / mean[0] : Double.NaN;
+            double ra = mean[2] > 0 ? mean[3] / mean[2] : Double.NaN;
+            if (Double.isNaN(rb) || Double.isNaN(ra)) return new Diff(id, rb, ra, Double.NaN, Double.NaN);
+            // Linearised residual of (ra - rb): a . v with a = (rb/xb, -1/xb, -ra/xa, 1/xa)
+            double[] a = { rb / mean[0], -1 / mean[0], -ra / mean[2], 1 / mean[2] };
+            double[][] cov = new double[4][4];
+            int k = 0;
+            for (int i = 0; i < 4; i++) {
+                for (int j = i; j < 4; j++) {
+                    cov[i][j] = cov[j][i] = cov(first[4 * c + i], first[4 * c + j], second[10 * c + k++]);
+                }
+            }
+            double paired = 0, unpaired = 0;
+            for (int i = 0; i < 4; i++) {
+                for (int j = 0; j < 4; j++) {
+                    double t = a[i] * a[j] * cov[i][j];
+                    paired += t;
+                    if ((i < 2) == (j < 2)) unpaired += t;
+                }
+            }
+            return new Diff(id, rb, ra, Z * Math.sqrt(Math.max(0, paired) / n), Z * Math.sqrt(Math.max(0, unpaired) / n));
+        }
+    }
+
+    /** Headline difference, then cards ordered by how clearly they moved; changed cards are starred. */
+    public static String report(Result r) {
+        StringBuilder sb = new StringBuilder();
+        Diff f = r.firstSeat();
+        sb.append(String.format(Locale.ROOT, "%d paired games, changed cards: %s%n", r.games(),
+                r.changedCards().isEmpty() ? "none" : String.join(", ", r.changedCards())));
+        sb.append(String.format(Locale.ROOT, "%-18s %8.4f -> %8.4f  delta %+.4f +/-%.4f (unpaired +/-%.4f, %.1fx fewer games)%n",
+                f.label(), f.before(), f.after(), f.delta(), f.halfWidth(), f.unpairedHalfWidth(), f.efficiency()));
+        List<Diff> sorted = new ArrayList<>(r.cards());
+        sorted.sort(Comparator.comparingDouble((Diff d) -> Double.isNaN(d.halfWidth()) ? 0 : -Math.abs(d.delta()) / Math.max(1e-9, d.halfWidth())));
+        sb.append(String.format(Locale.ROOT, "%-7s %8s %8s %8s %8s %10s %7s%n", "card", "winRate", "-> new", "delta", "+/-", "unpaired", "gain"));
+        for (Diff d : sorted) {
+            sb.append(String.format(Locale.ROOT, "%-7s %8.4f %8.4f %+8.4f %8.4f %10.4f %6.1fx%n",
+                    d.label() + (r.changedCards().contains(d.label()) ? "*" : ""), d.before(), d.after(), d.delta(),
+                    d.halfWidth(), d.unpairedHalfWidth(), d.efficiency()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.sim.ColumnarResultWriter.Column;
+import com.officeduel.engine.sim.ColumnarResultWriter.Layout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Streams rows back out of a {@link ColumnarResultWriter} directory. Columns are mapped read-only one window of
+ * rows at a time and visited in seed order; rows that were never written are skipped. The plays array handed to
+ * the visitor is reused between rows.
+ */
+public final class ColumnarResultReader implements Closeable {
+    private static final int WINDOW_ROWS = 1 << 20;
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        /**
+         * @param winner 0 = A, 1 = B, -1 = draw
+         * @param plays  per seat and card ordinal: {@code plays[seat * cards + ordinal]}, unsigned
+         */
+        void row(long seed, int winner, int turns, int finalDotCounter, byte[] plays);
+    }
+
+    private final Layout layout;
+    private final FileChannel[] channels = new FileChannel[Column.values().length];
+
+    public ColumnarResultReader(Path dir) throws IOException {
+        this.layout = ColumnarResultWriter.MAPPER.readValue(dir.resolve(ColumnarResultWriter.LAYOUT_FILE).toFile(), Layout.class);
+        for (Column c : Column.values()) {
+            channels[c.ordinal()] = FileChannel.open(dir.resolve(c.file), StandardOpenOption.READ);
+        }
+    }
+
+    public Layout layout() { return layout; }
+
+    /** Visits every written row; returns how many there were. */
+    public long scan(RowVisitor visitor) throws IOException {
+        int width = layout.playsWidth();
+        byte[] plays = new byte[width];
+        long visited = 0;
+        for (long from = 0; from < layout.rows(); from += WINDOW_ROWS) {
+            int n = (int) Math.min(WINDOW_ROWS, layout.rows() - from);
+            MappedByteBuffer seeds = map(Column.SEED, from, n);
+            MappedByteBuffer winners = map(Column.WINNER, from, n);
+            MappedByteBuffer turns = map(Column.TURNS, from, n);
+            MappedByteBuffer dots = map(Column.DOTS, from, n);
+            MappedByteBuffer playCol = map(Column.PLAYS, from, n);
+            for (int r = 0; r < n; r++) {
+                byte w = winners.get(r);
+                if (w == ColumnarResultWriter.NOT_WRITTEN) continue;
+                playCol.get(r * width, plays);
+                visitor.row(seeds.getLong(r * 8), ColumnarResultWriter.decodeWinner(w),
+                        Short.toUnsignedInt(turns.getShort(r * 2)), dots.get(r), plays);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    private MappedByteBuffer map(Column c, long fromRow, int rows) throws IOException {
+        int w = c.width(layout);
+        MappedByteBuffer buf = channels[c.ordinal()].map(FileChannel.MapMode.READ_ONLY, fromRow * w, (long) rows * w);
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        return buf;
+    }
+
+    /** Aggregates a column set into the same summary the CLI prints for plain simulation runs. */
+    public String summary() throws IOException {
+        int cards = layout.cardIds().size();
+        long[] outcome = new long[3];
+        long[] playTotals = new long[2 * cards];
+        long[] turnTotal = new long[1];
+        long rows = scan((seed, winner, turns, dot, plays) -> {
+            outcome[winner + 1]++;
+            turnTotal[0] += turns;
+            for (int i = 0; i < plays.length; i++) playTotals[i] += Byte.toUnsignedInt(plays[i]);
+        });
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "rows=%d/%d A=%d B=%d draws=%d avgTurns=%.2f%n", rows, layout.rows(),
+                outcome[1], outcome[2], outcome[0], rows == 0 ? 0.0 : (double) turnTotal[0] / rows));
+        sb.append(String.format(Locale.ROOT, "%-6s %10s %10s%n", "card", "playsA", "playsB"));
+        for (int c = 0; c < cards; c++) {
+            sb.append(String.format(Locale.ROOT, "%-6s %10d %10d%n", layout.cardIds().get(c), playTotals[c], playTotals[cards + c]));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FileChannel ch : channels) ch.close();
+    }
+}
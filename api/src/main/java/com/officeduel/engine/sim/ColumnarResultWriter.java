@@ -0,0 +1,177 @@
+package com.officeduel.engine.sim;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.telemetry.Telemetry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes one row per simulated match into fixed-width column files under a directory:
+ *
+ * <pre>
+ *   seed.col    8 bytes  match seed
+ *   winner.col  1 byte   0 = row not written yet, 1 = A won, 2 = B won, 3 = draw
+ *   turns.col   2 bytes  turns played (unsigned)
+ *   dots.col    1 byte   final shared dot counter (signed)
+ *   plays.col   2 x cards bytes, resolutions per seat and card ordinal, saturating at 255
+ * </pre>
+ *
+ * plus {@code layout.json} describing the run. Row {@code r} belongs to seed {@code baseSeed + r}, so a writer
+ * thread handed a {@link SeedRange} maps exactly its own region of each file and never touches another thread's
+ * rows. Values are little-endian and written straight into the mapped pages; nothing is allocated per row.
+ */
+public final class ColumnarResultWriter implements Closeable {
+    static final ObjectMapper MAPPER = new ObjectMapper();
+    static final String LAYOUT_FILE = "layout.json";
+
+    static final byte NOT_WRITTEN = 0;
+
+    static byte encodeWinner(int winner) { return (byte) (winner == 0 ? 1 : winner == 1 ? 2 : 3); }
+
+    static int decodeWinner(byte code) { return code == 1 ? 0 : code == 2 ? 1 : -1; }
+
+    /** Run description stored next to the columns. */
+    public record Layout(int version, long baseSeed, long rows, List<String> cardIds) {
+        @JsonIgnore
+        public int playsWidth() { return 2 * cardIds.size(); }
+    }
+
+    enum Column {
+        SEED("seed.col", 8), WINNER("winner.col", 1), TURNS("turns.col", 2), DOTS("dots.col", 1), PLAYS("plays.col", -1);
+
+        final String file;
+        final int width;
+
+        Column(String file, int width) {
+            this.file = file;
+            this.width = width;
+        }
+
+        int width(Layout layout) { return width > 0 ? width : layout.playsWidth(); }
+    }
+
+    private final Layout layout;
+    private final CardIndex index;
+    private final FileChannel[] channels = new FileChannel[Column.values().length];
+
+    private ColumnarResultWriter(Path dir, Layout layout, CardIndex index) throws IOException {
+        this.layout = layout;
+        this.index = index;
+        for (Column c : Column.values()) {
+            channels[c.ordinal()] = FileChannel.open(dir.resolve(c.file),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+    }
+
+    /** Creates (or reopens, keeping written rows) a column set sized for every seed of {@code seeds}. */
+    public static ColumnarResultWriter open(Path dir, SeedRange seeds, CardIndex index) throws IOException {
+        Files.createDirectories(dir);
+        List<String> ids = new ArrayList<>();
+        for (int c = 0; c < index.size(); c++) ids.add(index.cardAt(c).id());
+        Layout layout = new Layout(1, seeds.start(), seeds.count(), ids);
+        Path layoutFile = dir.resolve(LAYOUT_FILE);
+        if (Files.exists(layoutFile)) {
+            Layout existing = MAPPER.readValue(layoutFile.toFile(), Layout.class);
+            if (!existing.equals(layout)) {
+                throw new IllegalArgumentException("Column set in " + dir + " was written for a different run: " + existing);
+            }
+        } else {
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(layoutFile.toFile(), layout);
+        }
+        for (Column c : Column.values()) {
+            try (RandomAccessFile f = new RandomAccessFile(dir.resolve(c.file).toFile(), "rw")) {
+                long size = layout.rows() * c.width(layout);
+                if (f.length() < size) f.setLength(size);
+            }
+        }
+        return new ColumnarResultWriter(dir, layout, index);
+    }
+
+    public Layout layout() { return layout; }
+
+    /** Maps the rows of {@code chunk}; the segment is confined to the calling thread. */
+    public Segment segment(SeedRange chunk) throws IOException {
+        if (chunk.start() < layout.baseSeed() || chunk.end() > layout.baseSeed() + layout.rows()) {
+            throw new IllegalArgumentException("Chunk " + chunk + " outside the column set");
+        }
+        return new Segment(chunk);
+    }
+
+    /** Flushes mapped pages to disk. */
+    public void force() throws IOException {
+        for (FileChannel ch : channels) ch.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        for (FileChannel ch : channels) ch.close();
+    }
+
+    /** Observer that turns each finished match of its chunk into one row. */
+    public final class Segment implements MatchObserver {
+        private final SeedRange chunk;
+        private final MappedByteBuffer seeds;
+        private final MappedByteBuffer winners;
+        private final MappedByteBuffer turns;
+        private final MappedByteBuffer dots;
+        private final MappedByteBuffer plays;
+        private final int[] counts = new int[layout.playsWidth()];
+
+        private Segment(SeedRange chunk) throws IOException {
+            this.chunk = chunk;
+            this.seeds = map(Column.SEED);
+            this.winners = map(Column.WINNER);
+            this.turns = map(Column.TURNS);
+            this.dots = map(Column.DOTS);
+            this.plays = map(Column.PLAYS);
+        }
+
+        private MappedByteBuffer map(Column c) throws IOException {
+            int w = c.width(layout);
+            MappedByteBuffer buf = channels[c.ordinal()].map(FileChannel.MapMode.READ_WRITE,
+                    (chunk.start() - layout.baseSeed()) * w, chunk.count() * w);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            return buf;
+        }
+
+        @Override
+        public void onMatchStart(GameState state) {
+            Arrays.fill(counts, 0);
+        }
+
+        @Override
+        public void emit(Telemetry.Event event) {
+            if (event instanceof Telemetry.CardPlayed p) {
+                int c = index.ordinalOf(p.cardId());
+                if (c >= 0) counts[p.playerIndex() * index.size() + c]++;
+            }
+        }
+
+        @Override
+        public void onMatchEnd(GameState state, MatchOutcome o) {
+            int row = (int) (o.seed() - chunk.start());
+            seeds.putLong(row * 8, o.seed());
+            turns.putShort(row * 2, (short) Math.min(0xFFFF, o.turns()));
+            dots.put(row, (byte) o.finalDotCounter());
+            int base = row * counts.length;
+            for (int i = 0; i < counts.length; i++) plays.put(base + i, (byte) Math.min(255, counts[i]));
+            // Winner last: a non-zero winner byte marks the row complete
+            winners.put(row, encodeWinner(o.winner()));
+        }
+    }
+}
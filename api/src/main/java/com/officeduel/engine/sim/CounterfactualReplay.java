@@ -0,0 +1,203 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.model.TurnCommand;
+import com.officeduel.engine.replay.Replay;
+import com.officeduel.engine.replay.ReplaySerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Plays archived matches again under a revised card set: same seed, same dealt decks, and the players' logged
+ * decisions for as long as they remain legal. Once a logged offer names a card the active seat no longer holds
+ * (the revision changed draws, discards or game length), the match has diverged and {@code fallback} policies
+ * finish it. The first divergence turn is reported, so "the same games, only the changed cards differ" can be
+ * told apart from matches that went a different way early.
+ *
+ * <p>The engine RNG is restored by replaying the deck-dealing draws against the archived card pool size, so
+ * revised sets may add, drop or reorder cards as long as every dealt card id is still defined.
+ */
+public final class CounterfactualReplay {
+    public record Outcome(long seed, int originalWinner, int newWinner, int turns, int followedCommands,
+                          int divergedAtTurn) {
+        public boolean diverged() { return divergedAtTurn >= 0; }
+        public boolean flipped() { return originalWinner != newWinner; }
+    }
+
+    private final MatchSimulator sim;
+    private final Policy.Factory fallback;
+
+    public CounterfactualReplay(MatchSimulator sim, Policy.Factory fallback) {
+        this.sim = sim;
+        this.fallback = fallback;
+    }
+
+    /** Plays {@code seeds} with {@code sim} and appends each finished match to {@code archive}, in seed order. */
+    public static long archive(MatchSimulator sim, SeedRange seeds, Policy.Factory policyA, Policy.Factory policyB,
+                               Writer archive, int threads) throws Exception {
+        int pool = sim.index().size();
+        long[] written = { 0 };
+        SimulationRunner.<List<Replay>>reduce(seeds, SimulationRunner.DEFAULT_CHUNK, threads, ArrayList::new,
+                (chunk, into) -> {
+                    MatchObserver recorder = new MatchObserver() {
+                        @Override
+                        public void onMatchEnd(GameState state, MatchOutcome outcome) {
+                            into.add(ReplaySerializer.fromGameState(state, pool));
+                        }
+                    };
+                    for (long s = chunk.start(); s < chunk.end(); s++) sim.play(s, policyA, policyB, recorder);
+                },
+                (total, part) -> {
+                    // Merges run in chunk order on the calling thread; stream each chunk out instead of keeping it
+                    try {
+                        for (Replay r : part) ReplaySerializer.appendTo(archive, r);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    written[0] += part.size();
+                });
+        return written[0];
+    }
+
+    public Outcome replay(Replay r) {
+        GameState g = restore(r);
+        TurnEngine engine = new TurnEngine(g, sim.index(), null);
+        engine.setVerbose(false);
+        engine.startMatch();
+
+        List<TurnCommand> log = r.commands();
+        Policy[] policies = null;
+        int next = 0;
+        int turns = 0;
+        int divergedAt = -1;
+        while (g.winnerIndexOrMinusOne() == -1 && turns < sim.maxTurns()) {
+            turns++;
+            PlayerState active = g.getActivePlayer();
+            if (policies == null && !active.isSkipNextTurn() && !active.getHand().isEmpty()) {
+                TurnCommand c = next < log.size() ? log.get(next) : null;
+                if (c != null && isLegal(c, g)) {
+                    next++;
+                    g.setFaceUpCardId(c.faceUpId());
+                    g.setFaceDownCardId(c.faceDownId());
+                    g.setPhase(GameState.Phase.OPPONENT_PICK);
+                    engine.playTurnWithChoice(c.pickedFaceUp() ? c.faceUpId() : c.faceDownId(),
+                            c.pickedFaceUp() ? c.faceDownId() : c.faceUpId());
+                    continue;
+                }
+                divergedAt = turns;
+                policies = new Policy[] { fallback.create(r.seed(), 0), fallback.create(r.seed(), 1) };
+            }
+            if (policies == null) {
+                engine.playTurnAuto();
+            } else {
+                MatchSimulator.playTurn(g, engine, policies);
+            }
+        }
+        if (divergedAt < 0 && next < log.size()) divergedAt = turns; // ended before the archived match did
+        return new Outcome(r.seed(), r.winner(), g.winnerIndexOrMinusOne(), turns, next, divergedAt);
+    }
+
+    /** Pre-start state with the archived decks and the engine RNG positioned as right after dealing. */
+    GameState restore(Replay r) {
+        if (r.cardPoolSize() <= 0 || r.commands() == null || r.initialDeckA() == null || r.initialDeckB() == null) {
+            throw new IllegalArgumentException("Replay of seed " + r.seed() + " has no command log");
+        }
+        DeterministicRng rng = new DeterministicRng(r.seed());
+        int draws = r.initialDeckA().size() + r.initialDeckB().size();
+        for (int i = 0; i < draws; i++) rng.nextInt(r.cardPoolSize());
+        GameState g = new GameState(rng);
+        g.setWinPointsToReach(r.winPointsToReach());
+        for (String id : r.initialDeckA()) g.getPlayerA().getDeck().addLast(new Cards(requireKnown(id)));
+        for (String id : r.initialDeckB()) g.getPlayerB().getDeck().addLast(new Cards(requireKnown(id)));
+        return g;
+    }
+
+    private String requireKnown(String id) {
+        if (sim.index().ordinalOf(id) < 0) {
+            throw new IllegalArgumentException("Card " + id + " was dealt in the archive but is not in the revised set");
+        }
+        return id;
+    }
+
+    private static boolean isLegal(TurnCommand c, GameState g) {
+        if (c.seat() != g.getActivePlayerIndex()) return false;
+        List<Cards> hand = g.getActivePlayer().getHand();
+        int up = 0, down = 0;
+        for (Cards card : hand) {
+            if (card.cardId().equals(c.faceUpId())) up++;
+            if (card.cardId().equals(c.faceDownId())) down++;
+        }
+        if (c.faceUpId().equals(c.faceDownId())) return up >= 2 || (up == 1 && hand.size() == 1);
+        return up > 0 && down > 0;
+    }
+
+    /** Replays every archived match, in parallel over archive positions. */
+    public Summary run(List<Replay> archive, int threads) throws Exception {
+        return SimulationRunner.reduce(new SeedRange(0, archive.size()), 256, threads, Summary::new,
+                (chunk, into) -> {
+                    for (long i = chunk.start(); i < chunk.end(); i++) into.add(replay(archive.get((int) i)));
+                },
+                Summary::merge);
+    }
+
+    /** Counts over replayed matches; first-seat scores are in half points so merging stays exact. */
+    public static final class Summary {
+        long games;
+        long diverged;
+        long flipped;
+        long followed;
+        long divergenceTurns;
+        long firstSeatBefore;
+        long firstSeatAfter;
+
+        void add(Outcome o) {
+            games++;
+            followed += o.followedCommands();
+            if (o.diverged()) {
+                diverged++;
+                divergenceTurns += o.divergedAtTurn();
+            }
+            if (o.flipped()) flipped++;
+            firstSeatBefore += halfPoints(o.originalWinner());
+            firstSeatAfter += halfPoints(o.newWinner());
+        }
+
+        private static int halfPoints(int winner) {
+            return winner == 0 ? 2 : winner == 1 ? 0 : 1;
+        }
+
+        void merge(Summary o) {
+            games += o.games;
+            diverged += o.diverged;
+            flipped += o.flipped;
+            followed += o.followed;
+            divergenceTurns += o.divergenceTurns;
+            firstSeatBefore += o.firstSeatBefore;
+            firstSeatAfter += o.firstSeatAfter;
+        }
+
+        public long games() { return games; }
+        public long diverged() { return diverged; }
+        public long flipped() { return flipped; }
+
+        public String report() {
+            double n = Math.max(1, games);
+            return String.format(Locale.ROOT,
+                    "matches=%d diverged=%d (%.1f%%, avg at turn %.1f) flipped=%d (%.1f%%) followedCommands/match=%.1f%n"
+                            + "firstSeatScore archived=%.4f revised=%.4f delta=%+.4f%n",
+                    games, diverged, 100.0 * diverged / n, diverged == 0 ? 0.0 : (double) divergenceTurns / diverged,
+                    flipped, 100.0 * flipped / n, followed / n,
+                    firstSeatBefore / (2 * n), firstSeatAfter / (2 * n), (firstSeatAfter - firstSeatBefore) / (2 * n));
+        }
+    }
+}
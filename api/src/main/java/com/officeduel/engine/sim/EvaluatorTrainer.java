@@ -0,0 +1,195 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.LinearEvaluator;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.model.GameState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fits a {@link LinearEvaluator} to self-play. Matches are played over a block of training seeds and every
+ * {@link Settings#sampleEvery}-th position between turns is kept with its label, 1 when the player to move went on to
+ * win, 0 when it lost and a half for a match that hit the turn cap. The weights are then fitted by full-batch
+ * gradient descent on the L2-regularized log loss, each epoch's gradient summed over fixed blocks of positions in
+ * parallel, and scored on positions from a separate block of holdout seeds.
+ *
+ * <p>Positions come in seed order and the blocks are added in order, so the fitted weights depend on the seeds,
+ * the policies and the settings but not on the thread count.
+ */
+public final class EvaluatorTrainer {
+    /**
+     * {@code epochs} of gradient descent at {@code learningRate} with L2 penalty {@code l2} (the bias is not
+     * penalized), keeping every {@code sampleEvery}-th position of each match.
+     */
+    public record Settings(int epochs, double learningRate, double l2, int sampleEvery) {
+        public static final Settings DEFAULT = new Settings(400, 0.6, 1e-4, 2);
+    }
+
+    /** A fit and its holdout scores, next to those of the dot counter search bots use without an evaluator. */
+    public record Report(LinearEvaluator evaluator, long positions, double trainLogLoss, double holdoutLogLoss,
+                         double holdoutAccuracy, double baselineLogLoss) {}
+
+    /** Positions per block of the parallel gradient. */
+    private static final int BLOCK = 4096;
+
+    /** Feature rows and labels, grown as matches are played. */
+    static final class Samples {
+        final int width;
+        double[] x;
+        double[] y;
+        int rows;
+
+        Samples(int width) {
+            this.width = width;
+            this.x = new double[width * 256];
+            this.y = new double[256];
+        }
+
+        double[] row() {
+            if (rows == y.length) {
+                y = Arrays.copyOf(y, rows * 2);
+                x = Arrays.copyOf(x, rows * 2 * width);
+            }
+            return x;
+        }
+
+        void merge(Samples other) {
+            while (y.length < rows + other.rows) {
+                y = Arrays.copyOf(y, y.length * 2);
+                x = Arrays.copyOf(x, y.length * width);
+            }
+            System.arraycopy(other.x, 0, x, rows * width, other.rows * width);
+            System.arraycopy(other.y, 0, y, rows, other.rows);
+            rows += other.rows;
+        }
+    }
+
+    private final MatchSimulator sim;
+    private final Settings settings;
+    private final int threads;
+
+    public EvaluatorTrainer(MatchSimulator sim, Settings settings, int threads) {
+        this.sim = sim;
+        this.settings = settings;
+        this.threads = Math.max(1, threads);
+    }
+
+    public Report train(SeedRange trainSeeds, SeedRange holdoutSeeds, Policy.Factory policyA, Policy.Factory policyB)
+            throws Exception {
+        Samples train = collect(trainSeeds, policyA, policyB);
+        Samples holdout = collect(holdoutSeeds, policyA, policyB);
+        CardIndex index = sim.index();
+        double[] w = new double[LinearEvaluator.featureCount(index)];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            double[] grad = new double[w.length];
+            for (int epoch = 0; epoch < settings.epochs(); epoch++) {
+                gradient(pool, train, w, grad);
+                for (int i = 0; i < w.length; i++) {
+                    double penalty = i == 0 ? 0 : settings.l2() * w[i];
+                    w[i] -= settings.learningRate() * (grad[i] / Math.max(1, train.rows) + penalty);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Report(new LinearEvaluator(index, w), train.rows, logLoss(train, w), logLoss(holdout, w),
+                accuracy(holdout, w), baselineLogLoss(holdout));
+    }
+
+    /** Plays {@code seeds} and keeps the sampled positions, in seed order. */
+    Samples collect(SeedRange seeds, Policy.Factory policyA, Policy.Factory policyB) throws Exception {
+        CardIndex index = sim.index();
+        int width = LinearEvaluator.featureCount(index);
+        return SimulationRunner.reduce(seeds, SimulationRunner.DEFAULT_CHUNK, threads, () -> new Samples(width),
+                (chunk, out) -> {
+                    for (long s = chunk.start(); s < chunk.end(); s++) play(s, policyA, policyB, out);
+                },
+                Samples::merge);
+    }
+
+    private void play(long seed, Policy.Factory policyA, Policy.Factory policyB, Samples out) {
+        GameState g = sim.newMatch(seed);
+        TurnEngine engine = sim.start(seed, g, null);
+        Policy[] policies = { policyA.create(seed, 0), policyB.create(seed, 1) };
+        int first = out.rows;
+        List<Integer> movers = new ArrayList<>();
+        for (int turn = 0; g.winnerIndexOrMinusOne() == -1 && turn < sim.maxTurns(); turn++) {
+            if (turn % settings.sampleEvery() == 0) {
+                LinearEvaluator.features(sim.index(), g, out.row(), out.rows * out.width);
+                movers.add(g.getActivePlayerIndex());
+                out.rows++;
+            }
+            MatchSimulator.playTurn(g, engine, policies);
+        }
+        int winner = g.winnerIndexOrMinusOne();
+        for (int k = 0; k < movers.size(); k++) {
+            out.y[first + k] = winner == -1 ? 0.5 : winner == movers.get(k) ? 1.0 : 0.0;
+        }
+    }
+
+    /** Sum over all rows of the log-loss gradient into {@code grad}, block partials added in block order. */
+    private void gradient(ExecutorService pool, Samples data, double[] w, double[] grad) throws Exception {
+        List<Future<double[]>> parts = new ArrayList<>();
+        for (int start = 0; start < data.rows; start += BLOCK) {
+            int from = start, to = Math.min(data.rows, start + BLOCK);
+            parts.add(pool.submit(() -> {
+                double[] g = new double[w.length];
+                for (int r = from; r < to; r++) {
+                    double err = predict(data, r, w) - data.y[r];
+                    int base = r * data.width;
+                    for (int i = 0; i < w.length; i++) g[i] += err * data.x[base + i];
+                }
+                return g;
+            }));
+        }
+        Arrays.fill(grad, 0.0);
+        for (Future<double[]> f : parts) {
+            double[] g = SimulationRunner.unwrap(f);
+            for (int i = 0; i < grad.length; i++) grad[i] += g[i];
+        }
+    }
+
+    private static double predict(Samples data, int row, double[] w) {
+        int base = row * data.width;
+        double z = 0;
+        for (int i = 0; i < w.length; i++) z += w[i] * data.x[base + i];
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    static double logLoss(Samples data, double[] w) {
+        double sum = 0;
+        for (int r = 0; r < data.rows; r++) sum += loss(predict(data, r, w), data.y[r]);
+        return sum / Math.max(1, data.rows);
+    }
+
+    /** Log loss of the dot counter scaled linearly into [0, 1], the leaf value of the search bots so far. */
+    static double baselineLogLoss(Samples data) {
+        double sum = 0;
+        for (int r = 0; r < data.rows; r++) sum += loss(0.5 + 0.5 * data.x[r * data.width + 1], data.y[r]);
+        return sum / Math.max(1, data.rows);
+    }
+
+    private static double loss(double p, double y) {
+        p = Math.min(1 - 1e-6, Math.max(1e-6, p));
+        return -(y * Math.log(p) + (1 - y) * Math.log(1 - p));
+    }
+
+    /** Share of decided positions whose winner the model favours. */
+    static double accuracy(Samples data, double[] w) {
+        int right = 0, decided = 0;
+        for (int r = 0; r < data.rows; r++) {
+            if (data.y[r] == 0.5) continue;
+            decided++;
+            if ((predict(data, r, w) >= 0.5) == (data.y[r] == 1.0)) right++;
+        }
+        return decided == 0 ? 0 : right / (double) decided;
+    }
+}
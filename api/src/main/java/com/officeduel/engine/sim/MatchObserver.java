@@ -0,0 +1,17 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.telemetry.Telemetry;
+
+/**
+ * Telemetry sink that also sees match boundaries, so it can keep per-match scratch state and fold it into
+ * running totals once the outcome is known.
+ */
+public interface MatchObserver extends Telemetry {
+    default void onMatchStart(GameState state) {}
+
+    default void onMatchEnd(GameState state, MatchOutcome outcome) {}
+
+    @Override
+    default void emit(Event event) {}
+}
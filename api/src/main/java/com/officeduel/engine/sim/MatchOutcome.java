@@ -0,0 +1,6 @@
+package com.officeduel.engine.sim;
+
+/** Result of one simulated match. {@code winner} is 0 (A), 1 (B) or -1 when the turn cap was hit. */
+public record MatchOutcome(long seed, int winner, int turns, int finalDotCounter) {
+    public boolean isDraw() { return winner < 0; }
+}
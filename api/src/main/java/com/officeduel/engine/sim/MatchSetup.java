@@ -0,0 +1,22 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.model.GameState;
+
+/**
+ * Hook run after a simulated match's decks are seeded and before {@code startMatch}, for experiments that
+ * change the starting position or rules (deck contents, win threshold, hand size...).
+ */
+@FunctionalInterface
+public interface MatchSetup {
+    MatchSetup NONE = (seed, state, engine) -> {};
+
+    void apply(long seed, GameState state, TurnEngine engine);
+
+    default MatchSetup andThen(MatchSetup next) {
+        return (seed, state, engine) -> {
+            apply(seed, state, engine);
+            next.apply(seed, state, engine);
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+
+/**
+ * Plays complete matches headlessly: same deck setup as the CLI, the engine's DEBUG trace switched off, and
+ * both seats driven by {@link Policy} instances. Instances are immutable and can be shared between threads.
+ */
+public final class MatchSimulator {
+    public static final int DEFAULT_MAX_TURNS = 200;
+    private static final int RANDOM_DECK_CARDS = 20;
+
+    private final CardDefinitionSet defs;
+    private final CardIndex index;
+    private final int maxTurns;
+    private final MatchSetup setup;
+
+    public MatchSimulator(CardDefinitionSet defs) {
+        this(defs, new CardIndex(defs), DEFAULT_MAX_TURNS, MatchSetup.NONE);
+    }
+
+    public MatchSimulator(CardDefinitionSet defs, CardIndex index, int maxTurns, MatchSetup setup) {
+        this.defs = defs;
+        this.index = index;
+        this.maxTurns = maxTurns;
+        this.setup = setup;
+    }
+
+    /** Same card set and turn cap, with {@code extra} applied after this simulator's own setup. */
+    public MatchSimulator withSetup(MatchSetup extra) {
+        return new MatchSimulator(defs, index, maxTurns, setup.andThen(extra));
+    }
+
+    /**
+     * Same index, turn cap and setup, with the random deck cards dealt from {@code deal} instead; cards outside it
+     * still resolve through the index.
+     */
+    public MatchSimulator dealingFrom(CardDefinitionSet deal) {
+        return new MatchSimulator(deal, index, maxTurns, setup);
+    }
+
+    public CardDefinitionSet defs() { return defs; }
+    public CardIndex index() { return index; }
+    public int maxTurns() { return maxTurns; }
+
+    public MatchOutcome play(long seed, Policy.Factory policyA, Policy.Factory policyB, MatchObserver observer) {
+        return play(seed, policyA.create(seed, 0), policyB.create(seed, 1), observer);
+    }
+
+    public MatchOutcome play(long seed, Policy policyA, Policy policyB, MatchObserver observer) {
+        GameState g = newMatch(seed);
+        TurnEngine engine = start(seed, g, observer);
+
+        Policy[] policies = { policyA, policyB };
+        int turns = 0;
+        while (g.winnerIndexOrMinusOne() == -1 && turns < maxTurns) {
+            turns++;
+            playTurn(g, engine, policies);
+        }
+        MatchOutcome outcome = new MatchOutcome(seed, g.winnerIndexOrMinusOne(), turns, g.getSharedDotCounter());
+        if (observer != null) observer.onMatchEnd(g, outcome);
+        return outcome;
+    }
+
+    /** Wires a quiet engine to {@code g}, applies the setup and starts the match: everything {@link #play} does before turn 1. */
+    TurnEngine start(long seed, GameState g, MatchObserver observer) {
+        TurnEngine engine = new TurnEngine(g, index, observer);
+        engine.setVerbose(false);
+        g.setEffectFeedbackEnabled(false);
+        setup.apply(seed, g, engine);
+        if (observer != null) observer.onMatchStart(g);
+        engine.startMatch();
+        return engine;
+    }
+
+    /** Builds the pre-start state for a seed; decks are seeded the same way as the CLI's sim mode. */
+    public GameState newMatch(long seed) {
+        DeterministicRng rng = new DeterministicRng(seed);
+        GameState g = new GameState(rng);
+        for (int i = 0; i < RANDOM_DECK_CARDS; i++) {
+            int idxA = rng.nextInt(defs.cards().size());
+            int idxB = rng.nextInt(defs.cards().size());
+            g.getPlayerA().getDeck().addFirst(new Cards(defs.cards().get(idxA).id()));
+            g.getPlayerB().getDeck().addFirst(new Cards(defs.cards().get(idxB).id()));
+        }
+        return g;
+    }
+
+    /** Advances one turn: the active seat offers two cards, the other seat picks, the engine resolves. */
+    public static void playTurn(GameState g, TurnEngine engine, Policy[] policies) {
+        int seat = g.getActivePlayerIndex();
+        PlayerState active = g.getActivePlayer();
+        if (active.isSkipNextTurn() || active.getHand().isEmpty()) {
+            // playTurnAuto consumes the skip / passes an empty hand without drawing on the RNG
+            engine.playTurnAuto();
+            return;
+        }
+        Policy.Offer offer = policies[seat].chooseOffer(g, seat);
+        g.setFaceUpCardId(offer.faceUpId());
+        g.setFaceDownCardId(offer.faceDownId());
+        g.setPhase(GameState.Phase.OPPONENT_PICK);
+        boolean faceUp = policies[1 - seat].chooseFaceUp(g, 1 - seat);
+        String picked = faceUp ? offer.faceUpId() : offer.faceDownId();
+        String remaining = faceUp ? offer.faceDownId() : offer.faceUpId();
+        engine.playTurnWithChoice(picked, remaining);
+    }
+}
@@ -0,0 +1,177 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.cards.CardSetTransforms;
+import com.officeduel.engine.engine.CardIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Grid search over rule knobs for the setting closest to a fair first-seat score (win = 1, draw = 1/2, target 0.5),
+ * with sequential stopping. Points are sampled in rounds of {@code batchSize} games on a shared seed block, so every
+ * point sees the same deals. After each round a point stops when its confidence interval is narrower than the
+ * target ({@link Status#PRECISE}), when even its most favourable value is worse than another point's least
+ * favourable one ({@link Status#DOMINATED}), or when it hits the game budget. Only undecided points keep running.
+ *
+ * <p>The interval is re-checked after every round, so {@code z} should be larger than a one-look 1.96; the default
+ * of 3 keeps the overall error rate modest for a few dozen looks.
+ */
+public final class ParameterSweep {
+    private static final int TASK_SEEDS = 128;
+
+    public record Point(int winPoints, int maxHandSize, int copiesPerCard, double amountScale) {}
+
+    public record Settings(int batchSize, long maxGamesPerPoint, double targetHalfWidth, double z) {
+        public static final Settings DEFAULT = new Settings(512, 32_768, 0.01, 3.0);
+    }
+
+    public enum Status { RUNNING, PRECISE, DOMINATED, BUDGET }
+
+    public record PointResult(Point point, long games, double firstSeatScore, double halfWidth, Status status) {
+        public double imbalance() { return Math.abs(firstSeatScore - 0.5); }
+    }
+
+    private final CardDefinitionSet defs;
+    private final long seed;
+    private final List<Point> grid;
+    private final Settings settings;
+    private final Policy.Factory policy;
+
+    public ParameterSweep(CardDefinitionSet defs, long seed, List<Point> grid, Settings settings) {
+        this(defs, seed, grid, settings, RandomPolicy.FACTORY);
+    }
+
+    public ParameterSweep(CardDefinitionSet defs, long seed, List<Point> grid, Settings settings, Policy.Factory policy) {
+        this.defs = defs;
+        this.seed = seed;
+        this.grid = List.copyOf(grid);
+        this.settings = settings;
+        this.policy = policy;
+    }
+
+    public static List<Point> grid(int[] winPoints, int[] handSizes, int[] copies, double[] amountScales) {
+        List<Point> out = new ArrayList<>();
+        for (int w : winPoints) for (int h : handSizes) for (int c : copies) for (double s : amountScales) {
+            out.add(new Point(w, h, c, s));
+        }
+        return out;
+    }
+
+    MatchSimulator simulatorFor(Point p) {
+        CardDefinitionSet scaled = CardSetTransforms.scaleAmounts(defs, p.amountScale());
+        return new MatchSimulator(scaled, new CardIndex(scaled), MatchSimulator.DEFAULT_MAX_TURNS, (s, state, engine) -> {
+            state.setWinPointsToReach(p.winPoints());
+            state.getPlayerA().setMaxHandSize(p.maxHandSize());
+            state.getPlayerB().setMaxHandSize(p.maxHandSize());
+            engine.setCopiesPerCard(p.copiesPerCard());
+        });
+    }
+
+    /** Runs until every point has stopped; results are in grid order. */
+    public List<PointResult> run(int threads) throws Exception {
+        int n = grid.size();
+        MatchSimulator[] sims = new MatchSimulator[n];
+        for (int i = 0; i < n; i++) sims[i] = simulatorFor(grid.get(i));
+        long[] games = new long[n];
+        double[] sum = new double[n];
+        double[] sumSq = new double[n];
+        Status[] status = new Status[n];
+        Arrays.fill(status, Status.RUNNING);
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            while (true) {
+                List<Integer> owners = new ArrayList<>();
+                List<Future<double[]>> parts = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    if (status[i] != Status.RUNNING) continue;
+                    long batch = Math.min(settings.batchSize(), settings.maxGamesPerPoint() - games[i]);
+                    for (SeedRange r : new SeedRange(seed + games[i], batch).split(TASK_SEEDS)) {
+                        MatchSimulator sim = sims[i];
+                        owners.add(i);
+                        parts.add(pool.submit(() -> playBlock(sim, r)));
+                    }
+                }
+                if (parts.isEmpty()) break;
+                for (int k = 0; k < parts.size(); k++) {
+                    double[] part = parts.get(k).get();
+                    int i = owners.get(k);
+                    games[i] += (long) part[0];
+                    sum[i] += part[1];
+                    sumSq[i] += part[2];
+                }
+                decide(games, sum, sumSq, status);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        List<PointResult> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) out.add(result(i, games, sum, sumSq, status[i]));
+        return out;
+    }
+
+    /** {games, sum of first-seat scores, sum of squared scores} over one seed block. */
+    private double[] playBlock(MatchSimulator sim, SeedRange r) {
+        double s = 0, sq = 0;
+        for (long m = r.start(); m < r.end(); m++) {
+            MatchOutcome o = sim.play(m, policy, policy, null);
+            double score = o.isDraw() ? 0.5 : o.winner() == 0 ? 1.0 : 0.0;
+            s += score;
+            sq += score * score;
+        }
+        return new double[] { r.count(), s, sq };
+    }
+
+    private PointResult result(int i, long[] games, double[] sum, double[] sumSq, Status status) {
+        long g = games[i];
+        double mean = g == 0 ? Double.NaN : sum[i] / g;
+        double var = g > 1 ? Math.max(0, (sumSq[i] - g * mean * mean) / (g - 1)) : 0.25;
+        return new PointResult(grid.get(i), g, mean, settings.z() * Math.sqrt(var / Math.max(1, g)), status);
+    }
+
+    private void decide(long[] games, double[] sum, double[] sumSq, Status[] status) {
+        int n = grid.size();
+        PointResult[] now = new PointResult[n];
+        double bestUpper = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            now[i] = result(i, games, sum, sumSq, status[i]);
+            bestUpper = Math.min(bestUpper, now[i].imbalance() + now[i].halfWidth());
+        }
+        for (int i = 0; i < n; i++) {
+            if (status[i] != Status.RUNNING) continue;
+            PointResult r = now[i];
+            if (r.halfWidth() <= settings.targetHalfWidth()) status[i] = Status.PRECISE;
+            else if (Math.max(0, r.imbalance() - r.halfWidth()) > bestUpper) status[i] = Status.DOMINATED;
+            else if (games[i] >= settings.maxGamesPerPoint()) status[i] = Status.BUDGET;
+        }
+    }
+
+    /** Results in grid order with the fairest point marked, plus the saving against a full-budget grid. */
+    public static String table(List<PointResult> results, Settings settings) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-5s %-5s %-6s %-6s %8s %8s %8s %s%n",
+                "win", "hand", "copies", "scale", "games", "p(A)", "+/-", "status"));
+        PointResult best = null;
+        long total = 0;
+        for (PointResult r : results) {
+            total += r.games();
+            if (best == null || r.imbalance() < best.imbalance()) best = r;
+        }
+        for (PointResult r : results) {
+            Point p = r.point();
+            sb.append(String.format(Locale.ROOT, "%-5d %-5d %-6d %-6.2f %8d %8.4f %8.4f %s%s%n", p.winPoints(), p.maxHandSize(),
+                    p.copiesPerCard(), p.amountScale(), r.games(), r.firstSeatScore(), r.halfWidth(), r.status(), r == best ? "  <- fairest" : ""));
+        }
+        sb.append(String.format(Locale.ROOT, "%d games played, %.1f%% of a fixed %d-per-point grid%n", total,
+                100.0 * total / ((double) settings.maxGamesPerPoint() * results.size()), settings.maxGamesPerPoint()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,202 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.replay.Replay;
+import com.officeduel.engine.replay.ReplaySerializer;
+import com.officeduel.engine.telemetry.Telemetry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Scans seed ranges for matches that behave badly: very long games, a first turn that swings the dot counter
+ * most of the way to a win, draw steps that spin on duplicates (see {@link Telemetry.DrawRetries}), and turns
+ * whose active hand cannot offer two distinct cards.
+ *
+ * <p>Every finding carries a {@link Replay} cut to the shortest command log that reaches the offending turn, so
+ * {@link CounterfactualReplay} with the unchanged card set lands on the same state. Only the top
+ * {@code keepPerKind} findings per kind are kept (most severe first, ties by seed), which keeps memory flat and
+ * the result independent of thread count; totals count every match over the threshold.
+ */
+public final class SeedHunter {
+    public enum Kind { LONG_MATCH, LOPSIDED_OPENING, DRAW_LOOP, NO_DISTINCT_PAIR }
+
+    /** A match is a finding of a kind once its value reaches the threshold for that kind. */
+    public record Settings(int longTurns, int lopsidedDots, int drawRetries, int noPairTurns, int keepPerKind) {
+        public static final Settings DEFAULT = new Settings(60, 2, 100, 1, 10);
+
+        int threshold(Kind k) {
+            return switch (k) {
+                case LONG_MATCH -> longTurns;
+                case LOPSIDED_OPENING -> lopsidedDots;
+                case DRAW_LOOP -> drawRetries;
+                case NO_DISTINCT_PAIR -> noPairTurns;
+            };
+        }
+    }
+
+    /** {@code value}: turns played, dots after turn 1, wasted draw attempts in one step, or turns without a pair. */
+    public record Finding(Kind kind, long seed, int turn, int value, Replay repro) {}
+
+    private static final Comparator<Finding> SEVERITY =
+            Comparator.comparingInt(Finding::value).reversed().thenComparingLong(Finding::seed);
+
+    private final MatchSimulator sim;
+    private final Policy.Factory policyA;
+    private final Policy.Factory policyB;
+    private final Settings settings;
+
+    public SeedHunter(MatchSimulator sim, Policy.Factory policyA, Policy.Factory policyB, Settings settings) {
+        this.sim = sim;
+        this.policyA = policyA;
+        this.policyB = policyB;
+        this.settings = settings;
+    }
+
+    public Hunt run(SeedRange seeds, int threads) throws Exception {
+        return SimulationRunner.reduce(seeds, SimulationRunner.DEFAULT_CHUNK, threads, Hunt::new,
+                (chunk, into) -> {
+                    for (long s = chunk.start(); s < chunk.end(); s++) examine(s, into);
+                },
+                Hunt::merge);
+    }
+
+    /** Worst draw step seen so far in the match, and the turn it happened on (0 = opening deal). */
+    private static final class DrawProbe implements MatchObserver {
+        int turn;
+        int worst;
+        int worstTurn;
+
+        @Override
+        public void emit(Telemetry.Event event) {
+            if (event instanceof Telemetry.DrawRetries d && d.attempts() - d.drawn() > worst) {
+                worst = d.attempts() - d.drawn();
+                worstTurn = turn;
+            }
+        }
+    }
+
+    void examine(long seed, Hunt hunt) {
+        long t0 = System.nanoTime();
+        GameState g = sim.newMatch(seed);
+        DrawProbe probe = new DrawProbe();
+        TurnEngine engine = sim.start(seed, g, probe);
+        Policy[] policies = { policyA.create(seed, 0), policyB.create(seed, 1) };
+
+        // commandsAfter.get(t) = commands logged once turn t has resolved
+        List<Integer> commandsAfter = new ArrayList<>();
+        commandsAfter.add(0);
+        int turns = 0;
+        int openingDots = 0;
+        int noPairTurns = 0;
+        int firstNoPair = -1;
+        while (g.winnerIndexOrMinusOne() == -1 && turns < sim.maxTurns()) {
+            turns++;
+            probe.turn = turns;
+            PlayerState active = g.getActivePlayer();
+            if (!active.isSkipNextTurn() && !active.getHand().isEmpty() && distinct(active.getHand()) < 2) {
+                noPairTurns++;
+                if (firstNoPair < 0) firstNoPair = turns;
+            }
+            MatchSimulator.playTurn(g, engine, policies);
+            commandsAfter.add(g.getCommandLog().size());
+            if (turns == 1) openingDots = Math.abs(g.getSharedDotCounter());
+        }
+        hunt.games++;
+        long nanos = System.nanoTime() - t0;
+        if (nanos > hunt.slowestNanos) {
+            hunt.slowestNanos = nanos;
+            hunt.slowestSeed = seed;
+        }
+
+        Replay full = null;
+        full = offer(hunt, Kind.LONG_MATCH, seed, turns, turns, commandsAfter.get(turns), g, full);
+        full = offer(hunt, Kind.LOPSIDED_OPENING, seed, Math.min(1, turns), openingDots,
+                commandsAfter.get(Math.min(1, turns)), g, full);
+        full = offer(hunt, Kind.DRAW_LOOP, seed, probe.worstTurn, probe.worst, commandsAfter.get(probe.worstTurn), g, full);
+        offer(hunt, Kind.NO_DISTINCT_PAIR, seed, firstNoPair, noPairTurns,
+                firstNoPair < 0 ? 0 : commandsAfter.get(firstNoPair - 1), g, full);
+    }
+
+    /** Records a finding if it passes the threshold and ranks among the kept ones; builds the replay at most once. */
+    private Replay offer(Hunt hunt, Kind kind, long seed, int turn, int value, int commands, GameState g, Replay full) {
+        if (value < settings.threshold(kind)) return full;
+        hunt.hits[kind.ordinal()]++;
+        List<Finding> top = hunt.top.get(kind.ordinal());
+        if (top.size() >= settings.keepPerKind()) {
+            Finding last = top.get(top.size() - 1);
+            if (value < last.value() || (value == last.value() && seed > last.seed())) return full;
+        }
+        if (full == null) full = ReplaySerializer.fromGameState(g, sim.index().size());
+        top.add(new Finding(kind, seed, turn, value, full.truncated(commands)));
+        top.sort(SEVERITY);
+        if (top.size() > settings.keepPerKind()) top.remove(top.size() - 1);
+        return full;
+    }
+
+    private static int distinct(List<Cards> hand) {
+        Set<String> ids = new HashSet<>();
+        for (Cards c : hand) ids.add(c.cardId());
+        return ids.size();
+    }
+
+    public final class Hunt {
+        long games;
+        final long[] hits = new long[Kind.values().length];
+        final List<List<Finding>> top = new ArrayList<>();
+        long slowestNanos;
+        long slowestSeed;
+
+        Hunt() {
+            for (int k = 0; k < hits.length; k++) top.add(new ArrayList<>());
+        }
+
+        void merge(Hunt o) {
+            games += o.games;
+            for (int k = 0; k < hits.length; k++) {
+                hits[k] += o.hits[k];
+                List<Finding> t = top.get(k);
+                t.addAll(o.top.get(k));
+                t.sort(SEVERITY);
+                while (t.size() > settings.keepPerKind()) t.remove(t.size() - 1);
+            }
+            if (o.slowestNanos > slowestNanos) {
+                slowestNanos = o.slowestNanos;
+                slowestSeed = o.slowestSeed;
+            }
+        }
+
+        public long games() { return games; }
+        public long hits(Kind kind) { return hits[kind.ordinal()]; }
+        public List<Finding> findings(Kind kind) { return List.copyOf(top.get(kind.ordinal())); }
+
+        public List<Finding> findings() {
+            List<Finding> out = new ArrayList<>();
+            for (List<Finding> t : top) out.addAll(t);
+            return out;
+        }
+
+        public String report() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "%d matches scanned, slowest %.2fms (seed %d, wall clock, not reproducible)%n",
+                    games, slowestNanos / 1e6, slowestSeed));
+            for (Kind k : Kind.values()) {
+                sb.append(String.format(Locale.ROOT, "%-17s threshold %3d  hits %6d (%.3f%%)%n", k, settings.threshold(k),
+                        hits[k.ordinal()], games == 0 ? 0.0 : 100.0 * hits[k.ordinal()] / games));
+                for (Finding f : top.get(k.ordinal())) {
+                    sb.append(String.format(Locale.ROOT, "    seed %-12d value %4d at turn %3d, %d commands to reproduce%n",
+                            f.seed(), f.value(), f.turn(), f.repro().commands().size()));
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
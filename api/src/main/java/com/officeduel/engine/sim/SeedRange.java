@@ -0,0 +1,21 @@
+package com.officeduel.engine.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Half-open range of match seeds {@code [start, start + count)}; match {@code m} of a run uses {@code start + m}. */
+public record SeedRange(long start, long count) {
+    public SeedRange {
+        if (count < 0) throw new IllegalArgumentException("count must be >= 0");
+    }
+
+    public long end() { return start + count; }
+
+    public List<SeedRange> split(long chunkSize) {
+        List<SeedRange> chunks = new ArrayList<>();
+        for (long s = start; s < end(); s += chunkSize) {
+            chunks.add(new SeedRange(s, Math.min(chunkSize, end() - s)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,237 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.GreedyPolicy;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.PolicyTable;
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.model.GameState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Learns a {@link PolicyTable} by self-play: Monte Carlo control over the table's abstract states. Each round plays
+ * {@link Settings#gamesPerRound} matches in which both seats take the best known action with probability
+ * 1 - {@link Settings#epsilon} and a random legal one otherwise, then moves the value of every action taken
+ * towards the result of its match for the seat that took it (1 a win, 0 a loss, a half for a match cut off at the
+ * turn cap). Actions not tried yet are worth a half, with {@link GreedyPolicy}'s choice preferred among equals, so
+ * early rounds play like the greedy bot.
+ *
+ * <p>Values live in an open-addressed table of {@link Settings#tableEntries} state-action pairs; once it is full,
+ * new pairs are not learned. Within a round the values are frozen, so matches run in parallel through
+ * {@link SimulationRunner#reduce}, and the updates are applied afterwards in seed order: a run depends on its
+ * seeds and settings, not on the thread count. Each value is a running mean over at most
+ * {@link Settings#maxCount} results, so it keeps following the policy as that improves.
+ */
+public final class SelfPlayTrainer {
+    /**
+     * {@code rounds} of {@code gamesPerRound} matches with exploration rate {@code epsilon}; values average the last
+     * {@code maxCount} results or so; {@link #export} keeps states whose best action was tried {@code minVisits}
+     * times.
+     */
+    public record Settings(int rounds, long gamesPerRound, double epsilon, int maxCount, int tableEntries, int minVisits) {
+        public static final Settings DEFAULT = new Settings(20, 50_000, 0.1, 1_000, 1 << 22, 4);
+    }
+
+    public record Report(long games, long decisions, int pairs, long dropped) {}
+
+    private static final double UNTRIED = 0.5;
+    private static final int MAX_PROBES = 16;
+
+    /** Decisions taken in the matches of one chunk, with their results once known. */
+    static final class Visits {
+        long[] keys = new long[1024];
+        int[] actions = new int[1024];
+        float[] results = new float[1024];
+        int size;
+
+        void add(long key, int action) {
+            if (size == keys.length) grow(size * 2);
+            keys[size] = key;
+            actions[size] = action;
+            size++;
+        }
+
+        void grow(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+            actions = Arrays.copyOf(actions, capacity);
+            results = Arrays.copyOf(results, capacity);
+        }
+
+        void merge(Visits other) {
+            if (keys.length < size + other.size) grow(Math.max(keys.length * 2, size + other.size));
+            System.arraycopy(other.keys, 0, keys, size, other.size);
+            System.arraycopy(other.actions, 0, actions, size, other.size);
+            System.arraycopy(other.results, 0, results, size, other.size);
+            size += other.size;
+        }
+    }
+
+    private final MatchSimulator sim;
+    private final CardIndex index;
+    private final Settings settings;
+    private final int threads;
+    private final long[] keys;
+    private final int[] actions;
+    private final float[] values;
+    private final int[] counts;
+    private final int mask;
+    private int pairs;
+    private long games;
+    private long decisions;
+    private long dropped;
+
+    public SelfPlayTrainer(MatchSimulator sim, Settings settings, int threads) {
+        this.sim = sim;
+        this.index = sim.index();
+        this.settings = settings;
+        this.threads = Math.max(1, threads);
+        int capacity = Integer.highestOneBit(Math.max(2, settings.tableEntries() - 1)) << 1;
+        this.keys = new long[capacity];
+        this.actions = new int[capacity];
+        this.values = new float[capacity];
+        this.counts = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /** Runs every round on consecutive seeds from {@code seed}. */
+    public Report train(long seed) throws Exception {
+        for (int r = 0; r < settings.rounds(); r++) {
+            SeedRange seeds = new SeedRange(seed + r * settings.gamesPerRound(), settings.gamesPerRound());
+            Visits visits = SimulationRunner.reduce(seeds, SimulationRunner.DEFAULT_CHUNK, threads, Visits::new,
+                    (chunk, out) -> {
+                        for (long s = chunk.start(); s < chunk.end(); s++) play(s, out);
+                    },
+                    Visits::merge);
+            for (int i = 0; i < visits.size; i++) update(visits.keys[i], visits.actions[i], visits.results[i]);
+            games += seeds.count();
+            decisions += visits.size;
+        }
+        return new Report(games, decisions, pairs, dropped);
+    }
+
+    /**
+     * Writes the best action of every state tried often enough, most visited first so that they survive a full
+     * bucket. Returns how many states the table holds.
+     */
+    public long export(Path path) throws IOException {
+        Map<Long, Integer> best = new HashMap<>();
+        for (int i = 0; i <= mask; i++) {
+            if (counts[i] < settings.minVisits()) continue;
+            best.merge(keys[i], i, (a, b) -> values[b] > values[a] || (values[b] == values[a] && counts[b] > counts[a]) ? b : a);
+        }
+        Integer[] order = best.values().toArray(new Integer[0]);
+        Arrays.sort(order, (a, b) -> counts[a] != counts[b] ? Integer.compare(counts[b], counts[a]) : Long.compare(keys[a], keys[b]));
+        long[] k = new long[order.length];
+        int[] a = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            k[i] = keys[order[i]];
+            a[i] = actions[order[i]];
+        }
+        return PolicyTable.write(path, index, k, a, order.length);
+    }
+
+    /** Learned value of {@code action} in the state {@code key}, or the untried value. */
+    double value(long key, int action) {
+        int slot = find(key, action);
+        return slot >= 0 && counts[slot] > 0 ? values[slot] : UNTRIED;
+    }
+
+    private void update(long key, int action, float result) {
+        int slot = find(key, action);
+        if (slot < 0) {
+            dropped++;
+            return;
+        }
+        if (counts[slot] == 0) {
+            keys[slot] = key;
+            actions[slot] = action;
+            pairs++;
+        }
+        if (counts[slot] < settings.maxCount()) counts[slot]++;
+        values[slot] += (result - values[slot]) / counts[slot];
+    }
+
+    /** Slot holding the pair, else the free slot it would take, else -1 when the probe run is full. */
+    private int find(long key, int action) {
+        long h = (key ^ (action * 0x9e3779b97f4a7c15L)) * 0xff51afd7ed558ccdL;
+        int slot = (int) (h >>> 32) & mask;
+        for (int p = 0; p < MAX_PROBES; p++, slot = (slot + 1) & mask) {
+            if (counts[slot] == 0 || (keys[slot] == key && actions[slot] == action)) return slot;
+        }
+        return -1;
+    }
+
+    private void play(long seed, Visits out) {
+        GameState g = sim.newMatch(seed);
+        TurnEngine engine = sim.start(seed, g, null);
+        int first = out.size;
+        Explorer[] explorers = { new Explorer(seed, 0, out), new Explorer(seed, 1, out) };
+        for (int turn = 0; g.winnerIndexOrMinusOne() == -1 && turn < sim.maxTurns(); turn++) {
+            MatchSimulator.playTurn(g, engine, explorers);
+        }
+        int winner = g.winnerIndexOrMinusOne();
+        for (int i = first; i < out.size; i++) {
+            int seat = out.actions[i] >>> 31;
+            out.actions[i] &= Integer.MAX_VALUE;
+            out.results[i] = winner == -1 ? 0.5f : winner == seat ? 1f : 0f;
+        }
+    }
+
+    /** Epsilon-greedy seat over the frozen values; records each decision with its seat in the action's top bit. */
+    private final class Explorer implements Policy {
+        private final int seat;
+        private final SplittableRandom rnd;
+        private final Visits out;
+        private final GreedyPolicy greedy = new GreedyPolicy(index);
+
+        Explorer(long seed, int seat, Visits out) {
+            this.seat = seat;
+            this.rnd = new SplittableRandom(DeterministicRng.substream(seed, seat));
+            this.out = out;
+        }
+
+        @Override
+        public Offer chooseOffer(GameState state, int seat) {
+            List<Offer> offers = PolicyTable.offers((seat == 0 ? state.getPlayerA() : state.getPlayerB()).getHand());
+            long key = PolicyTable.offerKey(index, state, seat);
+            Offer chosen;
+            if (rnd.nextDouble() < settings.epsilon()) {
+                chosen = offers.get(rnd.nextInt(offers.size()));
+            } else {
+                chosen = greedy.chooseOffer(state, seat);
+                double bestValue = value(key, PolicyTable.encode(index, chosen));
+                for (Offer o : offers) {
+                    double v = value(key, PolicyTable.encode(index, o));
+                    if (v > bestValue) {
+                        bestValue = v;
+                        chosen = o;
+                    }
+                }
+            }
+            out.add(key, PolicyTable.encode(index, chosen) | this.seat << 31);
+            return chosen;
+        }
+
+        @Override
+        public boolean chooseFaceUp(GameState state, int seat) {
+            long key = PolicyTable.pickKey(index, state, seat);
+            boolean up;
+            if (rnd.nextDouble() < settings.epsilon()) {
+                up = rnd.nextBoolean();
+            } else {
+                up = greedy.chooseFaceUp(state, seat);
+                if (value(key, up ? 0 : 1) > value(key, up ? 1 : 0)) up = !up;
+            }
+            out.add(key, (up ? 1 : 0) | this.seat << 31);
+            return up;
+        }
+    }
+}
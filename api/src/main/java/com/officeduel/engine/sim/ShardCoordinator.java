@@ -0,0 +1,167 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.sim.ShardProtocol.Config;
+import com.officeduel.engine.sim.ShardProtocol.Result;
+import com.officeduel.engine.sim.ShardProtocol.Shard;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Farms a balance run out to worker processes over TCP. The seed block is cut into shards; each connected worker
+ * is fed one shard at a time. When the queue runs dry, idle workers are handed a copy of the unfinished shard with
+ * the fewest runners, so one slow worker cannot hold up the end of the run; results are deterministic per shard,
+ * so whichever copy finishes first is kept. A worker that disconnects mid-shard puts the shard back in the queue.
+ *
+ * <p>Shard results are merged in shard order once all are in, which gives exactly the counters of a single-JVM
+ * {@link SimulationRunner#runBalance} over the same seeds.
+ */
+public final class ShardCoordinator implements Closeable {
+    private final MatchSimulator sim;
+    private final Config config;
+    private final List<SeedRange> shards;
+    private final ServerSocket server;
+    private final List<Process> spawned = new ArrayList<>();
+
+    // Guarded by this
+    private final Deque<Integer> pending = new ArrayDeque<>();
+    private final int[] runners;
+    private final long[][] results;
+    private int finished;
+    private int connected;
+
+    public ShardCoordinator(MatchSimulator sim, SeedRange seeds, int shardSize, String policyA, String policyB,
+                            InetAddress bind, int port) throws IOException {
+        this.sim = sim;
+        this.shards = seeds.split(shardSize);
+        this.config = new Config(seeds.start(), seeds.count(), shardSize, policyA, policyB, sim.maxTurns(),
+                SimulationCheckpoint.configHash(sim, seeds, shardSize, policyA + "," + policyB));
+        this.runners = new int[shards.size()];
+        this.results = new long[shards.size()][];
+        for (int i = 0; i < shards.size(); i++) pending.add(i);
+        this.server = new ServerSocket(port, 50, bind);
+    }
+
+    public int port() { return server.getLocalPort(); }
+
+    /** Starts accepting workers in the background. */
+    public void start() {
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket s = server.accept();
+                    Thread t = new Thread(() -> serve(s), "shard-worker-" + s.getPort());
+                    t.setDaemon(true);
+                    t.start();
+                } catch (IOException e) {
+                    // Server socket closed
+                }
+            }
+        }, "shard-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /** Launches {@code n} worker JVMs on this machine with the current JVM's binary and class path. */
+    public void spawnWorkers(int n, int threadsEach, Path workDir) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        for (int i = 0; i < n; i++) {
+            ProcessBuilder pb = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    "com.officeduel.cli.Main", "worker", server.getInetAddress().getHostAddress(),
+                    Integer.toString(port()), Integer.toString(threadsEach));
+            pb.directory(workDir.toFile());
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            spawned.add(pb.start());
+        }
+    }
+
+    private void serve(Socket socket) {
+        synchronized (this) { connected++; }
+        int current = -1;
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            ShardProtocol.send(out, ShardProtocol.CONFIG, config);
+            while ((current = nextShard()) >= 0) {
+                SeedRange r = shards.get(current);
+                ShardProtocol.send(out, ShardProtocol.SHARD, new Shard(current, r.start(), r.count()));
+                Result res = ShardProtocol.payload(ShardProtocol.receive(in), ShardProtocol.RESULT, Result.class);
+                if (res.id() != current) throw new IOException("Worker answered shard " + res.id() + " instead of " + current);
+                complete(current, res.counters());
+                current = -1;
+            }
+            ShardProtocol.send(out, ShardProtocol.DONE, null);
+        } catch (IOException e) {
+            // Worker died or misbehaved; its shard goes back to the queue below
+        } finally {
+            release(current);
+        }
+    }
+
+    /** Next shard for an idle worker, a copy of a straggling one, or -1 when everything is finished. */
+    private synchronized int nextShard() {
+        Integer next = pending.poll();
+        if (next != null) {
+            runners[next]++;
+            return next;
+        }
+        int best = -1;
+        for (int i = 0; i < shards.size(); i++) {
+            if (results[i] == null && (best < 0 || runners[i] < runners[best])) best = i;
+        }
+        if (best >= 0) runners[best]++;
+        return best;
+    }
+
+    private synchronized void complete(int shard, long[] counters) {
+        runners[shard]--;
+        if (results[shard] != null) return;
+        results[shard] = counters;
+        finished++;
+        notifyAll();
+    }
+
+    private synchronized void release(int shard) {
+        connected--;
+        if (shard >= 0) {
+            runners[shard]--;
+            if (results[shard] == null && runners[shard] == 0 && !pending.contains(shard)) pending.addFirst(shard);
+        }
+        notifyAll();
+    }
+
+    /** Blocks until every shard is in and returns the merged statistics. */
+    public CardBalanceStats await() throws InterruptedException {
+        synchronized (this) {
+            while (finished < shards.size()) {
+                if (connected == 0 && !spawned.isEmpty() && spawned.stream().noneMatch(Process::isAlive)) {
+                    throw new IllegalStateException("All spawned workers exited with " + (shards.size() - finished) + " shards left");
+                }
+                wait(1_000);
+            }
+        }
+        CardBalanceStats total = new CardBalanceStats(sim.index());
+        for (long[] r : results) total.mergeCounters(r);
+        return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (Process p : spawned) p.destroy();
+    }
+}
@@ -0,0 +1,60 @@
+package com.officeduel.engine.sim;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Wire format between {@link ShardCoordinator} and {@link ShardWorker}: one message per line,
+ * {@code TYPE} optionally followed by a space and a JSON payload. Plain TCP, so workers may sit on loopback or on
+ * other machines.
+ *
+ * <pre>
+ *   coordinator -> worker   CONFIG {Config}   once, right after connect
+ *   coordinator -> worker   SHARD {Shard}     run these seeds
+ *   worker -> coordinator   RESULT {Result}   counters of a finished shard
+ *   coordinator -> worker   DONE              nothing left, disconnect
+ * </pre>
+ */
+final class ShardProtocol {
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static final String CONFIG = "CONFIG";
+    static final String SHARD = "SHARD";
+    static final String RESULT = "RESULT";
+    static final String DONE = "DONE";
+
+    /** Run description; the worker recomputes {@code configHash} from its local card file and refuses on mismatch. */
+    record Config(long seedStart, long seedCount, int shardSize, String policyA, String policyB, int maxTurns, String configHash) {}
+
+    record Shard(int id, long start, long count) {}
+
+    /** {@link CardBalanceStats#toCounters()} of the shard. */
+    record Result(int id, long[] counters) {}
+
+    private ShardProtocol() {}
+
+    static void send(Writer out, String type, Object payload) throws IOException {
+        out.write(payload == null ? type : type + " " + MAPPER.writeValueAsString(payload));
+        out.write('\n');
+        out.flush();
+    }
+
+    /** Returns {type, payload-or-null}; throws EOFException when the peer hung up. */
+    static String[] receive(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        if (line == null) throw new EOFException("Peer closed the connection");
+        int sp = line.indexOf(' ');
+        return sp < 0 ? new String[] { line, null } : new String[] { line.substring(0, sp), line.substring(sp + 1) };
+    }
+
+    static <T> T payload(String[] msg, String expectedType, Class<T> type) throws IOException {
+        if (!msg[0].equals(expectedType) || msg[1] == null) {
+            throw new IOException("Expected " + expectedType + " but got " + msg[0]);
+        }
+        return MAPPER.readValue(msg[1], type);
+    }
+}
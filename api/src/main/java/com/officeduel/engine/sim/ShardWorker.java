@@ -0,0 +1,48 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.Bots;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.sim.ShardProtocol.Config;
+import com.officeduel.engine.sim.ShardProtocol.Result;
+import com.officeduel.engine.sim.ShardProtocol.Shard;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/** Worker side of {@link ShardCoordinator}: connects, runs shards until told DONE, then returns. */
+public final class ShardWorker {
+    private ShardWorker() {}
+
+    /** Returns the number of shards this worker completed. */
+    public static int run(MatchSimulator localSim, String host, int port, int threads) throws Exception {
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            Config config = ShardProtocol.payload(ShardProtocol.receive(in), ShardProtocol.CONFIG, Config.class);
+            MatchSimulator sim = localSim.maxTurns() == config.maxTurns() ? localSim
+                    : new MatchSimulator(localSim.defs(), localSim.index(), config.maxTurns(), MatchSetup.NONE);
+            String hash = SimulationCheckpoint.configHash(sim, new SeedRange(config.seedStart(), config.seedCount()),
+                    config.shardSize(), config.policyA() + "," + config.policyB());
+            if (!hash.equals(config.configHash())) {
+                throw new IOException("Local card set differs from the coordinator's; refusing to run");
+            }
+            Policy.Factory policyA = Bots.byName(config.policyA(), sim.index());
+            Policy.Factory policyB = Bots.byName(config.policyB(), sim.index());
+            int done = 0;
+            while (true) {
+                String[] msg = ShardProtocol.receive(in);
+                if (msg[0].equals(ShardProtocol.DONE)) return done;
+                Shard shard = ShardProtocol.payload(msg, ShardProtocol.SHARD, Shard.class);
+                CardBalanceStats stats = SimulationRunner.runBalance(sim, new SeedRange(shard.start(), shard.count()),
+                        policyA, policyB, threads);
+                ShardProtocol.send(out, ShardProtocol.RESULT, new Result(shard.id(), stats.toCounters()));
+                done++;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.officeduel.engine.sim;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.officeduel.engine.engine.CardIndex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Durable progress for {@link SimulationRunner#reduce}. The runner merges chunk aggregates strictly in chunk
+ * order, so progress is a prefix: the file records how many leading chunks are folded into the stored
+ * aggregate. Chunks that finished out of order but were not merged yet are simply replayed after a restart,
+ * which keeps a resumed run bit-identical to an uninterrupted one.
+ *
+ * <p>The configuration hash must cover everything that changes results (card set, turn cap, policies, seeds,
+ * chunk size); a checkpoint written under a different hash is refused rather than silently discarded.
+ */
+public final class SimulationCheckpoint<A> {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** On-disk form. */
+    public record State(String configHash, long seedStart, long seedCount, int chunkSize, int completedChunks, long[] aggregate) {}
+
+    private final Path path;
+    private final String configHash;
+    private final Duration interval;
+    private final Function<A, long[]> encode;
+    private final Function<long[], A> decode;
+    private long lastSave = System.nanoTime();
+
+    public SimulationCheckpoint(Path path, String configHash, Duration interval,
+                                Function<A, long[]> encode, Function<long[], A> decode) {
+        this.path = path;
+        this.configHash = configHash;
+        this.interval = interval;
+        this.encode = encode;
+        this.decode = decode;
+    }
+
+    public static SimulationCheckpoint<CardBalanceStats> forBalance(Path path, String configHash, Duration interval, CardIndex index) {
+        return new SimulationCheckpoint<>(path, configHash, interval, CardBalanceStats::toCounters, counters -> {
+            CardBalanceStats stats = new CardBalanceStats(index);
+            stats.mergeCounters(counters);
+            return stats;
+        });
+    }
+
+    /** SHA-256 over the card set, the turn cap, the seed block, the chunk size and a caller-supplied policy label. */
+    public static String configHash(MatchSimulator sim, SeedRange seeds, int chunkSize, String policies) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(MAPPER.writeValueAsBytes(sim.defs()));
+            md.update(String.format(Locale.ROOT, "|%d|%d|%d|%d|%s", sim.maxTurns(), seeds.start(), seeds.count(), chunkSize, policies)
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Path path() { return path; }
+    public String configHash() { return configHash; }
+
+    /** The stored state, or null when there is nothing to resume. */
+    State load(SeedRange seeds, int chunkSize) throws IOException {
+        if (!Files.exists(path)) return null;
+        State s = MAPPER.readValue(path.toFile(), State.class);
+        if (!s.configHash().equals(configHash) || s.seedStart() != seeds.start() || s.seedCount() != seeds.count()
+                || s.chunkSize() != chunkSize) {
+            throw new IllegalStateException("Checkpoint " + path + " belongs to a different configuration; delete it to start over");
+        }
+        return s;
+    }
+
+    A aggregate(State s) { return decode.apply(s.aggregate()); }
+
+    /** Persists unless the interval has not elapsed yet; {@code force} always writes. */
+    void maybeSave(SeedRange seeds, int chunkSize, int completedChunks, A total, boolean force) throws IOException {
+        long now = System.nanoTime();
+        if (!force && now - lastSave < interval.toNanos()) return;
+        State s = new State(configHash, seeds.start(), seeds.count(), chunkSize, completedChunks, encode.apply(total));
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        MAPPER.writeValue(tmp.toFile(), s);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lastSave = now;
+    }
+}
@@ -0,0 +1,259 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.Policy;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Background balance runs for callers that must not block, such as the web service. Every job is split into seed
+ * chunks, and all chunks of all jobs share one pool of {@code threads} low-priority workers fed from a priority
+ * queue: higher job priority first, then submission order, then chunk order. A high-priority job therefore
+ * overtakes a long running one at the next chunk boundary, and the pool size is a hard cap on the CPU that
+ * simulations take away from everything else in the process.
+ *
+ * <p>Chunk results are merged in chunk order as soon as the prefix is complete, the same way
+ * {@link SimulationRunner#reduce} does, so the final aggregate does not depend on thread count and every
+ * {@link Progress} snapshot describes a contiguous block of seeds. At most {@code maxActiveJobs} jobs may be
+ * queued or running; finished jobs are kept for retrieval until {@code retainFinished} newer ones have ended.
+ */
+public final class SimulationJobQueue implements Closeable {
+    public enum State { QUEUED, RUNNING, DONE, CANCELLED, FAILED;
+        public boolean isFinal() { return this == DONE || this == CANCELLED || this == FAILED; }
+    }
+
+    /** Point-in-time view of a job; the counters cover the games merged so far. */
+    public record Progress(long id, String label, int priority, State state, long gamesDone, long gamesTotal,
+                           long firstSeatWins, long secondSeatWins, long draws, double averageTurns, String error) {}
+
+    private final ThreadPoolExecutor workers;
+    private final int maxActiveJobs;
+    private final int retainFinished;
+    private final int chunkSize;
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Job> jobs = new LinkedHashMap<>();
+
+    public SimulationJobQueue(int threads, int maxActiveJobs, int retainFinished) {
+        this(threads, maxActiveJobs, retainFinished, SimulationRunner.DEFAULT_CHUNK);
+    }
+
+    public SimulationJobQueue(int threads, int maxActiveJobs, int retainFinished, int chunkSize) {
+        if (threads < 1 || maxActiveJobs < 1 || chunkSize < 1) throw new IllegalArgumentException("Queue limits must be positive");
+        AtomicInteger n = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "sim-job-" + n.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        this.maxActiveJobs = maxActiveJobs;
+        this.retainFinished = retainFinished;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Enqueues a balance run of {@code seeds}. Throws {@link IllegalStateException} when {@code maxActiveJobs}
+     * jobs are already queued or running.
+     */
+    public Job submit(String label, int priority, MatchSimulator sim, SeedRange seeds,
+                      Policy.Factory policyA, Policy.Factory policyB) {
+        Job job;
+        synchronized (jobs) {
+            long active = jobs.values().stream().filter(j -> !j.state.isFinal()).count();
+            if (active >= maxActiveJobs) {
+                throw new IllegalStateException("Simulation queue is full (" + maxActiveJobs + " active jobs)");
+            }
+            job = new Job(ids.incrementAndGet(), label, priority, sim, seeds, policyA, policyB);
+            jobs.put(job.id, job);
+        }
+        for (int k = 0; k < job.chunks.size(); k++) workers.execute(new ChunkTask(job, k));
+        if (job.chunks.isEmpty()) job.finish(State.DONE, null);
+        return job;
+    }
+
+    public Job get(long id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    public List<Job> list() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    /** Cancels a queued or running job; its partial aggregate stays readable. Returns false for unknown ids. */
+    public boolean cancel(long id) {
+        Job job = get(id);
+        if (job == null) return false;
+        job.cancelled = true;
+        workers.getQueue().removeIf(r -> r instanceof ChunkTask t && t.job == job);
+        job.finish(State.CANCELLED, null);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        for (Job j : list()) j.finish(State.CANCELLED, null);
+    }
+
+    private void retire() {
+        synchronized (jobs) {
+            List<Long> finished = new ArrayList<>();
+            for (Job j : jobs.values()) if (j.state.isFinal()) finished.add(j.id);
+            for (int i = 0; i < finished.size() - retainFinished; i++) jobs.remove(finished.get(i));
+        }
+    }
+
+    public final class Job {
+        private final long id;
+        private final String label;
+        private final int priority;
+        private final MatchSimulator sim;
+        private final Policy.Factory policyA;
+        private final Policy.Factory policyB;
+        private final List<SeedRange> chunks;
+        private final long gamesTotal;
+        private final CardBalanceStats[] parts;
+        private final CardBalanceStats merged;
+        private final List<Consumer<Progress>> listeners = new CopyOnWriteArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private int mergedChunks;
+        private volatile State state = State.QUEUED;
+        private volatile boolean cancelled;
+        private volatile String error;
+
+        private Job(long id, String label, int priority, MatchSimulator sim, SeedRange seeds,
+                    Policy.Factory policyA, Policy.Factory policyB) {
+            this.id = id;
+            this.label = label;
+            this.priority = priority;
+            this.sim = sim;
+            this.policyA = policyA;
+            this.policyB = policyB;
+            this.chunks = seeds.split(chunkSize);
+            this.gamesTotal = seeds.count();
+            this.parts = new CardBalanceStats[chunks.size()];
+            this.merged = new CardBalanceStats(sim.index());
+        }
+
+        public long id() { return id; }
+        public State state() { return state; }
+
+        public synchronized Progress progress() {
+            long games = merged.games();
+            return new Progress(id, label, priority, state, games, gamesTotal, merged.firstSeatWins(),
+                    merged.secondSeatWins(), merged.draws(), games == 0 ? 0.0 : (double) merged.totalTurns() / games, error);
+        }
+
+        /** Copy of the aggregate merged so far; complete once the job is {@link State#DONE}. */
+        public synchronized CardBalanceStats snapshot() {
+            CardBalanceStats copy = new CardBalanceStats(sim.index());
+            copy.merge(merged);
+            return copy;
+        }
+
+        /**
+         * Calls {@code listener} with the current progress and again after every merged chunk and on completion.
+         * Listeners run on worker threads and should not block.
+         */
+        public void subscribe(Consumer<Progress> listener) {
+            listeners.add(listener);
+            listener.accept(progress());
+        }
+
+        public void unsubscribe(Consumer<Progress> listener) {
+            listeners.remove(listener);
+        }
+
+        /** Waits until the job has ended; returns its final progress, or the current one on timeout. */
+        public Progress await(Duration timeout) throws InterruptedException {
+            done.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return progress();
+        }
+
+        private void runChunk(int k) {
+            if (cancelled || state.isFinal()) return;
+            synchronized (this) {
+                if (state == State.QUEUED) state = State.RUNNING;
+            }
+            CardBalanceStats part = new CardBalanceStats(sim.index());
+            SeedRange chunk = chunks.get(k);
+            try {
+                for (long s = chunk.start(); s < chunk.end(); s++) {
+                    if (cancelled) return;
+                    sim.play(s, policyA, policyB, part);
+                }
+            } catch (RuntimeException e) {
+                cancelled = true;
+                workers.getQueue().removeIf(r -> r instanceof ChunkTask t && t.job == this);
+                finish(State.FAILED, e.toString());
+                return;
+            }
+            boolean complete;
+            synchronized (this) {
+                if (state.isFinal()) return;
+                parts[k] = part;
+                while (mergedChunks < parts.length && parts[mergedChunks] != null) {
+                    merged.merge(parts[mergedChunks]);
+                    parts[mergedChunks++] = null;
+                }
+                complete = mergedChunks == parts.length;
+            }
+            if (complete) finish(State.DONE, null);
+            else publish();
+        }
+
+        private void finish(State end, String message) {
+            synchronized (this) {
+                if (state.isFinal()) return;
+                state = end;
+                error = message;
+            }
+            publish();
+            done.countDown();
+            retire();
+        }
+
+        private void publish() {
+            Progress p = progress();
+            for (Consumer<Progress> l : listeners) l.accept(p);
+        }
+    }
+
+    private static final class ChunkTask implements Runnable, Comparable<ChunkTask> {
+        final Job job;
+        final int chunk;
+
+        ChunkTask(Job job, int chunk) {
+            this.job = job;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public void run() {
+            job.runChunk(chunk);
+        }
+
+        @Override
+        public int compareTo(ChunkTask o) {
+            if (job.priority != o.job.priority) return Integer.compare(o.job.priority, job.priority);
+            if (job.id != o.job.id) return Long.compare(job.id, o.job.id);
+            return Integer.compare(chunk, o.chunk);
+        }
+    }
+}
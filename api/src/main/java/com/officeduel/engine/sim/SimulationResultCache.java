@@ -0,0 +1,249 @@
+package com.officeduel.engine.sim;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.cards.CardSetTransforms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of balance aggregates, addressed by a content hash of everything that determines a game except
+ * the seed: the canonicalised card set, the turn cap, a rule label and a policy label (see {@link #key}).
+ *
+ * <p>Under one key, results are stored per block of {@value #BLOCK} seeds aligned to absolute seed numbers, so a
+ * request that overlaps earlier runs reuses every whole block it shares with them and only plays the rest. Blocks
+ * cut by the edge of a request are stored as they are and reused by requests that contain them. Each call writes
+ * the blocks it computed as one segment file; the oldest-used files are deleted once the cache exceeds its size
+ * bound.
+ */
+public final class SimulationResultCache {
+    static final int BLOCK = 1024;
+    private static final int MAGIC = 0x53524331; // "SRC1"
+    private static final String SUFFIX = ".seg";
+    private static final ObjectMapper CANONICAL = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+
+    /** The merged aggregate plus how many of its games came from disk. */
+    public record Result(CardBalanceStats stats, long cachedGames, long computedGames) {}
+
+    /** Counters of the games {@code [start, start + count)}. */
+    record Piece(long start, long count, long[] counters) {
+        long end() { return start + count; }
+    }
+
+    private final Path root;
+    private final long maxBytes;
+
+    public SimulationResultCache(Path root, long maxBytes) {
+        this.root = root;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Cache key of a configuration. Card names and action notes are dropped and JSON keys sorted before hashing,
+     * so cosmetic edits of the card file keep their results; card order is kept because it drives deck dealing.
+     * {@code rules} must describe every rule override the simulator's setup applies.
+     */
+    public static String key(MatchSimulator sim, String rules, String policies) {
+        CardDefinitionSet stripped = CardSetTransforms.mapActions(sim.defs(), (c, t, i, a) ->
+                new CardDefinitionSet.Action(a.type(), a.target(), a.amount(), a.count(), a.duration_turns(), a.status(),
+                        a.still_draws(), a.delta(), a.times(), a.condition(), a.source(), a.selection(), a.on_empty(),
+                        a.fallback_amount(), null, a.opponent_side()));
+        List<CardDefinitionSet.CardDef> cards = new ArrayList<>();
+        for (CardDefinitionSet.CardDef c : stripped.cards()) cards.add(new CardDefinitionSet.CardDef(c.id(), null, c.tags(), c.tiers()));
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(CANONICAL.writeValueAsBytes(new CardDefinitionSet(stripped.schemaVersion(), stripped.rulesAssumptions(), cards)));
+            md.update(String.format(Locale.ROOT, "|%d|%s|%s", sim.maxTurns(), rules, policies).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Balance stats of {@code seeds}, playing only the blocks that no earlier run under {@code key} covered. */
+    public Result balance(MatchSimulator sim, String key, SeedRange seeds, Policy.Factory policyA, Policy.Factory policyB,
+                          int threads) throws Exception {
+        Path dir = root.resolve(key);
+        List<Piece> cached = new ArrayList<>();
+        for (Path file : segments(dir)) {
+            boolean used = false;
+            for (Piece p : readSegment(file)) {
+                if (p.start() >= seeds.start() && p.end() <= seeds.end() && cached.stream().noneMatch(q -> overlaps(p, q))) {
+                    cached.add(p);
+                    used = true;
+                }
+            }
+            if (used) touch(file);
+        }
+        cached.sort(Comparator.comparingLong(Piece::start));
+
+        List<SeedRange> missing = new ArrayList<>();
+        long at = seeds.start();
+        for (Piece p : cached) {
+            if (p.start() > at) missing.addAll(blocks(new SeedRange(at, p.start() - at)));
+            at = p.end();
+        }
+        if (at < seeds.end()) missing.addAll(blocks(new SeedRange(at, seeds.end() - at)));
+
+        List<Piece> computed = SimulationRunner.<List<Piece>>reduce(new SeedRange(0, missing.size()), 1, threads, ArrayList::new,
+                (chunk, into) -> {
+                    SeedRange block = missing.get((int) chunk.start());
+                    CardBalanceStats stats = new CardBalanceStats(sim.index());
+                    for (long s = block.start(); s < block.end(); s++) sim.play(s, policyA, policyB, stats);
+                    into.add(new Piece(block.start(), block.count(), stats.toCounters()));
+                },
+                List::addAll);
+        if (!computed.isEmpty()) {
+            writeSegment(dir, computed);
+            evict();
+        }
+
+        CardBalanceStats total = new CardBalanceStats(sim.index());
+        long cachedGames = 0;
+        for (Piece p : cached) {
+            total.mergeCounters(p.counters());
+            cachedGames += p.count();
+        }
+        for (Piece p : computed) total.mergeCounters(p.counters());
+        return new Result(total, cachedGames, seeds.count() - cachedGames);
+    }
+
+    private static boolean overlaps(Piece a, Piece b) {
+        return a.start() < b.end() && b.start() < a.end();
+    }
+
+    /** {@code range} cut at every multiple of {@link #BLOCK}. */
+    static List<SeedRange> blocks(SeedRange range) {
+        List<SeedRange> out = new ArrayList<>();
+        long s = range.start();
+        while (s < range.end()) {
+            long next = Math.min(range.end(), Math.floorDiv(s, BLOCK) * BLOCK + BLOCK);
+            out.add(new SeedRange(s, next - s));
+            s = next;
+        }
+        return out;
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return List.of();
+        List<Path> out = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path p : ds) out.add(p);
+        }
+        out.sort(Comparator.naturalOrder());
+        return out;
+    }
+
+    static List<Piece> readSegment(Path file) throws IOException {
+        List<Piece> out = new ArrayList<>();
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a cache segment: " + file);
+            int n = in.readInt();
+            for (int k = 0; k < n; k++) {
+                long start = in.readLong();
+                long count = in.readLong();
+                long[] counters = new long[in.readInt()];
+                for (int i = 0; i < counters.length; i++) counters[i] = in.readLong();
+                out.add(new Piece(start, count, counters));
+            }
+        } catch (NoSuchFileException e) {
+            return List.of(); // evicted by another process between listing and reading
+        }
+        return out;
+    }
+
+    private static void writeSegment(Path dir, List<Piece> pieces) throws IOException {
+        Files.createDirectories(dir);
+        Piece first = pieces.get(0);
+        Piece last = pieces.get(pieces.size() - 1);
+        String name = String.format(Locale.ROOT, "%d_%d_%d", first.start(), last.end(), System.nanoTime());
+        Path tmp = dir.resolve(name + ".tmp");
+        try (OutputStream raw = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(raw))) {
+            out.writeInt(MAGIC);
+            out.writeInt(pieces.size());
+            for (Piece p : pieces) {
+                out.writeLong(p.start());
+                out.writeLong(p.count());
+                out.writeInt(p.counters().length);
+                for (long v : p.counters()) out.writeLong(v);
+            }
+        }
+        Files.move(tmp, dir.resolve(name + SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // Only affects eviction order
+        }
+    }
+
+    /** Deletes least recently used segments, across all keys, until the cache fits in {@code maxBytes}. */
+    void evict() throws IOException {
+        if (!Files.isDirectory(root)) return;
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root, 2)) {
+            files = new ArrayList<>(walk.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).toList());
+        }
+        long total = 0;
+        for (Path f : files) total += Files.size(f);
+        if (total <= maxBytes) return;
+        files.sort(Comparator.comparing(SimulationResultCache::lastUsed));
+        for (Path f : files) {
+            if (total <= maxBytes) break;
+            total -= Files.size(f);
+            Files.deleteIfExists(f);
+        }
+    }
+
+    private static FileTime lastUsed(Path f) {
+        try {
+            return Files.getLastModifiedTime(f);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /** Bytes currently on disk under the cache root. */
+    public long sizeOnDisk() throws IOException {
+        if (!Files.isDirectory(root)) return 0;
+        try (Stream<Path> walk = Files.walk(root, 2)) {
+            long sum = 0;
+            for (Path p : walk.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).toList()) sum += Files.size(p);
+            return sum;
+        }
+    }
+}
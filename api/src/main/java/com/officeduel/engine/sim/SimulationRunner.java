@@ -1,43 +1,144 @@
 package com.officeduel.engine.sim;
 
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.RandomPolicy;
 import com.officeduel.engine.cards.CardDefinitionSet;
-import com.officeduel.engine.core.DeterministicRng;
-import com.officeduel.engine.engine.CardIndex;
-import com.officeduel.engine.engine.TurnEngine;
 import com.officeduel.engine.loader.CardDefinitionLoader;
-import com.officeduel.engine.model.Cards;
-import com.officeduel.engine.model.GameState;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 public final class SimulationRunner {
     public record Result(int aWins, int bWins, int matches) {}
 
+    /** Seeds per unit of parallel work; large enough to amortise task overhead, small enough to balance load. */
+    public static final int DEFAULT_CHUNK = 1024;
+
+    /** Work applied to one chunk of seeds, accumulating into a thread-confined aggregate. */
+    @FunctionalInterface
+    public interface ChunkTask<A> {
+        void run(SeedRange chunk, A into) throws Exception;
+    }
+
     public static Result run(Path cardsPath, long seed, int matches) throws Exception {
         CardDefinitionSet defs = CardDefinitionLoader.load(cardsPath);
-        CardIndex index = new CardIndex(defs);
+        MatchSimulator sim = new MatchSimulator(defs);
         int aWins = 0, bWins = 0;
         for (int m = 0; m < matches; m++) {
-            long s = seed + m;
-            DeterministicRng rng = new DeterministicRng(s);
-            GameState g = new GameState(rng);
-            for (int i = 0; i < 20; i++) {
-                int idxA = rng.nextInt(defs.cards().size());
-                int idxB = rng.nextInt(defs.cards().size());
-                g.getPlayerA().getDeck().addFirst(new Cards(defs.cards().get(idxA).id()));
-                g.getPlayerB().getDeck().addFirst(new Cards(defs.cards().get(idxB).id()));
-            }
-            TurnEngine eng = new TurnEngine(g, index);
-            eng.startMatch();
-            int t = 0;
-            while (g.getPlayerA().getLifePoints() > 0 && g.getPlayerB().getLifePoints() > 0 && t < 200) {
-                // Auto turn removed - simulation disabled
-                t++;
-            }
-            if (g.getPlayerA().getLifePoints() > 0) aWins++; else bWins++;
+            MatchOutcome o = sim.play(seed + m, RandomPolicy.FACTORY, RandomPolicy.FACTORY, null);
+            if (o.winner() == 0) aWins++; else if (o.winner() == 1) bWins++;
         }
         return new Result(aWins, bWins, matches);
     }
-}
 
+    /** Random-vs-random per-card statistics over {@code matches} seeds, spread across {@code threads} workers. */
+    public static CardBalanceStats runBalance(CardDefinitionSet defs, long seed, long matches, int threads) throws Exception {
+        return runBalance(new MatchSimulator(defs), new SeedRange(seed, matches), RandomPolicy.FACTORY, RandomPolicy.FACTORY, threads);
+    }
+
+    public static CardBalanceStats runBalance(MatchSimulator sim, SeedRange seeds, Policy.Factory policyA,
+                                              Policy.Factory policyB, int threads) throws Exception {
+        return runBalance(sim, seeds, policyA, policyB, threads, null);
+    }
+
+    /** Balance run that resumes from, and keeps updating, {@code checkpoint} (may be null). */
+    public static CardBalanceStats runBalance(MatchSimulator sim, SeedRange seeds, Policy.Factory policyA, Policy.Factory policyB,
+                                              int threads, SimulationCheckpoint<CardBalanceStats> checkpoint) throws Exception {
+        return reduce(seeds, DEFAULT_CHUNK, threads,
+                () -> new CardBalanceStats(sim.index()),
+                (chunk, stats) -> {
+                    for (long s = chunk.start(); s < chunk.end(); s++) sim.play(s, policyA, policyB, stats);
+                },
+                CardBalanceStats::merge, checkpoint);
+    }
+
+    /**
+     * Plays every seed of {@code seeds} and stores one row per match under {@code dir}. Each chunk maps and fills
+     * its own rows, so workers never share a page. Returns the number of rows written.
+     */
+    public static long writeColumns(MatchSimulator sim, SeedRange seeds, Policy.Factory policyA, Policy.Factory policyB,
+                                    Path dir, int threads) throws Exception {
+        try (ColumnarResultWriter writer = ColumnarResultWriter.open(dir, seeds, sim.index())) {
+            long[] rows = reduce(seeds, DEFAULT_CHUNK, threads,
+                    () -> new long[1],
+                    (chunk, count) -> {
+                        ColumnarResultWriter.Segment segment = writer.segment(chunk);
+                        for (long s = chunk.start(); s < chunk.end(); s++) sim.play(s, policyA, policyB, segment);
+                        count[0] += chunk.count();
+                    },
+                    (total, part) -> total[0] += part[0]);
+            return rows[0];
+        }
+    }
+
+    /**
+     * Splits {@code seeds} into chunks, runs {@code task} on each with a fresh aggregate from {@code factory} and
+     * merges the chunk aggregates into one. Merging happens in chunk order on the calling thread, so the result
+     * does not depend on thread count or scheduling.
+     */
+    public static <A> A reduce(SeedRange seeds, int chunkSize, int threads, Supplier<A> factory,
+                               ChunkTask<A> task, BiConsumer<A, A> merge) throws Exception {
+        return reduce(seeds, chunkSize, threads, factory, task, merge, null);
+    }
+
+    /**
+     * As above, resuming from and periodically writing {@code checkpoint} when it is non-null. Chunks already
+     * folded into the checkpoint are not run again.
+     */
+    public static <A> A reduce(SeedRange seeds, int chunkSize, int threads, Supplier<A> factory,
+                               ChunkTask<A> task, BiConsumer<A, A> merge, SimulationCheckpoint<A> checkpoint) throws Exception {
+        List<SeedRange> chunks = seeds.split(chunkSize);
+        A total = factory.get();
+        int first = 0;
+        if (checkpoint != null) {
+            SimulationCheckpoint.State saved = checkpoint.load(seeds, chunkSize);
+            if (saved != null) {
+                total = checkpoint.aggregate(saved);
+                first = saved.completedChunks();
+            }
+        }
+        if (threads <= 1) {
+            for (int k = first; k < chunks.size(); k++) {
+                A part = factory.get();
+                task.run(chunks.get(k), part);
+                merge.accept(total, part);
+                if (checkpoint != null) checkpoint.maybeSave(seeds, chunkSize, k + 1, total, k + 1 == chunks.size());
+            }
+            return total;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<A>> parts = new ArrayList<>(chunks.size() - first);
+            for (SeedRange chunk : chunks.subList(first, chunks.size())) {
+                parts.add(pool.submit(() -> {
+                    A part = factory.get();
+                    task.run(chunk, part);
+                    return part;
+                }));
+            }
+            for (int k = first; k < chunks.size(); k++) {
+                merge.accept(total, unwrap(parts.get(k - first)));
+                if (checkpoint != null) checkpoint.maybeSave(seeds, chunkSize, k + 1, total, k + 1 == chunks.size());
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
+    static <A> A unwrap(Future<A> f) throws Exception {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception ex) throw ex;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.officeduel.engine.sim;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.PlayerState;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Estimates pairwise card synergy by controlled experiment rather than by mining finished games.
+ *
+ * <p>Each "arm" plays the same block of seeds (common random numbers) with half of one seat's random deck cards
+ * replaced by card i ("single" arm), both halves replaced by i and j ("pair" arm) or left alone ("control").
+ * The boosted seat alternates with seed parity, so the two strata cancel the first-player advantage exactly.
+ * Synergy of (i, j) is the interaction contrast of the boosted seat's score,
+ * {@code W(ij) - W(i) - W(j) + W(0)}, evaluated per seed; the per-seed differences give the confidence interval.
+ *
+ * <p>Every arm deals its random deck cards and the standard copies from the base catalogue: the cards the archive
+ * was first computed with, stored in it. Adding a card leaves the decks of every seed alone, so all four arms of a
+ * cell still share them; the new card enters a match only through the boosted slots of its own arms. Arms are
+ * stored by card id, so after a card is added only its single arm and its pair arms with existing cards are
+ * simulated. Start from an empty archive to deal the new cards into the base decks too. The archive records a
+ * hash of every card definition it was played with, and is ignored as a whole once any of those cards changed or
+ * was removed.
+ */
+public final class SynergyMatrix {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int BOOSTED_SLOTS = 10;
+    private static final int SPLIT_THRESHOLD = 64;
+    private static final String CONTROL = "";
+
+    public record Cell(String cardA, String cardB, double winRate, double lift, double halfWidth) {}
+
+    /**
+     * On-disk form. {@code base} is the base catalogue in definition order, {@code cards} maps each card id to a
+     * SHA-256 of its definition. Scores are per seed, 0 = boosted seat lost, 1 = draw, 2 = won.
+     */
+    public record Archive(long seed, int gamesPerArm, int maxTurns, List<String> base, Map<String, String> cards,
+                          Map<String, byte[]> arms) {}
+
+    private final MatchSimulator sim;
+    private final long seed;
+    private final int gamesPerArm;
+    private final Policy.Factory policy;
+    private final Map<String, byte[]> arms = new ConcurrentHashMap<>();
+    private List<String> base;
+
+    public SynergyMatrix(MatchSimulator sim, long seed, int gamesPerArm) {
+        this(sim, seed, gamesPerArm, RandomPolicy.FACTORY);
+    }
+
+    public SynergyMatrix(MatchSimulator sim, long seed, int gamesPerArm, Policy.Factory policy) {
+        this.sim = sim;
+        this.seed = seed;
+        this.gamesPerArm = gamesPerArm;
+        this.policy = policy;
+        this.base = new ArrayList<>();
+        for (int i = 0; i < sim.index().size(); i++) base.add(sim.index().cardAt(i).id());
+    }
+
+    /**
+     * Reuses arms from {@code path} when it was produced with the same seed block and turn cap, and every card it
+     * was played with is still defined the same way; its base catalogue is then kept.
+     */
+    public void loadArms(Path path) throws IOException {
+        if (!Files.exists(path)) return;
+        Archive a = MAPPER.readValue(Files.readString(path), Archive.class);
+        if (a.seed() == seed && a.gamesPerArm() == gamesPerArm && a.maxTurns() == sim.maxTurns()
+                && a.base() != null && a.cards() != null && a.cards().keySet().containsAll(a.base())
+                && cardHashes().entrySet().containsAll(a.cards().entrySet())) {
+            base = a.base();
+            arms.putAll(a.arms());
+        }
+    }
+
+    public void saveArms(Path path) throws IOException {
+        Files.writeString(path, MAPPER.writeValueAsString(new Archive(seed, gamesPerArm, sim.maxTurns(), base, cardHashes(), new TreeMap<>(arms))));
+    }
+
+    private Map<String, String> cardHashes() {
+        try {
+            Map<String, String> hashes = new TreeMap<>();
+            for (int c = 0; c < sim.index().size(); c++) {
+                MessageDigest md = MessageDigest.getInstance("SHA-256");
+                hashes.put(sim.index().cardAt(c).id(), HexFormat.of().formatHex(md.digest(
+                        sim.index().cardAt(c).toString().getBytes(StandardCharsets.UTF_8))));
+            }
+            return hashes;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Simulates every arm the current card set needs and the archive lacks. Returns the number of arms run. */
+    public int compute(int threads) {
+        List<String> missing = new ArrayList<>();
+        for (String key : requiredArms()) {
+            if (!arms.containsKey(key)) missing.add(key);
+        }
+        if (missing.isEmpty()) return 0;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            List<byte[]> results = new ArrayList<>();
+            MatchSimulator baseSim = baseSimulator();
+            for (String key : missing) {
+                byte[] scores = new byte[gamesPerArm];
+                tasks.add(pool.submit(new ArmTask(armSimulator(baseSim, key), scores, 0, gamesPerArm)));
+                results.add(scores);
+            }
+            for (int k = 0; k < tasks.size(); k++) {
+                tasks.get(k).join();
+                arms.put(missing.get(k), results.get(k));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return missing.size();
+    }
+
+    private List<String> requiredArms() {
+        List<String> keys = new ArrayList<>();
+        keys.add(CONTROL);
+        int n = sim.index().size();
+        for (int i = 0; i < n; i++) {
+            keys.add(sim.index().cardAt(i).id());
+            for (int j = i + 1; j < n; j++) keys.add(pairKey(sim.index().cardAt(i).id(), sim.index().cardAt(j).id()));
+        }
+        return keys;
+    }
+
+    private static String pairKey(String a, String b) {
+        return a.compareTo(b) <= 0 ? a + "+" + b : b + "+" + a;
+    }
+
+    private int boostedSeat(long matchSeed) {
+        return (int) Math.floorMod(matchSeed - seed, 2L);
+    }
+
+    /** {@link #sim} with random deck cards and standard copies taken from the base catalogue only. */
+    private MatchSimulator baseSimulator() {
+        List<CardDefinitionSet.CardDef> cards = new ArrayList<>();
+        for (String id : base) cards.add(sim.index().get(id));
+        CardDefinitionSet defs = sim.defs();
+        return sim.dealingFrom(new CardDefinitionSet(defs.schemaVersion(), defs.rulesAssumptions(), cards))
+                .withSetup((matchSeed, state, engine) -> engine.setStandardCards(base));
+    }
+
+    private MatchSimulator armSimulator(MatchSimulator baseSim, String key) {
+        if (key.isEmpty()) return baseSim;
+        String[] ids = key.split("\\+");
+        String first = ids[0];
+        String second = ids.length > 1 ? ids[1] : null;
+        return baseSim.withSetup((matchSeed, state, engine) -> {
+            PlayerState p = boostedSeat(matchSeed) == 0 ? state.getPlayerA() : state.getPlayerB();
+            List<Cards> deck = new ArrayList<>(p.getDeck());
+            for (int k = 0; k < BOOSTED_SLOTS && k < deck.size(); k++) deck.set(k, new Cards(first));
+            if (second != null) {
+                for (int k = BOOSTED_SLOTS; k < 2 * BOOSTED_SLOTS && k < deck.size(); k++) deck.set(k, new Cards(second));
+            }
+            p.getDeck().clear();
+            p.getDeck().addAll(deck);
+        });
+    }
+
+    private final class ArmTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final MatchSimulator armSim;
+        private final byte[] scores;
+        private final int from;
+        private final int to;
+
+        ArmTask(MatchSimulator armSim, byte[] scores, int from, int to) {
+            this.armSim = armSim;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ArmTask(armSim, scores, from, mid), new ArmTask(armSim, scores, mid, to));
+                return;
+            }
+            for (int m = from; m < to; m++) {
+                long s = seed + m;
+                MatchOutcome o = armSim.play(s, policy, policy, null);
+                int seat = boostedSeat(s);
+                scores[m] = (byte) (o.isDraw() ? 1 : o.winner() == seat ? 2 : 0);
+            }
+        }
+    }
+
+    public Cell cell(String a, String b) {
+        byte[] pair = arms.get(pairKey(a, b));
+        byte[] wa = arms.get(a);
+        byte[] wb = arms.get(b);
+        byte[] w0 = arms.get(CONTROL);
+        if (pair == null || wa == null || wb == null || w0 == null) {
+            throw new IllegalStateException("Arms for " + a + "/" + b + " not computed");
+        }
+        double sum = 0, sumSq = 0, pairSum = 0;
+        for (int m = 0; m < gamesPerArm; m++) {
+            double d = (pair[m] - wa[m] - wb[m] + w0[m]) / 2.0;
+            sum += d;
+            sumSq += d * d;
+            pairSum += pair[m] / 2.0;
+        }
+        double mean = sum / gamesPerArm;
+        double var = gamesPerArm > 1 ? (sumSq - gamesPerArm * mean * mean) / (gamesPerArm - 1) : 0;
+        return new Cell(a, b, pairSum / gamesPerArm, mean, 1.96 * Math.sqrt(Math.max(0, var) / gamesPerArm));
+    }
+
+    /** Lift grid in percentage points, followed by the {@code top} pairs with the strongest evidence. */
+    public String report(int top) {
+        int n = sim.index().size();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "synergy lift (pp), %d games per arm, seeds %d..%d%n", gamesPerArm, seed, seed + gamesPerArm - 1));
+        sb.append("     ");
+        for (int j = 0; j < n; j++) sb.append(String.format(Locale.ROOT, "%6s", sim.index().cardAt(j).id()));
+        sb.append('\n');
+        List<Cell> cells = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            String a = sim.index().cardAt(i).id();
+            sb.append(String.format(Locale.ROOT, "%-5s", a));
+            for (int j = 0; j < n; j++) {
+                if (i == j) {
+                    sb.append("     .");
+                    continue;
+                }
+                Cell c = cell(a, sim.index().cardAt(j).id());
+                if (j > i) cells.add(c);
+                sb.append(String.format(Locale.ROOT, "%+6.1f", 100 * c.lift()));
+            }
+            sb.append('\n');
+        }
+        cells.sort(Comparator.comparingDouble((Cell c) -> -Math.abs(c.lift()) / Math.max(1e-9, c.halfWidth())));
+        for (Cell c : cells.subList(0, Math.min(top, cells.size()))) {
+            sb.append(String.format(Locale.ROOT, "%s+%s lift %+.3f +/-%.3f (pair win rate %.3f)%n",
+                    c.cardA(), c.cardB(), c.lift(), c.halfWidth(), c.winRate()));
+        }
+        return sb.toString();
+    }
+}
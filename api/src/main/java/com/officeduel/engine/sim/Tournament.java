@@ -0,0 +1,206 @@
+package com.officeduel.engine.sim;
+
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.rating.Glicko2;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * In-process bot tournament rated with {@link Glicko2}. Every round is one rating period: its pairings are
+ * played in parallel, then all of each entrant's games are rated together against its opponents' ratings from
+ * the start of the round, so the result does not depend on which pairing finishes first.
+ *
+ * <p>A pairing plays a fixed budget of games with alternating seats. Seeds derive from the tournament seed,
+ * the round and the two entrants' positions, so any pairing can be replayed on its own.
+ */
+public final class Tournament {
+    public enum Format { ROUND_ROBIN, SWISS }
+
+    public record Entrant(String name, Policy.Factory policy) {}
+
+    public record Standing(String name, Glicko2.Rating rating, int wins, int losses, int draws) {
+        public int games() { return wins + losses + draws; }
+        public double score() { return wins + 0.5 * draws; }
+    }
+
+    private record Pairing(int a, int b, long seed) {}
+
+    private final MatchSimulator sim;
+    private final List<Entrant> entrants;
+    private final long seed;
+    private final int gamesPerPairing;
+
+    private final Glicko2.Rating[] ratings;
+    private final int[] wins;
+    private final int[] losses;
+    private final int[] draws;
+    private final Set<Long> met = new HashSet<>();
+    private final boolean[] hadBye;
+
+    public Tournament(MatchSimulator sim, List<Entrant> entrants, long seed, int gamesPerPairing) {
+        if (entrants.size() < 2) throw new IllegalArgumentException("A tournament needs at least two entrants");
+        this.sim = sim;
+        this.entrants = List.copyOf(entrants);
+        this.seed = seed;
+        this.gamesPerPairing = gamesPerPairing;
+        int n = entrants.size();
+        this.ratings = new Glicko2.Rating[n];
+        for (int i = 0; i < n; i++) {
+            ratings[i] = new Glicko2.Rating(Glicko2.DEFAULT_RATING, Glicko2.DEFAULT_RD, Glicko2.DEFAULT_VOLATILITY);
+        }
+        this.wins = new int[n];
+        this.losses = new int[n];
+        this.draws = new int[n];
+        this.hadBye = new boolean[n];
+    }
+
+    /** Plays {@code rounds} rounds; a round-robin round is one full cycle of all pairings. */
+    public List<Standing> run(Format format, int rounds, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            for (int r = 0; r < rounds; r++) {
+                List<Pairing> pairings = format == Format.ROUND_ROBIN ? roundRobin(r) : swiss(r);
+                List<Future<byte[]>> results = new ArrayList<>();
+                for (Pairing p : pairings) results.add(pool.submit(() -> play(p)));
+                applyRound(pairings, results);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return standings();
+    }
+
+    private List<Pairing> roundRobin(int round) {
+        List<Pairing> out = new ArrayList<>();
+        for (int i = 0; i < entrants.size(); i++) {
+            for (int j = i + 1; j < entrants.size(); j++) out.add(pairing(round, i, j));
+        }
+        return out;
+    }
+
+    /**
+     * Pairs neighbours in the current standings, skipping rematches when possible. With an odd field the
+     * lowest-ranked entrant that has not sat out yet gets the bye.
+     */
+    private List<Pairing> swiss(int round) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < entrants.size(); i++) order.add(i);
+        order.sort(Comparator.<Integer>comparingDouble(i -> -(wins[i] + 0.5 * draws[i]))
+                .thenComparingDouble(i -> -ratings[i].r())
+                .thenComparing(i -> entrants.get(i).name()));
+        List<Pairing> out = new ArrayList<>();
+        boolean[] taken = new boolean[entrants.size()];
+        if (order.size() % 2 == 1) {
+            int bye = order.get(order.size() - 1);
+            for (int x = order.size() - 1; x >= 0; x--) {
+                if (!hadBye[order.get(x)]) {
+                    bye = order.get(x);
+                    break;
+                }
+            }
+            hadBye[bye] = true;
+            taken[bye] = true;
+        }
+        for (int x = 0; x < order.size(); x++) {
+            int a = order.get(x);
+            if (taken[a]) continue;
+            int partner = -1;
+            for (int y = x + 1; y < order.size(); y++) {
+                int b = order.get(y);
+                if (taken[b]) continue;
+                if (partner < 0) partner = b;
+                if (!met.contains(key(a, b))) {
+                    partner = b;
+                    break;
+                }
+            }
+            if (partner < 0) break;
+            taken[a] = true;
+            taken[partner] = true;
+            out.add(pairing(round, Math.min(a, partner), Math.max(a, partner)));
+        }
+        return out;
+    }
+
+    private Pairing pairing(int round, int a, int b) {
+        met.add(key(a, b));
+        return new Pairing(a, b, DeterministicRng.substream(seed, ((long) round << 32) | key(a, b)));
+    }
+
+    private long key(int a, int b) {
+        return (long) Math.min(a, b) * entrants.size() + Math.max(a, b);
+    }
+
+    /** Scores from entrant {@code a}'s side: 2 win, 1 draw, 0 loss. */
+    private byte[] play(Pairing p) {
+        byte[] scores = new byte[gamesPerPairing];
+        for (int g = 0; g < gamesPerPairing; g++) {
+            long s = DeterministicRng.substream(p.seed(), g);
+            boolean aFirst = (g & 1) == 0;
+            Policy.Factory first = entrants.get(aFirst ? p.a() : p.b()).policy();
+            Policy.Factory second = entrants.get(aFirst ? p.b() : p.a()).policy();
+            MatchOutcome o = sim.play(s, first, second, null);
+            int aSeat = aFirst ? 0 : 1;
+            scores[g] = (byte) (o.isDraw() ? 1 : o.winner() == aSeat ? 2 : 0);
+        }
+        return scores;
+    }
+
+    private void applyRound(List<Pairing> pairings, List<Future<byte[]>> results) throws Exception {
+        List<byte[]> scores = new ArrayList<>();
+        for (Future<byte[]> f : results) {
+            try {
+                scores.add(f.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception ex) throw ex;
+                throw e;
+            }
+        }
+        // The round is one rating period: every game is rated against the opponent's pre-round rating, and an
+        // entrant with a bye only has its RD inflated
+        List<List<Glicko2.Game>> games = new ArrayList<>();
+        for (int i = 0; i < ratings.length; i++) games.add(new ArrayList<>());
+        for (int k = 0; k < pairings.size(); k++) {
+            Pairing p = pairings.get(k);
+            for (byte s : scores.get(k)) {
+                double scoreA = s / 2.0;
+                games.get(p.a()).add(new Glicko2.Game(ratings[p.b()], scoreA));
+                games.get(p.b()).add(new Glicko2.Game(ratings[p.a()], 1.0 - scoreA));
+                if (s == 2) { wins[p.a()]++; losses[p.b()]++; }
+                else if (s == 0) { wins[p.b()]++; losses[p.a()]++; }
+                else { draws[p.a()]++; draws[p.b()]++; }
+            }
+        }
+        for (int i = 0; i < ratings.length; i++) ratings[i] = Glicko2.rate(ratings[i], games.get(i));
+    }
+
+    public List<Standing> standings() {
+        List<Standing> out = new ArrayList<>();
+        for (int i = 0; i < entrants.size(); i++) {
+            out.add(new Standing(entrants.get(i).name(), ratings[i], wins[i], losses[i], draws[i]));
+        }
+        out.sort(Comparator.comparingDouble((Standing s) -> -s.rating().r()).thenComparing(Standing::name));
+        return out;
+    }
+
+    public static String table(List<Standing> standings) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-4s %-16s %8s %6s %7s %6s %6s %6s%n", "#", "bot", "rating", "RD", "vol", "W", "L", "D"));
+        int rank = 1;
+        for (Standing s : standings) {
+            sb.append(String.format(Locale.ROOT, "%-4d %-16s %8.1f %6.1f %7.4f %6d %6d %6d%n", rank++, s.name(),
+                    s.rating().r(), s.rating().rd(), s.rating().vol(), s.wins(), s.losses(), s.draws()));
+        }
+        return sb.toString();
+    }
+}
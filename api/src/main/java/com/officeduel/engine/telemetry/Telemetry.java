@@ -3,12 +3,14 @@ package com.officeduel.engine.telemetry;
 public interface Telemetry {
     void emit(Event event);
 
-    sealed interface Event permits MatchStart, CardPlayed, LifeChange, MatchEnd {}
+    sealed interface Event permits MatchStart, CardPlayed, LifeChange, MatchEnd, DrawRetries {}
 
     record MatchStart(long seed) implements Event {}
     record CardPlayed(int playerIndex, String cardId, int tier) implements Event {}
     record LifeChange(int playerIndex, int delta, String reason) implements Event {}
     record MatchEnd(int winnerIndex, int lpA, int lpB) implements Event {}
+    /** A draw step needed more attempts than cards it kept: duplicates put back on the deck, or blocked draws. */
+    record DrawRetries(int playerIndex, String step, int attempts, int drawn) implements Event {}
 }
 
 
@@ -4,20 +4,32 @@ import com.officeduel.engine.cards.CardDefinitionSet;
 import com.officeduel.engine.engine.CardIndex;
 import com.officeduel.service.dto.MatchStateDto;
 import com.officeduel.service.dto.PlayerGameStateDto;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/match")
 public class MatchController {
     private final MatchRegistry registry;
+    private final com.officeduel.engine.bot.IsmctsPolicy.Settings botSettings;
+    private final com.officeduel.engine.bot.PolicyTable botTable;
 
-    public MatchController(MatchRegistry registry) {
+    public MatchController(MatchRegistry registry, @Value("${bot.difficulty:normal}") String botDifficulty,
+                           @Value("${bot.policy-table:}") String botPolicyTable) {
         this.registry = registry;
+        this.botSettings = com.officeduel.engine.bot.IsmctsPolicy.Difficulty.valueOf(botDifficulty.toUpperCase(Locale.ROOT)).settings();
+        try {
+            this.botTable = botPolicyTable.isBlank() ? null
+                    : com.officeduel.engine.bot.PolicyTable.open(java.nio.file.Path.of(botPolicyTable), registry.getCardIndex());
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException("Cannot read bot.policy-table " + botPolicyTable, e);
+        }
     }
 
     @PostMapping
@@ -831,7 +843,7 @@ public class MatchController {
             new Thread(() -> {
                 try {
                     Thread.sleep(2000); // 2 second delay
-                    executeBotAction(finalEntry, finalGs, botPlayerIndex, finalPhase);
+                    executeBotAction(id, finalEntry, finalGs, botPlayerIndex, finalPhase);
                     // Clean up the action key after execution
                     scheduledBotActions.remove(finalActionKey);
                 } catch (Exception e) {
@@ -842,17 +854,18 @@ public class MatchController {
         }
     }
     
-    private void executeBotAction(MatchRegistry.Entry entry, com.officeduel.engine.model.GameState gs, 
+    private void executeBotAction(String id, MatchRegistry.Entry entry, com.officeduel.engine.model.GameState gs, 
                                  int botPlayerIndex, com.officeduel.engine.model.GameState.Phase phase) {
         try {
             if (phase == com.officeduel.engine.model.GameState.Phase.PLAY_TWO_CARDS) {
-                // Bot plays two random cards but does NOT auto-choose
+                // Bot offers two cards chosen by search but does NOT auto-choose
                 var botPlayer = botPlayerIndex == 0 ? gs.getPlayerA() : gs.getPlayerB();
                 var handCards = botPlayer.getHand();
                 
                 if (handCards.size() >= 2) {
-                    var card1 = handCards.get(0).cardId();
-                    var card2 = handCards.get(1).cardId();
+                    var offer = botPolicy(id, botPlayerIndex).chooseOffer(gs, botPlayerIndex);
+                    var card1 = offer.faceUpId();
+                    var card2 = offer.faceDownId();
                     
                     System.out.println("Bot (Player " + (botPlayerIndex == 0 ? "A" : "B") + ") auto-playing cards: " + card1 + ", " + card2);
                     
@@ -860,8 +873,8 @@ public class MatchController {
                     playCardsOnly(entry.engine(), gs, card1, card2);
                 }
             } else if (phase == com.officeduel.engine.model.GameState.Phase.OPPONENT_PICK) {
-                // Bot chooses randomly
-                boolean chooseFaceUp = Math.random() < 0.5;
+                // Bot picks by search, seeing only the face-up card
+                boolean chooseFaceUp = botPolicy(id, botPlayerIndex).chooseFaceUp(gs, botPlayerIndex);
                 String picked = chooseFaceUp ? gs.getFaceUpCardId() : gs.getFaceDownCardId();
                 String remaining = chooseFaceUp ? gs.getFaceDownCardId() : gs.getFaceUpCardId();
                 
@@ -873,6 +886,24 @@ public class MatchController {
         }
     }
     
+    /**
+     * ISMCTS at the configured difficulty, seeded from the match, with endgames it can prove left to the endgame
+     * solver. One bot, and with it one belief about the opponent's hand, is kept per seat for the whole match.
+     * Solvers of all matches share one evaluation cache, so each decision reuses what earlier ones in this and other
+     * matches already searched. With {@code bot.policy-table} set, states the learned table holds are played from
+     * it with one lookup and only the rest are searched.
+     */
+    private com.officeduel.engine.bot.Policy botPolicy(String id, int seat) {
+        return registry.bot(id, seat, (seed, s) -> {
+            com.officeduel.engine.bot.Policy search = new com.officeduel.engine.bot.IsmctsPolicy(registry.getCardIndex(), botSettings,
+                    com.officeduel.engine.core.DeterministicRng.substream(seed, s));
+            if (botTable != null) search = new com.officeduel.engine.bot.TablePolicy(registry.getCardIndex(), botTable, search);
+            return new com.officeduel.engine.bot.EndgamePolicy(search, new com.officeduel.engine.bot.EndgameSolver(
+                    registry.getCardIndex(), com.officeduel.engine.bot.EndgameSolver.Settings.DEFAULT,
+                    com.officeduel.engine.bot.EvaluationCache.shared()));
+        });
+    }
+
     /**
      * Custom method that only plays cards and transitions to OPPONENT_PICK phase
      * without auto-choosing. Based on TurnEngine.playTurnAuto() but stops before auto-choice.
@@ -1,5 +1,6 @@
 package com.officeduel.service;
 
+import com.officeduel.engine.bot.Policy;
 import com.officeduel.engine.cards.CardDefinitionSet;
 import com.officeduel.engine.core.DeterministicRng;
 import com.officeduel.engine.engine.CardIndex;
@@ -17,6 +18,7 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class MatchRegistry {
     private final Map<String, Entry> matches = new ConcurrentHashMap<>();
+    private final Map<String, Policy> bots = new ConcurrentHashMap<>();
     private final CardDefinitionSet defs;
     private final CardIndex index;
 
@@ -46,7 +48,16 @@ public class MatchRegistry {
     }
 
     public Entry get(String id) { return matches.get(id); }
+
+    /**
+     * The bot playing {@code seat} of match {@code id}, made by {@code factory} from the match seed on first use and
+     * kept for the rest of the match, so what it has learned about the opponent carries over between decisions.
+     */
+    public Policy bot(String id, int seat, Policy.Factory factory) {
+        return bots.computeIfAbsent(id + "-" + seat, k -> factory.create(matches.get(id).state().getRng().seed(), seat));
+    }
     public CardIndex getCardIndex() { return index; }
+    public CardDefinitionSet getDefinitions() { return defs; }
     
     public synchronized JoinResult joinMatch(String matchId, String playerName) {
         Entry entry = matches.get(matchId);
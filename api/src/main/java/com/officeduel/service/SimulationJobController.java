@@ -0,0 +1,94 @@
+package com.officeduel.service;
+
+import com.officeduel.engine.sim.SimulationJobQueue;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/api/sim/jobs")
+public class SimulationJobController {
+    private static final long EVENT_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final SimulationJobs jobs;
+
+    public SimulationJobController(SimulationJobs jobs) {
+        this.jobs = jobs;
+    }
+
+    public record JobResult(SimulationJobQueue.Progress progress, boolean partial, String report) {}
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submit(@RequestBody SimulationJobs.Spec spec) {
+        if (spec == null) return ResponseEntity.badRequest().build();
+        try {
+            var job = jobs.submit(spec);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("id", job.id()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SimulationJobQueue.Progress>> list() {
+        return ResponseEntity.ok(jobs.queue().list().stream().map(SimulationJobQueue.Job::progress).toList());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SimulationJobQueue.Progress> get(@PathVariable long id) {
+        var job = jobs.queue().get(id);
+        if (job == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(job.progress());
+    }
+
+    // Per-card table over the games merged so far; partial until the job is DONE
+    @GetMapping("/{id}/result")
+    public ResponseEntity<JobResult> result(@PathVariable long id) {
+        var job = jobs.queue().get(id);
+        if (job == null) return ResponseEntity.notFound().build();
+        var progress = job.progress();
+        return ResponseEntity.ok(new JobResult(progress, progress.state() != SimulationJobQueue.State.DONE,
+                job.snapshot().report()));
+    }
+
+    @GetMapping("/{id}/events")
+    public ResponseEntity<SseEmitter> events(@PathVariable long id) {
+        var job = jobs.queue().get(id);
+        if (job == null) return ResponseEntity.notFound().build();
+        SseEmitter emitter = new SseEmitter(EVENT_TIMEOUT_MS);
+        Consumer<SimulationJobQueue.Progress> forward = new Consumer<>() {
+            @Override
+            public void accept(SimulationJobQueue.Progress p) {
+                try {
+                    emitter.send(SseEmitter.event().name("progress").data(p));
+                    if (p.state().isFinal()) {
+                        job.unsubscribe(this);
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException ex) {
+                    // Client went away or the emitter already completed
+                    job.unsubscribe(this);
+                }
+            }
+        };
+        emitter.onCompletion(() -> job.unsubscribe(forward));
+        emitter.onTimeout(() -> job.unsubscribe(forward));
+        job.subscribe(forward);
+        return ResponseEntity.ok(emitter);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<SimulationJobQueue.Progress> cancel(@PathVariable long id) {
+        var job = jobs.queue().get(id);
+        if (job == null || !jobs.queue().cancel(id)) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(job.progress());
+    }
+}
@@ -0,0 +1,87 @@
+package com.officeduel.service;
+
+import com.officeduel.engine.bot.Bots;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.cards.CardSetTransforms;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SeedRange;
+import com.officeduel.engine.sim.SimulationJobQueue;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Owns the background simulation queue of the service. Its worker pool is deliberately smaller than the machine
+ * ({@code sim.jobs.threads}, default half the cores) and runs at minimum thread priority, so live matches in
+ * {@link MatchRegistry} keep their latency while designers' jobs run.
+ */
+@Component
+public class SimulationJobs {
+    public record Spec(CardDefinitionSet cards, Integer winPoints, Integer maxHandSize, Integer copiesPerCard,
+                       Double amountScale, String policyA, String policyB, Long seed, Long games, Integer priority) {}
+
+    private final MatchRegistry registry;
+    private final SimulationJobQueue queue;
+    private final long maxGames;
+
+    public SimulationJobs(MatchRegistry registry,
+                          @Value("${sim.jobs.threads:0}") int threads,
+                          @Value("${sim.jobs.max-active:8}") int maxActive,
+                          @Value("${sim.jobs.retain:32}") int retain,
+                          @Value("${sim.jobs.max-games:5000000}") long maxGames) {
+        this.registry = registry;
+        int workers = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.queue = new SimulationJobQueue(workers, maxActive, retain);
+        this.maxGames = maxGames;
+    }
+
+    /** Validates {@code spec} and enqueues it; omitted fields fall back to the live card set and rules. */
+    public SimulationJobQueue.Job submit(Spec spec) {
+        long games = spec.games() != null ? spec.games() : 10_000L;
+        if (games <= 0 || games > maxGames) {
+            throw new IllegalArgumentException("games must be between 1 and " + maxGames);
+        }
+        // Same win points a live match accepts; an offer needs two cards in hand; copies bound deck size and job cost
+        checkRange("winPoints", spec.winPoints(), 1, 7);
+        checkRange("maxHandSize", spec.maxHandSize(), 2, 10);
+        checkRange("copiesPerCard", spec.copiesPerCard(), 0, 10);
+        CardDefinitionSet defs = spec.cards() != null ? spec.cards() : registry.getDefinitions();
+        if (defs.cards() == null || defs.cards().isEmpty()) throw new IllegalArgumentException("No cards defined");
+        if (spec.amountScale() != null) {
+            if (spec.amountScale() <= 0) throw new IllegalArgumentException("amountScale must be positive");
+            defs = CardSetTransforms.scaleAmounts(defs, spec.amountScale());
+        }
+        CardIndex index = new CardIndex(defs);
+        Integer winPoints = spec.winPoints();
+        Integer hand = spec.maxHandSize();
+        Integer copies = spec.copiesPerCard();
+        MatchSimulator sim = new MatchSimulator(defs, index, MatchSimulator.DEFAULT_MAX_TURNS, (s, state, engine) -> {
+            if (winPoints != null) state.setWinPointsToReach(winPoints);
+            if (hand != null) {
+                state.getPlayerA().setMaxHandSize(hand);
+                state.getPlayerB().setMaxHandSize(hand);
+            }
+            if (copies != null) engine.setCopiesPerCard(copies);
+        });
+        String a = spec.policyA() != null ? spec.policyA() : "random";
+        String b = spec.policyB() != null ? spec.policyB() : "random";
+        long seed = spec.seed() != null ? spec.seed() : System.currentTimeMillis();
+        String label = a + " vs " + b + ", " + games + " games from seed " + seed;
+        return queue.submit(label, spec.priority() != null ? spec.priority() : 0, sim, new SeedRange(seed, games),
+                Bots.byName(a, index), Bots.byName(b, index));
+    }
+
+    private static void checkRange(String field, Integer value, int min, int max) {
+        if (value != null && (value < min || value > max)) {
+            throw new IllegalArgumentException(field + " must be between " + min + " and " + max);
+        }
+    }
+
+    public SimulationJobQueue queue() { return queue; }
+
+    @PreDestroy
+    public void shutdown() {
+        queue.close();
+    }
+}
@@ -0,0 +1,130 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.BeliefTracker;
+import com.officeduel.engine.bot.GreedyPolicy;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.sim.MatchSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BeliefTrackerTest {
+
+    @Test
+    public void samplesDealExactlyTheUnseenCards() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        for (long seed = 0; seed < 3; seed++) {
+            GameState g = sim.newMatch(seed);
+            TurnEngine engine = new TurnEngine(g, sim.index());
+            engine.setVerbose(false);
+            engine.startMatch();
+            int dealt = cardCount(g);
+            Policy[] random = { RandomPolicy.FACTORY.create(seed, 0), RandomPolicy.FACTORY.create(seed, 1) };
+            BeliefTracker beliefs = new BeliefTracker(sim.index(), 0, BeliefTracker.Settings.DEFAULT);
+            SplittableRandom rnd = new SplittableRandom(seed);
+            for (int t = 0; t < 60 && g.winnerIndexOrMinusOne() == -1; t++) {
+                beliefs.observe(g);
+                PlayerState opp = g.getPlayerB();
+                for (int k = 0; k < 4; k++) {
+                    GameState d = beliefs.sample(g, rnd);
+                    assertEquals(ids(g.getPlayerA().getHand()), ids(d.getPlayerA().getHand()));
+                    assertEquals(sorted(g.getPlayerA().getDeck()), sorted(d.getPlayerA().getDeck()));
+                    assertEquals(opp.getHand().size(), d.getPlayerB().getHand().size());
+                    assertEquals(opp.getDeck().size(), d.getPlayerB().getDeck().size());
+                    // The engine can duplicate a card an effect discards mid-turn; then only the sizes are known
+                    if (cardCount(g) == dealt) {
+                        List<String> before = new ArrayList<>(ids(opp.getHand()));
+                        before.addAll(ids(opp.getDeck()));
+                        List<String> after = new ArrayList<>(ids(d.getPlayerB().getHand()));
+                        after.addAll(ids(d.getPlayerB().getDeck()));
+                        before.sort(null);
+                        after.sort(null);
+                        assertEquals(before, after, "seed " + seed + " turn " + t);
+                    }
+                }
+                MatchSimulator.playTurn(g, engine, random);
+            }
+        }
+    }
+
+    @Test
+    public void offersMakeStrongerCardsLessLikelyInHand() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        GameState g = sim.newMatch(4);
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        engine.startMatch();
+        Policy[] policies = { RandomPolicy.FACTORY.create(4, 0), GreedyPolicy.factory(sim.index()).create(4, 1) };
+        for (int t = 0; t < 12 && g.winnerIndexOrMinusOne() == -1; t++) MatchSimulator.playTurn(g, engine, policies);
+
+        BeliefTracker informed = new BeliefTracker(sim.index(), 0, new BeliefTracker.Settings(2.0));
+        BeliefTracker uniform = new BeliefTracker(sim.index(), 0, new BeliefTracker.Settings(0.0));
+        informed.observe(g);
+        uniform.observe(g);
+        boolean shifted = false;
+        for (int i = 0; i < sim.index().size(); i++) {
+            assertEquals(1.0, uniform.handWeight(i));
+            assertTrue(informed.handWeight(i) > 0 && informed.handWeight(i) <= 1.0);
+            if (informed.handWeight(i) < 1.0) shifted = true;
+            assertEquals(uniform.unseen(i), informed.unseen(i));
+        }
+        assertTrue(shifted);
+    }
+
+    @Test
+    public void offersAreWeighedOnTheTableauTheyWereMadeAgainst() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        GameState g = sim.newMatch(9);
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        engine.startMatch();
+        Policy[] policies = { GreedyPolicy.factory(sim.index()).create(9, 0), GreedyPolicy.factory(sim.index()).create(9, 1) };
+        BeliefTracker live = new BeliefTracker(sim.index(), 0, new BeliefTracker.Settings(2.0));
+        for (int t = 0; t < 16 && g.winnerIndexOrMinusOne() == -1; t++) {
+            MatchSimulator.playTurn(g, engine, policies);
+            live.observe(g);
+        }
+        assertEquals(g.getCommandLog().size(), g.getOfferTableaus().size());
+        assertFalse(g.getPlayerB().getTableau().isEmpty());
+
+        // Caught up in one go, long after the opponent's tableau changed, the belief matches the one kept turn by turn
+        BeliefTracker late = new BeliefTracker(sim.index(), 0, new BeliefTracker.Settings(2.0));
+        late.observe(g);
+        for (int i = 0; i < sim.index().size(); i++) assertEquals(live.handWeight(i), late.handWeight(i), 1e-12);
+    }
+
+    private static int cardCount(GameState g) {
+        int n = 0;
+        for (PlayerState p : List.of(g.getPlayerA(), g.getPlayerB())) {
+            n += p.getHand().size() + p.getDeck().size() + p.getTableau().size() + p.getDiscard().size();
+        }
+        return n;
+    }
+
+    private static List<String> ids(Iterable<Cards> cards) {
+        List<String> out = new ArrayList<>();
+        for (Cards c : cards) out.add(c.cardId());
+        return out;
+    }
+
+    private static List<String> sorted(Iterable<Cards> cards) {
+        List<String> out = ids(cards);
+        out.sort(null);
+        return out;
+    }
+}
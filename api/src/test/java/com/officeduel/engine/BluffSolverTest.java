@@ -0,0 +1,86 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.BluffSolver;
+import com.officeduel.engine.bot.Bots;
+import com.officeduel.engine.bot.GreedyPolicy;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.PolicyTable;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.sim.MatchSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BluffSolverTest {
+
+    @Test
+    public void solvesAMixedBluffExactly() {
+        Policy.Offer strong = new Policy.Offer("A", "B");
+        Policy.Offer weak = new Policy.Offer("A", "C");
+        // Both offers show A, so the picker cannot tell them apart; neither side has a pure best reply
+        Map<Policy.Offer, double[]> values = Map.of(strong, new double[] { 2, -1 }, weak, new double[] { -1, 1 });
+        BluffSolver.Leaves leaves = (o, up) -> values.get(o)[up ? 1 : 0];
+        BluffSolver.Equilibrium e = BluffSolver.solve(List.of(strong, weak), leaves, 100_000, 1e-5);
+
+        assertEquals(0.4, e.offerProbabilities()[0], 1e-3);
+        assertEquals(0.6, e.faceUpProbability("A"), 1e-3);
+        assertEquals(0.2, e.value(), 1e-3);
+        assertTrue(BluffSolver.exploitability(e, leaves) < 1e-5);
+    }
+
+    @Test
+    public void realBluffsAreNearlyUnexploitableAndShareMirroredSolutions() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        BluffSolver solver = new BluffSolver(sim.index(), BluffSolver.Settings.DEFAULT);
+        SplittableRandom rnd = new SplittableRandom(3);
+        int positions = 0;
+        for (long seed = 0; seed < 5; seed++) {
+            GameState g = sim.newMatch(seed);
+            TurnEngine engine = new TurnEngine(g, sim.index());
+            engine.setVerbose(false);
+            g.setEffectFeedbackEnabled(false);
+            engine.startMatch();
+            Policy[] greedy = { new GreedyPolicy(sim.index()), new GreedyPolicy(sim.index()) };
+            for (int t = 0; t < 20 && g.winnerIndexOrMinusOne() == -1; t++) {
+                PlayerState offerer = g.getActivePlayer();
+                PlayerState picker = g.getInactivePlayer();
+                if (offerer.getHand().size() >= 2) {
+                    BluffSolver.Equilibrium e = solver.solve(g);
+                    BluffSolver.Leaves leaves = (o, up) -> GreedyPolicy.cardValue(sim.index(), offerer, up ? o.faceDownId() : o.faceUpId())
+                            - GreedyPolicy.cardValue(sim.index(), picker, up ? o.faceUpId() : o.faceDownId());
+                    assertTrue(BluffSolver.exploitability(e, leaves) < 0.01, "seed " + seed + " turn " + t);
+                    assertEquals(PolicyTable.offers(offerer.getHand()), e.offers());
+                    assertTrue(e.offers().contains(e.sampleOffer(rnd)));
+
+                    long hits = solver.hits();
+                    assertSame(e, solver.solve(g.mirror(new DeterministicRng(seed))));
+                    assertEquals(hits + 1, solver.hits());
+                    positions++;
+                }
+                MatchSimulator.playTurn(g, engine, greedy);
+            }
+        }
+        assertTrue(positions > 20);
+    }
+
+    @Test
+    public void equilibriumBotPlaysWholeMatches() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        Policy.Factory bot = Bots.byName("equilibrium", sim.index());
+        for (long seed = 0; seed < 10; seed++) {
+            assertNotNull(sim.play(seed, bot, GreedyPolicy.factory(sim.index()), null));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.Canonical;
+import com.officeduel.engine.bot.EvaluationCache;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.sim.MatchSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CanonicalTest {
+
+    @Test
+    public void mirroredPositionsPlayOutMirrored() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        for (long seed = 0; seed < 5; seed++) {
+            GameState g = sim.newMatch(seed);
+            TurnEngine engine = new TurnEngine(g, sim.index());
+            engine.setVerbose(false);
+            g.setEffectFeedbackEnabled(false);
+            engine.startMatch();
+            Policy[] random = { RandomPolicy.FACTORY.create(seed, 0), RandomPolicy.FACTORY.create(seed, 1) };
+            for (int t = 0; t < 3 + seed; t++) MatchSimulator.playTurn(g, engine, random);
+
+            GameState a = g.copy(new DeterministicRng(seed));
+            GameState b = g.mirror(new DeterministicRng(seed));
+            assertEquals(Canonical.key(g), Canonical.key(b));
+            assertNotEquals(Canonical.flipped(a), Canonical.flipped(b));
+            for (int t = 0; t < 20 && a.winnerIndexOrMinusOne() == -1; t++) {
+                if (a.getActivePlayer().getHand().size() < 2) break;
+                play(a, sim, t);
+                play(b, sim, t);
+                assertEquals(Canonical.key(a), Canonical.key(b), "seed " + seed + " turn " + t);
+                assertEquals(-a.getSharedDotCounter(), b.getSharedDotCounter());
+                assertEquals(Canonical.seat(a, a.getActivePlayerIndex()), Canonical.seat(b, b.getActivePlayerIndex()));
+            }
+            int winner = a.winnerIndexOrMinusOne();
+            assertEquals(winner < 0 ? winner : 1 - winner, b.winnerIndexOrMinusOne());
+        }
+    }
+
+    @Test
+    public void flippingAnEntryTwiceGivesItBack() {
+        EvaluationCache.Entry exact = new EvaluationCache.Entry(0.75, 0.75, 0.625, 0.25, 7, Integer.MAX_VALUE);
+        EvaluationCache.Entry flipped = Canonical.entry(exact, true);
+        assertEquals(0.25, flipped.lower());
+        assertEquals(0.25, flipped.upper());
+        assertEquals(0.125, flipped.win());
+        assertEquals(0.25, flipped.draw());
+        assertEquals(7, flipped.move());
+        assertEquals(exact, Canonical.entry(flipped, true));
+        assertSame(exact, Canonical.entry(exact, false));
+
+        EvaluationCache.Entry bound = new EvaluationCache.Entry(0.5, 1.0, Double.NaN, Double.NaN, -1, 2);
+        EvaluationCache.Entry back = Canonical.entry(bound, true);
+        assertEquals(0.0, back.lower());
+        assertEquals(0.5, back.upper());
+        assertTrue(Double.isNaN(back.win()));
+        assertEquals(bound, Canonical.entry(back, true));
+    }
+
+    /** The mover offers its first two cards and the other seat takes the face-up one on even turns. */
+    private static void play(GameState g, MatchSimulator sim, int turn) {
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        String up = g.getActivePlayer().getHand().get(0).cardId();
+        String down = g.getActivePlayer().getHand().get(1).cardId();
+        g.setFaceUpCardId(up);
+        g.setFaceDownCardId(down);
+        g.setPhase(GameState.Phase.OPPONENT_PICK);
+        if (turn % 2 == 0) engine.playTurnWithChoice(up, down);
+        else engine.playTurnWithChoice(down, up);
+    }
+}
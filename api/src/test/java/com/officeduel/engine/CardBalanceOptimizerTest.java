@@ -0,0 +1,38 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.sim.CardBalanceOptimizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardBalanceOptimizerTest {
+    @Test
+    public void searchIsDeterministicAndStaysInBounds(@TempDir Path dir) throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        CardBalanceOptimizer.Settings settings = new CardBalanceOptimizer.Settings(5, 2, 2, 150);
+        CardBalanceOptimizer.Objective objective = CardBalanceOptimizer.Objective.parse("parity=1,flat=0.1,length=0.1,turns=15");
+        CardBalanceOptimizer serial = new CardBalanceOptimizer(defs, CardBalanceOptimizer.allFields(), objective, settings, 3L, RandomPolicy.FACTORY);
+        CardBalanceOptimizer parallel = new CardBalanceOptimizer(defs, CardBalanceOptimizer.allFields(), objective, settings, 3L, RandomPolicy.FACTORY);
+
+        CardBalanceOptimizer.Candidate a = serial.run(1, null);
+        CardBalanceOptimizer.Candidate b = parallel.run(3, null);
+        assertArrayEquals(a.genome(), b.genome());
+        assertEquals(a.loss(), b.loss(), 0.0);
+
+        for (int i = 0; i < a.genome().length; i++) {
+            CardBalanceOptimizer.Gene g = serial.genes().get(i);
+            assertTrue(a.genome()[i] >= g.min() && a.genome()[i] <= g.max());
+        }
+
+        Path out = dir.resolve("best.json");
+        CardDefinitionLoader.write(out, serial.apply(a.genome()));
+        assertEquals(serial.apply(a.genome()), CardDefinitionLoader.load(out));
+        assertEquals(defs, serial.apply(serial.baseGenome()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.sim.CardBalanceStats;
+import com.officeduel.engine.sim.SimulationRunner;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardBalanceStatsTest {
+    @Test
+    public void parallelRunMatchesSerialRun() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        CardBalanceStats serial = SimulationRunner.runBalance(defs, 42L, 300, 1);
+        CardBalanceStats parallel = SimulationRunner.runBalance(defs, 42L, 300, 3);
+
+        assertEquals(300, serial.games());
+        assertEquals(serial.firstSeatWins(), parallel.firstSeatWins());
+        assertEquals(serial.totalTurns(), parallel.totalTurns());
+        assertEquals(serial.report(), parallel.report());
+    }
+
+    @Test
+    public void countersAreConsistent() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        CardBalanceStats stats = SimulationRunner.runBalance(defs, 7L, 200, 1);
+
+        assertEquals(stats.games(), stats.firstSeatWins() + stats.secondSeatWins() + stats.draws());
+        for (int c = 0; c < defs.cards().size(); c++) {
+            // Every resolution is either picked or left, and lands in exactly one tier bucket
+            assertEquals(stats.plays(c), stats.picked(c) + stats.left(c));
+            long tierTotal = 0;
+            for (int t = 1; t <= stats.maxTier(); t++) tierTotal += stats.tierHits(c, t);
+            assertEquals(stats.plays(c), tierTotal);
+            assertTrue(stats.seatGamesWon(c) <= stats.seatGamesPlayed(c));
+            assertTrue(stats.seatGamesPlayed(c) <= 2 * stats.games());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.cards.CardSetTransforms;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.sim.CardSetComparison;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SeedRange;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardSetComparisonTest {
+    @Test
+    public void identicalSetsHaveZeroPairedDifference() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        CardSetComparison.Result r = new CardSetComparison(new MatchSimulator(defs), new MatchSimulator(defs))
+                .run(new SeedRange(3L, 400L), RandomPolicy.FACTORY, RandomPolicy.FACTORY, 2);
+
+        assertTrue(r.changedCards().isEmpty());
+        assertEquals(0.0, r.firstSeat().delta(), 0.0);
+        assertEquals(0.0, r.firstSeat().halfWidth(), 1e-12);
+        assertTrue(r.firstSeat().unpairedHalfWidth() > 0);
+    }
+
+    @Test
+    public void pairingNarrowsTheIntervalForASingleCardChange() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        String target = defs.cards().get(0).id();
+        CardDefinitionSet revised = CardSetTransforms.mapActions(defs, (card, a) ->
+                card.id().equals(target) && a.amount() != null && a.amount() > 0
+                        ? CardSetTransforms.withNumbers(a, a.amount() + 2, a.count(), a.duration_turns(), a.delta()) : a);
+        SeedRange seeds = new SeedRange(9L, 1_500L);
+
+        CardSetComparison.Result serial = new CardSetComparison(new MatchSimulator(defs), new MatchSimulator(revised))
+                .run(seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1);
+        CardSetComparison.Result parallel = new CardSetComparison(new MatchSimulator(defs), new MatchSimulator(revised))
+                .run(seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 3);
+
+        assertEquals(List.of(target), serial.changedCards());
+        assertEquals(serial, parallel);
+        assertTrue(serial.firstSeat().halfWidth() < serial.firstSeat().unpairedHalfWidth());
+        CardSetComparison.Diff changed = serial.cards().get(0);
+        assertEquals(target, changed.label());
+        assertTrue(changed.halfWidth() < changed.unpairedHalfWidth());
+    }
+}
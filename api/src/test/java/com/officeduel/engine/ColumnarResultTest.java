@@ -0,0 +1,47 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.sim.CardBalanceStats;
+import com.officeduel.engine.sim.ColumnarResultReader;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SeedRange;
+import com.officeduel.engine.sim.SimulationRunner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarResultTest {
+    @Test
+    public void columnsRoundTripAgainstBalanceStats(@TempDir Path dir) throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        SeedRange seeds = new SeedRange(500L, 2_500L);
+        long written = SimulationRunner.writeColumns(sim, seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, dir, 3);
+        CardBalanceStats stats = SimulationRunner.runBalance(sim, seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1);
+
+        long[] wins = new long[3];
+        long[] turns = new long[1];
+        long[] plays = new long[defs.cards().size()];
+        long[] expectedSeed = { seeds.start() };
+        try (ColumnarResultReader reader = new ColumnarResultReader(dir)) {
+            long rows = reader.scan((seed, winner, t, dot, p) -> {
+                assertEquals(expectedSeed[0]++, seed);
+                wins[winner + 1]++;
+                turns[0] += t;
+                for (int i = 0; i < p.length; i++) plays[i % plays.length] += Byte.toUnsignedInt(p[i]);
+            });
+            assertEquals(written, rows);
+        }
+        assertEquals(seeds.count(), written);
+        assertEquals(stats.firstSeatWins(), wins[1]);
+        assertEquals(stats.secondSeatWins(), wins[2]);
+        assertEquals(stats.draws(), wins[0]);
+        assertEquals(stats.totalTurns(), turns[0]);
+        for (int c = 0; c < plays.length; c++) assertEquals(stats.plays(c), plays[c]);
+    }
+}
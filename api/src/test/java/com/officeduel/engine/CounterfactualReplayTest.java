@@ -0,0 +1,71 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.cards.CardSetTransforms;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.replay.Replay;
+import com.officeduel.engine.replay.ReplaySerializer;
+import com.officeduel.engine.sim.CounterfactualReplay;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SeedRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CounterfactualReplayTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void unchangedCardsReproduceEveryArchivedMatch() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        Path archive = dir.resolve("matches.jsonl");
+        try (Writer out = Files.newBufferedWriter(archive)) {
+            assertEquals(300, CounterfactualReplay.archive(sim, new SeedRange(11L, 300L), RandomPolicy.FACTORY,
+                    RandomPolicy.FACTORY, out, 2));
+        }
+        List<Replay> replays = ReplaySerializer.readArchive(archive);
+        assertEquals(300, replays.size());
+        assertEquals(11L, replays.get(0).seed());
+        assertFalse(replays.get(0).commands().isEmpty());
+
+        CounterfactualReplay replay = new CounterfactualReplay(sim, RandomPolicy.FACTORY);
+        for (Replay r : replays.subList(0, 20)) {
+            CounterfactualReplay.Outcome o = replay.replay(r);
+            assertFalse(o.diverged(), "seed " + r.seed());
+            assertEquals(r.commands().size(), o.followedCommands());
+            assertEquals(r.winner(), o.newWinner());
+        }
+        CounterfactualReplay.Summary s = replay.run(replays, 3);
+        assertEquals(300, s.games());
+        assertEquals(0, s.diverged());
+        assertEquals(0, s.flipped());
+    }
+
+    @Test
+    public void revisedCardsDivergeAndAreSummarisedIndependentlyOfThreads() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        Path archive = dir.resolve("matches.jsonl");
+        try (Writer out = Files.newBufferedWriter(archive)) {
+            CounterfactualReplay.archive(new MatchSimulator(defs), new SeedRange(5L, 200L), RandomPolicy.FACTORY,
+                    RandomPolicy.FACTORY, out, 1);
+        }
+        List<Replay> replays = ReplaySerializer.readArchive(archive);
+        CardDefinitionSet revised = CardSetTransforms.scaleAmounts(defs, 2.0);
+        CounterfactualReplay replay = new CounterfactualReplay(new MatchSimulator(revised), RandomPolicy.FACTORY);
+
+        CounterfactualReplay.Summary serial = replay.run(replays, 1);
+        CounterfactualReplay.Summary parallel = replay.run(replays, 4);
+        assertEquals(200, serial.games());
+        assertTrue(serial.diverged() > 0);
+        assertEquals(serial.report(), parallel.report());
+    }
+}
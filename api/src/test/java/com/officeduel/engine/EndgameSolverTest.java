@@ -0,0 +1,216 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.EndgameSolver;
+import com.officeduel.engine.bot.EvaluationCache;
+import com.officeduel.engine.bot.GreedyPolicy;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.sim.MatchSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndgameSolverTest {
+
+    @Test
+    public void scriptedRngAsksTheOracle() {
+        DeterministicRng rng = DeterministicRng.scripted(bound -> bound - 1);
+        assertEquals(6, rng.nextInt(7));
+        assertEquals(12, rng.nextInt(3, 13));
+        assertTrue(rng.nextBoolean());
+        assertThrows(UnsupportedOperationException.class, rng::nextDouble);
+    }
+
+    @Test
+    public void exhaustedDecksAreSolvedOutright() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        GameState g = sim.newMatch(11);
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        engine.startMatch();
+        for (PlayerState p : new PlayerState[] { g.getPlayerA(), g.getPlayerB() }) {
+            p.getDeck().clear();
+            while (p.getHand().size() > 3) p.getHand().remove(p.getHand().size() - 1);
+        }
+        int seat = g.getActivePlayerIndex();
+
+        EndgameSolver solver = new EndgameSolver(sim.index(), EndgameSolver.Settings.DEFAULT);
+        assertTrue(solver.isEndgame(g));
+        Optional<EndgameSolver.Solution> solution = solver.solve(g, seat);
+        assertTrue(solution.isPresent());
+        EndgameSolver.Solution s = solution.get();
+        long firstNodes = solver.lastNodes();
+        assertTrue(g.getActivePlayer().getHand().stream().anyMatch(c -> c.cardId().equals(s.offer().faceUpId())));
+        assertTrue(s.winProbability() >= 0 && s.drawProbability() >= 0 && s.winProbability() + s.drawProbability() <= 1 + 1e-9);
+        // The second solve reuses the memoized positions
+        assertEquals(s, solver.solve(g, seat).orElseThrow());
+        assertTrue(solver.lastNodes() < firstNodes);
+    }
+
+    @Test
+    public void solversReuseEachOthersResultsThroughASharedCache() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        GameState g = sim.newMatch(12);
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        engine.startMatch();
+        for (PlayerState p : new PlayerState[] { g.getPlayerA(), g.getPlayerB() }) {
+            p.getDeck().clear();
+            while (p.getHand().size() > 3) p.getHand().remove(p.getHand().size() - 1);
+        }
+        int seat = g.getActivePlayerIndex();
+
+        EvaluationCache shared = new EvaluationCache(new EvaluationCache.Settings(1 << 14, 8, 4));
+        EndgameSolver first = new EndgameSolver(sim.index(), EndgameSolver.Settings.DEFAULT, shared);
+        EndgameSolver second = new EndgameSolver(sim.index(), EndgameSolver.Settings.DEFAULT, shared);
+        EndgameSolver.Solution s = first.solve(g, seat).orElseThrow();
+        // Entries read back for the other seat go through 1 - p, so values agree up to rounding
+        EndgameSolver.Solution again = second.solve(g, seat).orElseThrow();
+        assertEquals(s.offer(), again.offer());
+        assertEquals(s.faceUp(), again.faceUp());
+        assertEquals(s.winProbability(), again.winProbability(), 1e-12);
+        assertEquals(s.drawProbability(), again.drawProbability(), 1e-12);
+        assertTrue(second.lastNodes() < first.lastNodes(), second.lastNodes() + " vs " + first.lastNodes());
+        assertTrue(shared.hits() > 0);
+    }
+
+    @Test
+    public void provenWinsHoldForEitherPick() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        int proofs = 0;
+        for (long seed = 0; seed < 30; seed++) {
+            GameState g = sim.newMatch(seed);
+            TurnEngine engine = new TurnEngine(g, sim.index());
+            engine.setVerbose(false);
+            g.setEffectFeedbackEnabled(false);
+            engine.startMatch();
+            Policy[] policies = { GreedyPolicy.factory(sim.index()).create(seed, 0), RandomPolicy.FACTORY.create(seed, 1) };
+            EndgameSolver solver = new EndgameSolver(sim.index(), EndgameSolver.Settings.DEFAULT);
+            for (int t = 0; t < sim.maxTurns() && g.winnerIndexOrMinusOne() == -1; t++) {
+                int seat = g.getActivePlayerIndex();
+                if (!g.getActivePlayer().getHand().isEmpty()) {
+                    Optional<EndgameSolver.Solution> s = solver.solve(g, seat);
+                    if (s.isPresent() && s.get().winProbability() == 1.0) {
+                        proofs++;
+                        Policy.Offer o = s.get().offer();
+                        for (int k = 0; k < 4; k++) {
+                            GameState up = g.copy(new DeterministicRng(k));
+                            play(up, sim, o, true);
+                            assertEquals(seat, up.winnerIndexOrMinusOne(), "seed " + seed + " turn " + t);
+                            GameState down = g.copy(new DeterministicRng(k));
+                            play(down, sim, o, false);
+                            assertEquals(seat, down.winnerIndexOrMinusOne(), "seed " + seed + " turn " + t);
+                        }
+                    }
+                }
+                MatchSimulator.playTurn(g, engine, policies);
+            }
+        }
+        assertTrue(proofs > 0);
+    }
+
+    @Test
+    public void provenPicksHoldWhateverIsFaceDown() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        int proofs = 0;
+        for (long seed = 0; seed < 20; seed++) {
+            for (int dots = -4; dots <= 4; dots++) {
+                // Empty decks, the offerer down to the two cards it offers and the picker to one card
+                GameState g = sim.newMatch(seed);
+                TurnEngine engine = new TurnEngine(g, sim.index());
+                engine.setVerbose(false);
+                g.setEffectFeedbackEnabled(false);
+                engine.startMatch();
+                for (PlayerState p : new PlayerState[] { g.getPlayerA(), g.getPlayerB() }) p.getDeck().clear();
+                while (g.getActivePlayer().getHand().size() > 2) g.getActivePlayer().getHand().remove(0);
+                while (g.getInactivePlayer().getHand().size() > 1) g.getInactivePlayer().getHand().remove(0);
+                g.setSharedDotCounter(dots);
+                int picker = 1 - g.getActivePlayerIndex();
+                Policy.Offer o = new Policy.Offer(g.getActivePlayer().getHand().get(0).cardId(),
+                        g.getActivePlayer().getHand().get(1).cardId());
+                g.setFaceUpCardId(o.faceUpId());
+                g.setFaceDownCardId(o.faceDownId());
+                g.setPhase(GameState.Phase.OPPONENT_PICK);
+
+                Optional<EndgameSolver.Solution> s = new EndgameSolver(sim.index(), EndgameSolver.Settings.DEFAULT).solve(g, picker);
+                if (s.isEmpty()) continue;
+                // Only a certain result can be checked on a single replay
+                double win = s.get().winProbability(), draw = s.get().drawProbability();
+                int expected = win > 1 - 1e-9 ? picker : draw > 1 - 1e-9 ? -1 : win + draw < 1e-9 ? 1 - picker : -2;
+                if (expected == -2) continue;
+                proofs++;
+                for (int k = 0; k < 8; k++) {
+                    GameState after = g.copy(new DeterministicRng(k));
+                    TurnEngine e = new TurnEngine(after, sim.index());
+                    e.setVerbose(false);
+                    if (s.get().faceUp()) e.playTurnWithChoice(o.faceUpId(), o.faceDownId());
+                    else e.playTurnWithChoice(o.faceDownId(), o.faceUpId());
+                    Policy[] random = { RandomPolicy.FACTORY.create(k, 0), RandomPolicy.FACTORY.create(k, 1) };
+                    for (int t = 0; t < 4 && after.winnerIndexOrMinusOne() == -1; t++) MatchSimulator.playTurn(after, e, random);
+                    assertEquals(expected, after.winnerIndexOrMinusOne(), "seed " + seed + " dots " + dots);
+                }
+            }
+        }
+        assertTrue(proofs > 0);
+    }
+
+    @Test
+    public void picksAreNotProvenOnAGuessedFaceDownCard() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        int picks = 0;
+        for (long seed = 0; seed < 60; seed++) {
+            GameState g = sim.newMatch(seed);
+            TurnEngine engine = new TurnEngine(g, sim.index());
+            engine.setVerbose(false);
+            g.setEffectFeedbackEnabled(false);
+            engine.startMatch();
+            Policy[] random = { RandomPolicy.FACTORY.create(seed, 0), RandomPolicy.FACTORY.create(seed, 1) };
+            EndgameSolver solver = new EndgameSolver(sim.index(), EndgameSolver.Settings.DEFAULT);
+            for (int t = 0; t < sim.maxTurns() && g.winnerIndexOrMinusOne() == -1; t++) {
+                int offerer = g.getActivePlayerIndex();
+                if (g.getActivePlayer().getHand().size() >= 2 && !g.getActivePlayer().isSkipNextTurn()) {
+                    Policy.Offer o = random[offerer].chooseOffer(g, offerer);
+                    GameState pending = g.copy(new DeterministicRng(t));
+                    pending.setFaceUpCardId(o.faceUpId());
+                    pending.setFaceDownCardId(o.faceDownId());
+                    pending.setPhase(GameState.Phase.OPPONENT_PICK);
+                    if (solver.isEndgame(pending)) picks++;
+                    Optional<EndgameSolver.Solution> s = solver.solve(pending, 1 - offerer);
+                    if (s.isPresent() && s.get().winProbability() > 1 - 1e-9) {
+                        for (int k = 0; k < 8; k++) {
+                            GameState after = g.copy(new DeterministicRng(k));
+                            play(after, sim, o, s.get().faceUp());
+                            assertEquals(1 - offerer, after.winnerIndexOrMinusOne(), "seed " + seed + " turn " + t);
+                        }
+                    }
+                }
+                MatchSimulator.playTurn(g, engine, random);
+            }
+        }
+        assertTrue(picks > 0);
+    }
+
+    private static void play(GameState g, MatchSimulator sim, Policy.Offer o, boolean faceUp) {
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        g.setFaceUpCardId(o.faceUpId());
+        g.setFaceDownCardId(o.faceDownId());
+        g.setPhase(GameState.Phase.OPPONENT_PICK);
+        if (faceUp) engine.playTurnWithChoice(o.faceUpId(), o.faceDownId());
+        else engine.playTurnWithChoice(o.faceDownId(), o.faceUpId());
+    }
+}
@@ -0,0 +1,98 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.EvaluationCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationCacheTest {
+    /** One bucket of four entries, so every store competes for the same slots. */
+    private static EvaluationCache oneBucket() {
+        return new EvaluationCache(new EvaluationCache.Settings(4, 1, 4));
+    }
+
+    private static EvaluationCache.Entry entry(double value, int depth) {
+        return new EvaluationCache.Entry(value, value, value, 0, 7, depth);
+    }
+
+    @Test
+    public void deeperResultsAreKept() {
+        EvaluationCache cache = oneBucket();
+        cache.put(42, entry(0.5, 5));
+        cache.put(42, entry(0.1, 3));
+        assertEquals(5, cache.get(42).depth());
+        assertEquals(0.5, cache.get(42).lower());
+        cache.put(42, entry(0.9, Integer.MAX_VALUE));
+        assertTrue(cache.get(42).exact());
+        assertEquals(0.9, cache.get(42).win());
+        assertNull(cache.get(43));
+    }
+
+    @Test
+    public void fullBucketsEvictStaleThenShallowEntries() {
+        EvaluationCache cache = oneBucket();
+        cache.put(1, entry(0, 5));
+        cache.put(2, entry(0, 1));
+        cache.put(3, entry(0, 3));
+        // The fourth store starts a new generation
+        cache.put(4, entry(0, 7));
+        cache.put(5, entry(0, 2));
+        assertNull(cache.get(2));
+        for (long k : new long[] { 1, 3, 4, 5 }) assertNotNull(cache.get(k));
+    }
+
+    @Test
+    public void deepEntriesAgeOutWhenNotProbed() {
+        EvaluationCache cache = oneBucket();
+        cache.put(1, entry(0, 100));
+        cache.put(2, entry(0, 1));
+        cache.put(3, entry(0, 1));
+        cache.put(4, entry(0, 1));
+        // Probing moves entries into the generation the fourth store started; the deep one is left behind
+        cache.get(2);
+        cache.get(3);
+        cache.put(5, entry(0, 1));
+        assertNull(cache.get(1));
+        for (long k : new long[] { 2, 3, 4, 5 }) assertNotNull(cache.get(k));
+    }
+
+    @Test
+    public void concurrentUseKeepsEntriesWhole() throws Exception {
+        EvaluationCache cache = new EvaluationCache(new EvaluationCache.Settings(1 << 10, 16, 4));
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> parts = new ArrayList<>();
+            for (int t = 0; t < 6; t++) {
+                long seed = t;
+                parts.add(pool.submit(() -> {
+                    SplittableRandom rnd = new SplittableRandom(seed);
+                    for (int i = 0; i < 100_000; i++) {
+                        long key = rnd.nextInt(5_000) * 0x9E3779B97F4A7C15L;
+                        if (rnd.nextBoolean()) {
+                            int v = (int) (key >>> 40);
+                            cache.put(key, new EvaluationCache.Entry(v, v, v, v, v, rnd.nextInt(10)));
+                        } else {
+                            EvaluationCache.Entry e = cache.get(key);
+                            if (e != null) {
+                                int v = (int) (key >>> 40);
+                                assertEquals((double) v, e.lower());
+                                assertEquals(v, e.move());
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : parts) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(cache.hits() > 0 && cache.hits() <= cache.probes());
+    }
+}
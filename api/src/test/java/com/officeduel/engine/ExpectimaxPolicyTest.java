@@ -0,0 +1,59 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.ExpectimaxPolicy;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.sim.MatchOutcome;
+import com.officeduel.engine.sim.MatchSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpectimaxPolicyTest {
+    private static final ExpectimaxPolicy.Settings SMALL = new ExpectimaxPolicy.Settings(2, 0, 2, 2, 1.0);
+
+    @Test
+    public void beatsRandomAndIsReproducible() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        Policy.Factory expectimax = ExpectimaxPolicy.factory(sim.index(), SMALL);
+        int wins = 0;
+        for (long seed = 0; seed < 6; seed++) {
+            boolean first = seed % 2 == 0;
+            MatchOutcome o = first ? sim.play(seed, expectimax, RandomPolicy.FACTORY, null)
+                    : sim.play(seed, RandomPolicy.FACTORY, expectimax, null);
+            if (o.winner() == (first ? 0 : 1)) wins++;
+        }
+        assertTrue(wins >= 5, "Expectimax won " + wins + " of 6");
+        assertEquals(sim.play(3, expectimax, RandomPolicy.FACTORY, null), sim.play(3, expectimax, RandomPolicy.FACTORY, null));
+    }
+
+    @Test
+    public void deepeningStopsAtTheDeadline() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        GameState g = sim.newMatch(5);
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        engine.startMatch();
+        int seat = g.getActivePlayerIndex();
+
+        ExpectimaxPolicy fixed = new ExpectimaxPolicy(sim.index(), SMALL, 1);
+        Policy.Offer offer = fixed.chooseOffer(g, seat);
+        assertEquals(2, fixed.lastDepth());
+        assertTrue(g.getActivePlayer().getHand().stream().anyMatch(c -> c.cardId().equals(offer.faceUpId())));
+
+        ExpectimaxPolicy timed = new ExpectimaxPolicy(sim.index(), new ExpectimaxPolicy.Settings(50, 30, 2, 2, 1.0), 1);
+        long t0 = System.nanoTime();
+        timed.chooseOffer(g, seat);
+        long millis = (System.nanoTime() - t0) / 1_000_000;
+        assertTrue(timed.lastDepth() >= 1 && timed.lastDepth() < 50);
+        assertTrue(millis < 2_000, "took " + millis + "ms");
+    }
+}
@@ -1,8 +1,13 @@
 package com.officeduel.engine;
 
 import com.officeduel.engine.rating.Glicko2;
+import com.officeduel.engine.rating.Glicko2Batch;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class Glicko2Test {
@@ -18,6 +23,112 @@ public class Glicko2Test {
         assertTrue(a1.rd() <= a.rd());
         assertTrue(b1.rd() <= b.rd());
     }
+
+    @Test
+    public void matchesGlickmanExample() {
+        Glicko2.Rating player = new Glicko2.Rating(1500, 200, 0.06);
+        List<Glicko2.Game> games = List.of(
+                new Glicko2.Game(new Glicko2.Rating(1400, 30, 0.06), 1.0),
+                new Glicko2.Game(new Glicko2.Rating(1550, 100, 0.06), 0.0),
+                new Glicko2.Game(new Glicko2.Rating(1700, 300, 0.06), 0.0));
+        Glicko2.Rating after = Glicko2.rate(player, games, 0.5);
+        assertEquals(1464.06, after.r(), 0.01);
+        assertEquals(151.52, after.rd(), 0.01);
+        assertEquals(0.05999, after.vol(), 0.00001);
+    }
+
+    @Test
+    public void idlePeriodOnlyInflatesRd() {
+        Glicko2.Rating player = new Glicko2.Rating(1620, 80, 0.06);
+        Glicko2.Rating after = Glicko2.rate(player, List.of());
+        assertEquals(player.r(), after.r());
+        assertEquals(player.vol(), after.vol());
+        assertTrue(after.rd() > player.rd());
+        assertEquals(Glicko2.DEFAULT_RD, Glicko2.rate(new Glicko2.Rating(1500, 349, 0.2), List.of()).rd());
+    }
+
+    @Test
+    public void batchMatchesScalarRatingForAnyThreadCount() throws Exception {
+        int players = 10_000;
+        int games = 40_000;
+        Random rnd = new Random(7);
+        double[] r = new double[players];
+        double[] rd = new double[players];
+        double[] vol = new double[players];
+        for (int i = 0; i < players; i++) {
+            r[i] = 1200 + rnd.nextDouble() * 600;
+            rd[i] = 50 + rnd.nextDouble() * 300;
+            vol[i] = 0.04 + rnd.nextDouble() * 0.04;
+        }
+        int[] pa = new int[games];
+        int[] pb = new int[games];
+        double[] score = new double[games];
+        for (int k = 0; k < games; k++) {
+            pa[k] = rnd.nextInt(players);
+            do pb[k] = rnd.nextInt(players); while (pb[k] == pa[k]);
+            score[k] = rnd.nextInt(3) / 2.0;
+        }
+
+        Glicko2.Rating[] before = new Glicko2.Rating[players];
+        List<List<Glicko2.Game>> perPlayer = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            before[i] = new Glicko2.Rating(r[i], rd[i], vol[i]);
+            perPlayer.add(new ArrayList<>());
+        }
+        for (int k = 0; k < games; k++) {
+            perPlayer.get(pa[k]).add(new Glicko2.Game(before[pb[k]], score[k]));
+            perPlayer.get(pb[k]).add(new Glicko2.Game(before[pa[k]], 1.0 - score[k]));
+        }
+
+        Glicko2Batch single = new Glicko2Batch(r.clone(), rd.clone(), vol.clone(), Glicko2.DEFAULT_TAU);
+        Glicko2Batch parallel = new Glicko2Batch(r.clone(), rd.clone(), vol.clone(), Glicko2.DEFAULT_TAU);
+        single.ratePeriod(pa, pb, score, games, 1);
+        parallel.ratePeriod(pa, pb, score, games, 4);
+        for (int i = 0; i < players; i++) {
+            Glicko2.Rating expected = Glicko2.rate(before[i], perPlayer.get(i));
+            assertEquals(expected, single.get(i), "player " + i);
+            assertEquals(expected, parallel.get(i), "player " + i);
+        }
+    }
+
+    @Test
+    public void lazyDecayMatchesEagerSweeps() throws Exception {
+        int players = 200;
+        Random rnd = new Random(11);
+        Glicko2Batch lazy = new Glicko2Batch(players);
+        Glicko2.Rating[] eager = new Glicko2.Rating[players];
+        for (int i = 0; i < players; i++) eager[i] = lazy.get(i);
+        for (int period = 0; period < 12; period++) {
+            // Only a few players are active per period, and every third period nobody plays
+            int games = period % 3 == 2 ? 0 : 15;
+            int[] pa = new int[games];
+            int[] pb = new int[games];
+            double[] score = new double[games];
+            List<List<Glicko2.Game>> perPlayer = new ArrayList<>();
+            for (int i = 0; i < players; i++) perPlayer.add(new ArrayList<>());
+            for (int k = 0; k < games; k++) {
+                pa[k] = rnd.nextInt(40);
+                do pb[k] = rnd.nextInt(40); while (pb[k] == pa[k]);
+                score[k] = rnd.nextInt(3) / 2.0;
+                perPlayer.get(pa[k]).add(new Glicko2.Game(eager[pb[k]], score[k]));
+                perPlayer.get(pb[k]).add(new Glicko2.Game(eager[pa[k]], 1.0 - score[k]));
+            }
+            Glicko2.Rating[] next = new Glicko2.Rating[players];
+            for (int i = 0; i < players; i++) next[i] = Glicko2.rate(eager[i], perPlayer.get(i));
+            eager = next;
+            if (games == 0) lazy.idlePeriod();
+            else lazy.ratePeriod(pa, pb, score, games, 2);
+        }
+        assertEquals(12, lazy.period());
+        for (int i = 0; i < players; i++) {
+            assertEquals(eager[i].r(), lazy.rating(i), 1e-9, "player " + i);
+            assertEquals(eager[i].rd(), lazy.rd(i), 1e-9, "player " + i);
+            assertEquals(eager[i].vol(), lazy.volatility(i), 1e-12, "player " + i);
+        }
+        assertEquals(0, lazy.lastActivePeriod(players - 1));
+        assertEquals(Glicko2.decay(new Glicko2.Rating(1500, 60, 0.06), 12),
+                new Glicko2Batch(new double[] {1500}, new double[] {60}, new double[] {0.06}, new int[1], 12, 0.5).get(0));
+    }
 }
 
 
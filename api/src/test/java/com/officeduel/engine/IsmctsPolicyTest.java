@@ -0,0 +1,125 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.IsmctsPolicy;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.model.Cards;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.model.PlayerState;
+import com.officeduel.engine.sim.MatchOutcome;
+import com.officeduel.engine.sim.MatchSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IsmctsPolicyTest {
+    private static final IsmctsPolicy.Settings SMALL = new IsmctsPolicy.Settings(200, 0, 0.7, 40);
+
+    @Test
+    public void determinizationOnlyMovesHiddenCards() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        GameState g = sim.newMatch(17);
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        engine.startMatch();
+        Policy[] random = { RandomPolicy.FACTORY.create(17, 0), RandomPolicy.FACTORY.create(17, 1) };
+        for (int t = 0; t < 6 && g.winnerIndexOrMinusOne() == -1; t++) MatchSimulator.playTurn(g, engine, random);
+        // Leave an offer by seat 1 on the table, to be picked by seat 0
+        if (g.getActivePlayerIndex() == 0) MatchSimulator.playTurn(g, engine, random);
+        PlayerState opp = g.getPlayerB();
+        String up = opp.getHand().get(0).cardId();
+        String down = opp.getHand().get(1).cardId();
+        g.setFaceUpCardId(up);
+        g.setFaceDownCardId(down);
+        g.setPhase(GameState.Phase.OPPONENT_PICK);
+
+        SplittableRandom rnd = new SplittableRandom(5);
+        for (int k = 0; k < 20; k++) {
+            GameState d = IsmctsPolicy.determinize(g, 0, rnd);
+            assertEquals(ids(g.getPlayerA().getHand()), ids(d.getPlayerA().getHand()));
+            assertEquals(sorted(g.getPlayerA().getDeck()), sorted(d.getPlayerA().getDeck()));
+            assertEquals(ids(g.getPlayerA().getTableau()), ids(d.getPlayerA().getTableau()));
+            assertEquals(opp.getHand().size(), d.getPlayerB().getHand().size());
+            List<String> before = new ArrayList<>(ids(opp.getHand()));
+            before.addAll(ids(opp.getDeck()));
+            List<String> after = new ArrayList<>(ids(d.getPlayerB().getHand()));
+            after.addAll(ids(d.getPlayerB().getDeck()));
+            before.sort(null);
+            after.sort(null);
+            assertEquals(before, after);
+            assertEquals(up, d.getFaceUpCardId());
+            assertTrue(ids(d.getPlayerB().getHand()).contains(up));
+            assertTrue(ids(d.getPlayerB().getHand()).contains(d.getFaceDownCardId()));
+            assertEquals(g.getSharedDotCounter(), d.getSharedDotCounter());
+        }
+        // The original is untouched and the policy can decide the pending pick
+        assertEquals(down, g.getFaceDownCardId());
+        IsmctsPolicy picker = new IsmctsPolicy(sim.index(), SMALL, 1);
+        picker.chooseFaceUp(g, 0);
+        assertEquals(200, picker.lastIterations());
+        assertEquals(GameState.Phase.OPPONENT_PICK, g.getPhase());
+    }
+
+    @Test
+    public void beatsRandomAndIsReproducible() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        Policy.Factory ismcts = IsmctsPolicy.factory(sim.index(), SMALL);
+        int wins = 0;
+        for (long seed = 0; seed < 10; seed++) {
+            boolean first = seed % 2 == 0;
+            MatchOutcome o = first ? sim.play(seed, ismcts, RandomPolicy.FACTORY, null)
+                    : sim.play(seed, RandomPolicy.FACTORY, ismcts, null);
+            if (o.winner() == (first ? 0 : 1)) wins++;
+        }
+        assertTrue(wins >= 8, "ISMCTS won " + wins + " of 10");
+        assertEquals(sim.play(3, ismcts, RandomPolicy.FACTORY, null), sim.play(3, ismcts, RandomPolicy.FACTORY, null));
+    }
+
+    @Test
+    public void parallelSearchSpendsTheWholeBudget() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        GameState g = sim.newMatch(11);
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        engine.startMatch();
+        int seat = g.getActivePlayerIndex();
+        GameState.Phase phase = g.getPhase();
+
+        // Root parallelism splits the iterations up front, so the decision does not depend on scheduling
+        IsmctsPolicy.Settings root = SMALL.withThreads(3, IsmctsPolicy.Parallelism.ROOT);
+        IsmctsPolicy a = new IsmctsPolicy(sim.index(), root, 9);
+        Policy.Offer offer = a.chooseOffer(g, seat);
+        assertEquals(200, a.lastIterations());
+        assertEquals(offer, new IsmctsPolicy(sim.index(), root, 9).chooseOffer(g, seat));
+
+        IsmctsPolicy tree = new IsmctsPolicy(sim.index(), SMALL.withThreads(3, IsmctsPolicy.Parallelism.TREE), 9);
+        Policy.Offer shared = tree.chooseOffer(g, seat);
+        assertEquals(200, tree.lastIterations());
+        List<String> hand = ids(g.getActivePlayer().getHand());
+        assertTrue(hand.contains(shared.faceUpId()) && hand.contains(shared.faceDownId()));
+        assertEquals(phase, g.getPhase());
+    }
+
+    private static List<String> ids(Iterable<Cards> cards) {
+        List<String> out = new ArrayList<>();
+        for (Cards c : cards) out.add(c.cardId());
+        return out;
+    }
+
+    private static List<String> sorted(Iterable<Cards> cards) {
+        List<String> out = ids(cards);
+        out.sort(null);
+        return out;
+    }
+}
@@ -0,0 +1,111 @@
+package com.officeduel.engine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.officeduel.engine.bot.Bots;
+import com.officeduel.engine.bot.GreedyPolicy;
+import com.officeduel.engine.bot.LinearEvaluator;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.sim.EvaluatorTrainer;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SeedRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinearEvaluatorTest {
+
+    @Test
+    public void trainingBeatsTheDotCounterAndIgnoresThreadCount() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        Policy.Factory greedy = GreedyPolicy.factory(sim.index());
+        EvaluatorTrainer.Settings settings = new EvaluatorTrainer.Settings(150, 0.6, 1e-4, 2);
+        SeedRange train = new SeedRange(0, 600);
+        SeedRange holdout = new SeedRange(10_000, 200);
+
+        EvaluatorTrainer.Report one = new EvaluatorTrainer(sim, settings, 1).train(train, holdout, greedy, greedy);
+        EvaluatorTrainer.Report three = new EvaluatorTrainer(sim, settings, 3).train(train, holdout, greedy, greedy);
+        assertArrayEquals(one.evaluator().weights(), three.evaluator().weights());
+        assertTrue(one.positions() > 0);
+        assertTrue(one.holdoutLogLoss() < one.baselineLogLoss(), one.holdoutLogLoss() + " vs " + one.baselineLogLoss());
+    }
+
+    @Test
+    public void mirroredPositionsGetTheSameValue() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        double[] w = new double[LinearEvaluator.featureCount(sim.index())];
+        for (int i = 0; i < w.length; i++) w[i] = Math.sin(i);
+        LinearEvaluator evaluator = new LinearEvaluator(sim.index(), w);
+        GameState g = sim.newMatch(3);
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        engine.startMatch();
+        Policy[] greedy = { new GreedyPolicy(sim.index()), new GreedyPolicy(sim.index()) };
+        for (int t = 0; t < 6 && g.winnerIndexOrMinusOne() == -1; t++) MatchSimulator.playTurn(g, engine, greedy);
+
+        GameState mirror = g.mirror(new DeterministicRng(0));
+        assertEquals(evaluator.moverWinProbability(g), evaluator.moverWinProbability(mirror), 1e-12);
+        assertEquals(evaluator.winProbability(g, 0), evaluator.winProbability(mirror, 1), 1e-12);
+        assertEquals(1.0, evaluator.winProbability(g, 0) + evaluator.winProbability(g, 1), 1e-12);
+    }
+
+    @Test
+    public void weightFilesRoundTripAndRefuseOtherFormats(@TempDir Path dir) throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        double[] w = new double[LinearEvaluator.featureCount(sim.index())];
+        for (int i = 0; i < w.length; i++) w[i] = i / 7.0 - 3;
+        Path file = dir.resolve("evaluator.json");
+        new LinearEvaluator(sim.index(), w).write(file, 1234, 0.625);
+        assertArrayEquals(w, LinearEvaluator.read(file, sim.index()).weights());
+
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode json = (ObjectNode) mapper.readTree(file.toFile());
+        json.put("format", LinearEvaluator.FORMAT + 1);
+        mapper.writeValue(file.toFile(), json);
+        assertThrows(IllegalStateException.class, () -> LinearEvaluator.read(file, sim.index()));
+
+        json.put("format", LinearEvaluator.FORMAT);
+        json.put("cardSet", "0");
+        mapper.writeValue(file.toFile(), json);
+        assertThrows(IllegalStateException.class, () -> LinearEvaluator.read(file, sim.index()));
+    }
+
+    @Test
+    public void expectimaxPlaysWithAnEvaluatorFile(@TempDir Path dir) throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        double[] w = new double[LinearEvaluator.featureCount(sim.index())];
+        for (int i = 0; i < w.length; i++) w[i] = 3 * Math.sin(i);
+        Path file = dir.resolve("evaluator.json");
+        new LinearEvaluator(sim.index(), w).write(file, 1, 0.5);
+
+        Policy.Factory plain = Bots.load("expectimax", sim.index());
+        Policy.Factory evaluated = Bots.load("expectimax:" + file, sim.index());
+        int differ = 0;
+        for (long seed = 0; seed < 10; seed++) {
+            GameState g = sim.newMatch(seed);
+            TurnEngine engine = new TurnEngine(g, sim.index());
+            engine.setVerbose(false);
+            engine.startMatch();
+            int seat = g.getActivePlayerIndex();
+            if (!plain.create(seed, seat).chooseOffer(g, seat).equals(evaluated.create(seed, seat).chooseOffer(g, seat))) differ++;
+        }
+        assertTrue(differ > 0);
+        assertNotNull(sim.play(0, evaluated, GreedyPolicy.factory(sim.index()), null));
+
+        assertThrows(IllegalArgumentException.class, () -> Bots.load("greedy:" + file, sim.index()));
+        assertThrows(IOException.class, () -> Bots.load("expectimax:" + dir.resolve("missing.json"), sim.index()));
+    }
+}
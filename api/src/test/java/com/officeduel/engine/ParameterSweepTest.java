@@ -0,0 +1,55 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.cards.CardSetTransforms;
+import com.officeduel.engine.core.DeterministicRng;
+import com.officeduel.engine.engine.CardIndex;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.sim.ParameterSweep;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterSweepTest {
+    @Test
+    public void sweepStopsEveryPointAndIsThreadIndependent() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        ParameterSweep.Settings settings = new ParameterSweep.Settings(200, 2_000, 0.03, 3.0);
+        List<ParameterSweep.Point> grid = ParameterSweep.grid(new int[] { 3, 8 }, new int[] { 4 }, new int[] { 3 }, new double[] { 1.0 });
+
+        List<ParameterSweep.PointResult> serial = new ParameterSweep(defs, 5L, grid, settings).run(1);
+        List<ParameterSweep.PointResult> parallel = new ParameterSweep(defs, 5L, grid, settings).run(3);
+
+        assertEquals(serial, parallel);
+        for (ParameterSweep.PointResult r : serial) {
+            assertNotEquals(ParameterSweep.Status.RUNNING, r.status());
+            assertTrue(r.games() <= settings.maxGamesPerPoint());
+            assertTrue(r.games() % settings.batchSize() == 0);
+        }
+    }
+
+    @Test
+    public void copiesPerCardAndAmountScaleApply() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        GameState g = new GameState(new DeterministicRng(1L));
+        TurnEngine engine = new TurnEngine(g, new CardIndex(defs));
+        engine.setVerbose(false);
+        engine.setCopiesPerCard(1);
+        engine.startMatch();
+        int cards = defs.cards().size();
+        assertEquals(cards, g.getPlayerA().getDeck().size() + g.getPlayerA().getHand().size());
+
+        CardDefinitionSet doubled = CardSetTransforms.scaleAmounts(defs, 2.0);
+        for (int c = 0; c < cards; c++) {
+            var before = defs.cards().get(c).tiers().get(0).actions().get(0);
+            var after = doubled.cards().get(c).tiers().get(0).actions().get(0);
+            if (before.amount() != null && before.amount() > 0) assertEquals(2 * before.amount(), after.amount());
+            else assertEquals(before.amount(), after.amount());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.GreedyPolicy;
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.PolicyTable;
+import com.officeduel.engine.bot.TablePolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.engine.TurnEngine;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.model.GameState;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SelfPlayTrainer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolicyTableTest {
+
+    @Test
+    public void tablesRoundTripAndRefuseOtherCardSets(@TempDir Path dir) throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        SplittableRandom rnd = new SplittableRandom(7);
+        int n = 5000;
+        long[] keys = new long[n];
+        int[] actions = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = rnd.nextLong();
+            actions[i] = rnd.nextInt(400);
+        }
+        Path file = dir.resolve("table.bin");
+        long kept = PolicyTable.write(file, sim.index(), keys, actions, n);
+        assertTrue(kept > n * 0.95, "kept " + kept);
+
+        PolicyTable table = PolicyTable.open(file, sim.index());
+        assertEquals(kept, table.entries());
+        int found = 0;
+        for (int i = 0; i < n; i++) {
+            int a = table.lookup(keys[i]);
+            if (a != PolicyTable.MISSING) {
+                assertEquals(actions[i], a);
+                found++;
+            }
+        }
+        assertEquals(kept, found);
+        assertEquals(PolicyTable.MISSING, table.lookup(rnd.nextLong()));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(16);
+            raf.writeLong(0);
+        }
+        assertThrows(IllegalStateException.class, () -> PolicyTable.open(file, sim.index()));
+    }
+
+    @Test
+    public void picksAndOffersOfOneStateNeverShareAnEntry(@TempDir Path dir) throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        GameState g = sim.newMatch(2);
+        TurnEngine engine = new TurnEngine(g, sim.index());
+        engine.setVerbose(false);
+        engine.startMatch();
+        int offerer = g.getActivePlayerIndex();
+        Policy.Offer offer = new GreedyPolicy(sim.index()).chooseOffer(g, offerer);
+        g.setFaceUpCardId(offer.faceUpId());
+        g.setFaceDownCardId(offer.faceDownId());
+        g.setPhase(GameState.Phase.OPPONENT_PICK);
+        long offerKey = PolicyTable.offerKey(sim.index(), g, offerer);
+        long pickKey = PolicyTable.pickKey(sim.index(), g, 1 - offerer);
+        assertEquals(0, offerKey & PolicyTable.PICK);
+        assertEquals(PolicyTable.PICK, pickKey & PolicyTable.PICK);
+
+        // One hash stored as an offer whose action reads as a legal pick, and as a pick: each kind finds only its own
+        long shared = offerKey;
+        Path file = dir.resolve("table.bin");
+        PolicyTable.write(file, sim.index(), new long[] { shared }, new int[] { 1 }, 1);
+        PolicyTable table = PolicyTable.open(file, sim.index());
+        assertEquals(1, table.lookup(shared));
+        assertEquals(PolicyTable.MISSING, table.lookup(shared | PolicyTable.PICK));
+
+        PolicyTable.write(file, sim.index(), new long[] { shared, shared | PolicyTable.PICK }, new int[] { 1, 0 }, 2);
+        table = PolicyTable.open(file, sim.index());
+        assertEquals(1, table.lookup(shared));
+        assertEquals(0, table.lookup(shared | PolicyTable.PICK));
+
+        PolicyTable.write(file, sim.index(), new long[] { offerKey, pickKey }, new int[] { PolicyTable.encode(sim.index(), offer), 1 }, 2);
+        TablePolicy bot = new TablePolicy(sim.index(), PolicyTable.open(file, sim.index()), new GreedyPolicy(sim.index()));
+        assertTrue(bot.chooseFaceUp(g, 1 - offerer));
+        g.setPhase(GameState.Phase.PLAY_TWO_CARDS);
+        assertEquals(offer, bot.chooseOffer(g, offerer));
+        assertEquals(2, bot.hits());
+    }
+
+    @Test
+    public void trainingIgnoresThreadCountAndTheTableIsPlayed(@TempDir Path dir) throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        SelfPlayTrainer.Settings settings = new SelfPlayTrainer.Settings(2, 600, 0.1, 1000, 1 << 16, 2);
+
+        SelfPlayTrainer one = new SelfPlayTrainer(sim, settings, 1);
+        SelfPlayTrainer.Report report = one.train(0);
+        assertEquals(1200, report.games());
+        assertTrue(report.decisions() > 0 && report.pairs() > 0);
+        Path a = dir.resolve("a.bin");
+        Path b = dir.resolve("b.bin");
+        long states = one.export(a);
+        SelfPlayTrainer three = new SelfPlayTrainer(sim, settings, 3);
+        three.train(0);
+        three.export(b);
+        assertTrue(states > 0);
+        assertArrayEquals(Files.readAllBytes(a), Files.readAllBytes(b));
+
+        PolicyTable table = PolicyTable.open(a, sim.index());
+        long hits = 0;
+        for (long seed = 5_000; seed < 5_020; seed++) {
+            TablePolicy bot = new TablePolicy(sim.index(), table, new GreedyPolicy(sim.index()));
+            sim.play(seed, bot, new GreedyPolicy(sim.index()), null);
+            hits += bot.hits();
+        }
+        assertTrue(hits > 0);
+    }
+}
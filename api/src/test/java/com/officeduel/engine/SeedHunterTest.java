@@ -0,0 +1,43 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.sim.CounterfactualReplay;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SeedHunter;
+import com.officeduel.engine.sim.SeedRange;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeedHunterTest {
+    @Test
+    public void findingsAreIndependentOfThreadsAndTheirLogsReplayCleanly() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        SeedHunter.Settings settings = new SeedHunter.Settings(40, 2, 100, 1, 5);
+        SeedRange seeds = new SeedRange(5_000L, 3_000L);
+
+        SeedHunter.Hunt serial = new SeedHunter(sim, RandomPolicy.FACTORY, RandomPolicy.FACTORY, settings).run(seeds, 1);
+        SeedHunter.Hunt parallel = new SeedHunter(sim, RandomPolicy.FACTORY, RandomPolicy.FACTORY, settings).run(seeds, 3);
+        assertEquals(3_000L, serial.games());
+        for (SeedHunter.Kind k : SeedHunter.Kind.values()) {
+            assertEquals(serial.hits(k), parallel.hits(k), k.name());
+            assertEquals(serial.findings(k), parallel.findings(k), k.name());
+        }
+        assertFalse(serial.findings().isEmpty());
+
+        CounterfactualReplay replay = new CounterfactualReplay(sim, RandomPolicy.FACTORY);
+        for (SeedHunter.Finding f : serial.findings()) {
+            assertTrue(f.value() >= 1);
+            CounterfactualReplay.Outcome o = replay.replay(f.repro());
+            assertEquals(f.repro().commands().size(), o.followedCommands(), f.kind() + " seed " + f.seed());
+        }
+        for (SeedHunter.Finding f : serial.findings(SeedHunter.Kind.LOPSIDED_OPENING)) {
+            assertTrue(f.repro().commands().size() <= 1);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.sim.CardBalanceStats;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SeedRange;
+import com.officeduel.engine.sim.ShardCoordinator;
+import com.officeduel.engine.sim.ShardWorker;
+import com.officeduel.engine.sim.SimulationRunner;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardCoordinatorTest {
+    @Test
+    public void shardedRunSurvivesDeadWorkerAndMatchesLocalRun() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        SeedRange seeds = new SeedRange(77L, 1_500L);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try (ShardCoordinator coordinator = new ShardCoordinator(sim, seeds, 250, "random", "random",
+                InetAddress.getLoopbackAddress(), 0)) {
+            coordinator.start();
+
+            // Takes a shard and hangs up without answering
+            try (Socket dead = new Socket(InetAddress.getLoopbackAddress(), coordinator.port())) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(dead.getInputStream(), StandardCharsets.UTF_8));
+                assertTrue(in.readLine().startsWith("CONFIG"));
+                assertTrue(in.readLine().startsWith("SHARD"));
+            }
+
+            Future<Integer> w1 = pool.submit(() -> ShardWorker.run(sim, "127.0.0.1", coordinator.port(), 1));
+            Future<Integer> w2 = pool.submit(() -> ShardWorker.run(sim, "127.0.0.1", coordinator.port(), 1));
+            CardBalanceStats sharded = coordinator.await();
+            assertTrue(w1.get() + w2.get() >= 6);
+
+            CardBalanceStats local = SimulationRunner.runBalance(sim, seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1);
+            assertEquals(seeds.count(), sharded.games());
+            assertArrayEquals(local.toCounters(), sharded.toCounters());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
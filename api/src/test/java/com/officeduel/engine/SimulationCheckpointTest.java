@@ -0,0 +1,61 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.Policy;
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.sim.CardBalanceStats;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SeedRange;
+import com.officeduel.engine.sim.SimulationCheckpoint;
+import com.officeduel.engine.sim.SimulationRunner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationCheckpointTest {
+    @Test
+    public void resumedRunIsIdenticalToUninterruptedRun(@TempDir Path dir) throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        SeedRange seeds = new SeedRange(11L, 3_000L);
+        String hash = SimulationCheckpoint.configHash(sim, seeds, SimulationRunner.DEFAULT_CHUNK, "random,random");
+        Path file = dir.resolve("ckpt.json");
+
+        // Dies partway through the third chunk, after two chunks were checkpointed
+        long crashSeed = seeds.start() + 2 * SimulationRunner.DEFAULT_CHUNK + 100;
+        Policy.Factory crashing = (seed, seat) -> {
+            if (seed == crashSeed) throw new IllegalStateException("simulated crash");
+            return RandomPolicy.FACTORY.create(seed, seat);
+        };
+        assertThrows(IllegalStateException.class, () -> SimulationRunner.runBalance(sim, seeds, crashing, crashing, 1,
+                SimulationCheckpoint.forBalance(file, hash, Duration.ZERO, sim.index())));
+        assertTrue(Files.exists(file));
+
+        CardBalanceStats resumed = SimulationRunner.runBalance(sim, seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 2,
+                SimulationCheckpoint.forBalance(file, hash, Duration.ZERO, sim.index()));
+        CardBalanceStats straight = SimulationRunner.runBalance(sim, seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1);
+        assertArrayEquals(straight.toCounters(), resumed.toCounters());
+        assertEquals(straight.report(), resumed.report());
+    }
+
+    @Test
+    public void checkpointOfAnotherConfigurationIsRefused(@TempDir Path dir) throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        SeedRange seeds = new SeedRange(1L, 200L);
+        Path file = dir.resolve("ckpt.json");
+        SimulationRunner.runBalance(sim, seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1,
+                SimulationCheckpoint.forBalance(file, SimulationCheckpoint.configHash(sim, seeds, SimulationRunner.DEFAULT_CHUNK, "random,random"),
+                        Duration.ZERO, sim.index()));
+        String otherHash = SimulationCheckpoint.configHash(sim, seeds, SimulationRunner.DEFAULT_CHUNK, "greedy,random");
+        assertNotEquals(otherHash, SimulationCheckpoint.configHash(sim, seeds, SimulationRunner.DEFAULT_CHUNK, "random,random"));
+        assertThrows(IllegalStateException.class, () -> SimulationRunner.runBalance(sim, seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1,
+                SimulationCheckpoint.forBalance(file, otherHash, Duration.ZERO, sim.index())));
+    }
+}
@@ -0,0 +1,63 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.sim.CardBalanceStats;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SeedRange;
+import com.officeduel.engine.sim.SimulationJobQueue;
+import com.officeduel.engine.sim.SimulationRunner;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationJobQueueTest {
+    @Test
+    public void finishedJobMatchesASynchronousRunAndReportsMonotonicProgress() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        SeedRange seeds = new SeedRange(21L, 1_000L);
+        try (SimulationJobQueue queue = new SimulationJobQueue(3, 4, 8, 128)) {
+            SimulationJobQueue.Job job = queue.submit("check", 0, sim, seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY);
+            List<Long> seen = Collections.synchronizedList(new ArrayList<>());
+            job.subscribe(p -> seen.add(p.gamesDone()));
+
+            SimulationJobQueue.Progress end = job.await(Duration.ofMinutes(1));
+            assertEquals(SimulationJobQueue.State.DONE, end.state());
+            assertEquals(1_000L, end.gamesDone());
+            CardBalanceStats expected = SimulationRunner.runBalance(sim, seeds, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1);
+            assertArrayEquals(expected.toCounters(), job.snapshot().toCounters());
+            for (int i = 1; i < seen.size(); i++) assertTrue(seen.get(i) >= seen.get(i - 1));
+            assertEquals(1_000L, (long) seen.get(seen.size() - 1));
+        }
+    }
+
+    @Test
+    public void higherPriorityOvertakesAndCancelledJobsStop() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        try (SimulationJobQueue queue = new SimulationJobQueue(1, 3, 8, 64)) {
+            SimulationJobQueue.Job slow = queue.submit("slow", 0, sim, new SeedRange(0L, 20_000L), RandomPolicy.FACTORY, RandomPolicy.FACTORY);
+            SimulationJobQueue.Job urgent = queue.submit("urgent", 5, sim, new SeedRange(0L, 256L), RandomPolicy.FACTORY, RandomPolicy.FACTORY);
+            assertThrows(IllegalStateException.class, () -> {
+                queue.submit("a", 0, sim, new SeedRange(0L, 64L), RandomPolicy.FACTORY, RandomPolicy.FACTORY);
+                queue.submit("b", 0, sim, new SeedRange(0L, 64L), RandomPolicy.FACTORY, RandomPolicy.FACTORY);
+            });
+
+            assertEquals(SimulationJobQueue.State.DONE, urgent.await(Duration.ofMinutes(1)).state());
+            assertTrue(slow.progress().gamesDone() < 20_000L);
+            assertTrue(queue.cancel(slow.id()));
+            SimulationJobQueue.Progress stopped = slow.await(Duration.ofSeconds(10));
+            assertEquals(SimulationJobQueue.State.CANCELLED, stopped.state());
+            assertTrue(stopped.gamesDone() < 20_000L);
+            assertFalse(queue.cancel(999L));
+        }
+    }
+}
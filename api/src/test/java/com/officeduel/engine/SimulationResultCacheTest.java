@@ -0,0 +1,70 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.RandomPolicy;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.cards.CardSetTransforms;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SeedRange;
+import com.officeduel.engine.sim.SimulationResultCache;
+import com.officeduel.engine.sim.SimulationRunner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationResultCacheTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void overlappingRequestOnlyPlaysMissingSeedsAndMatchesAFreshRun() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        SimulationResultCache cache = new SimulationResultCache(dir, 64L << 20);
+        String key = SimulationResultCache.key(sim, "default", "random,random");
+
+        SimulationResultCache.Result first = cache.balance(sim, key, new SeedRange(0L, 3_000L), RandomPolicy.FACTORY, RandomPolicy.FACTORY, 2);
+        assertEquals(0, first.cachedGames());
+
+        SeedRange wider = new SeedRange(1_024L, 3_072L);
+        SimulationResultCache.Result second = cache.balance(sim, key, wider, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 2);
+        // Blocks [1024, 2048) and [2048, 3000) are cached, [3000, 4096) is new
+        assertEquals(1_976L, second.cachedGames());
+        assertEquals(1_096L, second.computedGames());
+        assertArrayEquals(SimulationRunner.runBalance(sim, wider, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1).toCounters(),
+                second.stats().toCounters());
+
+        SimulationResultCache.Result again = cache.balance(sim, key, wider, RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1);
+        assertEquals(0, again.computedGames());
+        assertArrayEquals(second.stats().toCounters(), again.stats().toCounters());
+
+        // Starting inside a cached block: [2048, 3000) is reused, [1500, 2048) is played again
+        SimulationResultCache.Result offset = cache.balance(sim, key, new SeedRange(1_500L, 1_500L), RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1);
+        assertEquals(952L, offset.cachedGames());
+        assertEquals(548L, offset.computedGames());
+    }
+
+    @Test
+    public void keyIgnoresCosmeticEditsAndEvictionRespectsTheBound() throws Exception {
+        CardDefinitionSet defs = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        MatchSimulator sim = new MatchSimulator(defs);
+        CardDefinitionSet annotated = CardSetTransforms.mapActions(defs, (c, t, i, a) ->
+                new CardDefinitionSet.Action(a.type(), a.target(), a.amount(), a.count(), a.duration_turns(), a.status(),
+                        a.still_draws(), a.delta(), a.times(), a.condition(), a.source(), a.selection(), a.on_empty(),
+                        a.fallback_amount(), "designer note", a.opponent_side()));
+        String key = SimulationResultCache.key(sim, "default", "random,random");
+        assertEquals(key, SimulationResultCache.key(new MatchSimulator(annotated), "default", "random,random"));
+        assertNotEquals(key, SimulationResultCache.key(new MatchSimulator(CardSetTransforms.scaleAmounts(defs, 2.0)), "default", "random,random"));
+        assertNotEquals(key, SimulationResultCache.key(sim, "winPoints=6", "random,random"));
+
+        SimulationResultCache cache = new SimulationResultCache(dir, 4_000L);
+        for (int k = 0; k < 4; k++) {
+            cache.balance(sim, key, new SeedRange(k * 10_000L, 100L), RandomPolicy.FACTORY, RandomPolicy.FACTORY, 1);
+        }
+        assertTrue(cache.sizeOnDisk() <= 4_000L);
+        assertTrue(cache.sizeOnDisk() > 0);
+    }
+}
@@ -0,0 +1,88 @@
+package com.officeduel.engine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.officeduel.engine.cards.CardDefinitionSet;
+import com.officeduel.engine.cards.CardSetTransforms;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.SynergyMatrix;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SynergyMatrixTest {
+    @TempDir
+    Path tmp;
+
+    private static CardDefinitionSet firstCards(CardDefinitionSet defs, int n) {
+        return new CardDefinitionSet(defs.schemaVersion(), defs.rulesAssumptions(), defs.cards().subList(0, n));
+    }
+
+    @Test
+    public void addingACardOnlyRunsItsRowAndColumn() throws Exception {
+        CardDefinitionSet all = CardDefinitionLoader.load(Path.of("gameplay cards definition.txt"));
+        Path archive = tmp.resolve("arms.json");
+
+        SynergyMatrix three = new SynergyMatrix(new MatchSimulator(firstCards(all, 3)), 11L, 40);
+        // control + 3 single arms + 3 pairs
+        assertEquals(7, three.compute(2));
+        three.saveArms(archive);
+
+        SynergyMatrix four = new SynergyMatrix(new MatchSimulator(firstCards(all, 4)), 11L, 40);
+        four.loadArms(archive);
+        // new single arm + pairs with the 3 existing cards
+        assertEquals(4, four.compute(2));
+        assertEquals(0, four.compute(2));
+
+        SynergyMatrix.Cell reused = four.cell("C001", "C002");
+        SynergyMatrix.Cell original = three.cell("C001", "C002");
+        assertEquals(original.lift(), reused.lift(), 0.0);
+        assertEquals(four.cell("C002", "C004").lift(), four.cell("C004", "C002").lift(), 0.0);
+        assertTrue(reused.halfWidth() >= 0);
+
+        // The reused control and single arms match ones played now, so the new row pairs up with them seed by seed
+        Path rerun = tmp.resolve("pairs-only.json");
+        four.saveArms(rerun);
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode json = (ObjectNode) mapper.readTree(rerun.toFile());
+        ((ObjectNode) json.get("arms")).retain(List.of("C001+C002", "C001+C003", "C002+C003", "C001+C004", "C002+C004", "C003+C004"));
+        mapper.writeValue(rerun.toFile(), json);
+        SynergyMatrix fresh = new SynergyMatrix(new MatchSimulator(firstCards(all, 4)), 11L, 40);
+        fresh.loadArms(rerun);
+        assertEquals(5, fresh.compute(2));
+        assertEquals(four.report(6), fresh.report(6));
+    }
+
+    @Test
+    public void changedCardsInvalidateTheArchive() throws Exception {
+        CardDefinitionSet defs = firstCards(CardDefinitionLoader.load(Path.of("gameplay cards definition.txt")), 3);
+        Path archive = tmp.resolve("arms.json");
+        SynergyMatrix original = new SynergyMatrix(new MatchSimulator(defs), 11L, 40);
+        original.compute(2);
+        original.saveArms(archive);
+
+        SynergyMatrix rebalanced = new SynergyMatrix(new MatchSimulator(CardSetTransforms.scaleAmounts(defs, 2.0)), 11L, 40);
+        rebalanced.loadArms(archive);
+        assertEquals(7, rebalanced.compute(2));
+
+        SynergyMatrix fewer = new SynergyMatrix(new MatchSimulator(firstCards(defs, 2)), 11L, 40);
+        fewer.loadArms(archive);
+        // control + 2 single arms + 1 pair, all rerun since every deck was drawn from the removed card too
+        assertEquals(4, fewer.compute(2));
+    }
+
+    @Test
+    public void resultsDoNotDependOnThreadCount() throws Exception {
+        CardDefinitionSet defs = firstCards(CardDefinitionLoader.load(Path.of("gameplay cards definition.txt")), 3);
+        SynergyMatrix one = new SynergyMatrix(new MatchSimulator(defs), 5L, 150);
+        SynergyMatrix many = new SynergyMatrix(new MatchSimulator(defs), 5L, 150);
+        one.compute(1);
+        many.compute(3);
+        assertEquals(one.report(3), many.report(3));
+    }
+}
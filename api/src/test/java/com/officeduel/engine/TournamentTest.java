@@ -0,0 +1,57 @@
+package com.officeduel.engine;
+
+import com.officeduel.engine.bot.Bots;
+import com.officeduel.engine.loader.CardDefinitionLoader;
+import com.officeduel.engine.rating.Glicko2;
+import com.officeduel.engine.sim.MatchSimulator;
+import com.officeduel.engine.sim.Tournament;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentTest {
+    private MatchSimulator sim;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sim = new MatchSimulator(CardDefinitionLoader.load(Path.of("gameplay cards definition.txt")));
+    }
+
+    private List<Tournament.Entrant> field(String... bots) {
+        return java.util.Arrays.stream(bots).map(b -> new Tournament.Entrant(b, Bots.byName(b, sim.index()))).toList();
+    }
+
+    @Test
+    void roundRobinIsDeterministicAcrossThreadCounts() throws Exception {
+        var serial = new Tournament(sim, field("random", "greedy", "random"), 9L, 30).run(Tournament.Format.ROUND_ROBIN, 2, 1);
+        var parallel = new Tournament(sim, field("random", "greedy", "random"), 9L, 30).run(Tournament.Format.ROUND_ROBIN, 2, 3);
+        assertEquals(Tournament.table(serial), Tournament.table(parallel));
+
+        // Three pairings of 30 games per round, each game counted for both entrants
+        int games = serial.stream().mapToInt(Tournament.Standing::games).sum();
+        assertEquals(2 * 3 * 30 * 2, games);
+        for (Tournament.Standing s : serial) {
+            assertTrue(s.rating().rd() < Glicko2.DEFAULT_RD);
+        }
+    }
+
+    @Test
+    void greedyOutranksRandom() throws Exception {
+        var standings = new Tournament(sim, field("random", "greedy"), 3L, 60).run(Tournament.Format.ROUND_ROBIN, 1, 2);
+        assertEquals("greedy", standings.get(0).name());
+        assertTrue(standings.get(0).rating().r() > standings.get(1).rating().r());
+    }
+
+    @Test
+    void swissGivesTheByeToDifferentEntrants() throws Exception {
+        var standings = new Tournament(sim, field("random", "random", "greedy"), 5L, 10).run(Tournament.Format.SWISS, 3, 2);
+        // Each round one of the three sits out; nobody sits out twice
+        for (Tournament.Standing s : standings) {
+            assertEquals(20, s.games());
+        }
+    }
+}